@@ -1,6 +1,7 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivsupport.events.ActImportOnly;
 import gg.xp.xivsupport.events.actlines.events.RawPlayerChangeEvent;
 import gg.xp.xivsupport.models.XivEntity;
@@ -8,6 +9,7 @@ import org.picocontainer.PicoContainer;
 
 import java.time.ZonedDateTime;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line02Parser extends AbstractACTLineParser<Line02Parser.Fields> implements ActImportOnly {
 
@@ -1,6 +1,7 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivsupport.events.ActImportOnly;
 import gg.xp.xivsupport.events.state.PartyChangeEvent;
 import gg.xp.xivsupport.events.state.RawXivPartyInfo;
@@ -11,6 +12,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line11Parser extends AbstractACTLineParser<Line11Parser.Fields> implements ActImportOnly {
 
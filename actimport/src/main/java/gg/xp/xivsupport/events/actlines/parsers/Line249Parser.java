@@ -1,6 +1,7 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivsupport.events.ActImportOnly;
 import gg.xp.xivsupport.lang.GameLanguage;
 import gg.xp.xivsupport.lang.GameLanguageInfoEvent;
@@ -10,6 +11,7 @@ import java.time.ZonedDateTime;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line249Parser extends AbstractACTLineParser<Line249Parser.Fields> implements ActImportOnly {
 
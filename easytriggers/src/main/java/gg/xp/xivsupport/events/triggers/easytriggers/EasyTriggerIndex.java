@@ -0,0 +1,213 @@
+package gg.xp.xivsupport.events.triggers.easytriggers;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.reevent.events.EventContext;
+import gg.xp.xivsupport.events.actlines.events.HasAbility;
+import gg.xp.xivsupport.events.actlines.events.HasStatusEffect;
+import gg.xp.xivsupport.events.actlines.events.HeadMarkerEvent;
+import gg.xp.xivsupport.events.actlines.events.TetherEvent;
+import gg.xp.xivsupport.events.state.XivState;
+import gg.xp.xivsupport.events.triggers.easytriggers.conditions.AbilityIdFilter;
+import gg.xp.xivsupport.events.triggers.easytriggers.conditions.HeadmarkerAbsoluteIdFilter;
+import gg.xp.xivsupport.events.triggers.easytriggers.conditions.StatusIdFilter;
+import gg.xp.xivsupport.events.triggers.easytriggers.conditions.TetherIdFilter;
+import gg.xp.xivsupport.events.triggers.easytriggers.conditions.ZoneIdFilter;
+import gg.xp.xivsupport.events.triggers.easytriggers.model.Condition;
+import gg.xp.xivsupport.events.triggers.easytriggers.model.EasyTrigger;
+import gg.xp.xivsupport.events.triggers.easytriggers.model.NumericOperator;
+import gg.xp.xivsupport.models.XivZone;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of easy triggers by event type, so that each event is only handed to triggers which could possibly match it.
+ * Triggers with an 'equals' ID condition are additionally skipped when the event's ID does not match. Those still
+ * count the event as a miss, so the hit and miss counts are the same as without the index.
+ * <p>
+ * Triggers whose sequence is currently running still receive every event, since the running sequence may be waiting
+ * for something other than the trigger's event type.
+ * <p>
+ * The event types and the set of conditions are captured when this is built, so it must be rebuilt when those change
+ * (see {@link EasyTrigger#setChangeListener(Runnable)}). The values of the ID conditions, on the other hand, are edited
+ * in place by the GUI, so they are read when each event is checked rather than being used as hash keys.
+ */
+final class EasyTriggerIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(EasyTriggerIndex.class);
+
+	/**
+	 * Conditions that can be turned into a hash lookup, in order of preference.
+	 */
+	private enum KeyType {
+		ABILITY(AbilityIdFilter.class, HasAbility.class),
+		STATUS(StatusIdFilter.class, HasStatusEffect.class),
+		HEADMARKER(HeadmarkerAbsoluteIdFilter.class, HeadMarkerEvent.class),
+		TETHER(TetherIdFilter.class, TetherEvent.class),
+		ZONE(ZoneIdFilter.class, Object.class);
+
+		private final Class<?> conditionClass;
+		private final Class<?> eventClass;
+
+		KeyType(Class<?> conditionClass, Class<?> eventClass) {
+			this.conditionClass = conditionClass;
+			this.eventClass = eventClass;
+		}
+	}
+
+	private record KeyCondition(KeyType type, Condition<?> condition) {
+	}
+
+	private static final KeyCondition[] noKeyConditions = {};
+
+	private final XivState state;
+	private final List<EasyTrigger<?>> triggers;
+	private final KeyCondition[][] keyConditions;
+	private final Map<Class<?>, int[]> byEventClass = new HashMap<>();
+	private final BitSet active = new BitSet();
+	private final BitSet toRun = new BitSet();
+
+	EasyTriggerIndex(XivState state, List<EasyTrigger<?>> triggers) {
+		this.state = state;
+		this.triggers = new ArrayList<>(triggers);
+		keyConditions = new KeyCondition[this.triggers.size()][];
+		for (int i = 0; i < keyConditions.length; i++) {
+			EasyTrigger<?> trigger = this.triggers.get(i);
+			keyConditions[i] = keyConditionsFor(trigger);
+			if (trigger.isSequenceActive()) {
+				active.set(i);
+			}
+		}
+	}
+
+	private static KeyCondition[] keyConditionsFor(EasyTrigger<?> trigger) {
+		List<KeyCondition> out = new ArrayList<>();
+		for (Condition<?> condition : trigger.getConditions()) {
+			for (KeyType type : KeyType.values()) {
+				// Exact class, in case a subclass changes the behavior
+				if (condition.getClass() == type.conditionClass) {
+					out.add(new KeyCondition(type, condition));
+				}
+			}
+		}
+		return out.isEmpty() ? noKeyConditions : out.toArray(KeyCondition[]::new);
+	}
+
+	/**
+	 * @param condition An ID condition
+	 * @return The ID the condition wants, if the condition is currently 'equals', else null
+	 */
+	private static @Nullable Long expectedIfEquals(Condition<?> condition) {
+		NumericOperator operator;
+		long expected;
+		if (condition instanceof AbilityIdFilter f) {
+			operator = f.operator;
+			expected = f.expected;
+		}
+		else if (condition instanceof StatusIdFilter f) {
+			operator = f.operator;
+			expected = f.expected;
+		}
+		else if (condition instanceof HeadmarkerAbsoluteIdFilter f) {
+			operator = f.operator;
+			expected = f.expected;
+		}
+		else if (condition instanceof TetherIdFilter f) {
+			operator = f.operator;
+			expected = f.expected;
+		}
+		else if (condition instanceof ZoneIdFilter f) {
+			operator = f.operator;
+			expected = f.expected;
+		}
+		else {
+			return null;
+		}
+		return operator == NumericOperator.EQ ? expected : null;
+	}
+
+	private int[] candidatesFor(Class<?> eventClass) {
+		return byEventClass.computeIfAbsent(eventClass, cls -> {
+			List<Integer> candidates = new ArrayList<>();
+			for (int i = 0; i < triggers.size(); i++) {
+				Class<?> eventType = triggers.get(i).getEventType();
+				if (eventType != null && eventType.isAssignableFrom(cls)) {
+					candidates.add(i);
+				}
+			}
+			return candidates.stream().mapToInt(Integer::intValue).toArray();
+		});
+	}
+
+	private @Nullable Long eventKey(KeyType type, Event event) {
+		return switch (type) {
+			case ABILITY -> ((HasAbility) event).getAbility().getId();
+			case STATUS -> ((HasStatusEffect) event).getBuff().getId();
+			case HEADMARKER -> ((HeadMarkerEvent) event).getMarkerId();
+			case TETHER -> ((TetherEvent) event).getId();
+			case ZONE -> {
+				XivZone zone = state.getZone();
+				yield zone == null ? null : zone.getId();
+			}
+		};
+	}
+
+	private boolean couldMatch(int index, Event event) {
+		for (KeyCondition kc : keyConditions[index]) {
+			Long expected = expectedIfEquals(kc.condition);
+			if (expected == null) {
+				continue;
+			}
+			if (!kc.type.eventClass.isInstance(event)) {
+				// Shouldn't happen, since the conditions are picked based on the event type, but if it does, just
+				// let the conditions deal with it.
+				continue;
+			}
+			Long actual = eventKey(kc.type, event);
+			// e.g. zone is not known, so a zone filter could not pass
+			if (actual == null || actual.longValue() != expected) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Runs every trigger which could match the event, plus every trigger which has a running sequence, in the same
+	 * order as the original list of triggers.
+	 *
+	 * @param context The event context
+	 * @param event   The event
+	 */
+	void handleEvent(EventContext context, Event event) {
+		toRun.clear();
+		toRun.or(active);
+		for (int i : candidatesFor(event.getClass())) {
+			if (!toRun.get(i)) {
+				if (couldMatch(i, event)) {
+					toRun.set(i);
+				}
+				else {
+					// Still a miss as far as the trigger's stats are concerned
+					triggers.get(i).recordMiss(event);
+				}
+			}
+		}
+		for (int i = toRun.nextSetBit(0); i >= 0; i = toRun.nextSetBit(i + 1)) {
+			EasyTrigger<?> trig = triggers.get(i);
+			try {
+				trig.handleEvent(context, event);
+			}
+			catch (Throwable t) {
+				log.error("Error running easy trigger '{}'", trig.getName(), t);
+			}
+			active.set(i, trig.isSequenceActive());
+		}
+	}
+}
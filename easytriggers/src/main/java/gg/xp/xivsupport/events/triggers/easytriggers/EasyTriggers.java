@@ -104,6 +104,7 @@ import gg.xp.xivsupport.models.CombatantType;
 import gg.xp.xivsupport.models.XivCombatant;
 import gg.xp.xivsupport.persistence.PersistenceProvider;
 import gg.xp.xivsupport.persistence.settings.CustomJsonListSetting;
+import gg.xp.xivsupport.replay.ReplayCheckpointable;
 import org.jetbrains.annotations.Nullable;
 import org.picocontainer.PicoContainer;
 import org.slf4j.Logger;
@@ -115,7 +116,7 @@ import java.util.Collections;
 import java.util.List;
 
 @ScanMe
-public final class EasyTriggers {
+public final class EasyTriggers implements ReplayCheckpointable<Void> {
 	private static final Logger log = LoggerFactory.getLogger(EasyTriggers.class);
 	private static final String settingKey = "easy-triggers.my-triggers";
 	private static final String failedTriggersSettingKey = "easy-triggers.failed-triggers";
@@ -128,6 +129,9 @@ public final class EasyTriggers {
 	private final CustomJsonListSetting<EasyTrigger<?>> setting;
 
 	private ArrayList<EasyTrigger<?>> triggers;
+	private volatile EasyTriggerIndex index;
+	private volatile boolean indexDirty;
+	private final Runnable invalidateIndex = () -> indexDirty = true;
 
 	public EasyTriggers(PicoContainer pico, PersistenceProvider pers, XivState state, EventMaster master) {
 		this.pers = pers;
@@ -217,7 +221,19 @@ public final class EasyTriggers {
 	}
 
 	private void recalc() {
-		triggers.forEach(EasyTrigger::recalc);
+		triggers.forEach(trigger -> {
+			trigger.setChangeListener(invalidateIndex);
+			trigger.recalc();
+		});
+		rebuildIndex();
+	}
+
+	private EasyTriggerIndex rebuildIndex() {
+		// Clear first, so that a change made while building is picked up on the next event
+		indexDirty = false;
+		EasyTriggerIndex index = new EasyTriggerIndex(state, triggers);
+		this.index = index;
+		return index;
 	}
 
 	@HandleEvents
@@ -238,14 +254,9 @@ public final class EasyTriggers {
 				return;
 			}
 		}
-		triggers.forEach(trig -> {
-			try {
-				trig.handleEvent(context, event);
-			}
-			catch (Throwable t) {
-				log.error("Error running easy trigger '{}'", trig.getName(), t);
-			}
-		});
+		// A trigger's event type or conditions were changed in place, e.g. from the GUI, since the last save
+		EasyTriggerIndex index = indexDirty ? rebuildIndex() : this.index;
+		index.handleEvent(context, event);
 	}
 
 	public List<EasyTrigger<?>> getTriggers() {
@@ -263,9 +274,24 @@ public final class EasyTriggers {
 
 	public void removeTrigger(EasyTrigger<?> trigger) {
 		triggers.remove(trigger);
+		trigger.setChangeListener(null);
 		save();
 	}
 
+	@Override
+	public Void saveCheckpoint() {
+		return null;
+	}
+
+	/**
+	 * Triggers are not part of the replayed state, but any actions that are running were started by events after the
+	 * checkpoint, so they are stopped.
+	 */
+	@Override
+	public void restoreCheckpoint(Void saved) {
+		triggers.forEach(EasyTrigger::expireSequence);
+	}
+
 	// Be sure to add new types to EasyTriggersTest
 	// TODO: might be nice to wire some of the "single value replacement" logic from ModifiableCallout into here, to skip the need for .name on everything
 	private final List<EventDescription<?>> eventTypes = new ArrayList<>(List.of(
@@ -13,7 +13,7 @@ public class LogLineNumberFilter implements SimpleCondition<ACTLogLineEvent> {
 
 	@Override
 	public boolean test(ACTLogLineEvent event) {
-		return operator.checkLong(Integer.parseInt(event.getRawFields()[0]), expected);
+		return operator.checkLong(event.getLineNumber(), expected);
 	}
 
 
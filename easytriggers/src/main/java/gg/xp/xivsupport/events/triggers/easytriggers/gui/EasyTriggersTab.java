@@ -97,6 +97,8 @@ public class EasyTriggersTab implements PluginTab {
 //				.addColumn(new CustomColumn<>("Text", EasyTrigger::getText))
 				.addColumn(new CustomColumn<>("Hit", EasyTrigger::getHits, 80))
 				.addColumn(new CustomColumn<>("Miss", EasyTrigger::getMisses, 80))
+				.addColumn(new CustomColumn<>("Hit ms", t -> String.format("%.1f", t.getHitNanos() / 1_000_000.0), 80))
+				.addColumn(new CustomColumn<>("Miss ms", t -> String.format("%.1f", t.getMissNanos() / 1_000_000.0), 80))
 				.build();
 		JTable triggerChooserTable = new JTable(model) {
 			@Override
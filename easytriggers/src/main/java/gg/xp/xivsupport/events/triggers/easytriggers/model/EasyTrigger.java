@@ -8,6 +8,7 @@ import gg.xp.reevent.events.Event;
 import gg.xp.reevent.events.EventContext;
 import gg.xp.xivsupport.events.triggers.seq.SequentialTrigger;
 import gg.xp.xivsupport.events.triggers.seq.SqtTemplates;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +27,10 @@ public class EasyTrigger<X> implements HasMutableConditions<X>, HasMutableAction
 	private long misses;
 	@JsonIgnore
 	private long hits;
+	@JsonIgnore
+	private long missNanos;
+	@JsonIgnore
+	private long hitNanos;
 
 	@JsonProperty(defaultValue = "true")
 	private boolean enabled = true;
@@ -42,6 +47,8 @@ public class EasyTrigger<X> implements HasMutableConditions<X>, HasMutableAction
 	private SequentialTrigger<BaseEvent> sqBase = SqtTemplates.nothing();
 	private SequentialTrigger<BaseEvent> sqCurrent = sqBase;
 	private EasyTriggerContext ctx;
+	@JsonIgnore
+	private @Nullable Runnable changeListener;
 
 	public EasyTrigger() {
 		recalc();
@@ -58,17 +65,47 @@ public class EasyTrigger<X> implements HasMutableConditions<X>, HasMutableAction
 			return;
 		}
 		X typedEvent = eventType.cast(event);
+		long before = System.nanoTime();
 		ctx = new EasyTriggerContext(context, this);
 		if (conditions.stream().allMatch(cond -> cond.test(ctx, typedEvent))) {
 			hits++;
 			sqCurrent = sqBase;
 			sqCurrent.feed(context, (BaseEvent) event);
+			hitNanos += System.nanoTime() - before;
 		}
 		else {
 			misses++;
+			missNanos += System.nanoTime() - before;
+		}
+	}
+
+	/**
+	 * Count an event as a miss without checking the conditions, for when an index has already determined that the
+	 * conditions can't pass. Only the count goes up, since no time was spent on it.
+	 *
+	 * @param event The event
+	 */
+	public void recordMiss(Event event) {
+		if (enabled && event instanceof BaseEvent && eventType != null && eventType.isInstance(event)) {
+			misses++;
 		}
 	}
 
+	/**
+	 * @return Whether this trigger's actions are currently running (e.g. waiting on a delay or another event)
+	 */
+	@JsonIgnore
+	public boolean isSequenceActive() {
+		return sqCurrent.isActive();
+	}
+
+	/**
+	 * Stop this trigger's actions if they are currently running.
+	 */
+	public void expireSequence() {
+		sqCurrent.forceExpire();
+	}
+
 	public void recalc() {
 		makeWritable();
 		conditions.sort(Comparator.comparing(Condition::sortOrder));
@@ -86,6 +123,19 @@ public class EasyTrigger<X> implements HasMutableConditions<X>, HasMutableAction
 				het.setEventType(getEventType());
 			}
 		});
+		Runnable changeListener = this.changeListener;
+		if (changeListener != null) {
+			changeListener.run();
+		}
+	}
+
+	/**
+	 * @param changeListener Called whenever the event type, conditions, or actions of this trigger change. Changes to
+	 *                       the settings of an individual condition or action do not call this.
+	 */
+	@JsonIgnore
+	public void setChangeListener(@Nullable Runnable changeListener) {
+		this.changeListener = changeListener;
 	}
 
 	@Override
@@ -190,6 +240,22 @@ public class EasyTrigger<X> implements HasMutableConditions<X>, HasMutableAction
 		return misses;
 	}
 
+	/**
+	 * @return Total time spent on events which matched this trigger, including starting the actions, in nanoseconds
+	 */
+	public long getHitNanos() {
+		return hitNanos;
+	}
+
+	/**
+	 * @return Total time spent checking conditions for events which did not match this trigger, in nanoseconds. Misses
+	 * which were ruled out by the easy trigger index (see {@link #recordMiss(Event)}) count towards {@link #getMisses()}
+	 * but add no time here.
+	 */
+	public long getMissNanos() {
+		return missNanos;
+	}
+
 	public boolean isEnabled() {
 		return enabled;
 	}
@@ -487,6 +487,78 @@ public class EasyTriggersTest {
 		Assert.assertTrue(gef.test(etc, new EchoEvent("foobar")));
 	}
 
+	@Test
+	void testIndexedTriggers() {
+		MutablePicoContainer pico = ExampleSetup.setup();
+		EventDistributor dist = pico.getComponent(EventDistributor.class);
+		TestEventCollector coll = new TestEventCollector();
+		dist.registerHandler(coll);
+		EasyTriggers ez1 = pico.getComponent(EasyTriggers.class);
+
+		EasyTrigger<AbilityUsedEvent> matching = abilityIdTrigger(NumericOperator.EQ, 123);
+		EasyTrigger<AbilityUsedEvent> other = abilityIdTrigger(NumericOperator.EQ, 456);
+		EasyTrigger<AbilityUsedEvent> notEqual = abilityIdTrigger(NumericOperator.NE, 456);
+		ez1.addTrigger(matching);
+		ez1.addTrigger(other);
+		ez1.addTrigger(notEqual);
+
+		dist.acceptEvent(zoneChange);
+		dist.acceptEvent(abilityUsed1);
+
+		Assert.assertEquals(coll.getEventsOf(CalloutEvent.class).size(), 2);
+		Assert.assertEquals(matching.getHits(), 1);
+		Assert.assertEquals(matching.getMisses(), 0);
+		// Ruled out by the index, since the ability ID does not match, but still counted as a miss
+		Assert.assertEquals(other.getHits(), 0);
+		Assert.assertEquals(other.getMisses(), 1);
+		Assert.assertEquals(other.getMissNanos(), 0);
+		// Can't be indexed
+		Assert.assertEquals(notEqual.getHits(), 1);
+		Assert.assertEquals(notEqual.getMisses(), 0);
+
+		dist.acceptEvent(abilityUsed2);
+		Assert.assertEquals(matching.getMisses(), 1);
+		Assert.assertEquals(other.getHits(), 1);
+		Assert.assertEquals(notEqual.getMisses(), 1);
+		MatcherAssert.assertThat(matching.getHitNanos(), Matchers.greaterThan(0L));
+		MatcherAssert.assertThat(notEqual.getMissNanos(), Matchers.greaterThan(0L));
+
+		// Editing a condition in place (as the GUI does) takes effect immediately, without saving
+		((AbilityIdFilter) other.getConditions().get(0)).expected = 123;
+		dist.acceptEvent(abilityUsed1);
+		Assert.assertEquals(other.getHits(), 2);
+
+		// Same for the operator
+		((AbilityIdFilter) other.getConditions().get(0)).operator = NumericOperator.NE;
+		dist.acceptEvent(abilityUsed2);
+		Assert.assertEquals(other.getHits(), 3);
+
+		// Changing the event type or the conditions themselves also takes effect immediately
+		other.setEventType((Class) EchoEvent.class);
+		dist.acceptEvent(abilityUsed2);
+		Assert.assertEquals(other.getHits(), 3);
+		// Not the right event type, so not a miss either
+		Assert.assertEquals(other.getMisses(), 1);
+		other.setEventType(AbilityUsedEvent.class);
+		other.removeCondition(other.getConditions().get(0));
+		dist.acceptEvent(abilityUsed1);
+		Assert.assertEquals(other.getHits(), 4);
+	}
+
+	private static EasyTrigger<AbilityUsedEvent> abilityIdTrigger(NumericOperator operator, long id) {
+		EasyTrigger<AbilityUsedEvent> trigger = new EasyTrigger<>();
+		AbilityIdFilter cond = new AbilityIdFilter();
+		cond.operator = operator;
+		cond.expected = id;
+		trigger.setEventType(AbilityUsedEvent.class);
+		trigger.addCondition(cond);
+		CalloutAction call = new CalloutAction();
+		call.setText("{event.getAbility().getId()}");
+		call.setTts("{event.getAbility().getId()}");
+		trigger.addAction(call);
+		return trigger;
+	}
+
 	// This test is obsolete, see EasyTriggersPersistenceTest2
 //	@Test
 //	void testLegacyMigration() {
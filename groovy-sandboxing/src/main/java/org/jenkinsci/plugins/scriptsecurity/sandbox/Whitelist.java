@@ -65,6 +65,18 @@ public abstract class Whitelist {
 
 	public abstract boolean permitsStaticFieldSet(@NotNull Field field, @Nullable Object value);
 
+	/**
+	 * Whether the sandbox may cache decisions about methods and field reads.
+	 * <p>Only return true if {@link #permitsMethod}, {@link #permitsStaticMethod} and {@link #permitsFieldGet} depend
+	 * solely on the member and the classes of the receiver and arguments, not on their values or on any state that
+	 * can change later. To change the rules of a cacheable whitelist, give the sandbox a new whitelist instance.
+	 *
+	 * @return true to allow caching
+	 */
+	public boolean permitsCaching() {
+		return false;
+	}
+
 	//    /**
 //     * Checks for all whitelists registered as {@link Extension}s and aggregates them.
 //     * @return an aggregated default list
@@ -0,0 +1,112 @@
+package org.jenkinsci.plugins.scriptsecurity.sandbox.groovy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.Whitelist;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+/**
+ * Remembers the decisions of a whitelist which {@link Whitelist#permitsCaching() permits caching}, per member, then per
+ * receiver and argument classes.
+ * <p>
+ * Each sandbox whitelist gets its own instance, so swapping the whitelist discards everything that was cached.
+ */
+final class CachingWhitelist extends Whitelist {
+
+	/**
+	 * Upper bound on cached decisions per declaring class.
+	 */
+	private static final int MAX_CACHED_PER_CLASS = 1024;
+
+	private final Whitelist delegate;
+	// Attached to the member's declaring class, so that script classes can still be unloaded
+	private final ClassValue<Cache<CallSiteKey, Boolean>> decisions = new ClassValue<>() {
+		@Override
+		protected Cache<CallSiteKey, Boolean> computeValue(Class<?> type) {
+			return Caffeine.newBuilder().maximumSize(MAX_CACHED_PER_CLASS).build();
+		}
+	};
+
+	private CachingWhitelist(Whitelist delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @param whitelist The whitelist to wrap
+	 * @return A caching wrapper, or the original whitelist if it does not permit caching
+	 */
+	static @Nullable Whitelist wrap(@Nullable Whitelist whitelist) {
+		if (whitelist == null || whitelist instanceof CachingWhitelist || !whitelist.permitsCaching()) {
+			return whitelist;
+		}
+		return new CachingWhitelist(whitelist);
+	}
+
+	private boolean cached(Member member, @Nullable Class<?> receiver, Object[] args, Decision decision) {
+		Cache<CallSiteKey, Boolean> cache = decisions.get(member.getDeclaringClass());
+		CallSiteKey key = new CallSiteKey(member, receiver, args);
+		Boolean result = cache.getIfPresent(key);
+		if (result == null) {
+			result = decision.permits();
+			cache.put(key, result);
+		}
+		return result;
+	}
+
+	private interface Decision {
+		boolean permits();
+	}
+
+	@Override
+	public boolean permitsMethod(@NotNull Method method, @NotNull Object receiver, @NotNull Object[] args) {
+		return cached(method, receiver.getClass(), args, () -> delegate.permitsMethod(method, receiver, args));
+	}
+
+	@Override
+	public boolean permitsStaticMethod(@NotNull Method method, @NotNull Object[] args) {
+		return cached(method, null, args, () -> delegate.permitsStaticMethod(method, args));
+	}
+
+	@Override
+	public boolean permitsFieldGet(@NotNull Field field, @NotNull Object receiver) {
+		return cached(field, receiver.getClass(), new Object[0], () -> delegate.permitsFieldGet(field, receiver));
+	}
+
+	// The rest are either rare or look at values, so they always go to the delegate
+
+	@Override
+	public boolean permitsConstructor(@NotNull Constructor<?> constructor, @NotNull Object[] args) {
+		return delegate.permitsConstructor(constructor, args);
+	}
+
+	@Override
+	public boolean permitsFieldSet(@NotNull Field field, @NotNull Object receiver, @Nullable Object value) {
+		return delegate.permitsFieldSet(field, receiver, value);
+	}
+
+	@Override
+	public boolean permitsStaticFieldGet(@NotNull Field field) {
+		return delegate.permitsStaticFieldGet(field);
+	}
+
+	@Override
+	public boolean permitsStaticFieldSet(@NotNull Field field, @Nullable Object value) {
+		return delegate.permitsStaticFieldSet(field, value);
+	}
+
+	@Override
+	public boolean permitsCaching() {
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "CachingWhitelist(" + delegate + ')';
+	}
+}
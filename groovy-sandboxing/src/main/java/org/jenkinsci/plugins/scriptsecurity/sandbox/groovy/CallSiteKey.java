@@ -0,0 +1,68 @@
+package org.jenkinsci.plugins.scriptsecurity.sandbox.groovy;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Cache key for a call site: a member or member name, plus the classes of the receiver and arguments.
+ * Only the parts of the arguments that {@link GroovyCallSiteSelector} actually looks at go into the key.
+ */
+final class CallSiteKey {
+
+	/** Marker for a null argument. */
+	private static final Object NULL_ARG = new Object();
+	/** Marker for a {@link Long} argument that could be safely narrowed to an int. */
+	private static final Object INT_RANGE_LONG = new Object();
+
+	private final @NotNull Object target;
+	private final @Nullable Class<?> receiver;
+	private final @NotNull Object[] argTypes;
+	private final int hash;
+
+	CallSiteKey(@NotNull Object target, @Nullable Class<?> receiver, @NotNull Object[] args) {
+		this.target = target;
+		this.receiver = receiver;
+		this.argTypes = argTypes(args);
+		this.hash = 31 * (31 * target.hashCode() + Objects.hashCode(receiver)) + Arrays.hashCode(argTypes);
+	}
+
+	private static Object[] argTypes(Object[] args) {
+		Object[] types = new Object[args.length];
+		for (int i = 0; i < args.length; i++) {
+			Object arg = args[i];
+			if (arg == null) {
+				types[i] = NULL_ARG;
+			}
+			else if (arg instanceof Long && (Long) arg >= Integer.MIN_VALUE && (Long) arg <= Integer.MAX_VALUE) {
+				types[i] = INT_RANGE_LONG;
+			}
+			else {
+				types[i] = arg.getClass();
+			}
+		}
+		return types;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CallSiteKey)) {
+			return false;
+		}
+		CallSiteKey other = (CallSiteKey) o;
+		return hash == other.hash
+				&& receiver == other.receiver
+				&& target.equals(other.target)
+				&& Arrays.equals(argTypes, other.argTypes);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
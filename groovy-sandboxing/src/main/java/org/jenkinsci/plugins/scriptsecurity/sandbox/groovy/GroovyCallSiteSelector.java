@@ -24,6 +24,8 @@
 
 package org.jenkinsci.plugins.scriptsecurity.sandbox.groovy;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import groovy.lang.Closure;
 import groovy.lang.GString;
 import groovy.lang.GroovyInterceptable;
@@ -42,7 +44,9 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Assists in determination of which method or other JVM element is actually about to be called by Groovy.
@@ -52,6 +56,39 @@ import java.util.Set;
  */
 class GroovyCallSiteSelector {
 
+	/**
+	 * Upper bound on cached call sites per class. Keys can refer to script classes via argument types, so this keeps a
+	 * long session of recompiled scripts from growing the caches without limit.
+	 */
+	private static final int MAX_CACHED_PER_CLASS = 1024;
+
+	// Caches are attached to the receiver class via ClassValue, so they go away along with the class, even though
+	// the cached members refer back to it.
+	private static final ClassValue<Cache<CallSiteKey, Optional<Method>>> methodCache = cachePerClass();
+	private static final ClassValue<Cache<CallSiteKey, Optional<Method>>> staticMethodCache = cachePerClass();
+	private static final ClassValue<Cache<String, Optional<Field>>> fieldCache = cachePerClass();
+	private static final ClassValue<Cache<String, Optional<Field>>> staticFieldCache = cachePerClass();
+
+	private static <K, V> ClassValue<Cache<K, V>> cachePerClass() {
+		return new ClassValue<>() {
+			@Override
+			protected Cache<K, V> computeValue(Class<?> type) {
+				return Caffeine.newBuilder().maximumSize(MAX_CACHED_PER_CLASS).build();
+			}
+		};
+	}
+
+	// Lookups can recurse (e.g. GroovyInterceptable redirects to invokeMethod), so these deliberately do not use
+	// Cache.get(key, function). Two threads resolving the same call site at once will just both do the work.
+	private static <K, V> @Nullable V cached(Cache<K, Optional<V>> cache, K key, Supplier<@Nullable V> resolver) {
+		Optional<V> result = cache.getIfPresent(key);
+		if (result == null) {
+			result = Optional.ofNullable(resolver.get());
+			cache.put(key, result);
+		}
+		return result.orElse(null);
+	}
+
 	private static boolean matches(@NotNull Class<?>[] parameterTypes, @NotNull Object[] parameters, boolean varargs) {
 		if (varargs) {
 			parameters = parametersForVarargs(parameterTypes, parameters);
@@ -170,6 +207,11 @@ class GroovyCallSiteSelector {
 	 * @param args     a set of actual arguments
 	 */
 	public static @Nullable Method method(@NotNull Object receiver, @NotNull String method, @NotNull Object[] args) {
+		CallSiteKey key = new CallSiteKey(method, null, args);
+		return cached(methodCache.get(receiver.getClass()), key, () -> resolveMethod(receiver, method, args));
+	}
+
+	private static @Nullable Method resolveMethod(@NotNull Object receiver, @NotNull String method, @NotNull Object[] args) {
 		Set<Class<?>> types = types(receiver);
 		if (types.contains(GroovyInterceptable.class) && !"invokeMethod".equals(method)) {
 			return method(receiver, "invokeMethod", new Object[]{method, args});
@@ -218,7 +260,8 @@ class GroovyCallSiteSelector {
 	}
 
 	public static @Nullable Method staticMethod(@NotNull Class<?> receiver, @NotNull String method, @NotNull Object[] args) {
-		return findMatchingMethod(receiver, method, args);
+		CallSiteKey key = new CallSiteKey(method, null, args);
+		return cached(staticMethodCache.get(receiver), key, () -> findMatchingMethod(receiver, method, args));
 	}
 
 	private static Method findMatchingMethod(@NotNull Class<?> receiver, @NotNull String method, @NotNull Object[] args) {
@@ -271,6 +314,10 @@ class GroovyCallSiteSelector {
 	}
 
 	public static @Nullable Field field(@NotNull Object receiver, @NotNull String field) {
+		return cached(fieldCache.get(receiver.getClass()), field, () -> resolveField(receiver, field));
+	}
+
+	private static @Nullable Field resolveField(@NotNull Object receiver, @NotNull String field) {
 		for (Class<?> c : types(receiver)) {
 			for (Field f : c.getDeclaredFields()) {
 				if (f.getName().equals(field)) {
@@ -282,6 +329,10 @@ class GroovyCallSiteSelector {
 	}
 
 	public static @Nullable Field staticField(@NotNull Class<?> receiver, @NotNull String field) {
+		return cached(staticFieldCache.get(receiver), field, () -> resolveStaticField(receiver, field));
+	}
+
+	private static @Nullable Field resolveStaticField(@NotNull Class<?> receiver, @NotNull String field) {
 		for (Field f : receiver.getDeclaredFields()) {
 			if (f.getName().equals(field)) {
 				return f;
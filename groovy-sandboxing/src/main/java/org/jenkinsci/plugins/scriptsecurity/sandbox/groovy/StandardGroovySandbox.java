@@ -59,11 +59,13 @@ public class StandardGroovySandbox implements GroovySandbox {
 	/**
 	 * Specify a whitelist.
 	 * By default {@link Whitelist#all} is used.
+	 * If the whitelist {@link Whitelist#permitsCaching() permits caching}, its decisions are cached until the next
+	 * call to this method.
 	 *
 	 * @return {@code this}
 	 */
 	public StandardGroovySandbox withWhitelist(@Nullable Whitelist whitelist) {
-		this.whitelist = whitelist;
+		this.whitelist = CachingWhitelist.wrap(whitelist);
 		return this;
 	}
 
@@ -44,6 +44,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -63,6 +64,22 @@ public final class StaticWhitelist extends EnumeratingWhitelist {
 			"staticMethod java.lang.System exit int",
 	};
 
+	/**
+	 * Names of every permanently blacklisted method, so that the sandbox can skip building a signature for the vast
+	 * majority of calls.
+	 */
+	private static final Set<String> PERMANENTLY_BLACKLISTED_METHOD_NAMES = methodNames(PERMANENTLY_BLACKLISTED_METHODS, PERMANENTLY_BLACKLISTED_STATIC_METHODS);
+
+	private static Set<String> methodNames(String[]... signatureLists) {
+		Set<String> names = new HashSet<>();
+		for (String[] signatures : signatureLists) {
+			for (String signature : signatures) {
+				names.add(signature.split(" ")[2]);
+			}
+		}
+		return Collections.unmodifiableSet(names);
+	}
+
 	private static final String[] PERMANENTLY_BLACKLISTED_CONSTRUCTORS = {
 			"new org.kohsuke.groovy.sandbox.impl.Checker$SuperConstructorWrapper java.lang.Object[]",
 			"new org.kohsuke.groovy.sandbox.impl.Checker$ThisConstructorWrapper java.lang.Object[]"
@@ -113,6 +130,9 @@ public final class StaticWhitelist extends EnumeratingWhitelist {
 	 * Returns true if the given method is permanently blacklisted in {@link #PERMANENTLY_BLACKLISTED_METHODS}
 	 */
 	public static boolean isPermanentlyBlacklistedMethod(@NotNull Method m) {
+		if (!PERMANENTLY_BLACKLISTED_METHOD_NAMES.contains(m.getName())) {
+			return false;
+		}
 		String signature = canonicalMethodSig(m);
 		return asList(PERMANENTLY_BLACKLISTED_METHODS).contains(signature);
 	}
@@ -121,6 +141,9 @@ public final class StaticWhitelist extends EnumeratingWhitelist {
 	 * Returns true if the given method is permanently blacklisted in {@link #PERMANENTLY_BLACKLISTED_STATIC_METHODS}
 	 */
 	public static boolean isPermanentlyBlacklistedStaticMethod(@NotNull Method m) {
+		if (!PERMANENTLY_BLACKLISTED_METHOD_NAMES.contains(m.getName())) {
+			return false;
+		}
 		String signature = canonicalStaticMethodSig(m);
 		return asList(PERMANENTLY_BLACKLISTED_STATIC_METHODS).contains(signature);
 	}
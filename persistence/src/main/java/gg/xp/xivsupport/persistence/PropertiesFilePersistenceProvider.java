@@ -1,112 +1,390 @@
 package gg.xp.xivsupport.persistence;
 
 import gg.xp.xivsupport.persistence.settings.BooleanSetting;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
+/**
+ * Settings stored in a properties file.
+ * <p>
+ * Changes are not written out one at a time. Changes made within a short window (see {@link #DEFAULT_WRITE_DELAY_MS})
+ * are collected and appended to a journal file next to the properties file as a single entry. Once the journal gets
+ * large enough, or on {@link #flush()}, or when the JVM shuts down, the whole properties file (and its backup) is
+ * rewritten and the journal is deleted. The properties file is replaced atomically, so it is never left half-written.
+ * Any journal entries left over (e.g. after a crash) are applied when the file is next loaded, unless the file was
+ * rewritten after they were (each carries a generation number, which goes up each time the file is rewritten).
+ */
 public class PropertiesFilePersistenceProvider extends BaseStringPersistenceProvider {
 
 	private static final Logger log = LoggerFactory.getLogger(PropertiesFilePersistenceProvider.class);
-	private static final ExecutorService exs = Executors.newSingleThreadExecutor();
+	// Use -DsettingsWriteDelayMs=N to change how long to wait for more changes before writing
+	private static final long DEFAULT_WRITE_DELAY_MS = Long.getLong("settingsWriteDelayMs", 500);
+	// Rewrite the whole file once the journal is bigger than this
+	private static final long MAX_JOURNAL_BYTES = 64 * 1024;
+	private static final String JOURNAL_COMMIT = "#commit";
+	// Both the properties file and each journal entry are stamped with this. A journal entry only applies to the file
+	// generation it was written on top of (or a later one, if the file could not be written).
+	private static final String GENERATION_PREFIX = "#generation=";
+	private static final ScheduledExecutorService exs = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "SettingsWriter");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final Set<PropertiesFilePersistenceProvider> instances = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			List<PropertiesFilePersistenceProvider> all;
+			synchronized (instances) {
+				all = new ArrayList<>(instances);
+			}
+			for (PropertiesFilePersistenceProvider provider : all) {
+				try {
+					provider.flushIfNeeded();
+				}
+				catch (Throwable t) {
+					log.error("Error saving settings on shutdown for {}", provider.file, t);
+				}
+			}
+		}, "SettingsShutdownFlush"));
+	}
+
 	private final Properties properties;
 	private final File file;
 	private final File backupFile;
+	private final File journalFile;
 	private final boolean canBeReadOnly;
+	private final long writeDelayMs;
 	private final BooleanSetting readOnlySetting;
-	private boolean readOnly;
+	private volatile boolean readOnly;
+
+	// Changes not yet on disk. Null value = deleted.
+	private final Object pendingLock = new Object();
+	private Map<String, @Nullable String> pending = new LinkedHashMap<>();
+	private boolean compactPending;
+	private @Nullable ScheduledFuture<?> scheduledWrite;
 
+	// Only one write to disk at a time
+	private final Object writeLock = new Object();
+	private long journalBytes;
+	private long generation;
 
 	public PropertiesFilePersistenceProvider(File file) {
 		this(file, false);
 	}
 
 	public PropertiesFilePersistenceProvider(File file, boolean canBeReadOnly) {
+		this(file, canBeReadOnly, DEFAULT_WRITE_DELAY_MS);
+	}
+
+	/**
+	 * @param file          The properties file
+	 * @param canBeReadOnly Whether the 'read-only-settings' setting is honored
+	 * @param writeDelayMs  How long to wait for more changes before writing changes to disk
+	 */
+	public PropertiesFilePersistenceProvider(File file, boolean canBeReadOnly, long writeDelayMs) {
 		this.canBeReadOnly = canBeReadOnly;
 		this.file = file;
+		this.writeDelayMs = writeDelayMs;
 		this.backupFile = Paths.get(file.getParentFile().toPath().toString(), file.getName() + ".backup").toFile();
+		this.journalFile = Paths.get(file.getParentFile().toPath().toString(), file.getName() + ".journal").toFile();
 		Properties properties = new Properties();
 		try {
-			try (FileInputStream stream = new FileInputStream(file)) {
-				properties.load(stream);
-			}
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			properties.load(new ByteArrayInputStream(bytes));
+			Long fileGeneration = findGeneration(new String(bytes, StandardCharsets.ISO_8859_1));
+			generation = fileGeneration == null ? 0 : fileGeneration;
 		}
-		catch (FileNotFoundException e) {
+		catch (NoSuchFileException e) {
 			log.info("Properties file does not yet exist");
 		}
 		catch (IOException e) {
 			throw new RuntimeException("Could not load properties", e);
 		}
+		replayJournal(properties);
 		this.properties = properties;
-		writeChangesToDisk();
+		instances.add(this);
+		// Always write once at startup, which also folds in anything from the journal
+		requestCompaction();
 		this.readOnlySetting = new BooleanSetting(this, "read-only-settings", false);
 		this.readOnlySetting.addListener(this::checkReadOnlySetting);
 		readOnly = this.canBeReadOnly && readOnlySetting.get();
 	}
 
-	private void checkReadOnlySetting() {
-		writeChangesToDisk();
-		readOnly = canBeReadOnly && readOnlySetting.get();
-		writeChangesToDisk();
+	private void replayJournal(Properties properties) {
+		if (!journalFile.exists()) {
+			return;
+		}
+		String journal;
+		try {
+			// Properties.store escapes anything outside of ISO-8859-1
+			journal = Files.readString(journalFile.toPath(), StandardCharsets.ISO_8859_1);
+		}
+		catch (IOException e) {
+			log.error("Could not read settings journal, recent changes may be lost", e);
+			return;
+		}
+		int applied = 0;
+		int skipped = 0;
+		StringBuilder entry = new StringBuilder();
+		for (String line : journal.split("\n", -1)) {
+			if (line.strip().equals(JOURNAL_COMMIT)) {
+				Long entryGeneration = findGeneration(entry.toString());
+				if (entryGeneration != null && entryGeneration < generation) {
+					// Already in the file - the file was rewritten, but the journal was not deleted
+					skipped++;
+					entry.setLength(0);
+					continue;
+				}
+				Properties changes = new Properties();
+				try {
+					changes.load(new StringReader(entry.toString()));
+				}
+				catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+				// '+value' for a new value, '-' for a deletion
+				changes.forEach((key, value) -> {
+					String str = (String) value;
+					if (str.startsWith("+")) {
+						properties.setProperty((String) key, str.substring(1));
+					}
+					else {
+						properties.remove(key);
+					}
+				});
+				applied++;
+				entry.setLength(0);
+			}
+			else {
+				entry.append(line).append('\n');
+			}
+		}
+		if (!entry.toString().isBlank()) {
+			log.warn("Settings journal ended with an incomplete entry, ignoring it");
+		}
+		log.info("Applied {} settings journal entries, skipped {} older than the file", applied, skipped);
 	}
 
-	private Future<?> writeChangesToDisk() {
-		if (readOnly) {
-			log.info("Not Saving Settings - Read Only");
-			return CompletableFuture.completedFuture(null);
+	private static @Nullable Long findGeneration(String text) {
+		for (String line : text.split("\n")) {
+			line = line.strip();
+			if (line.startsWith(GENERATION_PREFIX)) {
+				try {
+					return Long.parseLong(line.substring(GENERATION_PREFIX.length()));
+				}
+				catch (NumberFormatException e) {
+					log.warn("Bad settings generation line: {}", line);
+					return null;
+				}
+			}
 		}
-		return exs.submit(() -> {
-			try {
-				log.trace("Saving Persistent Settings");
-				File parentFile = file.getParentFile();
-				if (parentFile != null) {
-					parentFile.mkdirs();
+		return null;
+	}
+
+	private void checkReadOnlySetting() {
+		// Done on the writer thread so that the caller (usually the UI) doesn't wait on disk
+		exs.execute(() -> {
+			synchronized (writeLock) {
+				boolean newValue = canBeReadOnly && readOnlySetting.get();
+				if (newValue == readOnly) {
+					return;
 				}
-				try (FileOutputStream stream = new FileOutputStream(file)) {
-					properties.store(stream, "Saved programmatically - close program before editing");
+				if (newValue) {
+					// Make sure the setting itself gets saved before turning read-only on
+					writeNow(false);
+					readOnly = true;
 				}
-				if (!backupFile.exists()) {
-					if (!backupFile.createNewFile()) {
-						throw new RuntimeException("Could not create backup file");
-					}
+				else {
+					// Changes made while read-only were dropped, so the whole file needs to be written
+					readOnly = false;
+					requestCompaction();
 				}
-				try (FileOutputStream stream = new FileOutputStream(backupFile)) {
-					properties.store(stream, "Saved programmatically - backup file");
+			}
+		});
+	}
+
+	private void changed(String key, @Nullable String value) {
+		synchronized (pendingLock) {
+			pending.put(key, value);
+			scheduleWrite();
+		}
+	}
+
+	private void requestCompaction() {
+		synchronized (pendingLock) {
+			compactPending = true;
+			scheduleWrite();
+		}
+	}
+
+	private void scheduleWrite() {
+		if (scheduledWrite == null) {
+			scheduledWrite = exs.schedule(() -> writeNow(false), writeDelayMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Write anything that has changed.
+	 *
+	 * @param compact true to always rewrite the whole file, false to only append to the journal if possible
+	 */
+	private void writeNow(boolean compact) {
+		synchronized (writeLock) {
+			Map<String, @Nullable String> changes;
+			synchronized (pendingLock) {
+				changes = pending;
+				pending = new LinkedHashMap<>();
+				compact |= compactPending;
+				compactPending = false;
+				if (scheduledWrite != null) {
+					scheduledWrite.cancel(false);
+					scheduledWrite = null;
+				}
+			}
+			if (readOnly) {
+				log.info("Not Saving Settings - Read Only");
+				return;
+			}
+			try {
+				if (compact || (!changes.isEmpty() && journalBytes >= MAX_JOURNAL_BYTES)) {
+					compact();
+				}
+				else if (!changes.isEmpty()) {
+					appendToJournal(changes);
 				}
 			}
 			catch (IOException e) {
 				log.error("Error saving properties! Changes may not be saved!", e);
 			}
-		});
+		}
+	}
+
+	private void appendToJournal(Map<String, @Nullable String> changes) throws IOException {
+		log.trace("Saving {} settings changes", changes.size());
+		Properties entry = new Properties();
+		changes.forEach((key, value) -> entry.setProperty(key, value == null ? "-" : '+' + value));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write((GENERATION_PREFIX + generation + '\n').getBytes(StandardCharsets.ISO_8859_1));
+		entry.store(out, null);
+		out.write((JOURNAL_COMMIT + '\n').getBytes(StandardCharsets.ISO_8859_1));
+		byte[] bytes = out.toByteArray();
+		// One write, so that an entry is either all there or missing its commit line
+		try (FileOutputStream stream = new FileOutputStream(journalFile, true)) {
+			stream.write(bytes);
+		}
+		journalBytes += bytes.length;
+	}
+
+	private void compact() throws IOException {
+		log.trace("Saving Persistent Settings");
+		File parentFile = file.getParentFile();
+		if (parentFile != null) {
+			parentFile.mkdirs();
+		}
+		// If this fails part way, journal entries from the old generation still apply to the new one
+		generation++;
+		writeAtomically(file, "Saved programmatically - close program before editing");
+		// Everything in the journal is in the file now. If the journal can't be deleted (or we die before deleting
+		// it), the generation tells the next load to skip it.
+		Files.deleteIfExists(journalFile.toPath());
+		journalBytes = 0;
+		writeAtomically(backupFile, "Saved programmatically - backup file");
 	}
 
+	private void writeAtomically(File target, String comment) throws IOException {
+		File temp = Files.createTempFile(target.getParentFile().toPath(), target.getName(), ".tmp").toFile();
+		try {
+			try (FileOutputStream stream = new FileOutputStream(temp)) {
+				properties.store(stream, comment + '\n' + GENERATION_PREFIX.substring(1) + generation);
+				stream.getFD().sync();
+			}
+			try {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException e) {
+			Files.deleteIfExists(temp.toPath());
+			throw e;
+		}
+	}
+
+	/**
+	 * Write all changes to the properties file now, rather than waiting.
+	 */
 	public void flush() {
-		Future<?> future = writeChangesToDisk();
 		try {
-			future.get(10, TimeUnit.SECONDS);
+			writeNow(true);
 		}
-		catch (InterruptedException | ExecutionException | TimeoutException e) {
+		catch (RuntimeException e) {
 			log.error("ERROR SAVING SETTINGS - CHANGES MAY NOT BE SAVED TO DISK!", e);
+			throw e;
+		}
+	}
+
+	private void flushIfNeeded() {
+		synchronized (writeLock) {
+			boolean needed;
+			synchronized (pendingLock) {
+				needed = compactPending || !pending.isEmpty();
+			}
+			if (needed || journalFile.exists()) {
+				writeNow(true);
+			}
+		}
+	}
+
+	/**
+	 * Write any pending changes to the journal now, without rewriting the properties file unless the journal is
+	 * already full.
+	 */
+	void writePendingNow() {
+		writeNow(false);
+	}
+
+	/**
+	 * Wait for anything already handed to the writer thread (e.g. turning read-only on or off) to finish.
+	 */
+	void awaitWriter() {
+		try {
+			exs.submit(() -> {
+			}).get();
+		}
+		catch (InterruptedException | ExecutionException e) {
 			throw new RuntimeException(e);
 		}
 	}
@@ -116,14 +394,14 @@ public class PropertiesFilePersistenceProvider extends BaseStringPersistenceProv
 		String truncated = StringUtils.abbreviate(value, 300);
 		log.info("Setting changed: {} -> {}", key, truncated);
 		properties.setProperty(key, value);
-		writeChangesToDisk();
+		changed(key, value);
 	}
 
 	@Override
 	protected void deleteValue(@NotNull String key) {
 		log.info("Setting deleted: {}", key);
 		properties.remove(key);
-		writeChangesToDisk();
+		changed(key, null);
 	}
 
 	public BooleanSetting getReadOnlySetting() {
@@ -139,7 +417,10 @@ public class PropertiesFilePersistenceProvider extends BaseStringPersistenceProv
 	protected void clearAllValues() {
 		log.info("Settings wiped");
 		properties.clear();
-		writeChangesToDisk();
+		synchronized (pendingLock) {
+			pending.clear();
+		}
+		requestCompaction();
 	}
 
 	public void writeDatedBackupFile() {
@@ -8,6 +8,9 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 public class PersistenceTests {
@@ -74,4 +77,93 @@ public class PersistenceTests {
 		testPersistenceRead(new PropertiesFilePersistenceProvider(new File("target/testdata/foo.properties")));
 	}
 
+	@Test
+	public void testJournalReplay() throws IOException {
+		File file = new File("target/testdata/journal.properties");
+		File journal = new File("target/testdata/journal.properties.journal");
+		Files.deleteIfExists(file.toPath());
+		Files.deleteIfExists(journal.toPath());
+		// Long delay so that nothing is written unless asked for
+		PropertiesFilePersistenceProvider persistence = new PropertiesFilePersistenceProvider(file, false, 60_000);
+		persistence.flush();
+		Assert.assertFalse(journal.exists());
+
+		persistence.save("Kept", "Original");
+		persistence.save("Changed", "Before");
+		persistence.save("Deleted", "Foo");
+		persistence.writePendingNow();
+		persistence.save("Changed", "After \u2728\nSecond line");
+		persistence.delete("Deleted");
+		persistence.writePendingNow();
+		Assert.assertTrue(journal.exists());
+		// A partly-written entry (e.g. from a crash) should be ignored
+		Files.writeString(journal.toPath(), "Kept=+Partial\n", StandardOpenOption.APPEND);
+
+		// Without flushing, as if the program was killed
+		PropertiesFilePersistenceProvider reloaded = new PropertiesFilePersistenceProvider(file, false, 60_000);
+		Assert.assertEquals(reloaded.get("Kept", String.class, null), "Original");
+		Assert.assertEquals(reloaded.get("Changed", String.class, null), "After \u2728\nSecond line");
+		Assert.assertNull(reloaded.get("Deleted", String.class, null));
+
+		reloaded.flush();
+		Assert.assertFalse(journal.exists());
+		Assert.assertEquals(new PropertiesFilePersistenceProvider(file).get("Changed", String.class, null), "After \u2728\nSecond line");
+	}
+
+	@Test
+	public void testFileNewerThanJournal() throws IOException {
+		File file = new File("target/testdata/newer.properties");
+		File journal = new File("target/testdata/newer.properties.journal");
+		Files.deleteIfExists(file.toPath());
+		Files.deleteIfExists(journal.toPath());
+		PropertiesFilePersistenceProvider persistence = new PropertiesFilePersistenceProvider(file, false, 60_000);
+		persistence.flush();
+
+		persistence.save("Foo", "Old");
+		persistence.writePendingNow();
+		byte[] oldJournal = Files.readAllBytes(journal.toPath());
+		persistence.save("Foo", "New");
+		persistence.flush();
+		Assert.assertFalse(journal.exists());
+		// As if the program died after rewriting the file, but before deleting the journal
+		Files.write(journal.toPath(), oldJournal);
+
+		PropertiesFilePersistenceProvider reloaded = new PropertiesFilePersistenceProvider(file, false, 60_000);
+		Assert.assertEquals(reloaded.get("Foo", String.class, null), "New");
+
+		// Entries written after the file still apply
+		reloaded.save("Foo", "Newer");
+		reloaded.writePendingNow();
+		Assert.assertEquals(new PropertiesFilePersistenceProvider(file, false, 60_000).get("Foo", String.class, null), "Newer");
+	}
+
+	@Test
+	public void testReadOnly() throws IOException {
+		File file = new File("target/testdata/readonly.properties");
+		File journal = new File("target/testdata/readonly.properties.journal");
+		Files.deleteIfExists(file.toPath());
+		Files.deleteIfExists(journal.toPath());
+		PropertiesFilePersistenceProvider persistence = new PropertiesFilePersistenceProvider(file, true, 60_000);
+		persistence.save("Foo", "Before");
+		persistence.flush();
+
+		BooleanSetting readOnly = persistence.getReadOnlySetting();
+		readOnly.set(true);
+		persistence.awaitWriter();
+		persistence.save("Foo", "While read-only");
+		persistence.flush();
+		// The read-only setting itself is saved, but nothing after it
+		PropertiesFilePersistenceProvider reloaded = new PropertiesFilePersistenceProvider(file, true, 60_000);
+		Assert.assertEquals(reloaded.get("Foo", String.class, null), "Before");
+		Assert.assertEquals(reloaded.get("read-only-settings", Boolean.class, null), Boolean.TRUE);
+
+		// Turning it back off should write everything, including changes made while it was on
+		readOnly.set(false);
+		persistence.awaitWriter();
+		persistence.flush();
+		reloaded = new PropertiesFilePersistenceProvider(file, true, 60_000);
+		Assert.assertEquals(reloaded.get("Foo", String.class, null), "While read-only");
+		Assert.assertEquals(reloaded.get("read-only-settings", Boolean.class, null), Boolean.FALSE);
+	}
+
 }
@@ -0,0 +1,55 @@
+package gg.xp.xivsupport.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * 10,000 setting changes spread over 200 keys (like dragging sliders or toggling lots of callouts), written behind
+ * and coalesced, versus rewriting (and syncing) the whole file after every change.
+ */
+public class PropertiesFilePersistencePerf {
+
+	private static final Logger log = LoggerFactory.getLogger(PropertiesFilePersistencePerf.class);
+	private static final int changes = 10_000;
+	private static final int keys = 200;
+
+	@Test
+	void tenThousandChanges() throws IOException {
+		for (int round = 1; round <= 3; round++) {
+			timeIt("Write-behind, round " + round, false);
+		}
+		// Much slower, so only once
+		timeIt("Rewrite every change", true);
+	}
+
+	private static void timeIt(String label, boolean flushEveryChange) throws IOException {
+		File file = new File("target/testdata/perf.properties");
+		Files.deleteIfExists(file.toPath());
+		Files.deleteIfExists(new File("target/testdata/perf.properties.journal").toPath());
+		PropertiesFilePersistenceProvider persistence = new PropertiesFilePersistenceProvider(file, false, 20);
+		// Start with a realistically-sized file
+		for (int i = 0; i < 2000; i++) {
+			persistence.save("some.other.setting." + i, "value " + i);
+		}
+		persistence.flush();
+		long before = System.currentTimeMillis();
+		for (int i = 0; i < changes; i++) {
+			persistence.save("slider." + (i % keys), i);
+			if (flushEveryChange) {
+				persistence.flush();
+			}
+		}
+		persistence.flush();
+		long delta = System.currentTimeMillis() - before;
+		log.info("Timing for {}: {} ms", label, delta);
+		PropertiesFilePersistenceProvider reloaded = new PropertiesFilePersistenceProvider(file);
+		int lastValue = reloaded.get("slider." + (keys - 1), int.class, 0);
+		Assert.assertEquals(lastValue, changes - 1);
+	}
+}
@@ -8,6 +8,7 @@ import gg.xp.reevent.topology.TopologyInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -43,6 +44,7 @@ public class AutoEventDistributor extends BasicEventDistributor {
 		this.handlers.addAll(handlers);
 		sortHandlers();
 		topology = Topology.fromHandlers(new ArrayList<>(this.handlers), topoInfo);
+		precomputeDispatchTables();
 		isLoaded = true;
 	}
 
@@ -52,17 +54,44 @@ public class AutoEventDistributor extends BasicEventDistributor {
 		eventClassMap.clear();
 	}
 
+	/**
+	 * Returns the dispatch table for the concrete class of this event. The table is built once per class (and thrown
+	 * away whenever handlers change), and contains only handlers whose type matches, so {@link AutoHandler}s are
+	 * swapped for their {@link AutoHandler#getPrecheckedHandler() pre-checked} variants.
+	 */
 	@Override
 	protected List<EventHandler<Event>> getHandlersForEvent(Event event) {
-		Class<? extends Event> eventClass = event.getClass();
-		return eventClassMap.computeIfAbsent(eventClass, cls -> handlers.stream().filter(eh -> {
+		return eventClassMap.computeIfAbsent(event.getClass(), this::buildDispatchTable);
+	}
+
+	private List<EventHandler<Event>> buildDispatchTable(Class<? extends Event> eventClass) {
+		return handlers.stream().filter(eh -> {
 			if (eh instanceof TypedEventHandler<Event> teh) {
 				return teh.getType().isAssignableFrom(eventClass);
 			}
 			else {
 				return true;
 			}
-		}).sorted(Comparator.comparing(EventHandler::getOrder)).toList());
+		}).sorted(Comparator.comparing(EventHandler::getOrder)).map(eh -> {
+			if (eh instanceof AutoHandler ah) {
+				return ah.getPrecheckedHandler();
+			}
+			else {
+				return eh;
+			}
+		}).toList();
+	}
+
+	// Build tables up front for the event types that handlers ask for directly, so that the first instance of each
+	// common event doesn't pay for it.
+	private void precomputeDispatchTables() {
+		handlers.stream()
+				.filter(TypedEventHandler.class::isInstance)
+				.map(eh -> ((TypedEventHandler<?>) eh).getType())
+				.filter(cls -> !cls.isInterface() && !Modifier.isAbstract(cls.getModifiers()))
+				.distinct()
+				.forEach(cls -> eventClassMap.computeIfAbsent(cls, this::buildDispatchTable));
+		log.info("Precomputed {} dispatch tables", eventClassMap.size());
 	}
 
 	public Topology getTopology() {
@@ -15,7 +15,6 @@ import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BasicEventDistributor implements EventDistributor {
 
@@ -30,6 +29,7 @@ public class BasicEventDistributor implements EventDistributor {
 
 	private final StateStore state;
 	private EventQueue queue;
+	private final ThreadLocal<DispatchContext> dispatchContexts = ThreadLocal.withInitial(DispatchContext::new);
 
 	public BasicEventDistributor(StateStore state) {
 		this.state = state;
@@ -69,7 +69,25 @@ public class BasicEventDistributor implements EventDistributor {
 
 	@Override
 	public void acceptEvent(Event event) {
-		Queue<Event> eventsForImmediateProcessing = new ArrayDeque<>();
+		DispatchContext ctx = dispatchContexts.get();
+		if (ctx.inUse) {
+			// Re-entrant call (a handler calling acceptEvent directly) - can't share the thread's context
+			ctx = new DispatchContext();
+		}
+		ctx.inUse = true;
+		try {
+			dispatch(ctx, event);
+		}
+		finally {
+			ctx.eventsForImmediateProcessing.clear();
+			ctx.current = null;
+			ctx.handler = null;
+			ctx.inUse = false;
+		}
+	}
+
+	private void dispatch(DispatchContext ctx, Event event) {
+		Queue<Event> eventsForImmediateProcessing = ctx.eventsForImmediateProcessing;
 		eventsForImmediateProcessing.add(event);
 		int count = 0;
 		Event next;
@@ -92,78 +110,29 @@ public class BasicEventDistributor implements EventDistributor {
 			if (handlersTmp.isEmpty()) {
 				log.warn("No handlers for event {}!", event);
 			}
+			ctx.current = current;
 			for (EventHandler<Event> handler : handlersTmp) {
 				log.trace("Sending event {} to handler {} with {} immediate events", current, handler, eventsForImmediateProcessing.size());
 				boolean enableProfiling = this.enableProfiling;
 				LongSummaryStatistics stats = enableProfiling ? executionTimes.computeIfAbsent(handler, unused -> new LongSummaryStatistics()) : null;
-				AtomicBoolean isDone = new AtomicBoolean();
 				long timeBefore = enableProfiling ? System.nanoTime() : 0;
+				ctx.handler = handler;
+				HandlerContext handlerContext = new HandlerContext(ctx, ctx.open());
 				try {
-					handler.handle(
-							new EventContext() {
-								@Override
-								public void accept(Event e) {
-									if (isDone.get()) {
-										throw new IllegalStateException("You must submit new events at the time when the event handler is called. If you need async behavior, submit a new event for later processing.");
-									}
-									if (e == current) {
-										log.error("Event {} was re-submitted by {}!", e, handler);
-									}
-									else {
-										if (e.delayedEnqueueAt() > 0) {
-											log.error("You called 'accept' on an event ({}) with a delayed enqueue - you probably meant to 'queue' it instead.", e.getClass().getSimpleName(), new RuntimeException("Dummy Exception to Generate Stack Trace"));
-										}
-										e.setParent(current);
-										e.setEnqueuedAt(TimeUtils.now());
-										e.setSourceEventHandler(handler);
-										e.setHappenedAt(current.getHappenedAt());
-										log.trace("Event {} triggered new event {}", current, e);
-										eventsForImmediateProcessing.add(e);
-									}
-								}
-
-								@Override
-								public void enqueue(Event e) {
-									if (isDone.get()) {
-										// TODO: should this be the case? There should be no harm in enqueuing an event later.
-										throw new IllegalStateException("You must submit new events at the time when the event handler is called. If you need async behavior, submit a new event for later processing.");
-									}
-									if (queue != null) {
-										if (e == current) {
-											log.error("Event {} was re-submitted by {}!", e, handler);
-										}
-										else {
-											e.setParent(current);
-											e.setSourceEventHandler(handler);
-											queue.push(e);
-										}
-									}
-									else {
-										throw new IllegalStateException("Cannot push to queue if there is no queue attached to this distributor");
-									}
-								}
-
-								@Override
-								public StateStore getStateInfo() {
-									if (isDone.get()) {
-										throw new IllegalStateException("You must get state info at the time when the event handler is called. If you need async behavior, either immediately submit a new event for later processing, or snapshot the needed data timeBefore exiting your handler method.");
-									}
-									return state;
-								}
-							}, current);
-					isDone.set(true);
+					handler.handle(handlerContext, current);
 					log.trace("Sent event {} to handler {}, now with {} immediate events", current, handler, eventsForImmediateProcessing.size());
 				}
 				catch (Throwable t) {
 					log.error("Error pumping event {} into handler {}", event, handler, t);
 				}
+				finally {
+					ctx.close();
+				}
 				if (enableProfiling) {
 					long timeAfter = System.nanoTime();
 					long delta = timeAfter - timeBefore;
-//				if (delta > 100) {
 					stats.accept(delta);
 				}
-//				}
 			}
 			if (updateTimes) {
 				current.setPumpFinishedAt(TimeUtils.now());
@@ -171,6 +140,100 @@ public class BasicEventDistributor implements EventDistributor {
 		}
 	}
 
+	/**
+	 * One of these is reused for every event on a given thread, rather than allocating a new queue per event.
+	 * <p>
+	 * The generation counter is bumped when a handler starts and again when it returns. Each handler is given its own
+	 * {@link HandlerContext} which remembers the generation it was handed out in, so a context which is used after its
+	 * handler has returned is rejected, even while some other handler is running.
+	 */
+	private static final class DispatchContext {
+		private final Queue<Event> eventsForImmediateProcessing = new ArrayDeque<>();
+		// Only touched by the owning thread
+		private boolean inUse;
+		private Event current;
+		private EventHandler<?> handler;
+		private volatile long generation;
+
+		private long open() {
+			return ++generation;
+		}
+
+		private void close() {
+			generation++;
+		}
+	}
+
+	/**
+	 * The context given to a single handler invocation. This is as small as possible, since one is allocated for each
+	 * handler call - everything else lives in the {@link DispatchContext}.
+	 * <p>
+	 * This one allocation can't be avoided without losing the stale context check. A handler can keep its context (e.g.
+	 * for a sequential trigger) and use it after returning. If every handler were given the same object, there would be
+	 * no way to tell such a call apart from one made by whichever handler is currently running.
+	 */
+	private final class HandlerContext implements EventContext {
+		private final DispatchContext ctx;
+		private final long generation;
+
+		private HandlerContext(DispatchContext ctx, long generation) {
+			this.ctx = ctx;
+			this.generation = generation;
+		}
+
+		private void checkActive(String message) {
+			if (ctx.generation != generation) {
+				throw new IllegalStateException(message);
+			}
+		}
+
+		@Override
+		public void accept(Event e) {
+			checkActive("You must submit new events at the time when the event handler is called. If you need async behavior, submit a new event for later processing.");
+			Event current = ctx.current;
+			if (e == current) {
+				log.error("Event {} was re-submitted by {}!", e, ctx.handler);
+			}
+			else {
+				if (e.delayedEnqueueAt() > 0) {
+					log.error("You called 'accept' on an event ({}) with a delayed enqueue - you probably meant to 'queue' it instead.", e.getClass().getSimpleName(), new RuntimeException("Dummy Exception to Generate Stack Trace"));
+				}
+				e.setParent(current);
+				e.setEnqueuedAt(TimeUtils.now());
+				e.setSourceEventHandler(ctx.handler);
+				e.setHappenedAt(current.getHappenedAt());
+				log.trace("Event {} triggered new event {}", current, e);
+				ctx.eventsForImmediateProcessing.add(e);
+			}
+		}
+
+		@Override
+		public void enqueue(Event e) {
+			// TODO: should this be the case? There should be no harm in enqueuing an event later.
+			checkActive("You must submit new events at the time when the event handler is called. If you need async behavior, submit a new event for later processing.");
+			if (queue != null) {
+				Event current = ctx.current;
+				if (e == current) {
+					log.error("Event {} was re-submitted by {}!", e, ctx.handler);
+				}
+				else {
+					e.setParent(current);
+					e.setSourceEventHandler(ctx.handler);
+					queue.push(e);
+				}
+			}
+			else {
+				throw new IllegalStateException("Cannot push to queue if there is no queue attached to this distributor");
+			}
+		}
+
+		@Override
+		public StateStore getStateInfo() {
+			checkActive("You must get state info at the time when the event handler is called. If you need async behavior, either immediately submit a new event for later processing, or snapshot the needed data timeBefore exiting your handler method.");
+			return state;
+		}
+	}
+
 	public Map<EventHandler<?>, LongSummaryStatistics> getTimeStats() {
 		// Map.ofEntries((autoEventDistributor.getTimeStats().entrySet().stream().filter(e -> e.getValue().getSum() > 100_000_000).toArray(Map.Entry[]::new)))
 		return Collections.unmodifiableMap(executionTimes);
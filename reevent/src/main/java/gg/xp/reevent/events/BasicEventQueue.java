@@ -1,18 +1,11 @@
 package gg.xp.reevent.events;
 
 import gg.xp.reevent.time.TimeUtils;
-import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Deque;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ThreadFactory;
 
 public class BasicEventQueue implements EventQueue {
 
@@ -20,14 +13,7 @@ public class BasicEventQueue implements EventQueue {
 	private static final Logger log = LoggerFactory.getLogger(BasicEventQueue.class);
 	private final Deque<Tracker> backingQueue = new ArrayDeque<>();
 	private final Object queueLock = new Object();
-	private final List<Event> delayedEvents = new ArrayList<>();
-	private volatile boolean delayedEventsDirtyFlag;
-	private static final ThreadFactory delayedEventProcessorThreadFactory = new BasicThreadFactory.Builder()
-			.daemon(true)
-			.namingPattern("DelayedEventThread-%d")
-			.build();
-	private final Thread delayedEventProcessor = delayedEventProcessorThreadFactory.newThread(this::delayedEventProcessingLoop);
-	private final Object delayedEventsLock = new Object();
+	private final DelayedEventScheduler delayedEvents = new DelayedEventScheduler(this::pushDelayed);
 
 	private class Tracker {
 		private final Event event;
@@ -80,7 +66,21 @@ public class BasicEventQueue implements EventQueue {
 			}
 		}
 		else {
-			queueDelayedEvent(event);
+			delayedEvents.schedule(event);
+		}
+	}
+
+	private void pushDelayed(Event event) {
+		if (event.delayedEnqueueAtFront()) {
+			event.setEnqueuedAt(TimeUtils.now());
+			Tracker tracker = new Tracker(event);
+			synchronized (queueLock) {
+				backingQueue.addFirst(tracker);
+				queueLock.notifyAll();
+			}
+		}
+		else {
+			push(event);
 		}
 	}
 
@@ -114,6 +114,16 @@ public class BasicEventQueue implements EventQueue {
 		}
 	}
 
+	@Override
+	public DelayedEventStats getDelayedEventStats() {
+		return delayedEvents;
+	}
+
+	@Override
+	public int clearDelayed() {
+		return delayedEvents.clear();
+	}
+
 	// Should only be used for testing, or maybe hot reloads
 	// TODO: problem here is that it waits for queue to be empty, but doesn't wait for current
 	// event to be fully processed. This probably needs to be on EventMaster.
@@ -131,67 +141,5 @@ public class BasicEventQueue implements EventQueue {
 		}
 	}
 
-	private void queueDelayedEvent(Event event) {
-		long delta = event.delayedEnqueueAt() - System.currentTimeMillis();
-		log.info("Queueing delayed event for execution in {}ms: {}", delta, event);
-		if (delayedEventProcessor.getState() == Thread.State.NEW) {
-			delayedEventProcessor.start();
-		}
-		else if (delayedEventProcessor.getState() == Thread.State.TERMINATED) {
-			throw new RuntimeException("Delayed event processing thread is dead! This event will never be processed.");
-		}
-		synchronized (delayedEventsLock) {
-			delayedEvents.add(event);
-			delayedEventsDirtyFlag = true;
-			delayedEventsLock.notifyAll();
-		}
-	}
-
-	private void delayedEventProcessingLoop() {
-		while (true) {
-			try {
-				synchronized (delayedEventsLock) {
-					if (delayedEventsDirtyFlag) {
-						delayedEvents.sort(Comparator.comparing(Event::delayedEnqueueAt));
-					}
-					Event current;
-					Iterator<Event> iterator = delayedEvents.iterator();
-					long currentTime = System.currentTimeMillis();
-					while (iterator.hasNext()) {
-						current = iterator.next();
-						if (current.delayedEnqueueAt() <= currentTime) {
-							log.info("Delayed event {} is ready to go", current);
-							push(current);
-							iterator.remove();
-						}
-						else {
-							break;
-						}
-					}
-					delayedEventsDirtyFlag = false;
-					if (delayedEvents.isEmpty()) {
-						delayedEventsLock.wait(10000);
-					}
-					else {
-						long delta = delayedEvents.get(0).delayedEnqueueAt() - currentTime;
-						if (delta > 0) {
-							delayedEventsLock.wait(delta);
-						}
-					}
-				}
-			}
-			catch (Throwable t) {
-				log.error("Error processing events in delayed event processing thread.", t);
-				try {
-					//noinspection BusyWait
-					Thread.sleep(10000);
-				}
-				catch (InterruptedException e) {
-					// ignore
-				}
-			}
-		}
-	}
-
 
 }
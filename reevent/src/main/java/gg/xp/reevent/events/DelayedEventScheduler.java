@@ -0,0 +1,155 @@
+package gg.xp.reevent.events;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Holds events whose {@link Event#delayedEnqueueAt()} is in the future, and hands them back to the owning queue
+ * once they are due.
+ * <p>
+ * Pending events are kept in a heap keyed on their due time, so scheduling is O(log n) and the processing thread only
+ * ever needs to look at the head.
+ */
+public class DelayedEventScheduler implements DelayedEventStats {
+
+	private static final Logger log = LoggerFactory.getLogger(DelayedEventScheduler.class);
+	private static final ThreadFactory delayedEventProcessorThreadFactory = new BasicThreadFactory.Builder()
+			.daemon(true)
+			.namingPattern("DelayedEventThread-%d")
+			.build();
+
+	private record ScheduledEvent(Event event, long runAt, long seq) {
+	}
+
+	// Ties are broken by scheduling order, so events due at the same time come out in the order they went in
+	private final PriorityQueue<ScheduledEvent> delayedEvents = new PriorityQueue<>(
+			Comparator.comparingLong(ScheduledEvent::runAt).thenComparingLong(ScheduledEvent::seq));
+	private final Thread delayedEventProcessor = delayedEventProcessorThreadFactory.newThread(this::delayedEventProcessingLoop);
+	private final Object delayedEventsLock = new Object();
+	private final Consumer<Event> onReady;
+
+	private final AtomicLong totalScheduled = new AtomicLong();
+	private final LongSummaryStatistics lateness = new LongSummaryStatistics();
+	private long seq;
+
+	/**
+	 * @param onReady Called (on the delayed event thread) when an event is due to be enqueued.
+	 */
+	public DelayedEventScheduler(Consumer<Event> onReady) {
+		this.onReady = onReady;
+	}
+
+	public void schedule(Event event) {
+		long runAt = event.delayedEnqueueAt();
+		long delta = runAt - System.currentTimeMillis();
+		log.info("Queueing delayed event for execution in {}ms: {}", delta, event);
+		if (delayedEventProcessor.getState() == Thread.State.NEW) {
+			delayedEventProcessor.start();
+		}
+		else if (delayedEventProcessor.getState() == Thread.State.TERMINATED) {
+			throw new RuntimeException("Delayed event processing thread is dead! This event will never be processed.");
+		}
+		totalScheduled.incrementAndGet();
+		synchronized (delayedEventsLock) {
+			ScheduledEvent scheduled = new ScheduledEvent(event, runAt, seq++);
+			delayedEvents.add(scheduled);
+			// Only need to wake the processing thread if this changes when it next needs to wake up
+			if (delayedEvents.peek() == scheduled) {
+				delayedEventsLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Drop every event which is not yet due. Events already handed to the owning queue are not affected.
+	 *
+	 * @return The number of events dropped
+	 */
+	public int clear() {
+		synchronized (delayedEventsLock) {
+			int count = delayedEvents.size();
+			delayedEvents.clear();
+			if (count > 0) {
+				log.info("Dropped {} pending delayed events", count);
+			}
+			return count;
+		}
+	}
+
+	private void delayedEventProcessingLoop() {
+		List<ScheduledEvent> ready = new ArrayList<>();
+		while (true) {
+			try {
+				synchronized (delayedEventsLock) {
+					long currentTime = System.currentTimeMillis();
+					ScheduledEvent head;
+					while ((head = delayedEvents.peek()) != null && head.runAt() <= currentTime) {
+						ready.add(delayedEvents.poll());
+						lateness.accept(currentTime - head.runAt());
+					}
+					if (ready.isEmpty()) {
+						if (head == null) {
+							delayedEventsLock.wait(10000);
+						}
+						else {
+							delayedEventsLock.wait(head.runAt() - currentTime);
+						}
+						continue;
+					}
+				}
+				// Hand off outside the lock, so that scheduling new events is never blocked on the target queue
+				for (ScheduledEvent scheduled : ready) {
+					log.info("Delayed event {} is ready to go", scheduled.event());
+					try {
+						onReady.accept(scheduled.event());
+					}
+					catch (Throwable t) {
+						log.error("Error enqueueing delayed event {}", scheduled.event(), t);
+					}
+				}
+				ready.clear();
+			}
+			catch (Throwable t) {
+				log.error("Error processing events in delayed event processing thread.", t);
+				try {
+					//noinspection BusyWait
+					Thread.sleep(10000);
+				}
+				catch (InterruptedException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	@Override
+	public int getPendingCount() {
+		synchronized (delayedEventsLock) {
+			return delayedEvents.size();
+		}
+	}
+
+	@Override
+	public long getTotalScheduled() {
+		return totalScheduled.get();
+	}
+
+	@Override
+	public LongSummaryStatistics getLateness() {
+		LongSummaryStatistics copy = new LongSummaryStatistics();
+		synchronized (delayedEventsLock) {
+			copy.combine(lateness);
+		}
+		return copy;
+	}
+}
@@ -0,0 +1,22 @@
+package gg.xp.reevent.events;
+
+import java.util.LongSummaryStatistics;
+
+public interface DelayedEventStats {
+
+	/**
+	 * @return The number of delayed events which are not yet due.
+	 */
+	int getPendingCount();
+
+	/**
+	 * @return The total number of delayed events that have ever been scheduled.
+	 */
+	long getTotalScheduled();
+
+	/**
+	 * @return How late (in milliseconds) delayed events were when they were actually released, relative to
+	 * {@link Event#delayedEnqueueAt()}. This is a snapshot.
+	 */
+	LongSummaryStatistics getLateness();
+}
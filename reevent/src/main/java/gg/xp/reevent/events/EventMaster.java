@@ -2,11 +2,13 @@ package gg.xp.reevent.events;
 
 import gg.xp.reevent.state.QueueState;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
 
 public class EventMaster {
 
@@ -57,7 +59,12 @@ public class EventMaster {
 		stop = true;
 	}
 
-	private Runnable drainCallback;
+	private volatile Runnable drainCallback;
+	// The callback only runs once this event has been pulled, so that other events (e.g. delayed ones) finishing
+	// before it has even been pushed can't trigger it early
+	private volatile @Nullable Event drainAfter;
+	// Only used on the pump thread
+	private boolean drainArmed;
 
 	private void eventLoop() {
 		log.info("Starting event loop");
@@ -76,6 +83,10 @@ public class EventMaster {
 			log.error("Error pulling event", t);
 			return;
 		}
+		if (event == drainAfter) {
+			drainAfter = null;
+			drainArmed = true;
+		}
 		try {
 			eventDistributor.acceptEvent(event);
 		}
@@ -83,7 +94,8 @@ public class EventMaster {
 			log.error("Error pumping event {}", event, t);
 		}
 		Runnable dc = drainCallback;
-		if (dc != null && queue.pendingSize() == 0) {
+		if (drainArmed && dc != null && queue.pendingSize() == 0) {
+			drainArmed = false;
 			drainCallback = null;
 			try {
 				dc.run();
@@ -101,6 +113,7 @@ public class EventMaster {
 	public void pushEventAndWait(Event event) {
 		CountDownLatch latch = new CountDownLatch(1);
 		drainCallback = latch::countDown;
+		drainAfter = event;
 		queue.push(event);
 		try {
 			latch.await();
@@ -110,6 +123,57 @@ public class EventMaster {
 		}
 	}
 
+	/**
+	 * Equivalent to calling {@link #pushEventAndWait(Event)} for each event from the supplier, until it returns null.
+	 * Each event is only pushed once everything it caused has been processed, but rather than waking up the calling
+	 * thread in between, the pump thread asks the supplier for the next event itself.
+	 * <p>
+	 * The supplier is called on the pump thread (except for the first call), so it must not block. Returning null
+	 * ends the batch, after which this method returns.
+	 *
+	 * @param events Supplies events in order, returning null when there are no more (or none are ready yet)
+	 * @return The number of events pushed
+	 */
+	public int pushEventsAndWait(Supplier<@Nullable Event> events) {
+		Event first = events.get();
+		if (first == null) {
+			return 0;
+		}
+		CountDownLatch latch = new CountDownLatch(1);
+		int[] count = {1};
+		drainCallback = new Runnable() {
+			@Override
+			public void run() {
+				Event next;
+				try {
+					next = events.get();
+				}
+				catch (Throwable t) {
+					latch.countDown();
+					throw t;
+				}
+				if (next == null) {
+					latch.countDown();
+				}
+				else {
+					count[0]++;
+					drainCallback = this;
+					drainAfter = next;
+					queue.push(next);
+				}
+			}
+		};
+		drainAfter = first;
+		queue.push(first);
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		return count[0];
+	}
+
 	@SuppressWarnings({"BusyWait", "InfiniteLoopStatement"})
 	public void monitorQueueSize() {
 		log.info("Queue monitor started. Current size: {}", queue.pendingSize());
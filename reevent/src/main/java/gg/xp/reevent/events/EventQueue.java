@@ -1,5 +1,7 @@
 package gg.xp.reevent.events;
 
+import org.jetbrains.annotations.Nullable;
+
 public interface EventQueue {
 
 	void push(Event event);
@@ -8,6 +10,24 @@ public interface EventQueue {
 
 	int pendingSize();
 
+	/**
+	 * @return Metrics for events pushed with a future {@link Event#delayedEnqueueAt()}, or null if this queue does not
+	 * track them.
+	 */
+	default @Nullable DelayedEventStats getDelayedEventStats() {
+		return null;
+	}
+
+	/**
+	 * Drop events pushed with a future {@link Event#delayedEnqueueAt()} which are not yet due, e.g. when a replay
+	 * seeks and they no longer belong anywhere.
+	 *
+	 * @return The number of events dropped
+	 */
+	default int clearDelayed() {
+		return 0;
+	}
+
 	// Should only be used for testing, or maybe hot reloads
 	// TODO: problem here is that it waits for queue to be empty, but doesn't wait for current
 	// event to be fully processed. This probably needs to be on EventMaster.
@@ -0,0 +1,140 @@
+package gg.xp.reevent.events;
+
+import gg.xp.reevent.time.TimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Alternative to {@link BasicEventQueue} which does not take a lock on push or pull.
+ * <p>
+ * Any number of threads may push, but only one thread (the event pump) may pull. The consumer parks when the queue is
+ * empty, and producers only unpark it if it is actually parked, so the common case of a busy pump involves no
+ * blocking or syscalls on either side.
+ */
+public class LockFreeEventQueue implements EventQueue {
+
+	private static final Logger log = LoggerFactory.getLogger(LockFreeEventQueue.class);
+	private static final long maxParkNanos = TimeUnit.SECONDS.toNanos(5);
+	private static final long maxDrainParkNanos = TimeUnit.SECONDS.toNanos(1);
+
+	private final Deque<Event> backingQueue = new ConcurrentLinkedDeque<>();
+	// Incremented before the event becomes visible, so this may briefly over-count but will never under-count.
+	private final AtomicInteger size = new AtomicInteger();
+	private final Queue<Thread> drainWaiters = new ConcurrentLinkedQueue<>();
+	private final DelayedEventScheduler delayedEvents = new DelayedEventScheduler(this::pushDelayed);
+
+	private volatile Thread consumer;
+	private volatile boolean consumerParked;
+
+	@Override
+	public void push(Event event) {
+		long runAt = event.delayedEnqueueAt();
+		if (runAt == 0 || runAt <= System.currentTimeMillis()) {
+			event.setEnqueuedAt(TimeUtils.now());
+			size.incrementAndGet();
+			backingQueue.addLast(event);
+			wakeConsumer();
+		}
+		else {
+			delayedEvents.schedule(event);
+		}
+	}
+
+	private void pushDelayed(Event event) {
+		if (event.delayedEnqueueAtFront()) {
+			event.setEnqueuedAt(TimeUtils.now());
+			size.incrementAndGet();
+			backingQueue.addFirst(event);
+			wakeConsumer();
+		}
+		else {
+			push(event);
+		}
+	}
+
+	private void wakeConsumer() {
+		if (consumerParked) {
+			LockSupport.unpark(consumer);
+		}
+	}
+
+	@Override
+	public Event pull() {
+		Thread self = Thread.currentThread();
+		Thread existing = consumer;
+		if (existing != self) {
+			if (existing != null && existing.isAlive()) {
+				log.error("LockFreeEventQueue is single-consumer, but {} is pulling while {} is still alive", self, existing);
+			}
+			consumer = self;
+		}
+		while (true) {
+			Event event = backingQueue.pollFirst();
+			if (event != null) {
+				return taken(event);
+			}
+			consumerParked = true;
+			// Re-check after publishing the parked flag, otherwise a push between the poll above and the flag
+			// being set would not unpark us.
+			event = backingQueue.pollFirst();
+			if (event != null) {
+				consumerParked = false;
+				return taken(event);
+			}
+			LockSupport.parkNanos(this, maxParkNanos);
+			consumerParked = false;
+		}
+	}
+
+	private Event taken(Event event) {
+		if (size.decrementAndGet() == 0) {
+			Thread waiter;
+			while ((waiter = drainWaiters.poll()) != null) {
+				LockSupport.unpark(waiter);
+			}
+		}
+		return event;
+	}
+
+	@Override
+	public int pendingSize() {
+		return size.get();
+	}
+
+	@Override
+	public DelayedEventStats getDelayedEventStats() {
+		return delayedEvents;
+	}
+
+	@Override
+	public int clearDelayed() {
+		return delayedEvents.clear();
+	}
+
+	// Should only be used for testing, or maybe hot reloads
+	// TODO: problem here is that it waits for queue to be empty, but doesn't wait for current
+	// event to be fully processed. This probably needs to be on EventMaster.
+	@Override
+	public void waitDrain() {
+		Thread self = Thread.currentThread();
+		while (pendingSize() > 0) {
+			drainWaiters.add(self);
+			// Same idea as in pull() - the consumer may have drained the queue before we registered
+			if (pendingSize() > 0) {
+				LockSupport.parkNanos(this, maxDrainParkNanos);
+			}
+			drainWaiters.remove(self);
+			if (Thread.interrupted()) {
+				throw new RuntimeException(new InterruptedException());
+			}
+		}
+	}
+}
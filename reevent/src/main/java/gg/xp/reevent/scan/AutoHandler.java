@@ -4,6 +4,7 @@ import gg.xp.reevent.events.Event;
 import gg.xp.reevent.events.EventContext;
 import gg.xp.reevent.events.EventHandler;
 import gg.xp.reevent.events.TypedEventHandler;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +17,9 @@ public class AutoHandler implements TypedEventHandler<Event> {
 	private static final Logger log = LoggerFactory.getLogger(AutoHandler.class);
 
 	private final Method method;
+	private final HandlerInvoker invoker;
+	private final @Nullable FilteredEventHandler filter;
+	private final EventHandler<Event> prechecked = new PrecheckedHandler();
 	private final String methodLabel;
 	private final String extraLabel;
 	private final Object clazzInstance;
@@ -69,6 +73,8 @@ public class AutoHandler implements TypedEventHandler<Event> {
 
 		}
 		this.clazzInstance = clazzInstance;
+		this.invoker = HandlerInvoker.forMethod(method);
+		this.filter = clazzInstance instanceof FilteredEventHandler feh ? feh : null;
 		HandleEvents annotation = this.method.getAnnotation(HandleEvents.class);
 		if (annotation != null) {
 			order = annotation.order();
@@ -134,16 +140,26 @@ public class AutoHandler implements TypedEventHandler<Event> {
 
 	@Override
 	public void handle(EventContext context, Event event) {
-		if (!enabled) {
+		if (!eventClass.isInstance(event)) {
 			return;
 		}
-		if (!eventClass.isInstance(event)) {
+		dispatch(context, event);
+	}
+
+	/**
+	 * @return A view of this handler which skips the event type check. Only for use by callers which have already
+	 * filtered events by {@link #getType()}, such as the per-class dispatch tables in AutoEventDistributor.
+	 */
+	public EventHandler<Event> getPrecheckedHandler() {
+		return prechecked;
+	}
+
+	private void dispatch(EventContext context, Event event) {
+		if (!enabled) {
 			return;
 		}
-		if (clazzInstance instanceof FilteredEventHandler feh) {
-			if (!feh.enabled(context)) {
-				return;
-			}
+		if (filter != null && !filter.enabled(context)) {
+			return;
 		}
 		if (config.isNotLive() && onlyInLive) {
 			if (!warnedAboutTestOnlySkip) {
@@ -153,13 +169,30 @@ public class AutoHandler implements TypedEventHandler<Event> {
 			return;
 		}
 		try {
-			method.invoke(clazzInstance, context, event);
+			invoker.invoke(clazzInstance, context, event);
 		}
 		catch (Throwable e) {
 			log.error("Error invoking trigger method {}", methodLabel, e);
 		}
 	}
 
+	private final class PrecheckedHandler implements EventHandler<Event> {
+		@Override
+		public void handle(EventContext context, Event event) {
+			dispatch(context, event);
+		}
+
+		@Override
+		public int getOrder() {
+			return order;
+		}
+
+		@Override
+		public String toString() {
+			return AutoHandler.this.toString();
+		}
+	}
+
 	@Override
 	public Class<? extends Event> getType() {
 		return eventClass;
@@ -7,6 +7,7 @@ import java.util.List;
 public class AutoHandlerConfig {
 	private boolean isNotLive;
 	private List<URL> addonJars = Collections.emptyList();
+	private boolean useHandlerIndex = !Boolean.getBoolean("reevent.ignoreHandlerIndex");
 
 	public boolean isNotLive() {
 		return isNotLive;
@@ -23,4 +24,16 @@ public class AutoHandlerConfig {
 	public void setAddonJars(List<URL> addonJars) {
 		this.addonJars = addonJars;
 	}
+
+	/**
+	 * @return Whether {@link AutoHandlerScan} should use build-time {@link HandlerIndex}es where available, rather
+	 * than scanning everything. Defaults to true unless the 'reevent.ignoreHandlerIndex' system property is set.
+	 */
+	public boolean isUseHandlerIndex() {
+		return useHandlerIndex;
+	}
+
+	public void setUseHandlerIndex(boolean useHandlerIndex) {
+		this.useHandlerIndex = useHandlerIndex;
+	}
 }
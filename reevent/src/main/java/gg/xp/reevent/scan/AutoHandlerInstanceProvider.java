@@ -1,9 +1,23 @@
 package gg.xp.reevent.scan;
 
+import java.util.Collection;
+
 public interface AutoHandlerInstanceProvider {
 
 	<X> X getInstance(Class<X> clazz);
 
 	void preAdd(Class<?> clazz);
 
+	/**
+	 * Add all of these classes, and create an instance of each, so that {@link #getInstance(Class)} is cheap afterwards.
+	 * The default implementation simply calls {@link #preAdd(Class)} for each class, and then
+	 * {@link #getInstance(Class)} for each class, one at a time.
+	 *
+	 * @param classes The classes
+	 */
+	default void preloadAll(Collection<Class<?>> classes) {
+		classes.forEach(this::preAdd);
+		classes.forEach(this::getInstance);
+	}
+
 }
@@ -12,10 +12,14 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -70,7 +74,6 @@ public class AutoHandlerScan {
 	}
 
 	public List<AutoHandler> build() {
-		log.info("Scanning packages");
 		List<AutoHandler> out = new ArrayList<>();
 //		ClassLoader loader = new ForceReloadClassLoader();
 //		ClassLoader oldLoader = Thread.currentThread().getContextClassLoader();
@@ -82,93 +85,12 @@ public class AutoHandlerScan {
 			// This will become significantly less of an issue when stuff is built into separate JARs, but for
 			// now, only hot add/remove will be supported, no hot modify.
 //			Thread.currentThread().setContextClassLoader(loader);
-			Collection<URL> urls = ClasspathHelper.forJavaClassPath();
-			// TODO: make package blacklist a setting
-			List<URL> addonUrls = findAddonJars();
-			urls = Stream.concat(urls.stream(), addonUrls.stream()).filter(u -> {
-				String jarName = getJarName(u.toString());
-				if (jarName == null) {
-					return true;
-				}
-				else {
-					return scanBlacklist.stream().noneMatch(jarName::startsWith);
-				}
-			}).collect(Collectors.toList());
-			log.info("URLs: {}", urls);
-			// TODO: make this public so that we aren't doing as much re-scanning
-			URLClassLoader newClassLoader = new URLClassLoader(addonUrls.toArray(new URL[]{}));
-			ClassLoader[] loaders = {Thread.currentThread().getContextClassLoader(), newClassLoader};
-			final Set<Method> annotatedMethods = ConcurrentHashMap.newKeySet();
-			final Set<Class<?>> annotatedClasses = ConcurrentHashMap.newKeySet();
-			final Map<String, Throwable> failedModules = new ConcurrentHashMap<>();
-			// TODO: make these changes in the Groovy side too
-			urls.parallelStream().forEach(url -> {
-				log.info("URL: '{}'", url);
-				Reflections reflections = new Reflections(
-						new ConfigurationBuilder()
-								.setUrls(Collections.singletonList(url))
-								.setParallel(true)
-								.setScanners(Scanners.TypesAnnotated, MethodsAnnotated, SubTypes));
-				try {
-					annotatedMethods.addAll(reflections.get(MethodsAnnotated.with(HandleEvents.class).as(Method.class, loaders)));
-					annotatedClasses.addAll(reflections.get(Scanners.TypesAnnotated.with(ScanMe.class).asClass(loaders)));
-				} catch (Throwable t) {
-					String jarName = getJarName(url.toString());
-					failedModules.put(jarName, new RuntimeException("Module " + jarName + " failed to load: " + t, t));
-				}
-			});
-			if (!failedModules.isEmpty()) {
-				StringBuilder sb = new StringBuilder("One or more modules failed to load. If this problem persists, try deleting them: \n");
-				failedModules.keySet().forEach(jarName -> sb.append("  - ").append(jarName));
-				RuntimeException combined = new RuntimeException(sb.toString());
-				failedModules.values().forEach(combined::addSuppressed);
-				throw combined;
-			}
-			log.info("Scan done, setting up topology now");
-			Reflections reflections = new Reflections(
-					new ConfigurationBuilder()
-							.setUrls(urls)
-							.setParallel(true)
-							.setScanners(Scanners.TypesAnnotated, Scanners.MethodsAnnotated, Scanners.SubTypes));
-
-			Map<Class<?>, List<Method>> classMethodMap = new LinkedHashMap<>();
-			for (Class<?> annotatedClass : annotatedClasses) {
-				if (isClassInstantiable(annotatedClass)) {
-					classMethodMap.computeIfAbsent(annotatedClass, unused -> new ArrayList<>());
-				}
-				else {
-					log.warn("Not adding @ScanMe class {} because it is not instantiable", annotatedClass);
-				}
-
-			}
-			int methodCount = 0;
-			for (Method method : annotatedMethods) {
-				if (method.isBridge() || method.isSynthetic()) {
-					// If you both annotate the method, and implement EventHandler yourself, you'll get an extra bridge+synthetic
-					// method lying around. Safest option is to just ignore stuff if it is synthetic or a bridge.
-					// TODO: can this be removed now?
-					continue;
-				}
-				methodCount++;
-				Class<?> clazz = method.getDeclaringClass();
-				// If you extend a class with an annotated method, the method still "belongs" to the superclass.
-				// Thus, we need to explicitly scan for children of the class too.
-				Set<Class<?>> implementingClasses = reflections.get(SubTypes.of(clazz).asClass(loaders));
-				if (!implementingClasses.isEmpty()) {
-					log.info("Class {} has implementors: {}", clazz, implementingClasses);
-				}
-				//noinspection SimplifyForEach
-				Stream.concat(Stream.of(clazz), implementingClasses.stream())
-						.filter(AutoHandlerScan::isClassInstantiable)
-						.forEach(cls -> classMethodMap.computeIfAbsent(cls, unused -> new ArrayList<>()).add(method));
-			}
-			log.info("Methods: {}", methodCount);
-
+			Map<Class<?>, List<Method>> classMethodMap = findHandlers();
 
 			log.info("Preloading instances");
 			StringBuilder topo = new StringBuilder();
 			// Preload class instances
-			classMethodMap.keySet().forEach(instanceProvider::preAdd);
+			instanceProvider.preloadAll(classMethodMap.keySet());
 			log.info("Preloaded instances");
 			classMethodMap.forEach((clazz, methods) -> {
 				// TODO: error handling
@@ -196,6 +118,174 @@ public class AutoHandlerScan {
 	}
 
 
+	/**
+	 * Find every class that should be instantiated, and the {@link HandleEvents} methods of each. Classpath entries with a
+	 * {@link HandlerIndex} (see {@link HandlerIndexProcessor}) are read from the index, and the rest are scanned.
+	 *
+	 * @return Map of class to its handler methods. Classes with no handler methods are {@link ScanMe} classes.
+	 */
+	public Map<Class<?>, List<Method>> findHandlers() {
+		log.info("Scanning packages");
+		long start = System.nanoTime();
+		Collection<URL> urls = ClasspathHelper.forJavaClassPath();
+		// TODO: make package blacklist a setting
+		List<URL> addonUrls = findAddonJars();
+		urls = Stream.concat(urls.stream(), addonUrls.stream()).filter(u -> {
+			String jarName = getJarName(u.toString());
+			if (jarName == null) {
+				return true;
+			}
+			else {
+				return scanBlacklist.stream().noneMatch(jarName::startsWith);
+			}
+		}).collect(Collectors.toList());
+		log.info("URLs: {}", urls);
+		// TODO: make this public so that we aren't doing as much re-scanning
+		URLClassLoader newClassLoader = new URLClassLoader(addonUrls.toArray(new URL[]{}));
+		ClassLoader[] loaders = {Thread.currentThread().getContextClassLoader(), newClassLoader};
+		final Set<Method> annotatedMethods = ConcurrentHashMap.newKeySet();
+		final Set<Class<?>> annotatedClasses = ConcurrentHashMap.newKeySet();
+		// Classes which declare or inherit handler methods, from indexes
+		final Set<Class<?>> indexedHandlerClasses = ConcurrentHashMap.newKeySet();
+		final List<URL> scannedUrls = Collections.synchronizedList(new ArrayList<>());
+		final Map<String, Throwable> failedModules = new ConcurrentHashMap<>();
+		// TODO: make these changes in the Groovy side too
+		urls.parallelStream().forEach(url -> {
+			log.info("URL: '{}'", url);
+			try {
+				HandlerIndex index = config.isUseHandlerIndex() ? HandlerIndex.read(url) : null;
+				if (index != null) {
+					for (String className : index.getHandlerClasses()) {
+						indexedHandlerClasses.add(loadClass(className, loaders));
+					}
+					for (String className : index.getScanMeClasses()) {
+						annotatedClasses.add(loadClass(className, loaders));
+					}
+					return;
+				}
+				scannedUrls.add(url);
+				Reflections reflections = new Reflections(
+						new ConfigurationBuilder()
+								.setUrls(Collections.singletonList(url))
+								.setParallel(true)
+								.setScanners(Scanners.TypesAnnotated, MethodsAnnotated, SubTypes));
+				annotatedMethods.addAll(reflections.get(MethodsAnnotated.with(HandleEvents.class).as(Method.class, loaders)));
+				annotatedClasses.addAll(reflections.get(Scanners.TypesAnnotated.with(ScanMe.class).asClass(loaders)));
+			} catch (Throwable t) {
+				String jarName = getJarName(url.toString());
+				failedModules.put(jarName, new RuntimeException("Module " + jarName + " failed to load: " + t, t));
+			}
+		});
+		if (!failedModules.isEmpty()) {
+			StringBuilder sb = new StringBuilder("One or more modules failed to load. If this problem persists, try deleting them: \n");
+			failedModules.keySet().forEach(jarName -> sb.append("  - ").append(jarName));
+			RuntimeException combined = new RuntimeException(sb.toString());
+			failedModules.values().forEach(combined::addSuppressed);
+			throw combined;
+		}
+		log.info("Scan done, setting up topology now");
+
+		Map<Class<?>, List<Method>> classMethodMap = new LinkedHashMap<>();
+		for (Class<?> annotatedClass : annotatedClasses) {
+			if (isClassInstantiable(annotatedClass)) {
+				classMethodMap.computeIfAbsent(annotatedClass, unused -> new ArrayList<>());
+			}
+			else {
+				log.warn("Not adding @ScanMe class {} because it is not instantiable", annotatedClass);
+			}
+
+		}
+		// Classes in jars without an index can still extend indexed classes
+		Set<Method> indexedMethods = new HashSet<>();
+		for (Class<?> indexedClass : indexedHandlerClasses) {
+			// The index already includes subclasses, so only the class itself is needed here
+			List<Method> methods = getHandlerMethods(indexedClass);
+			if (isClassInstantiable(indexedClass)) {
+				methods.forEach(method -> addMethod(classMethodMap, indexedClass, method));
+			}
+			indexedMethods.addAll(methods);
+		}
+		// Only the scanned jars need to be checked for subclasses - indexed jars have them in the index
+		Reflections reflections = scannedUrls.isEmpty() ? null : new Reflections(
+				new ConfigurationBuilder()
+						.setUrls(scannedUrls)
+						.setParallel(true)
+						.setScanners(Scanners.TypesAnnotated, Scanners.MethodsAnnotated, Scanners.SubTypes));
+
+		int methodCount = 0;
+		for (Method method : annotatedMethods) {
+			if (method.isBridge() || method.isSynthetic()) {
+				// If you both annotate the method, and implement EventHandler yourself, you'll get an extra bridge+synthetic
+				// method lying around. Safest option is to just ignore stuff if it is synthetic or a bridge.
+				// TODO: can this be removed now?
+				continue;
+			}
+			methodCount++;
+			Class<?> clazz = method.getDeclaringClass();
+			// If you extend a class with an annotated method, the method still "belongs" to the superclass.
+			// Thus, we need to explicitly scan for children of the class too.
+			Set<Class<?>> implementingClasses = reflections == null ? Collections.emptySet() : reflections.get(SubTypes.of(clazz).asClass(loaders));
+			if (!implementingClasses.isEmpty()) {
+				log.info("Class {} has implementors: {}", clazz, implementingClasses);
+			}
+			//noinspection SimplifyForEach
+			Stream.concat(Stream.of(clazz), implementingClasses.stream())
+					.filter(AutoHandlerScan::isClassInstantiable)
+					.forEach(cls -> addMethod(classMethodMap, cls, method));
+		}
+		if (reflections != null) {
+			for (Method method : indexedMethods) {
+				reflections.get(SubTypes.of(method.getDeclaringClass()).asClass(loaders)).stream()
+						.filter(AutoHandlerScan::isClassInstantiable)
+						.forEach(cls -> addMethod(classMethodMap, cls, method));
+			}
+		}
+		log.info("Methods: {}", methodCount + indexedMethods.size());
+		log.info("Found {} classes in {} ms ({} URLs from index, {} scanned)", classMethodMap.size(), (System.nanoTime() - start) / 1_000_000, urls.size() - scannedUrls.size(), scannedUrls.size());
+		return classMethodMap;
+	}
+
+	private static void addMethod(Map<Class<?>, List<Method>> classMethodMap, Class<?> clazz, Method method) {
+		List<Method> methods = classMethodMap.computeIfAbsent(clazz, unused -> new ArrayList<>());
+		if (!methods.contains(method)) {
+			methods.add(method);
+		}
+	}
+
+	private static Class<?> loadClass(String className, ClassLoader[] loaders) throws ClassNotFoundException {
+		for (ClassLoader loader : loaders) {
+			try {
+				return Class.forName(className, false, loader);
+			}
+			catch (ClassNotFoundException ignored) {
+				// Try the next one
+			}
+		}
+		throw new ClassNotFoundException(className);
+	}
+
+	// Same as what a scan would find: annotated methods declared by the class or anything it extends or implements
+	private static List<Method> getHandlerMethods(Class<?> clazz) {
+		List<Method> out = new ArrayList<>();
+		Set<Class<?>> visited = new HashSet<>();
+		Deque<Class<?>> toVisit = new ArrayDeque<>();
+		toVisit.add(clazz);
+		while (!toVisit.isEmpty()) {
+			Class<?> current = toVisit.poll();
+			if (current == null || current == Object.class || !visited.add(current)) {
+				continue;
+			}
+			for (Method method : current.getDeclaredMethods()) {
+				if (method.isAnnotationPresent(HandleEvents.class) && !method.isBridge() && !method.isSynthetic()) {
+					out.add(method);
+				}
+			}
+			toVisit.add(current.getSuperclass());
+			toVisit.addAll(Arrays.asList(current.getInterfaces()));
+		}
+		return out;
+	}
+
 	// Filter out interfaces, abstract classes, and other junk
 	private static boolean isClassInstantiable(Class<?> clazz) {
 		return !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers()) && !clazz.isAnonymousClass() && (clazz.getDeclaringClass() == null);
@@ -0,0 +1,123 @@
+package gg.xp.reevent.scan;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Build-time index of the classes in one jar (or class directory) which {@link AutoHandlerScan} is interested in,
+ * written by {@link HandlerIndexProcessor}.
+ * <p>
+ * The format is one class per line, by binary name, prefixed with what kind of entry it is:
+ * <pre>
+ * handler com.example.Foo
+ * scanme com.example.Bar
+ * </pre>
+ * 'handler' classes declare or inherit at least one {@link HandleEvents} method. 'scanme' classes are annotated with
+ * {@link ScanMe}. Blank lines and lines starting with '#' are ignored.
+ */
+public final class HandlerIndex {
+
+	public static final String PATH = "META-INF/reevent/handlers.idx";
+	static final String HANDLER = "handler";
+	static final String SCAN_ME = "scanme";
+
+	private final Set<String> handlerClasses;
+	private final Set<String> scanMeClasses;
+
+	HandlerIndex(Set<String> handlerClasses, Set<String> scanMeClasses) {
+		this.handlerClasses = handlerClasses;
+		this.scanMeClasses = scanMeClasses;
+	}
+
+	/**
+	 * @return Binary names of classes which declare or inherit a {@link HandleEvents} method.
+	 */
+	public Set<String> getHandlerClasses() {
+		return Collections.unmodifiableSet(handlerClasses);
+	}
+
+	/**
+	 * @return Binary names of classes annotated with {@link ScanMe}.
+	 */
+	public Set<String> getScanMeClasses() {
+		return Collections.unmodifiableSet(scanMeClasses);
+	}
+
+	/**
+	 * Read the index from a single classpath entry, without looking at its parents or at any other entry.
+	 *
+	 * @param url A jar or class directory
+	 * @return The index, or null if that entry does not have one
+	 */
+	public static @Nullable HandlerIndex read(URL url) {
+		try (URLClassLoader loader = new URLClassLoader(new URL[]{url}, null)) {
+			URL resource = loader.findResource(PATH);
+			if (resource == null) {
+				return null;
+			}
+			URLConnection conn = resource.openConnection();
+			// Otherwise the jar stays open
+			conn.setUseCaches(false);
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+				return parse(reader);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Error reading handler index from " + url, e);
+		}
+	}
+
+	static HandlerIndex parse(BufferedReader reader) throws IOException {
+		Set<String> handlers = new TreeSet<>();
+		Set<String> scanMe = new TreeSet<>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			int space = line.indexOf(' ');
+			if (space < 0) {
+				throw new IOException("Bad handler index line: " + line);
+			}
+			String kind = line.substring(0, space);
+			String className = line.substring(space + 1).trim();
+			switch (kind) {
+				case HANDLER -> handlers.add(className);
+				case SCAN_ME -> scanMe.add(className);
+				// Unknown kinds are from a newer version - skip them rather than failing
+				default -> {
+				}
+			}
+		}
+		return new HandlerIndex(handlers, scanMe);
+	}
+
+	void write(Writer writer) throws IOException {
+		writer.write("# Generated by " + HandlerIndexProcessor.class.getName() + " - do not edit\n");
+		write(writer, HANDLER, handlerClasses);
+		write(writer, SCAN_ME, scanMeClasses);
+	}
+
+	private static void write(Writer writer, String kind, Collection<String> classNames) throws IOException {
+		for (String className : classNames) {
+			writer.write(kind);
+			writer.write(' ');
+			writer.write(className);
+			writer.write('\n');
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package gg.xp.reevent.scan;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes a {@link HandlerIndex} for the classes being compiled, so that {@link AutoHandlerScan} does not need to scan
+ * the module's classes at startup.
+ * <p>
+ * Every class is looked at, not just annotated ones, since a class which merely extends a class with
+ * {@link HandleEvents} methods (possibly from another module) is also a handler. Registered as a service, so any module
+ * with reevent on its compile classpath gets an index automatically.
+ */
+@SupportedAnnotationTypes("*")
+public class HandlerIndexProcessor extends AbstractProcessor {
+
+	private final Set<String> handlerClasses = new TreeSet<>();
+	private final Set<String> scanMeClasses = new TreeSet<>();
+	// Everything compiled this time, so we know which entries of an existing index are stale
+	private final Set<String> seen = new HashSet<>();
+	private final Map<String, Boolean> hasHandlersCache = new HashMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+		}
+		else {
+			for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+				visit(type);
+			}
+		}
+		// Never claim anything, other processors might want the same annotations
+		return false;
+	}
+
+	private void visit(TypeElement type) {
+		String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+		seen.add(name);
+		if (type.getAnnotation(ScanMe.class) != null) {
+			scanMeClasses.add(name);
+		}
+		if (type.getKind() == ElementKind.CLASS && hasHandlers(type)) {
+			handlerClasses.add(name);
+		}
+		for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+			visit(nested);
+		}
+	}
+
+	private boolean hasHandlers(TypeElement type) {
+		String name = type.getQualifiedName().toString();
+		Boolean cached = hasHandlersCache.get(name);
+		if (cached != null) {
+			return cached;
+		}
+		boolean result = ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+				.anyMatch(method -> method.getAnnotation(HandleEvents.class) != null);
+		if (!result) {
+			result = supertypeHasHandlers(type.getSuperclass());
+		}
+		if (!result) {
+			for (TypeMirror iface : type.getInterfaces()) {
+				if (supertypeHasHandlers(iface)) {
+					result = true;
+					break;
+				}
+			}
+		}
+		hasHandlersCache.put(name, result);
+		return result;
+	}
+
+	private boolean supertypeHasHandlers(TypeMirror supertype) {
+		if (supertype.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		Element element = ((DeclaredType) supertype).asElement();
+		return element instanceof TypeElement typeElement && hasHandlers(typeElement);
+	}
+
+	private void writeIndex() {
+		mergeExistingIndex();
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", HandlerIndex.PATH);
+			try (Writer writer = file.openWriter()) {
+				new HandlerIndex(handlerClasses, scanMeClasses).write(writer);
+			}
+		}
+		catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write handler index: " + e);
+		}
+	}
+
+	/*
+	 * Incremental compilers only hand us the classes that changed. Keep entries for the classes we did not see, as long
+	 * as they still exist.
+	 */
+	private void mergeExistingIndex() {
+		HandlerIndex existing;
+		try {
+			FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", HandlerIndex.PATH);
+			try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+				existing = HandlerIndex.parse(reader);
+			}
+		}
+		catch (IOException | IllegalArgumentException e) {
+			// No existing index
+			return;
+		}
+		keepUnseen(existing.getHandlerClasses(), handlerClasses);
+		keepUnseen(existing.getScanMeClasses(), scanMeClasses);
+	}
+
+	private void keepUnseen(Set<String> previous, Set<String> current) {
+		for (String name : previous) {
+			if (!seen.contains(name) && processingEnv.getElementUtils().getTypeElement(name.replace('$', '.')) != null) {
+				current.add(name);
+			}
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package gg.xp.reevent.scan;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.reevent.events.EventContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Calls a {@link HandleEvents} method without going through {@link Method#invoke(Object, Object...)}.
+ * <p>
+ * Must be public, since the generated implementation lives in the handler class's package.
+ */
+@FunctionalInterface
+public interface HandlerInvoker {
+
+	void invoke(Object instance, EventContext context, Event event) throws Throwable;
+
+	/**
+	 * Creates an invoker for the given method. Prefers a {@link LambdaMetafactory}-generated class, which the JIT can
+	 * inline like a normal call. Falls back to a plain {@link MethodHandle}, and then to reflection, if that is not
+	 * possible for whatever reason (e.g. odd class loader setups).
+	 *
+	 * @param method The method. Must take (EventContext, Event) or subtypes thereof.
+	 * @return The invoker
+	 */
+	static HandlerInvoker forMethod(Method method) {
+		Logger log = LoggerFactory.getLogger(HandlerInvoker.class);
+		Class<?> declaring = method.getDeclaringClass();
+		Class<?>[] paramTypes = method.getParameterTypes();
+		MethodHandle handle;
+		MethodHandles.Lookup lookup;
+		try {
+			lookup = MethodHandles.privateLookupIn(declaring, MethodHandles.lookup());
+			handle = lookup.unreflect(method);
+		}
+		catch (Throwable t) {
+			log.warn("Could not get method handle for {}, falling back to reflection", method, t);
+			return (instance, context, event) -> method.invoke(instance, context, event);
+		}
+		MethodType genericType = MethodType.methodType(void.class, Object.class, EventContext.class, Event.class);
+		if (Modifier.isStatic(method.getModifiers())) {
+			MethodHandle generic = MethodHandles.dropArguments(handle, 0, Object.class).asType(genericType);
+			return (instance, context, event) -> generic.invokeExact(instance, context, event);
+		}
+		try {
+			CallSite site = LambdaMetafactory.metafactory(
+					lookup,
+					"invoke",
+					MethodType.methodType(HandlerInvoker.class),
+					genericType,
+					handle,
+					MethodType.methodType(void.class, declaring, paramTypes[0], paramTypes[1]));
+			return (HandlerInvoker) site.getTarget().invokeExact();
+		}
+		catch (Throwable t) {
+			log.warn("Could not generate invoker for {}, falling back to method handle", method, t);
+			MethodHandle generic = handle.asType(genericType);
+			return (instance, context, event) -> generic.invokeExact(instance, context, event);
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package gg.xp.reevent.state;
 
 import gg.xp.reevent.context.SubState;
+import gg.xp.reevent.events.DelayedEventStats;
 import gg.xp.reevent.events.EventQueue;
+import org.jetbrains.annotations.Nullable;
 
 public class QueueState implements SubState {
 
@@ -15,4 +17,8 @@ public class QueueState implements SubState {
 		return eventQueue.pendingSize();
 	}
 
+	public @Nullable DelayedEventStats getDelayedEventStats() {
+		return eventQueue.getDelayedEventStats();
+	}
+
 }
@@ -0,0 +1,53 @@
+package gg.xp.reevent.events;
+
+import ch.qos.logback.classic.Level;
+import gg.xp.reevent.context.BasicStateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures time and allocation per event when fanning out to a realistic number of handlers.
+ */
+public class BasicEventDistributorPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(BasicEventDistributorPerf.class);
+	private static final int handlerCount = 300;
+	private static final int iterations = 20_000;
+	// Real handlers are too varied for the JIT to inline them and scalar-replace the context, so make sure the
+	// context escapes here too.
+	private static volatile EventContext sink;
+
+	@Test
+	void measureAllocation() {
+		// The test logback config is at trace level, and trace logging per handler would swamp everything else
+		((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(BasicEventDistributor.class)).setLevel(Level.INFO);
+		BasicEventDistributor dist = new BasicEventDistributor(new BasicStateStore());
+		long[] count = new long[1];
+		for (int i = 0; i < handlerCount; i++) {
+			dist.registerHandler((context, event) -> {
+				sink = context;
+				count[0]++;
+			});
+		}
+		Event event = new BasicEvent("foo");
+		// Don't count the pump timestamps as part of this
+		event.setImported(true);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		for (int round = 1; round <= 3; round++) {
+			long allocBefore = threads.getThreadAllocatedBytes(threadId);
+			long before = System.currentTimeMillis();
+			for (int i = 0; i < iterations; i++) {
+				dist.acceptEvent(event);
+			}
+			long after = System.currentTimeMillis();
+			long allocAfter = threads.getThreadAllocatedBytes(threadId);
+			log.info("Round {}: {}ms, {} bytes allocated per event ({} handlers)", round, after - before, (allocAfter - allocBefore) / iterations, handlerCount);
+		}
+		Assert.assertEquals(count[0], 3L * handlerCount * iterations);
+	}
+}
@@ -0,0 +1,81 @@
+package gg.xp.reevent.events;
+
+import gg.xp.reevent.context.BasicStateStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class BasicEventDistributorTest {
+
+	@Test
+	void testStaleContextRejectedDuringOtherHandler() {
+		BasicEventDistributor dist = new BasicEventDistributor(new BasicStateStore());
+		EventContext[] stashed = new EventContext[1];
+		List<Throwable> failures = new ArrayList<>();
+		List<String> seen = new ArrayList<>();
+		dist.registerHandler((context, event) -> {
+			seen.add(((BasicEvent) event).getValue());
+			stashed[0] = context;
+		});
+		dist.registerHandler((context, event) -> {
+			// The first handler has returned, so its context must not be usable while this one runs
+			try {
+				stashed[0].accept(new BasicEvent("stale"));
+			}
+			catch (IllegalStateException e) {
+				failures.add(e);
+			}
+			try {
+				stashed[0].getStateInfo();
+			}
+			catch (IllegalStateException e) {
+				failures.add(e);
+			}
+		});
+		dist.acceptEvent(new BasicEvent("foo"));
+		Assert.assertEquals(failures.size(), 2);
+		Assert.assertEquals(seen, List.of("foo"));
+	}
+
+	@Test
+	void testStaleContextRejectedFromOtherThread() {
+		BasicEventDistributor dist = new BasicEventDistributor(new BasicStateStore());
+		EventContext[] stashed = new EventContext[1];
+		List<String> seen = new ArrayList<>();
+		List<Throwable> failures = new ArrayList<>();
+		dist.registerHandler((context, event) -> {
+			seen.add(((BasicEvent) event).getValue());
+			stashed[0] = context;
+		});
+		dist.registerHandler((context, event) -> {
+			if (!"foo".equals(((BasicEvent) event).getValue())) {
+				return;
+			}
+			// Like a sequential trigger - another thread uses a context while this handler waits for it
+			try {
+				CompletableFuture.runAsync(() -> context.accept(new BasicEvent("current"))).get(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException | ExecutionException | TimeoutException e) {
+				failures.add(e);
+			}
+			// The first handler's context, on the other hand, has been stale since that handler returned
+			EventContext stale = stashed[0];
+			try {
+				CompletableFuture.runAsync(() -> stale.accept(new BasicEvent("stale"))).get(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException | ExecutionException | TimeoutException e) {
+				failures.add(e);
+			}
+		});
+		dist.acceptEvent(new BasicEvent("foo"));
+		Assert.assertEquals(seen, List.of("foo", "current"));
+		Assert.assertEquals(failures.size(), 1);
+		Assert.assertTrue(failures.get(0).getCause() instanceof IllegalStateException, failures.get(0).toString());
+	}
+}
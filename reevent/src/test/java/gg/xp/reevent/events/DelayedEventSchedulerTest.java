@@ -0,0 +1,87 @@
+package gg.xp.reevent.events;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DelayedEventSchedulerTest {
+
+	private static final class DelayedTestEvent extends BaseEvent {
+		private final String value;
+		private final long runAt;
+		private final boolean atFront;
+
+		private DelayedTestEvent(String value, long runAt, boolean atFront) {
+			this.value = value;
+			this.runAt = runAt;
+			this.atFront = atFront;
+		}
+
+		@Override
+		public long delayedEnqueueAt() {
+			return runAt;
+		}
+
+		@Override
+		public boolean delayedEnqueueAtFront() {
+			return atFront;
+		}
+	}
+
+	@Test(timeOut = 10_000)
+	void testOrdering() throws InterruptedException {
+		List<String> seen = new ArrayList<>();
+		DelayedEventScheduler scheduler = new DelayedEventScheduler(e -> {
+			synchronized (seen) {
+				seen.add(((DelayedTestEvent) e).value);
+				seen.notifyAll();
+			}
+		});
+		long now = System.currentTimeMillis();
+		scheduler.schedule(new DelayedTestEvent("c", now + 300, false));
+		scheduler.schedule(new DelayedTestEvent("a", now + 100, false));
+		scheduler.schedule(new DelayedTestEvent("b1", now + 200, false));
+		scheduler.schedule(new DelayedTestEvent("b2", now + 200, false));
+		Assert.assertEquals(scheduler.getPendingCount(), 4);
+		synchronized (seen) {
+			while (seen.size() < 4) {
+				seen.wait();
+			}
+		}
+		Assert.assertEquals(seen, List.of("a", "b1", "b2", "c"));
+		Assert.assertEquals(scheduler.getPendingCount(), 0);
+		Assert.assertEquals(scheduler.getTotalScheduled(), 4);
+		Assert.assertEquals(scheduler.getLateness().getCount(), 4);
+	}
+
+	@Test(timeOut = 10_000)
+	void testEnqueueAtFront() throws InterruptedException {
+		BasicEventQueue queue = new BasicEventQueue();
+		queue.push(new BasicEvent("first"));
+		queue.push(new BasicEvent("second"));
+		queue.push(new DelayedTestEvent("jumper", System.currentTimeMillis() + 100, true));
+		while (queue.pendingSize() < 3) {
+			//noinspection BusyWait
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(((DelayedTestEvent) queue.pull()).value, "jumper");
+		Assert.assertEquals(((BasicEvent) queue.pull()).getValue(), "first");
+		Assert.assertEquals(((BasicEvent) queue.pull()).getValue(), "second");
+	}
+
+	@Test(timeOut = 10_000)
+	void testClearDelayed() throws InterruptedException {
+		BasicEventQueue queue = new BasicEventQueue();
+		long now = System.currentTimeMillis();
+		queue.push(new DelayedTestEvent("dropped1", now + 200, false));
+		queue.push(new DelayedTestEvent("dropped2", now + 300, false));
+		Assert.assertEquals(queue.clearDelayed(), 2);
+		queue.push(new DelayedTestEvent("kept", now + 100, false));
+		Thread.sleep(500);
+		Assert.assertEquals(queue.pendingSize(), 1);
+		Assert.assertEquals(((DelayedTestEvent) queue.pull()).value, "kept");
+		Assert.assertEquals(queue.getDelayedEventStats().getPendingCount(), 0);
+	}
+}
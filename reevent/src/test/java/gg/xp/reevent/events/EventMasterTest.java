@@ -0,0 +1,120 @@
+package gg.xp.reevent.events;
+
+import gg.xp.reevent.context.BasicStateStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class EventMasterTest {
+
+	private static EventMaster makeMaster(List<String> seen) {
+		BasicEventDistributor dist = new BasicEventDistributor(new BasicStateStore());
+		dist.registerHandler((context, event) -> {
+			String value = ((BasicEvent) event).getValue();
+			seen.add(value);
+			if (!value.contains("-")) {
+				context.accept(new BasicEvent(value + "-accepted"));
+				context.enqueue(new BasicEvent(value + "-enqueued"));
+			}
+		});
+		EventMaster master = new EventMaster(dist, new BasicEventQueue());
+		master.start();
+		return master;
+	}
+
+	private static List<String> expected(int count) {
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			expected.add("raw" + i);
+			expected.add("raw" + i + "-accepted");
+			expected.add("raw" + i + "-enqueued");
+		}
+		return expected;
+	}
+
+	@Test
+	void testPushEventAndWait() {
+		List<String> seen = new ArrayList<>();
+		EventMaster master = makeMaster(seen);
+		for (int i = 0; i < 100; i++) {
+			master.pushEventAndWait(new BasicEvent("raw" + i));
+		}
+		Assert.assertEquals(seen, expected(100));
+		master.stop();
+	}
+
+	@Test
+	void testPushEventsAndWait() {
+		List<String> seen = new ArrayList<>();
+		EventMaster master = makeMaster(seen);
+		List<Event> events = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			events.add(new BasicEvent("raw" + i));
+		}
+		Iterator<Event> iter = events.iterator();
+		// Stop partway through, as if the rest were not ready yet
+		int[] remaining = {60};
+		int pushed = master.pushEventsAndWait(() -> remaining[0]-- > 0 && iter.hasNext() ? iter.next() : null);
+		Assert.assertEquals(pushed, 60);
+		Assert.assertEquals(seen, expected(60));
+
+		pushed = master.pushEventsAndWait(() -> iter.hasNext() ? iter.next() : null);
+		Assert.assertEquals(pushed, 40);
+		// Same order as pushing them one at a time
+		Assert.assertEquals(seen, expected(100));
+
+		Assert.assertEquals(master.pushEventsAndWait(() -> null), 0);
+		master.stop();
+	}
+
+	@Test
+	void testPushEventsAndWaitWhileDelayedEventFinishes() throws InterruptedException {
+		List<String> seen = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch delayedDone = new CountDownLatch(1);
+		BasicEventDistributor dist = new BasicEventDistributor(new BasicStateStore());
+		dist.registerHandler((context, event) -> {
+			String value = ((BasicEvent) event).getValue();
+			seen.add(value);
+			if (value.equals("delayed")) {
+				delayedDone.countDown();
+			}
+		});
+		List<Event> events = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			events.add(new BasicEvent("raw" + i));
+		}
+		Event first = events.get(0);
+		EventMaster master = new EventMaster(dist, new BasicEventQueue() {
+			@Override
+			public void push(Event event) {
+				if (event == first) {
+					// Hold the first event of the batch back until the delayed event has been fully processed and the
+					// queue is empty again
+					try {
+						delayedDone.await();
+						Thread.sleep(100);
+					}
+					catch (InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+				}
+				super.push(event);
+			}
+		});
+		master.start();
+		BasicEvent delayed = new BasicEvent("delayed");
+		delayed.setDelayedEnqueueOffset(50);
+		master.pushEvent(delayed);
+
+		Iterator<Event> iter = events.iterator();
+		int pushed = master.pushEventsAndWait(() -> iter.hasNext() ? iter.next() : null);
+		Assert.assertEquals(pushed, 5);
+		Assert.assertEquals(seen, List.of("delayed", "raw0", "raw1", "raw2", "raw3", "raw4"));
+		master.stop();
+	}
+}
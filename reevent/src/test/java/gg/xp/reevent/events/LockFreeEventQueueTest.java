@@ -0,0 +1,60 @@
+package gg.xp.reevent.events;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LockFreeEventQueueTest {
+
+	@Test
+	void testMultipleProducers() throws InterruptedException {
+		LockFreeEventQueue queue = new LockFreeEventQueue();
+		int producers = 4;
+		int perProducer = 10_000;
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			int producer = p;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					queue.push(new BasicEvent(producer + ":" + i));
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		int[] lastSeen = new int[producers];
+		Arrays.fill(lastSeen, -1);
+		for (int i = 0; i < producers * perProducer; i++) {
+			String[] parts = ((BasicEvent) queue.pull()).getValue().split(":");
+			int producer = Integer.parseInt(parts[0]);
+			int index = Integer.parseInt(parts[1]);
+			// Events from any single producer must come out in the order they went in
+			Assert.assertEquals(index, lastSeen[producer] + 1);
+			lastSeen[producer] = index;
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(queue.pendingSize(), 0);
+	}
+
+	@Test(timeOut = 10_000)
+	void testWaitDrain() throws InterruptedException {
+		LockFreeEventQueue queue = new LockFreeEventQueue();
+		for (int i = 0; i < 100; i++) {
+			queue.push(new BasicEvent(String.valueOf(i)));
+		}
+		Assert.assertEquals(queue.pendingSize(), 100);
+		Thread consumer = new Thread(() -> {
+			for (int i = 0; i < 100; i++) {
+				queue.pull();
+			}
+		});
+		consumer.start();
+		queue.waitDrain();
+		Assert.assertEquals(queue.pendingSize(), 0);
+		consumer.join();
+	}
+}
@@ -0,0 +1,86 @@
+package gg.xp.reevent.scan;
+
+import gg.xp.reevent.events.BasicEvent;
+import gg.xp.reevent.events.Event;
+import gg.xp.reevent.events.EventContext;
+import gg.xp.reevent.events.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+
+/**
+ * Compares the old reflective invocation path against the generated invokers used by AutoHandler.
+ */
+public class AutoHandlerPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(AutoHandlerPerf.class);
+	private static final int iterations = 5_000_000;
+
+	public static class CountingHandler {
+		private long count;
+
+		@HandleEvents
+		public void handle(EventContext context, BasicEvent event) {
+			count++;
+		}
+	}
+
+	@Test
+	void compareInvocation() throws Exception {
+		CountingHandler instance = new CountingHandler();
+		Method method = CountingHandler.class.getMethod("handle", EventContext.class, BasicEvent.class);
+		// Handler doesn't use the context
+		EventContext context = null;
+		Event event = new BasicEvent("foo");
+
+		AutoHandler autoHandler = new AutoHandler(CountingHandler.class, method, instance, new AutoHandlerConfig());
+		EventHandler<Event> prechecked = autoHandler.getPrecheckedHandler();
+		HandlerInvoker invoker = HandlerInvoker.forMethod(method);
+
+		for (int round = 1; round <= 3; round++) {
+			timeIt("Method.invoke, round " + round, () -> {
+				try {
+					for (int i = 0; i < iterations; i++) {
+						method.invoke(instance, context, event);
+					}
+				}
+				catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			timeIt("HandlerInvoker, round " + round, () -> {
+				try {
+					for (int i = 0; i < iterations; i++) {
+						invoker.invoke(instance, context, event);
+					}
+				}
+				catch (Throwable e) {
+					throw new RuntimeException(e);
+				}
+			});
+			timeIt("AutoHandler.handle, round " + round, () -> {
+				for (int i = 0; i < iterations; i++) {
+					autoHandler.handle(context, event);
+				}
+			});
+			timeIt("Pre-checked AutoHandler, round " + round, () -> {
+				for (int i = 0; i < iterations; i++) {
+					prechecked.handle(context, event);
+				}
+			});
+		}
+		Assert.assertEquals(instance.count, 3L * 4 * iterations);
+	}
+
+	private static void timeIt(String label, Runnable run) {
+		log.info("Starting {}", label);
+		long before = System.currentTimeMillis();
+		run.run();
+		long after = System.currentTimeMillis();
+		long delta = after - before;
+		log.info("Timing for {}: {}", label, delta);
+	}
+}
@@ -0,0 +1,78 @@
+package gg.xp.reevent.scan;
+
+import gg.xp.reevent.events.BasicEvent;
+import gg.xp.reevent.events.EventContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class HandlerIndexTest {
+
+	public abstract static class BaseHandler {
+		@HandleEvents
+		public void handle(EventContext context, BasicEvent event) {
+		}
+	}
+
+	// Not annotated itself, but still a handler
+	public static class SubHandler extends BaseHandler {
+	}
+
+	@ScanMe
+	public static class ScanMeClass {
+	}
+
+	public static class Unrelated {
+		public void handle(EventContext context, BasicEvent event) {
+		}
+	}
+
+	@Test
+	void testIndexWrittenByProcessor() throws Exception {
+		// The index for this module's test classes
+		URL testClasses = HandlerIndexTest.class.getProtectionDomain().getCodeSource().getLocation();
+		HandlerIndex index = HandlerIndex.read(testClasses);
+		Assert.assertNotNull(index);
+		Assert.assertTrue(index.getHandlerClasses().contains(SubHandler.class.getName()));
+		Assert.assertTrue(index.getHandlerClasses().contains(BaseHandler.class.getName()));
+		Assert.assertFalse(index.getHandlerClasses().contains(Unrelated.class.getName()));
+		Assert.assertEquals(index.getScanMeClasses(), Set.of(ScanMeClass.class.getName()));
+	}
+
+	@Test
+	void testRoundTrip() throws IOException {
+		HandlerIndex index = new HandlerIndex(new TreeSet<>(Set.of("a.B", "a.C$D")), new TreeSet<>(Set.of("e.F")));
+		StringWriter writer = new StringWriter();
+		index.write(writer);
+		HandlerIndex parsed = HandlerIndex.parse(new BufferedReader(new StringReader(writer + "something-newer x.Y\n")));
+		Assert.assertEquals(parsed.getHandlerClasses(), index.getHandlerClasses());
+		Assert.assertEquals(parsed.getScanMeClasses(), index.getScanMeClasses());
+	}
+
+	@Test
+	void testSameResultAsScanning() {
+		AutoHandlerConfig indexed = new AutoHandlerConfig();
+		indexed.setUseHandlerIndex(true);
+		AutoHandlerConfig scanned = new AutoHandlerConfig();
+		scanned.setUseHandlerIndex(false);
+		Assert.assertEquals(describe(new AutoHandlerScan(null, indexed).findHandlers()), describe(new AutoHandlerScan(null, scanned).findHandlers()));
+	}
+
+	private static List<String> describe(Map<Class<?>, List<Method>> handlers) {
+		return handlers.entrySet().stream()
+				.flatMap(e -> e.getValue().isEmpty() ? List.of(e.getKey().getName()).stream() : e.getValue().stream().map(m -> e.getKey().getName() + ' ' + m))
+				.sorted(Comparator.naturalOrder())
+				.toList();
+	}
+}
@@ -3,6 +3,7 @@ package gg.xp.xivsupport.events;
 import gg.xp.reevent.context.BasicStateStore;
 import gg.xp.reevent.events.BasicEvent;
 import gg.xp.reevent.events.BasicEventDistributor;
+import gg.xp.reevent.events.EventContext;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -26,4 +27,15 @@ public class BasicEventTest {
 		queue.acceptEvent(new BasicEvent("foo"));
 		Assert.assertEquals(seen, List.of("foo", "bar", "baz"));
 	}
+
+	@Test
+	void testLateAcceptRejected() {
+		BasicEventDistributor queue = new BasicEventDistributor(new BasicStateStore());
+		List<EventContext> stashed = new ArrayList<>();
+		queue.registerHandler(BasicEvent.class, (q, event) -> stashed.add(q));
+		queue.acceptEvent(new BasicEvent("foo"));
+		Assert.assertEquals(stashed.size(), 1);
+		Assert.assertThrows(IllegalStateException.class, () -> stashed.get(0).accept(new BasicEvent("bar")));
+		Assert.assertThrows(IllegalStateException.class, () -> stashed.get(0).getStateInfo());
+	}
 }
@@ -1,7 +1,7 @@
 package gg.xp.xivsupport.events;
 
-import gg.xp.reevent.events.BasicEventQueue;
 import gg.xp.reevent.events.EventDistributor;
+import gg.xp.reevent.events.EventQueue;
 import gg.xp.reevent.events.InitEvent;
 import gg.xp.xivsupport.events.state.XivState;
 import gg.xp.xivsupport.events.state.XivStateImpl;
@@ -38,7 +38,7 @@ public final class ExampleSetup {
 	}
 
 	private static void finishSetup(PicoContainer container) {
-		BasicEventQueue queue = container.getComponent(BasicEventQueue.class);
+		EventQueue queue = container.getComponent(EventQueue.class);
 		queue.waitDrain();
 		EventDistributor dist = container.getComponent(EventDistributor.class);
 		dist.acceptEvent(new InitEvent());
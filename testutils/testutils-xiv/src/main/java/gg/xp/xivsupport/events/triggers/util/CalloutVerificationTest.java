@@ -64,6 +64,14 @@ public abstract class CalloutVerificationTest {
 	protected void configure(MutablePicoContainer pico) {
 	}
 
+	/**
+	 * @return true to replay using {@link ReplayController#setPipelined(boolean)}. The expected calls are the same
+	 * either way, so a subclass of an existing test can override this to check that pipelining doesn't change anything.
+	 */
+	protected boolean usePipelinedReplay() {
+		return false;
+	}
+
 	@Test
 	void doTheTest() {
 		MutablePicoContainer pico = XivMain.testingMasterInit();
@@ -233,7 +241,13 @@ public abstract class CalloutVerificationTest {
 
 		replayController.advanceBy(1);
 		configure(pico);
-		replayController.advanceBy(Integer.MAX_VALUE);
+		if (usePipelinedReplay()) {
+			replayController.setPipelined(true);
+			replayController.playToEnd();
+		}
+		else {
+			replayController.advanceBy(Integer.MAX_VALUE);
+		}
 
 		pico.getComponent(EventMaster.class).getQueue().waitDrain();
 
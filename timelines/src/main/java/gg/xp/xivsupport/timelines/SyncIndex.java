@@ -0,0 +1,209 @@
+package gg.xp.xivsupport.timelines;
+
+import gg.xp.xivsupport.events.ACTLogLineEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Index over the sync windows of a list of timeline entries, so that a log line only needs to be tested against the
+ * entries whose window contains the current timeline time.
+ * <p>
+ * Entries with a normal-sized window are bucketed by time. Entries with very wide windows (e.g. reset syncs with
+ * a window of 100000) would land in every bucket, so they are kept in a separate list which is always checked.
+ * Either way, the first matching entry in the original list order wins, same as a linear scan.
+ */
+final class SyncIndex {
+
+	private static final double BUCKET_SECONDS = 8.0;
+	private static final double MAX_BUCKETED_SPAN = 64.0;
+	private static final int MIN_PREFILTER_LENGTH = 3;
+	private static final int[] NONE = {};
+
+	private final TimelineEntry[] entries;
+	private final Pattern[] patterns;
+	private final String[] prefilters;
+	private final double[] minTimes;
+	private final double[] maxTimes;
+	private final int[] wide;
+	private final int[][] buckets;
+	private final long firstBucket;
+
+	SyncIndex(List<TimelineEntry> allEntries) {
+		List<TimelineEntry> syncable = allEntries.stream().filter(entry -> entry.sync() != null).toList();
+		int count = syncable.size();
+		entries = syncable.toArray(new TimelineEntry[0]);
+		patterns = new Pattern[count];
+		prefilters = new String[count];
+		minTimes = new double[count];
+		maxTimes = new double[count];
+		List<Integer> wideEntries = new ArrayList<>();
+		long lowBucket = Long.MAX_VALUE;
+		long highBucket = Long.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			TimelineEntry entry = entries[i];
+			patterns[i] = entry.sync();
+			prefilters[i] = requiredLiteral(patterns[i].pattern());
+			minTimes[i] = entry.getMinTime();
+			maxTimes[i] = entry.getMaxTime();
+			if (isWide(i)) {
+				wideEntries.add(i);
+			}
+			else {
+				lowBucket = Math.min(lowBucket, bucketOf(minTimes[i]));
+				highBucket = Math.max(highBucket, bucketOf(maxTimes[i]));
+			}
+		}
+		wide = wideEntries.stream().mapToInt(Integer::intValue).toArray();
+		if (lowBucket > highBucket) {
+			firstBucket = 0;
+			buckets = new int[0][];
+			return;
+		}
+		firstBucket = lowBucket;
+		List<List<Integer>> bucketLists = new ArrayList<>();
+		for (long b = lowBucket; b <= highBucket; b++) {
+			bucketLists.add(new ArrayList<>());
+		}
+		for (int i = 0; i < count; i++) {
+			if (isWide(i)) {
+				continue;
+			}
+			// Entries are visited in order, so each bucket ends up sorted by entry index
+			for (long b = bucketOf(minTimes[i]); b <= bucketOf(maxTimes[i]); b++) {
+				bucketLists.get((int) (b - lowBucket)).add(i);
+			}
+		}
+		buckets = new int[bucketLists.size()][];
+		for (int b = 0; b < buckets.length; b++) {
+			List<Integer> bucket = bucketLists.get(b);
+			buckets[b] = bucket.isEmpty() ? NONE : bucket.stream().mapToInt(Integer::intValue).toArray();
+		}
+	}
+
+	private boolean isWide(int index) {
+		return maxTimes[index] - minTimes[index] > MAX_BUCKETED_SPAN;
+	}
+
+	private static long bucketOf(double time) {
+		return (long) Math.floor(time / BUCKET_SECONDS);
+	}
+
+	/**
+	 * Equivalent to finding the first entry for which {@link TimelineEntry#shouldSync(double, String)} returns true,
+	 * but only tests entries whose window contains the given time, checks the prefilter against the raw line before
+	 * running the regex, and only creates the emulated ACT line if some entry gets that far.
+	 *
+	 * @param currentTime The current timeline time
+	 * @param event       The line
+	 * @return The entry to sync to, or null if nothing matches
+	 */
+	@Nullable TimelineEntry findSync(double currentTime, ACTLogLineEvent event) {
+		long bucket = bucketOf(currentTime) - firstBucket;
+		int[] narrow = bucket >= 0 && bucket < buckets.length ? buckets[(int) bucket] : NONE;
+		String rawLine = event.getLogLine();
+		String emulatedLine = null;
+		// Merge the two lists, both of which are sorted by index, so that we preserve the original ordering
+		int n = 0;
+		int w = 0;
+		while (n < narrow.length || w < wide.length) {
+			int index;
+			if (w >= wide.length || (n < narrow.length && narrow[n] < wide[w])) {
+				index = narrow[n++];
+			}
+			else {
+				index = wide[w++];
+			}
+			if (currentTime < minTimes[index] || currentTime > maxTimes[index]) {
+				continue;
+			}
+			String prefilter = prefilters[index];
+			if (prefilter != null && !containsIgnoreCase(rawLine, prefilter)) {
+				continue;
+			}
+			if (emulatedLine == null) {
+				emulatedLine = event.getEmulatedActLogLine();
+			}
+			if (patterns[index].matcher(emulatedLine).find()) {
+				return entries[index];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds a hex ID (e.g. the ability ID in {@code 1[56]:[^:]*:Foo:7720:}) which must be present in any line that
+	 * the pattern matches. The fields of the emulated ACT line are the same as the fields of the raw line, so this can
+	 * be checked against the raw line without creating the emulated line.
+	 * <p>
+	 * Patterns with groups, alternation, or quoting are not considered, since the literal might be optional.
+	 *
+	 * @param pattern The regex
+	 * @return The literal, or null if one could not be safely determined
+	 */
+	static @Nullable String requiredLiteral(String pattern) {
+		String best = null;
+		int length = pattern.length();
+		int i = 0;
+		while (i < length) {
+			char c = pattern.charAt(i);
+			switch (c) {
+				case '\\' -> {
+					if (i + 1 < length && pattern.charAt(i + 1) == 'Q') {
+						return null;
+					}
+					i += 2;
+				}
+				case '[' -> {
+					i++;
+					// A ']' immediately after '[' or '[^' is a literal
+					if (i < length && pattern.charAt(i) == '^') {
+						i++;
+					}
+					if (i < length && pattern.charAt(i) == ']') {
+						i++;
+					}
+					while (i < length && pattern.charAt(i) != ']') {
+						i += pattern.charAt(i) == '\\' ? 2 : 1;
+					}
+					i++;
+				}
+				case '(', '|' -> {
+					return null;
+				}
+				case ':' -> {
+					int end = i + 1;
+					while (end < length && isHexDigit(pattern.charAt(end))) {
+						end++;
+					}
+					int hexLength = end - i - 1;
+					if (hexLength >= MIN_PREFILTER_LENGTH && end < length && pattern.charAt(end) == ':') {
+						if (best == null || hexLength > best.length()) {
+							best = pattern.substring(i + 1, end);
+						}
+					}
+					// Don't skip the closing colon, since it can also start the next ID
+					i = end;
+				}
+				default -> i++;
+			}
+		}
+		return best;
+	}
+
+	private static boolean isHexDigit(char c) {
+		return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F') || (c >= 'a' && c <= 'f');
+	}
+
+	private static boolean containsIgnoreCase(String haystack, String needle) {
+		int max = haystack.length() - needle.length();
+		for (int i = 0; i <= max; i++) {
+			if (haystack.regionMatches(true, i, needle, 0, needle.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
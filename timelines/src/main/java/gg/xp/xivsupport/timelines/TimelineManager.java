@@ -11,6 +11,7 @@ import gg.xp.xivsupport.events.ACTLogLineEvent;
 import gg.xp.xivsupport.events.actlines.events.MapChangeEvent;
 import gg.xp.xivsupport.events.actlines.events.ZoneChangeEvent;
 import gg.xp.xivsupport.events.actlines.events.actorcontrol.VictoryEvent;
+import gg.xp.xivsupport.events.debug.DebugCommand;
 import gg.xp.xivsupport.events.misc.pulls.PullStartedEvent;
 import gg.xp.xivsupport.events.state.InCombatChangeEvent;
 import gg.xp.xivsupport.events.state.PlayerChangedJobEvent;
@@ -22,6 +23,7 @@ import gg.xp.xivsupport.persistence.PersistenceProvider;
 import gg.xp.xivsupport.persistence.settings.BooleanSetting;
 import gg.xp.xivsupport.persistence.settings.FileSetting;
 import gg.xp.xivsupport.persistence.settings.IntSetting;
+import gg.xp.xivsupport.replay.ReplayCheckpointable;
 import gg.xp.xivsupport.timelines.intl.LanguageReplacements;
 import gg.xp.xivsupport.timelines.intl.TimelineReplacements;
 import org.jetbrains.annotations.Nullable;
@@ -40,7 +42,7 @@ import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
-public final class TimelineManager {
+public final class TimelineManager implements ReplayCheckpointable<TimelineManager.Checkpoint> {
 
 	private static final Logger log = LoggerFactory.getLogger(TimelineManager.class);
 	private static final Map<Long, TimelineInfo> zoneIdToTimelineFile = new HashMap<>();
@@ -245,6 +247,18 @@ public final class TimelineManager {
 		}
 	}
 
+	@HandleEvents
+	public void statsCommand(EventContext context, DebugCommand event) {
+		TimelineProcessor currentTimeline = this.currentTimeline;
+		if (currentTimeline != null && event.getCommand().equals("stats") && event.getArgs().size() == 1) {
+			long count = currentTimeline.getRefreshCount();
+			log.info("Timeline display refreshes: {}, average {}us, max {}us",
+					count,
+					count == 0 ? 0 : currentTimeline.getRefreshNanos() / count / 1000,
+					currentTimeline.getRefreshMaxNanos() / 1000);
+		}
+	}
+
 	private void resetCurrent() {
 		TimelineProcessor currentTimeline = this.currentTimeline;
 		if (currentTimeline != null) {
@@ -272,6 +286,25 @@ public final class TimelineManager {
 		}
 	}
 
+	record Checkpoint(@Nullable XivZone zone, @Nullable TimelineProcessor timeline, TimelineProcessor.@Nullable TimelineSync lastSync) {
+	}
+
+	@Override
+	public Checkpoint saveCheckpoint() {
+		TimelineProcessor currentTimeline = this.currentTimeline;
+		return new Checkpoint(zone, currentTimeline, currentTimeline == null ? null : currentTimeline.getLastSync());
+	}
+
+	@Override
+	public void restoreCheckpoint(Checkpoint saved) {
+		zone = saved.zone;
+		TimelineProcessor timeline = saved.timeline;
+		if (timeline != null) {
+			timeline.setLastSync(saved.lastSync);
+		}
+		currentTimeline = timeline;
+	}
+
 	public static Map<Long, TimelineInfo> getTimelines() {
 		ensureInit();
 		return Collections.unmodifiableMap(zoneIdToTimelineFile);
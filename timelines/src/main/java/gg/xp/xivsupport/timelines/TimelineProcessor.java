@@ -18,13 +18,13 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -34,6 +34,7 @@ public final class TimelineProcessor {
 
 	private static final Logger log = LoggerFactory.getLogger(TimelineProcessor.class);
 	private final List<TimelineEntry> entries;
+	private final SyncIndex syncIndex;
 	private final TimelineManager manager;
 	private final List<TimelineEntry> rawEntries;
 	private final IntSetting secondsFuture;
@@ -43,6 +44,24 @@ public final class TimelineProcessor {
 	private final RefreshLoop<TimelineProcessor> refresher;
 	private @Nullable TimelineSync lastSync;
 
+	// State for incrementally computing the visible entries. Entries are sorted by time, so [visibleStart, visibleEnd)
+	// is a window over them which slides forward as time passes, and is only re-seeked when the sync changes.
+	private final Object visibleLock = new Object();
+	private final double maxDuration;
+	private final VisualTimelineEntry[] visuals;
+	private @Nullable TimelineSync visibleSync;
+	private double visibleTime = Double.NEGATIVE_INFINITY;
+	private boolean visibleDebug;
+	private int visibleBarTimeBasis;
+	private int visiblePast;
+	private int visibleFuture;
+	private int visibleSyncIndex = -1;
+	private int visibleStart;
+	private int visibleEnd;
+	private volatile long refreshCount;
+	private volatile long refreshNanos;
+	private volatile long refreshMaxNanos;
+
 	record TimelineSync(ACTLogLineEvent line, double lastSyncTime, TimelineEntry original) {
 	}
 
@@ -50,6 +69,9 @@ public final class TimelineProcessor {
 		this.manager = manager;
 		this.rawEntries = entries;
 		this.entries = entries.stream().filter(TimelineEntry::enabled).filter(te -> playerJob == null || te.enabledForJob(playerJob)).collect(Collectors.toList());
+		this.syncIndex = new SyncIndex(this.entries);
+		this.maxDuration = this.entries.stream().map(TimelineEntry::duration).filter(Objects::nonNull).mapToDouble(Double::doubleValue).max().orElse(0);
+		this.visuals = new VisualTimelineEntry[this.entries.size()];
 		secondsFuture = manager.getSecondsFuture();
 		secondsPast = manager.getSecondsPast();
 		debugMode = manager.getDebugMode();
@@ -139,15 +161,14 @@ public final class TimelineProcessor {
 		if (num == 1 || num == 2 || num == 11 || num == 12 || num == 24 || num == 28 || num == 29 || num == 31 || num == 37 || num == 38 || num == 39 || num > 200) {
 			return;
 		}
-		String emulatedActLogLine = event.getEmulatedActLogLine();
 		double timeNow = getEffectiveTime();
-		Optional<TimelineEntry> newSync = entries.stream().filter(entry -> entry.shouldSync(timeNow, emulatedActLogLine)).findFirst();
-		newSync.ifPresent(rawTimelineEntry -> {
+		TimelineEntry rawTimelineEntry = syncIndex.findSync(timeNow, event);
+		if (rawTimelineEntry != null) {
 			double timeToSyncTo = rawTimelineEntry.getSyncToTime();
 			double effectiveTimeBefore = getEffectiveTime();
 			boolean firstSync = lastSync == null;
 			lastSync = new TimelineSync(event, timeToSyncTo, rawTimelineEntry);
-			log.trace("New Sync: {} -> {} ({})", rawTimelineEntry, timeToSyncTo, emulatedActLogLine);
+			log.trace("New Sync: {} -> {} ({})", rawTimelineEntry, timeToSyncTo, event.getLogLine());
 			double effectiveTimeAfter = getEffectiveTime();
 
 			double delta = effectiveTimeAfter - effectiveTimeBefore;
@@ -157,7 +178,7 @@ public final class TimelineProcessor {
 			if (firstSync || Math.abs(delta) > 4.0) {
 				reprocessTriggers();
 			}
-		});
+		}
 	}
 
 	public List<TimelineEntry> getEntries() {
@@ -169,11 +190,15 @@ public final class TimelineProcessor {
 	}
 
 	private double getEffectiveLastSyncTime() {
-		if (lastSync == null) {
+		return getEffectiveLastSyncTime(lastSync);
+	}
+
+	private static double getEffectiveLastSyncTime(@Nullable TimelineSync sync) {
+		if (sync == null) {
 			return 0.0d;
 		}
 		else {
-			return lastSync.lastSyncTime + lastSync.line.getEffectiveTimeSince().toMillis() / 1000.0;
+			return sync.lastSyncTime + sync.line.getEffectiveTimeSince().toMillis() / 1000.0;
 		}
 	}
 
@@ -181,17 +206,132 @@ public final class TimelineProcessor {
 		if (lastSync == null && !showPrePull.get()) {
 			return Collections.emptyList();
 		}
-		double effectiveLastSyncTime = getEffectiveLastSyncTime();
+		synchronized (visibleLock) {
+			long before = System.nanoTime();
+			List<VisualTimelineEntry> out = computeVisibleEntries();
+			long elapsed = System.nanoTime() - before;
+			refreshCount++;
+			refreshNanos += elapsed;
+			refreshMaxNanos = Math.max(refreshMaxNanos, elapsed);
+			return out;
+		}
+	}
+
+	// Must be called with visibleLock held
+	private List<VisualTimelineEntry> computeVisibleEntries() {
+		// Read once, so that the time and the window are based on the same sync
+		TimelineSync sync = lastSync;
+		double now = getEffectiveLastSyncTime(sync);
 		boolean debug = debugMode.get();
 		int barTimeBasis = manager.getBarTimeBasis().get();
-		return entries.stream()
-				.filter(entry -> isLastSync(entry) && debug
-						// TODO: this doesn't show 'active' timeline entries
-						|| (entry.time() + (entry.duration() == null ? 0 : entry.duration()) > (effectiveLastSyncTime - secondsPast.get())
-						&& entry.time() < (effectiveLastSyncTime + secondsFuture.get())
-						&& (entry.name() != null || debug)))
-				.map(entry -> new VisualTimelineEntry(entry, isLastSync(entry), entry.time() - effectiveLastSyncTime, barTimeBasis))
-				.collect(Collectors.toList());
+		int past = secondsPast.get();
+		int future = secondsFuture.get();
+		// Nothing can still be visible if it started more than this long ago
+		double cutoff = now - past - maxDuration;
+		if (sync != visibleSync || now < visibleTime || debug != visibleDebug || barTimeBasis != visibleBarTimeBasis || past != visiblePast || future != visibleFuture) {
+			// Sync or settings changed, start over
+			Arrays.fill(visuals, null);
+			visibleSync = sync;
+			visibleDebug = debug;
+			visibleBarTimeBasis = barTimeBasis;
+			visiblePast = past;
+			visibleFuture = future;
+			visibleSyncIndex = -1;
+			if (sync != null) {
+				for (int i = 0; i < entries.size(); i++) {
+					if (entries.get(i) == sync.original) {
+						visibleSyncIndex = i;
+						break;
+					}
+				}
+			}
+			visibleStart = firstIndexAfter(cutoff);
+			visibleEnd = visibleStart;
+		}
+		else {
+			// Time only moved forwards, so just slide the window
+			while (visibleStart < entries.size() && entries.get(visibleStart).time() <= cutoff) {
+				visuals[visibleStart] = null;
+				visibleStart++;
+			}
+			visibleEnd = Math.max(visibleEnd, visibleStart);
+		}
+		while (visibleEnd < entries.size() && entries.get(visibleEnd).time() < now + future) {
+			visibleEnd++;
+		}
+		visibleTime = now;
+
+		List<VisualTimelineEntry> out = new ArrayList<>();
+		// In debug mode, the last sync is always shown even if it is outside the window
+		int forced = debug ? visibleSyncIndex : -1;
+		if (forced >= 0 && forced < visibleStart) {
+			out.add(visualFor(forced, now));
+		}
+		for (int i = visibleStart; i < visibleEnd; i++) {
+			TimelineEntry entry = entries.get(i);
+			// TODO: this doesn't show 'active' timeline entries
+			if (i == forced
+					|| (entry.time() + (entry.duration() == null ? 0 : entry.duration()) > (now - past)
+					&& (entry.name() != null || debug))) {
+				out.add(visualFor(i, now));
+			}
+		}
+		if (forced >= visibleEnd) {
+			out.add(visualFor(forced, now));
+		}
+		return out;
+	}
+
+	private VisualTimelineEntry visualFor(int index, double now) {
+		TimelineEntry entry = entries.get(index);
+		VisualTimelineEntry visual = visuals[index];
+		if (visual == null) {
+			visual = new VisualTimelineEntry(entry, index == visibleSyncIndex, entry.time() - now, visibleBarTimeBasis);
+			// Don't hold on to the forced debug entry, since the window cursor will never clear it
+			if (index >= visibleStart && index < visibleEnd) {
+				visuals[index] = visual;
+			}
+		}
+		else {
+			visual.setTimeUntil(entry.time() - now);
+		}
+		return visual;
+	}
+
+	private int firstIndexAfter(double time) {
+		int low = 0;
+		int high = entries.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (entries.get(mid).time() <= time) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return How many times the visible entries have been computed
+	 */
+	public long getRefreshCount() {
+		return refreshCount;
+	}
+
+	/**
+	 * @return Total time spent computing the visible entries, in nanoseconds
+	 */
+	public long getRefreshNanos() {
+		return refreshNanos;
+	}
+
+	/**
+	 * @return Longest time spent computing the visible entries for a single frame, in nanoseconds
+	 */
+	public long getRefreshMaxNanos() {
+		return refreshMaxNanos;
 	}
 
 	private List<UpcomingCall> upcomingTriggers = Collections.emptyList();
@@ -303,10 +443,6 @@ public final class TimelineProcessor {
 		}
 	}
 
-	private boolean isLastSync(TimelineEntry entry) {
-		return lastSync != null && lastSync.original == entry;
-	}
-
 	public void reset() {
 		lastSync = null;
 	}
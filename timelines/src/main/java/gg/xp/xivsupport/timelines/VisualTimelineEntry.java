@@ -5,14 +5,44 @@ import gg.xp.xivsupport.models.CurrentMaxPair;
 
 import java.util.Objects;
 
+/**
+ * A timeline entry as displayed on the overlay. These are reused between frames by {@link TimelineProcessor}, which
+ * only updates {@link #timeUntil()}.
+ */
 @SuppressWarnings("NumericCastThatLosesPrecision")
-public record VisualTimelineEntry(
-		TimelineEntry originalTimelineEntry,
-		boolean isCurrentSync,
-		double timeUntil,
-		int barTimeBasis
+public final class VisualTimelineEntry implements LabelOverride, CurrentMaxPair {
 
-) implements LabelOverride, CurrentMaxPair {
+	private final TimelineEntry originalTimelineEntry;
+	private final boolean isCurrentSync;
+	private final int barTimeBasis;
+	private volatile double timeUntil;
+
+	public VisualTimelineEntry(TimelineEntry originalTimelineEntry, boolean isCurrentSync, double timeUntil, int barTimeBasis) {
+		this.originalTimelineEntry = originalTimelineEntry;
+		this.isCurrentSync = isCurrentSync;
+		this.timeUntil = timeUntil;
+		this.barTimeBasis = barTimeBasis;
+	}
+
+	public TimelineEntry originalTimelineEntry() {
+		return originalTimelineEntry;
+	}
+
+	public boolean isCurrentSync() {
+		return isCurrentSync;
+	}
+
+	public double timeUntil() {
+		return timeUntil;
+	}
+
+	void setTimeUntil(double timeUntil) {
+		this.timeUntil = timeUntil;
+	}
+
+	public int barTimeBasis() {
+		return barTimeBasis;
+	}
 
 	@Override
 	public String getLabel() {
@@ -29,7 +59,7 @@ public record VisualTimelineEntry(
 			return (long) (remainingActiveTime() * 1000.0);
 		}
 		float timeBasis = barTimeBasis * 1000.0f;
-		return (long) Math.min(timeBasis - (1000.0 * timeUntil), timeBasis);
+		return (long) Math.min(timeBasis - (1000.0 * timeUntil()), timeBasis);
 	}
 
 	@Override
@@ -46,6 +76,7 @@ public record VisualTimelineEntry(
 		if (timelineDuration == null) {
 			return 0;
 		}
+		double timeUntil = timeUntil();
 		if (timeUntil > 0) {
 			// Not active yet
 			return 0;
@@ -66,4 +97,14 @@ public record VisualTimelineEntry(
 	public int hashCode() {
 		return Objects.hash(originalTimelineEntry, isCurrentSync());
 	}
+
+	@Override
+	public String toString() {
+		return "VisualTimelineEntry{" +
+				"originalTimelineEntry=" + originalTimelineEntry +
+				", isCurrentSync=" + isCurrentSync +
+				", timeUntil=" + timeUntil +
+				", barTimeBasis=" + barTimeBasis +
+				'}';
+	}
 }
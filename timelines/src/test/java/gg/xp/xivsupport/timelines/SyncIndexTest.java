@@ -0,0 +1,53 @@
+package gg.xp.xivsupport.timelines;
+
+import gg.xp.xivsupport.events.ACTLogLineEvent;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class SyncIndexTest {
+
+	private static final String line = "21|2021-07-27T12:48:22.4630000-04:00|40024FD1|Proto-Karfunkel|76D6|Aetherochemical Laser|10FF0001|Tini Poutini|750003|4620000|1B|F678000|0|0|0|0|0|0|0|0|0|0|0|0|36022|36022|5200|10000|0|1000|1.846313|-12.31409|10.60608|-2.264526|16000|16000|8840|10000|0|1000|-9.079163|-14.02307|18.7095|1.416605|0000DE1F|0|5d60825d70bb46d7fcc8fc0339849e8e";
+
+	private static TimelineEntry entry(double time, String sync, TimelineWindow window) {
+		return new TextFileTimelineEntry(time, "Entry " + time, Pattern.compile(sync, Pattern.CASE_INSENSITIVE), null, window, null);
+	}
+
+	@Test
+	void testRequiredLiteral() {
+		Assert.assertEquals(SyncIndex.requiredLiteral(" 1[56]:[^:]*:Proto-Carbuncle:7720:"), "7720");
+		Assert.assertEquals(SyncIndex.requiredLiteral(" 1[56]:[^:]*:Rhitahtyn sas Arvina:471:"), "471");
+		Assert.assertEquals(SyncIndex.requiredLiteral(" 21:........:4000000F:"), "4000000F");
+		// Colons inside a character class do not count
+		Assert.assertNull(SyncIndex.requiredLiteral(" 1[56]:[^:ABCD:]*:Foo:"));
+		// Could be optional
+		Assert.assertNull(SyncIndex.requiredLiteral(" 1[56]:[^:]*:Foo:(7720|7721):"));
+		Assert.assertNull(SyncIndex.requiredLiteral(" 1[56]:[^:]*:Foo:7720:|Engage!"));
+		Assert.assertNull(SyncIndex.requiredLiteral("Engage!"));
+	}
+
+	@Test
+	void testFindSync() {
+		ACTLogLineEvent event = new ACTLogLineEvent(line);
+		TimelineEntry wrongId = entry(10, " 1[56]:[^:]*:Proto-Karfunkel:76D7:", TimelineWindow.DEFAULT);
+		TimelineEntry first = entry(12, " 1[56]:[^:]*:Proto-Karfunkel:76D6:", TimelineWindow.DEFAULT);
+		TimelineEntry second = entry(13, " 1[56]:[^:]*:Proto-karfunkel:76d6:", TimelineWindow.DEFAULT);
+		TimelineEntry reset = entry(500, " 15:[^:]*:Proto-Karfunkel:", new TimelineWindow(100000, 100000));
+		TimelineEntry later = entry(1000, " 1[56]:[^:]*:Proto-Karfunkel:76D6:", new TimelineWindow(20, 20));
+		SyncIndex index = new SyncIndex(List.of(wrongId, first, second, reset, later));
+
+		// Same results as checking every entry in order
+		Assert.assertSame(index.findSync(11, event), first);
+		Assert.assertSame(index.findSync(15, event), second);
+		Assert.assertSame(index.findSync(300, event), reset);
+		Assert.assertSame(index.findSync(985, event), reset);
+		Assert.assertSame(index.findSync(-100, event), reset);
+
+		SyncIndex withoutReset = new SyncIndex(List.of(wrongId, first, second, later));
+		Assert.assertSame(withoutReset.findSync(985, event), later);
+		Assert.assertNull(withoutReset.findSync(300, event));
+		Assert.assertNull(withoutReset.findSync(-100, event));
+	}
+}
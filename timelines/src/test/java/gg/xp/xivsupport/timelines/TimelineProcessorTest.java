@@ -20,6 +20,8 @@ import org.picocontainer.MutablePicoContainer;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 public class TimelineProcessorTest {
@@ -45,6 +47,11 @@ public class TimelineProcessorTest {
 			List<VisualTimelineEntry> currentEntries = tm.getCurrentDisplayEntries();
 			VisualTimelineEntry firstEntry = currentEntries.get(0);
 			MatcherAssert.assertThat(firstEntry.timeUntil(), Matchers.closeTo(18.1, 0.11));
+			// Should be reused between frames, and the refresh should be tracked
+			List<VisualTimelineEntry> nextFrame = tm.getCurrentDisplayEntries();
+			Assert.assertEquals(nextFrame.size(), currentEntries.size());
+			Assert.assertSame(nextFrame.get(0), firstEntry);
+			MatcherAssert.assertThat(nextFrame.get(0).timeUntil(), Matchers.closeTo(18.1, 0.11));
 		}
 	}
 
@@ -75,4 +82,63 @@ public class TimelineProcessorTest {
 			MatcherAssert.assertThat(firstEntry.getLabel(), Matchers.equalTo("Sengender Strahl"));
 		}
 	}
+
+	@Test
+	void incrementalWindowMatchesFullRecompute() {
+		MutablePicoContainer pico = XivMain.testingMasterInit();
+		TimelineManager tm = pico.getComponent(TimelineManager.class);
+		TimelineProcessor incremental = tm.getTimeline(0x3CD);
+		TimelineProcessor full = tm.getTimeline(0x3CD);
+		Assert.assertNotNull(incremental);
+		Assert.assertNotNull(full);
+		List<Integer> syncIndices = new ArrayList<>();
+		for (int i = 0; i < incremental.getEntries().size(); i++) {
+			if (incremental.getEntries().get(i).sync() != null) {
+				syncIndices.add(i);
+			}
+		}
+		MatcherAssert.assertThat(syncIndices.size(), Matchers.greaterThan(2));
+		int first = syncIndices.get(0);
+		int middle = syncIndices.get(syncIndices.size() / 2);
+		int last = syncIndices.get(syncIndices.size() - 1);
+
+		FakeTimeSource time = new FakeTimeSource();
+		ACTLogLineEvent line = new ACTLogLineEvent("00|2022-04-19T17:36:39.0000000-07:00|0839||Test|0");
+		line.setTimeSource(time);
+		Instant lineTime = line.getHappenedAt();
+
+		// Time moving forwards from a sync
+		checkWindow(incremental, full, first, line, time, lineTime, 0, 2.5, 10, 60);
+		// Jump ahead to a later sync
+		checkWindow(incremental, full, last, line, time, lineTime, 0, 5);
+		// Seek back to an earlier sync, then back in time without a new sync
+		checkWindow(incremental, full, middle, line, time, lineTime, 1, 20, -3, 1);
+		// Debug mode shows the sync entry even once it is out of the window
+		tm.getDebugMode().set(true);
+		checkWindow(incremental, full, first, line, time, lineTime, 0, 120, 200);
+		tm.getDebugMode().set(false);
+	}
+
+	private static void checkWindow(TimelineProcessor incremental, TimelineProcessor full, int syncIndex, ACTLogLineEvent line, FakeTimeSource time, Instant lineTime, double... secondsAfterSync) {
+		TimelineEntry syncEntry = incremental.getEntries().get(syncIndex);
+		incremental.setLastSync(new TimelineProcessor.TimelineSync(line, syncEntry.time(), syncEntry));
+		for (double seconds : secondsAfterSync) {
+			time.setNewTime(lineTime.plusMillis((long) (seconds * 1000)));
+			// A new sync every time means starting over every time
+			TimelineEntry fullSyncEntry = full.getEntries().get(syncIndex);
+			full.setLastSync(new TimelineProcessor.TimelineSync(line, fullSyncEntry.time(), fullSyncEntry));
+			List<VisualTimelineEntry> actual = incremental.getCurrentTimelineEntries();
+			List<VisualTimelineEntry> expected = full.getCurrentTimelineEntries();
+			String where = "sync " + syncIndex + " + " + seconds + "s";
+			Assert.assertEquals(actual.size(), expected.size(), where);
+			for (int i = 0; i < actual.size(); i++) {
+				VisualTimelineEntry a = actual.get(i);
+				VisualTimelineEntry e = expected.get(i);
+				Assert.assertEquals(a.originalTimelineEntry().time(), e.originalTimelineEntry().time(), where);
+				Assert.assertEquals(a.getLabel(), e.getLabel(), where);
+				Assert.assertEquals(a.isCurrentSync(), e.isCurrentSync(), where);
+				Assert.assertEquals(a.timeUntil(), e.timeUntil(), 0.000_001, where);
+			}
+		}
+	}
 }
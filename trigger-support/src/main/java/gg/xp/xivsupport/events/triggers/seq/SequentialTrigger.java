@@ -16,6 +16,9 @@ public class SequentialTrigger<X extends BaseEvent> implements TypedEventHandler
 	private Class<X> type;
 	private final Predicate<X> startOn;
 	private final BiConsumer<X, SequentialTriggerController<X>> trigger;
+	// Only written from the event thread
+	private volatile long offeredCount;
+	private volatile long acceptedCount;
 
 	public SequentialTrigger(int timeoutMs, Class<X> type, Predicate<X> startOn, BiConsumer<X, SequentialTriggerController<X>> trigger) {
 		this.timeoutMs = timeoutMs;
@@ -34,7 +37,10 @@ public class SequentialTrigger<X extends BaseEvent> implements TypedEventHandler
 			}
 		}
 		else {
-			instance.provideEvent(ctx, event);
+			offeredCount++;
+			if (instance.provideEvent(ctx, event)) {
+				acceptedCount++;
+			}
 			if (instance.isDone()) {
 				instance = null;
 			}
@@ -63,4 +69,43 @@ public class SequentialTrigger<X extends BaseEvent> implements TypedEventHandler
 	public boolean isActive() {
 		return instance != null;
 	}
+
+	/**
+	 * @return How many events have been offered to this trigger while it was waiting for an event
+	 */
+	public long getOfferedCount() {
+		return offeredCount;
+	}
+
+	/**
+	 * @return How many of those events the trigger was actually waiting for
+	 */
+	public long getAcceptedCount() {
+		return acceptedCount;
+	}
+
+	/**
+	 * @return The class of event this trigger is currently waiting for, or null if it is not running
+	 */
+	public @Nullable Class<?> getAwaitedClass() {
+		SequentialTriggerController<X> inst = instance;
+		return inst == null ? null : inst.getAwaitedClass();
+	}
+
+	protected Object getTriggerCode() {
+		return trigger;
+	}
+
+	/**
+	 * @return A description of where this trigger was defined, for logging and stats
+	 */
+	public String getLabel() {
+		// Trigger code is almost always a lambda, so this is the class that defined it
+		String name = getTriggerCode().getClass().getName();
+		int lambdaIndex = name.indexOf("$$Lambda");
+		if (lambdaIndex > 0) {
+			name = name.substring(0, lambdaIndex);
+		}
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
 }
@@ -14,6 +14,7 @@ import gg.xp.xivsupport.events.state.RefreshCombatantsRequest;
 import gg.xp.xivsupport.events.state.combatstate.StatusEffectRepository;
 import gg.xp.xivsupport.speech.CalloutEvent;
 import gg.xp.xivsupport.speech.HasCalloutTrackingKey;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,7 +26,11 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
@@ -34,12 +39,15 @@ import java.util.stream.IntStream;
 public class SequentialTriggerController<X extends BaseEvent> {
 
 	private static final Logger log = LoggerFactory.getLogger(SequentialTriggerController.class);
-	private static final AtomicInteger threadIdCounter = new AtomicInteger();
+	private static final ExecutorService executor = makeExecutor();
+	private static final AtomicInteger runningCount = new AtomicInteger();
 	//	private final Instant expiresAt;
 	private final BooleanSupplier expired;
-	private final Thread thread;
-	private final Object lock = new Object();
 	private final X initialEvent;
+	// Control is handed back and forth between these two with park/unpark, which (unlike wait/notify) does not pin a
+	// virtual thread to its carrier.
+	private volatile @Nullable Thread triggerThread;
+	private volatile Thread pumpThread;
 	private volatile X currentEvent;
 	private volatile EventContext context;
 	private volatile boolean done;
@@ -47,6 +55,8 @@ public class SequentialTriggerController<X extends BaseEvent> {
 	private volatile boolean die;
 	private volatile boolean cycleProcessingTimeExceeded;
 	private volatile @Nullable Predicate<X> filter;
+	// Events which are not of this class are rejected without running the filter
+	private volatile Class<?> awaitedClass = Object.class;
 	private final Map<String, Object> params = new LinkedHashMap<>();
 
 	// To be called from external thread
@@ -54,7 +64,11 @@ public class SequentialTriggerController<X extends BaseEvent> {
 		expired = () -> initialEvent.getEffectiveTimeSince().toMillis() > timeout;
 //		expiresAt = initialEvent.getHappenedAt().plusMillis(timeout);
 		context = initialEventContext;
-		thread = new Thread(() -> {
+		this.initialEvent = initialEvent;
+		pumpThread = Thread.currentThread();
+		executor.execute(() -> {
+			triggerThread = Thread.currentThread();
+			runningCount.incrementAndGet();
 			try {
 				triggerCode.accept(initialEvent, this);
 			}
@@ -62,21 +76,42 @@ public class SequentialTriggerController<X extends BaseEvent> {
 				log.error("Error in sequential trigger", t);
 			}
 			finally {
-				synchronized (lock) {
-					log.info("Sequential trigger done");
-					processing = false;
-					done = true;
-					lock.notifyAll();
-				}
+				log.info("Sequential trigger done");
+				runningCount.decrementAndGet();
+				triggerThread = null;
+				done = true;
+				processing = false;
+				LockSupport.unpark(pumpThread);
+			}
+		});
+		waitProcessingDone();
+	}
+
+	private static ExecutorService makeExecutor() {
+		if (Boolean.getBoolean("sequentialTriggerVirtualThreads")) {
+			try {
+				// Virtual threads need Java 21, but we still build against 17
+				ExecutorService virtual = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+				log.info("Sequential triggers will run on virtual threads");
+				return virtual;
+			}
+			catch (ReflectiveOperationException e) {
+				log.warn("Virtual threads were requested for sequential triggers, but are not supported on Java {}", Runtime.version());
 			}
-		}, "SequentialTrigger-" + threadIdCounter.getAndIncrement());
-		this.initialEvent = initialEvent;
-		thread.setDaemon(true);
-		thread.setPriority(Thread.MAX_PRIORITY);
-		thread.start();
-		synchronized (lock) {
-			waitProcessingDone();
 		}
+		// Threads are reused rather than started for every activation. Idle threads are kept for a minute by default.
+		return Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
+				.namingPattern("SequentialTrigger-%d")
+				.daemon(true)
+				.priority(Thread.MAX_PRIORITY)
+				.build());
+	}
+
+	/**
+	 * @return The number of sequential triggers currently running or waiting for an event, across all controllers
+	 */
+	public static int getRunningCount() {
+		return runningCount.get();
 	}
 
 	// To be called from internal thread
@@ -102,15 +137,19 @@ public class SequentialTriggerController<X extends BaseEvent> {
 	}
 
 	public void forceExpire() {
-		synchronized (lock) {
-			// TODO: expire on wipe?
-			// Also make it configurable as to whether or not a wipe ends the trigger
-//			if (event.getHappenedAt().isAfter(expiresAt)) {
-			log.info("Sequential trigger force expired");
-			die = true;
-			lock.notifyAll();
+		// TODO: expire on wipe?
+		// Also make it configurable as to whether or not a wipe ends the trigger
+//		if (event.getHappenedAt().isAfter(expiresAt)) {
+		log.info("Sequential trigger force expired");
+		die = true;
+		wakeTrigger();
+	}
+
+	private void wakeTrigger() {
+		Thread thread = triggerThread;
+		if (thread != null) {
+			LockSupport.unpark(thread);
 		}
-
 	}
 
 	@SystemEvent
@@ -282,7 +321,7 @@ public class SequentialTriggerController<X extends BaseEvent> {
 	// To be called from internal thread
 	public <Y> Y waitEvent(Class<Y> eventClass, Predicate<Y> eventFilter) {
 		log.trace("Waiting for specific event");
-		return (Y) waitEvent(event -> eventClass.isInstance(event) && eventFilter.test((Y) event));
+		return (Y) waitEventOfClass(eventClass, event -> eventFilter.test((Y) event));
 	}
 
 	// To be called from internal thread
@@ -431,66 +470,90 @@ public class SequentialTriggerController<X extends BaseEvent> {
 
 	// To be called from internal thread
 	private X waitEvent(Predicate<X> filter) {
-		synchronized (lock) {
-			processing = false;
-			currentEvent = null;
-			context = null;
-			this.filter = filter;
-			lock.notifyAll();
-			while (true) {
-				if (die) {
-					// Deprecated, but.......?
-					// Seems better than leaving threads hanging around doing nothing.
-//					thread.stop();
-					throw new SequentialTriggerTimeoutException("Trigger ran out of time waiting for event");
-				}
-				if (cycleProcessingTimeExceeded) {
-					throw new SequentialTriggerTimeoutException("Trigger exceeded max cycle time");
-				}
-				if (currentEvent != null) {
-					X event = currentEvent;
-					currentEvent = null;
-					this.filter = null;
-					return event;
-				}
+		return waitEventOfClass(Object.class, filter);
+	}
 
-				try {
-					lock.wait();
-				}
-				// TODO: use this as a stop condition
-				catch (InterruptedException e) {
-					throw new SequentialTriggerTimeoutException("Trigger was interrupted", e);
-				}
+	// To be called from internal thread
+	private X waitEventOfClass(Class<?> awaitedClass, Predicate<X> filter) {
+		currentEvent = null;
+		context = null;
+		this.awaitedClass = awaitedClass;
+		this.filter = filter;
+		// Hand control back to the event pump
+		processing = false;
+		LockSupport.unpark(pumpThread);
+		while (true) {
+			if (die) {
+				// Deprecated, but.......?
+				// Seems better than leaving threads hanging around doing nothing.
+//				thread.stop();
+				throw new SequentialTriggerTimeoutException("Trigger ran out of time waiting for event");
+			}
+			if (cycleProcessingTimeExceeded) {
+				throw new SequentialTriggerTimeoutException("Trigger exceeded max cycle time");
+			}
+			X event = currentEvent;
+			if (event != null) {
+				currentEvent = null;
+				this.filter = null;
+				return event;
+			}
+			LockSupport.park(this);
+			// TODO: use this as a stop condition
+			if (Thread.interrupted()) {
+				throw new SequentialTriggerTimeoutException("Trigger was interrupted");
 			}
 		}
 	}
 
-	// To be called from external thread
-	public void provideEvent(EventContext ctx, X event) {
-		synchronized (lock) {
-			// TODO: expire on wipe?
-			// Also make it configurable as to whether or not a wipe ends the trigger
-			if (expired.getAsBoolean()) {
-//			if (event.getHappenedAt().isAfter(expiresAt)) {
-				log.warn("Sequential trigger expired by event: {}", event);
-				die = true;
-				lock.notifyAll();
-				return;
-			}
-			Predicate<X> filt = filter;
-			if (filt != null && !filt.test(event)) {
-				return;
-			}
-			// First, set fields
-			context = ctx;
-			currentEvent = event;
-			// Indicate that we are currently processing
-			processing = true;
-			// Then, tell it to resume
-			lock.notifyAll();
-			// Wait for it to be done
-			waitProcessingDone();
+	/**
+	 * @return The class of event the trigger is waiting for, or last waited for (Object if it has no preference)
+	 */
+	Class<?> getAwaitedClass() {
+		return awaitedClass;
+	}
+
+	/**
+	 * Offer an event to the trigger. To be called from external thread.
+	 *
+	 * @param ctx   The event context
+	 * @param event The event
+	 * @return true if the trigger was waiting for this event, and has processed it
+	 */
+	public boolean provideEvent(EventContext ctx, X event) {
+		// If the trigger blew through its cycle time, it is still running, and will die as soon as it waits again
+		if (isDone() || cycleProcessingTimeExceeded) {
+			return false;
+		}
+		// TODO: expire on wipe?
+		// Also make it configurable as to whether or not a wipe ends the trigger
+		// Expiry has to be checked before the class, since this is the only place it is checked. A trigger waiting for
+		// an event that never comes would otherwise never expire, and would keep its SequentialTrigger from starting
+		// again.
+		if (expired.getAsBoolean()) {
+//		if (event.getHappenedAt().isAfter(expiresAt)) {
+			log.warn("Sequential trigger expired by event: {}", event);
+			die = true;
+			wakeTrigger();
+			return false;
+		}
+		if (!awaitedClass.isInstance(event)) {
+			return false;
 		}
+		Predicate<X> filt = filter;
+		if (filt != null && !filt.test(event)) {
+			return false;
+		}
+		pumpThread = Thread.currentThread();
+		context = ctx;
+		// Indicate that we are currently processing. This must be set before the event, since the trigger may finish
+		// processing the event as soon as it sees it.
+		processing = true;
+		currentEvent = event;
+		// Then, tell it to resume, and wait for it to be done
+		wakeTrigger();
+		waitProcessingDone();
+		return true;
 	}
 
 	private static final int defaultCycleProcessingTime = 250;
@@ -518,25 +581,20 @@ public class SequentialTriggerController<X extends BaseEvent> {
 
 	private void waitProcessingDone() {
 		// "done" means waiting for another event
-		long startTime = System.currentTimeMillis();
 		int timeoutMs = cycleProcessingTime;
-		long failAt = startTime + timeoutMs;
+		long failAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
 		while (processing && !done) {
-			try {
-				long timeLeft = failAt - System.currentTimeMillis();
-				if (timeLeft <= 0) {
-					log.error("Cycle processing time max ({}ms) exceeded", timeoutMs);
-					cycleProcessingTimeExceeded = true;
-					return;
-				}
-				//noinspection WaitNotifyWhileNotSynced
-				lock.wait(timeLeft);
+			long timeLeft = failAt - System.nanoTime();
+			if (timeLeft <= 0) {
+				log.error("Cycle processing time max ({}ms) exceeded", timeoutMs);
+				cycleProcessingTimeExceeded = true;
+				return;
 			}
-			catch (InterruptedException e) {
-				throw new RuntimeException(e);
+			LockSupport.parkNanos(this, timeLeft);
+			if (Thread.interrupted()) {
+				throw new RuntimeException(new InterruptedException());
 			}
 		}
-
 	}
 
 	// To be called from external thread
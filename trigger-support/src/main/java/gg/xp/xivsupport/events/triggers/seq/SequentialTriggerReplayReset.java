@@ -0,0 +1,39 @@
+package gg.xp.xivsupport.events.triggers.seq;
+
+import gg.xp.reevent.scan.ScanMe;
+import gg.xp.xivsupport.replay.ReplayCheckpointable;
+import org.picocontainer.PicoContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Expires running sequential triggers when a replay seeks to a checkpoint. A running trigger is partway through
+ * events which are no longer in the past, so there is nothing sensible to restore it to.
+ */
+@ScanMe
+public class SequentialTriggerReplayReset implements ReplayCheckpointable<Void> {
+
+	private static final Logger log = LoggerFactory.getLogger(SequentialTriggerReplayReset.class);
+	private final PicoContainer container;
+
+	public SequentialTriggerReplayReset(PicoContainer container) {
+		this.container = container;
+	}
+
+	@Override
+	public Void saveCheckpoint() {
+		return null;
+	}
+
+	@Override
+	public void restoreCheckpoint(Void saved) {
+		int expired = 0;
+		for (SequentialTrigger<?> trigger : SequentialTriggerStats.findTriggers(container.getComponents())) {
+			if (trigger.isActive()) {
+				trigger.forceExpire();
+				expired++;
+			}
+		}
+		log.info("Expired {} running sequential triggers", expired);
+	}
+}
@@ -0,0 +1,86 @@
+package gg.xp.xivsupport.events.triggers.seq;
+
+import gg.xp.reevent.events.EventContext;
+import gg.xp.reevent.scan.HandleEvents;
+import gg.xp.reevent.scan.ScanMe;
+import gg.xp.xivsupport.events.debug.DebugCommand;
+import org.picocontainer.PicoContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@ScanMe
+public class SequentialTriggerStats {
+
+	private static final Logger log = LoggerFactory.getLogger(SequentialTriggerStats.class);
+	private final PicoContainer container;
+
+	public SequentialTriggerStats(PicoContainer container) {
+		this.container = container;
+	}
+
+	@HandleEvents
+	public void statsCommand(EventContext context, DebugCommand event) {
+		if (event.getCommand().equals("stats") && event.getArgs().size() == 1) {
+			List<SequentialTrigger<?>> triggers = findTriggers(container.getComponents());
+			Map<String, Integer> parked = new TreeMap<>();
+			for (SequentialTrigger<?> trigger : triggers) {
+				Class<?> awaited = trigger.getAwaitedClass();
+				if (awaited != null) {
+					parked.merge(awaited.getSimpleName(), 1, Integer::sum);
+				}
+			}
+			log.info("Sequential triggers: {} running, parked by awaited event type: {}", SequentialTriggerController.getRunningCount(), parked);
+			StringBuilder sb = new StringBuilder("Sequential trigger events (offered, accepted):");
+			triggers.stream()
+					.filter(trigger -> trigger.getOfferedCount() > 0)
+					.sorted(Comparator.comparing(SequentialTrigger<?>::getOfferedCount).reversed())
+					.forEach(trigger -> sb.append("\n  ").append(trigger.getLabel())
+							.append(": ").append(trigger.getOfferedCount())
+							.append(", ").append(trigger.getAcceptedCount()));
+			log.info(sb.toString());
+		}
+	}
+
+	/**
+	 * Finds sequential triggers held in fields of the given components (including superclass fields), which is where
+	 * duty modules keep them, whether they are fed via AutoFeed or by hand.
+	 *
+	 * @param components The components to look in
+	 * @return The triggers found, without duplicates
+	 */
+	static List<SequentialTrigger<?>> findTriggers(Collection<?> components) {
+		Set<SequentialTrigger<?>> found = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<SequentialTrigger<?>> out = new ArrayList<>();
+		for (Object component : components) {
+			for (Class<?> cls = component.getClass(); cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+				for (Field field : cls.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers()) || !SequentialTrigger.class.isAssignableFrom(field.getType())) {
+						continue;
+					}
+					try {
+						field.setAccessible(true);
+						if (field.get(component) instanceof SequentialTrigger<?> trigger && found.add(trigger)) {
+							out.add(trigger);
+						}
+					}
+					catch (RuntimeException | IllegalAccessException e) {
+						log.trace("Could not read field {} of {}", field.getName(), cls.getName(), e);
+					}
+				}
+			}
+		}
+		return out;
+	}
+}
@@ -146,10 +146,18 @@ public final class SqtTemplates {
 	}
 
 	private static class AutoWipeSequentialTrigger<X> extends SequentialTrigger<BaseEvent> {
+		private final BiConsumer<X, SequentialTriggerController<BaseEvent>> trigger;
+
 		public AutoWipeSequentialTrigger(int timeoutMs, Class<X> startType, Predicate<X> startCondition, BiConsumer<X, SequentialTriggerController<BaseEvent>> trigger) {
 			super(timeoutMs, BaseEvent.class, e1 -> startType.isInstance(e1) && startCondition.test((X) e1), (e1, s) -> {
 				trigger.accept((X) e1, s);
 			});
+			this.trigger = trigger;
+		}
+
+		@Override
+		protected Object getTriggerCode() {
+			return trigger;
 		}
 
 		@Override
@@ -187,6 +187,71 @@ public class SequentialTriggerTest {
 		Assert.assertEquals(aint.get(), 5);
 	}
 
+	@Test
+	void testOfferedAcceptedCounts() {
+		AtomicInteger aint = new AtomicInteger();
+		SequentialTrigger<BaseEvent> trigger = SqtTemplates.sq(10_000, EchoEvent.class, e -> e.getLine().startsWith("Foo"), (e1, s) -> {
+			s.waitEvent(EchoEvent.class, e -> e.getLine().startsWith("Bar"));
+			aint.incrementAndGet();
+		});
+		MutablePicoContainer pico = XivMain.testingMinimalInit();
+		EventDistributor dist = pico.getComponent(EventDistributor.class);
+		dist.registerHandler(BaseEvent.class, trigger::feed);
+
+		// Not active yet, so nothing is offered
+		dist.acceptEvent(new DebugCommand("Not interested in this event"));
+		Assert.assertEquals(trigger.getOfferedCount(), 0);
+		dist.acceptEvent(new EchoEvent("Foo1"));
+		Assert.assertTrue(trigger.isActive());
+		// Wrong type, and right type but wrong filter
+		dist.acceptEvent(new DebugCommand("Not interested in this event"));
+		dist.acceptEvent(new EchoEvent("Baz1"));
+		Assert.assertEquals(trigger.getAwaitedClass(), EchoEvent.class);
+		dist.acceptEvent(new EchoEvent("Bar1"));
+		Assert.assertEquals(aint.get(), 1);
+		Assert.assertFalse(trigger.isActive());
+		Assert.assertEquals(trigger.getOfferedCount(), 3);
+		Assert.assertEquals(trigger.getAcceptedCount(), 1);
+		Assert.assertEquals(trigger.getLabel(), "SequentialTriggerTest");
+		Assert.assertNull(trigger.getAwaitedClass());
+	}
+
+	@Test
+	void testStatsFindsTriggers() {
+		SequentialTrigger<BaseEvent> trigger = SqtTemplates.sq(10_000, EchoEvent.class, e -> true, (e1, s) -> {
+		});
+		Object owner = new Object() {
+			private final SequentialTrigger<BaseEvent> sq = trigger;
+			private final SequentialTrigger<BaseEvent> same = trigger;
+			private final String notATrigger = "foo";
+		};
+		Assert.assertEquals(SequentialTriggerStats.findTriggers(List.of(owner, "bar")), List.of(trigger));
+	}
+
+	@Test
+	void testReplaySeekExpiresTriggers() {
+		List<String> values = new ArrayList<>();
+		SequentialTrigger<BaseEvent> trigger = SqtTemplates.sq(10_000, EchoEvent.class, e -> e.getLine().startsWith("Foo"), (e1, s) -> {
+			values.add(e1.getLine());
+			EchoEvent bar = s.waitEvent(EchoEvent.class, e -> e.getLine().startsWith("Bar"));
+			values.add(bar.getLine());
+		});
+		MutablePicoContainer pico = XivMain.testingMinimalInit();
+		pico.addComponent(new Object() {
+			private final SequentialTrigger<BaseEvent> sq = trigger;
+		});
+		EventDistributor dist = pico.getComponent(EventDistributor.class);
+		dist.registerHandler(BaseEvent.class, trigger::feed);
+
+		dist.acceptEvent(new EchoEvent("Foo1"));
+		Assert.assertTrue(trigger.isActive());
+		new SequentialTriggerReplayReset(pico).restoreCheckpoint(null);
+		Assert.assertFalse(trigger.isActive());
+		// Should be ignored, since the trigger that was waiting for it is gone
+		dist.acceptEvent(new EchoEvent("Bar1"));
+		Assert.assertEquals(values, List.of("Foo1"));
+	}
+
 	@Test
 	void testMultiInvocation() {
 
@@ -1,9 +1,9 @@
 package gg.xp.xivsupport.events;
 
 import gg.xp.reevent.events.BaseEvent;
-import gg.xp.reevent.events.BasicEventQueue;
 import gg.xp.reevent.events.Event;
 import gg.xp.reevent.events.EventDistributor;
+import gg.xp.reevent.events.EventQueue;
 import gg.xp.reevent.events.InitEvent;
 import gg.xp.reevent.events.TestEventCollector;
 import gg.xp.xivdata.data.Job;
@@ -860,7 +860,7 @@ public class JailExampleTest {
 	}
 
 	private static void finishSetup(PicoContainer container) {
-		BasicEventQueue queue = container.getComponent(BasicEventQueue.class);
+		EventQueue queue = container.getComponent(EventQueue.class);
 		queue.waitDrain();
 		EventDistributor dist = container.getComponent(EventDistributor.class);
 		dist.acceptEvent(new InitEvent());
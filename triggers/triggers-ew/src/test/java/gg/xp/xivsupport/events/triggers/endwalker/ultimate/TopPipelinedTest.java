@@ -0,0 +1,11 @@
+package gg.xp.xivsupport.events.triggers.endwalker.ultimate;
+
+/**
+ * Same log and expectations as {@link TopTest}, but with pipelined replay.
+ */
+public class TopPipelinedTest extends TopTest {
+	@Override
+	protected boolean usePipelinedReplay() {
+		return true;
+	}
+}
@@ -0,0 +1,78 @@
+package gg.xp.xivsupport.events.triggers.endwalker.ultimate;
+
+import gg.xp.reevent.events.EventMaster;
+import gg.xp.reevent.events.InitEvent;
+import gg.xp.xivsupport.events.actlines.parsers.FakeACTTimeSource;
+import gg.xp.xivsupport.events.triggers.seq.SequentialTriggerController;
+import gg.xp.xivsupport.eventstorage.EventReader;
+import gg.xp.xivsupport.replay.ReplayController;
+import gg.xp.xivsupport.sys.KnownLogSource;
+import gg.xp.xivsupport.sys.PrimaryLogSource;
+import gg.xp.xivsupport.sys.XivMain;
+import org.picocontainer.MutablePicoContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Replays the TOP log and reports how long the event pump spends on each event, along with how many threads were
+ * needed for sequential triggers.
+ * <p>
+ * Run with {@code -DsequentialTriggerVirtualThreads=true} on Java 21+ to compare against virtual threads.
+ */
+public class TopSequentialTriggerPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(TopSequentialTriggerPerf.class);
+
+	@Test
+	void replayTop() {
+		MutablePicoContainer pico = XivMain.testingMasterInit();
+		ReplayController replayController = new ReplayController(pico.getComponent(EventMaster.class), EventReader.readActLogResource("/top.log"), false);
+		pico.addComponent(replayController);
+		pico.addComponent(FakeACTTimeSource.class);
+		pico.getComponent(PrimaryLogSource.class).setLogSource(KnownLogSource.ACT_LOG_FILE);
+		pico.getComponent(EventMaster.class).getDistributor().acceptEvent(new InitEvent());
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		threads.resetPeakThreadCount();
+		long threadsStartedBefore = threads.getTotalStartedThreadCount();
+		int maxRunning = 0;
+
+		int count = replayController.getCount();
+		long[] latencies = new long[count];
+		int played = 0;
+		long before = System.nanoTime();
+		while (played < count) {
+			long start = System.nanoTime();
+			if (replayController.advanceBy(1) == 0) {
+				break;
+			}
+			latencies[played++] = System.nanoTime() - start;
+			maxRunning = Math.max(maxRunning, SequentialTriggerController.getRunningCount());
+		}
+		long elapsed = System.nanoTime() - before;
+
+		long[] sorted = Arrays.copyOf(latencies, played);
+		Arrays.sort(sorted);
+		log.info("Replayed {} events in {}ms ({} events/sec)", played, elapsed / 1_000_000, played * 1_000_000_000L / Math.max(elapsed, 1));
+		log.info("Pump latency: mean {}us, p50 {}us, p99 {}us, p99.9 {}us, max {}us",
+				elapsed / Math.max(played, 1) / 1000,
+				percentile(sorted, 0.5) / 1000,
+				percentile(sorted, 0.99) / 1000,
+				percentile(sorted, 0.999) / 1000,
+				sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000);
+		log.info("Threads: {} started during replay, peak {} live, at most {} sequential triggers running at once",
+				threads.getTotalStartedThreadCount() - threadsStartedBefore, threads.getPeakThreadCount(), maxRunning);
+	}
+
+	private static long percentile(long[] sorted, double pct) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * pct))];
+	}
+}
@@ -0,0 +1,55 @@
+package gg.xp.xivsupport.replay;
+
+import gg.xp.reevent.events.EventMaster;
+import gg.xp.reevent.events.InitEvent;
+import gg.xp.xivsupport.events.actlines.events.ACTLogLineEvent;
+import gg.xp.xivsupport.events.actlines.parsers.FakeACTTimeSource;
+import gg.xp.xivsupport.eventstorage.EventReader;
+import gg.xp.xivsupport.sys.KnownLogSource;
+import gg.xp.xivsupport.sys.PrimaryLogSource;
+import gg.xp.xivsupport.sys.XivMain;
+import org.picocontainer.MutablePicoContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Replays the TOP log with all triggers loaded, once the way the GUI and CalloutVerificationTest do by default, and
+ * once pipelined, and reports events/sec for each.
+ */
+public class ReplayControllerPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplayControllerPerf.class);
+
+	@Test
+	void compareSequentialToPipelined() {
+		for (int round = 0; round < 3; round++) {
+			int sequential = replay(false);
+			int pipelined = replay(true);
+			Assert.assertEquals(pipelined, sequential);
+		}
+	}
+
+	private static int replay(boolean pipelined) {
+		List<ACTLogLineEvent> events = EventReader.readActLogResource("/top.log");
+		MutablePicoContainer pico = XivMain.testingMasterInit();
+		EventMaster master = pico.getComponent(EventMaster.class);
+		ReplayController replayController = new ReplayController(master, events, false);
+		pico.addComponent(replayController);
+		pico.addComponent(FakeACTTimeSource.class);
+		pico.getComponent(PrimaryLogSource.class).setLogSource(KnownLogSource.ACT_LOG_FILE);
+		master.getDistributor().acceptEvent(new InitEvent());
+
+		replayController.setPipelined(pipelined);
+		long start = System.nanoTime();
+		int played = replayController.playToEnd();
+		master.getQueue().waitDrain();
+		long nanos = System.nanoTime() - start;
+		master.stop();
+		log.info("{}: {} events in {} ms, {} events/sec", pipelined ? "Pipelined" : "Sequential", played, nanos / 1_000_000, (long) (played * 1e9 / nanos));
+		return played;
+	}
+}
@@ -0,0 +1,45 @@
+package gg.xp.xivsupport.sys;
+
+import gg.xp.reevent.scan.AutoHandlerConfig;
+import gg.xp.reevent.scan.AutoHandlerScan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Times handler discovery with the full set of trigger modules on the classpath, once using the build-time handler
+ * indexes and once scanning everything, and checks that both find the same handlers.
+ */
+public class AutoHandlerScanPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(AutoHandlerScanPerf.class);
+
+	@Test
+	void compareIndexToScan() {
+		for (int round = 1; round <= 3; round++) {
+			Map<String, List<String>> scanned = timeIt("Scan, round " + round, false);
+			Map<String, List<String>> indexed = timeIt("Index, round " + round, true);
+			Assert.assertEquals(indexed, scanned);
+		}
+	}
+
+	private static Map<String, List<String>> timeIt(String label, boolean useIndex) {
+		AutoHandlerConfig config = new AutoHandlerConfig();
+		config.setUseHandlerIndex(useIndex);
+		// Instances are not needed just to find the handlers
+		AutoHandlerScan scan = new AutoHandlerScan(null, config);
+		long before = System.currentTimeMillis();
+		Map<Class<?>, List<Method>> handlers = scan.findHandlers();
+		long delta = System.currentTimeMillis() - before;
+		log.info("Timing for {}: {} ms, {} classes", label, delta, handlers.size());
+		return handlers.entrySet().stream().collect(Collectors.toMap(
+				e -> e.getKey().getName(),
+				e -> e.getValue().stream().map(Method::toString).sorted().toList()));
+	}
+}
@@ -0,0 +1,65 @@
+package gg.xp.xivdata;
+
+import gg.xp.xivdata.data.ActionInfo;
+import gg.xp.xivdata.data.ActionLibrary;
+import gg.xp.xivdata.data.GameDataSnapshots;
+import gg.xp.xivdata.data.StatusEffectInfo;
+import gg.xp.xivdata.data.StatusEffectLibrary;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Writes the {@link GameDataSnapshots} next to the CSVs they are made from. This runs as part of the build, against
+ * the compiled resources, so the snapshots are never committed and can't get out of sync with the CSVs.
+ */
+public final class MakeSnapshots {
+
+	private MakeSnapshots() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.out.println("This requires exactly one argument, the resources directory (e.g. target/classes)");
+			System.exit(1);
+		}
+		Path resourceDir = Path.of(args[0]);
+		long start = System.currentTimeMillis();
+		{
+			File csv = resolve(resourceDir, GameDataSnapshots.ACTION_CSV);
+			if (csv.exists()) {
+				Map<Integer, ActionInfo> actions = ActionLibrary.readAltCsv(csv).getAll();
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(resolve(resourceDir, GameDataSnapshots.ACTION_SNAPSHOT)))) {
+					GameDataSnapshots.writeActions(actions, csv.length(), out);
+				}
+				System.out.println("Wrote action snapshot");
+			}
+			else {
+				System.out.println("Not writing action snapshot, CSV not found: " + csv);
+			}
+		}
+		{
+			File csv = resolve(resourceDir, GameDataSnapshots.STATUS_CSV);
+			if (csv.exists()) {
+				Map<Integer, StatusEffectInfo> statusEffects = StatusEffectLibrary.readAltCsv(csv).getAll();
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(resolve(resourceDir, GameDataSnapshots.STATUS_SNAPSHOT)))) {
+					GameDataSnapshots.writeStatusEffects(statusEffects, csv.length(), out);
+				}
+				System.out.println("Wrote status effect snapshot");
+			}
+			else {
+				System.out.println("Not writing status effect snapshot, CSV not found: " + csv);
+			}
+		}
+		System.out.println("Snapshots done in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	private static File resolve(Path resourceDir, String resourcePath) {
+		return resourceDir.resolve(resourcePath.substring(1)).toFile();
+	}
+}
@@ -19,7 +19,9 @@ public class ActionLibrary {
 //		}
 	}
 
-	private static final ActionLibraryImpl INSTANCE = new ActionLibraryImpl(() -> ReadCsv.cellsFromResource("/xiv/actions/Action.csv"));
+	private static final ActionLibraryImpl INSTANCE = new ActionLibraryImpl(
+			() -> ReadCsv.cellsFromResource(GameDataSnapshots.ACTION_CSV),
+			GameDataSnapshots::loadActions);
 
 
 //	public static void main(String[] args) {
@@ -23,11 +23,20 @@ public class ActionLibraryImpl {
 	private final CsvMapLoader<Integer, ActionInfo> loader;
 
 	public ActionLibraryImpl(Supplier<List<String[]>> cellSupplier) {
+		this(cellSupplier, () -> null);
+	}
+
+	/**
+	 * @param cellSupplier     CSV contents
+	 * @param snapshotSupplier Pre-parsed values to use instead of the CSV if available, see {@link GameDataSnapshots}
+	 */
+	public ActionLibraryImpl(Supplier<List<String[]>> cellSupplier, Supplier<@Nullable Map<Integer, ActionInfo>> snapshotSupplier) {
 		loader = CsvMapLoader.builder(
 						cellSupplier,
 						ActionLibraryImpl::parseRow,
 						(row, item) -> (int) item.actionid())
 				.setMapFinisher(ArrayBackedMap::new)
+				.setSnapshot(snapshotSupplier)
 				.preFilterNullIds()
 				.build();
 	}
@@ -22,17 +22,19 @@ public class CsvMapLoader<K, V> {
 	private final Function<CsvRowHelper, @Nullable V> rowReader;
 	private final BiFunction<CsvRowHelper, V, K> keyExtractor;
 	private final Function<Map<K, V>, Map<K, V>> mapFinisher;
+	private final Supplier<@Nullable Map<K, V>> snapshot;
 
 	// State
 	private final Object lock = new Object();
 	private Map<K, V> csvValues = Collections.emptyMap();
 	private volatile boolean isLoaded;
 
-	private CsvMapLoader(Supplier<Stream<CsvRowHelper>> rowSupplier, Function<CsvRowHelper, @Nullable V> rowReader, BiFunction<CsvRowHelper, V, K> keyExtractor, Function<Map<K, V>, Map<K, V>> mapFinisher) {
+	private CsvMapLoader(Supplier<Stream<CsvRowHelper>> rowSupplier, Function<CsvRowHelper, @Nullable V> rowReader, BiFunction<CsvRowHelper, V, K> keyExtractor, Function<Map<K, V>, Map<K, V>> mapFinisher, Supplier<@Nullable Map<K, V>> snapshot) {
 		this.rowSupplier = rowSupplier;
 		this.rowReader = rowReader;
 		this.keyExtractor = keyExtractor;
 		this.mapFinisher = mapFinisher;
+		this.snapshot = snapshot;
 	}
 
 	public Map<K, V> read() {
@@ -50,6 +52,12 @@ public class CsvMapLoader<K, V> {
 	}
 
 	private void load() {
+		Map<K, V> fromSnapshot = snapshot.get();
+		if (fromSnapshot != null) {
+			csvValues = fromSnapshot;
+			isLoaded = true;
+			return;
+		}
 
 		Map<K, V> unfinished = rowSupplier.get()
 				.map(row -> {
@@ -78,6 +86,7 @@ public class CsvMapLoader<K, V> {
 		private Function<CsvRowHelper, @Nullable V> rowReader;
 		private final BiFunction<CsvRowHelper, V, K> keyExtractor;
 		private Function<Map<K, V>, Map<K, V>> mapFinisher = Function.identity();
+		private Supplier<@Nullable Map<K, V>> snapshot = () -> null;
 
 		private Builder(Supplier<Stream<CsvRowHelper>> rowSupplier, Function<CsvRowHelper, @Nullable V> rowReader, BiFunction<CsvRowHelper, V, K> keyExtractor) {
 			this.rowSupplier = rowSupplier;
@@ -90,6 +99,15 @@ public class CsvMapLoader<K, V> {
 			return this;
 		}
 
+		/**
+		 * @param snapshot Supplies already-parsed values to use instead of reading the CSV, or null if there aren't
+		 *                 any. Not called until the values are first needed.
+		 */
+		public Builder<K, V> setSnapshot(Supplier<@Nullable Map<K, V>> snapshot) {
+			this.snapshot = snapshot;
+			return this;
+		}
+
 		public Builder<K, V> preFilterNullIds() {
 			var originalReader = rowReader;
 			rowReader = row -> {
@@ -102,7 +120,7 @@ public class CsvMapLoader<K, V> {
 		}
 
 		public CsvMapLoader<K, V> build() {
-			return new CsvMapLoader<>(rowSupplier, rowReader, keyExtractor, mapFinisher);
+			return new CsvMapLoader<>(rowSupplier, rowReader, keyExtractor, mapFinisher, snapshot);
 		}
 
 	}
@@ -0,0 +1,155 @@
+package gg.xp.xivdata.data;
+
+import gg.xp.xivdata.util.SnapshotMap;
+import gg.xp.xivdata.util.SnapshotTable;
+import gg.xp.xivdata.util.SnapshotTable.Column;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-parsed copies of the action and status effect CSVs, so that the libraries don't need to parse the whole CSV at
+ * startup. These are written at build time by {@link gg.xp.xivdata.MakeSnapshots}. Each item is only created the
+ * first time it is looked up.
+ * <p>
+ * If a snapshot is missing, or doesn't match the CSV next to it, the CSV is used instead. Use
+ * -DxivData.ignoreSnapshots=true to always use the CSVs.
+ */
+public final class GameDataSnapshots {
+
+	private static final Logger log = LoggerFactory.getLogger(GameDataSnapshots.class);
+
+	public static final String ACTION_CSV = "/xiv/actions/Action.csv";
+	public static final String ACTION_SNAPSHOT = "/xiv/actions/Action.snapshot";
+	public static final String STATUS_CSV = "/xiv/statuseffect/Status.csv";
+	public static final String STATUS_SNAPSHOT = "/xiv/statuseffect/Status.snapshot";
+
+	// Order matters - these are the column numbers used by the readers below
+	private static final List<Column<ActionInfo>> ACTION_COLUMNS = List.of(
+			Column.ofString(ActionInfo::name),
+			Column.ofLong(ActionInfo::iconId),
+			Column.ofLong(ActionInfo::cdRaw),
+			Column.ofInt(ActionInfo::maxCharges),
+			Column.ofString(ActionInfo::categoryRaw),
+			Column.ofBool(ActionInfo::isPlayerAbility),
+			Column.ofLong(ActionInfo::castTimeRaw));
+
+	private static final List<Column<StatusEffectInfo>> STATUS_COLUMNS = List.of(
+			Column.ofLong(StatusEffectInfo::baseIconId),
+			Column.ofLong(StatusEffectInfo::maxStacks),
+			Column.ofString(StatusEffectInfo::name),
+			Column.ofString(StatusEffectInfo::description),
+			Column.ofBool(StatusEffectInfo::canDispel),
+			Column.ofBool(StatusEffectInfo::isPermanent),
+			Column.ofInt(StatusEffectInfo::partyListPriority),
+			Column.ofBool(StatusEffectInfo::isFcBuff));
+
+	private GameDataSnapshots() {
+	}
+
+	private static ActionInfo readAction(SnapshotTable table, int row) {
+		return new ActionInfo(
+				table.idAt(row),
+				table.getString(0, row),
+				table.getLong(1, row),
+				table.getLong(2, row),
+				table.getInt(3, row),
+				table.getString(4, row),
+				table.getBool(5, row),
+				table.getLong(6, row));
+	}
+
+	private static StatusEffectInfo readStatusEffect(SnapshotTable table, int row) {
+		return new StatusEffectInfo(
+				table.idAt(row),
+				table.getLong(0, row),
+				table.getLong(1, row),
+				table.getString(2, row),
+				table.getString(3, row),
+				table.getBool(4, row),
+				table.getBool(5, row),
+				table.getInt(6, row),
+				table.getBool(7, row));
+	}
+
+	public static void writeActions(Map<Integer, ActionInfo> actions, long csvLength, OutputStream out) throws IOException {
+		SnapshotTable.write(actions, ACTION_COLUMNS, csvLength, out);
+	}
+
+	public static void writeStatusEffects(Map<Integer, StatusEffectInfo> statusEffects, long csvLength, OutputStream out) throws IOException {
+		SnapshotTable.write(statusEffects, STATUS_COLUMNS, csvLength, out);
+	}
+
+	public static Map<Integer, ActionInfo> readActions(SnapshotTable table) {
+		return new SnapshotMap<>(table, GameDataSnapshots::readAction);
+	}
+
+	public static Map<Integer, StatusEffectInfo> readStatusEffects(SnapshotTable table) {
+		return new SnapshotMap<>(table, GameDataSnapshots::readStatusEffect);
+	}
+
+	static @Nullable Map<Integer, ActionInfo> loadActions() {
+		SnapshotTable table = openResource(ACTION_SNAPSHOT, ACTION_CSV);
+		return table == null ? null : readActions(table);
+	}
+
+	static @Nullable Map<Integer, StatusEffectInfo> loadStatusEffects() {
+		SnapshotTable table = openResource(STATUS_SNAPSHOT, STATUS_CSV);
+		return table == null ? null : readStatusEffects(table);
+	}
+
+	private static @Nullable SnapshotTable openResource(String snapshotPath, String csvPath) {
+		if (Boolean.getBoolean("xivData.ignoreSnapshots")) {
+			return null;
+		}
+		URL snapshotUrl = GameDataSnapshots.class.getResource(snapshotPath);
+		if (snapshotUrl == null) {
+			log.info("No snapshot at {}, using CSV", snapshotPath);
+			return null;
+		}
+		try {
+			SnapshotTable table = SnapshotTable.open(snapshotUrl);
+			// Cheap staleness check, in case the CSV was updated without rebuilding the snapshot
+			URL csvUrl = GameDataSnapshots.class.getResource(csvPath);
+			if (csvUrl != null) {
+				long csvLength = resourceLength(csvUrl);
+				if (csvLength != table.getSourceLength()) {
+					log.warn("Snapshot {} is out of date (CSV is {} bytes, expected {}), using CSV", snapshotPath, csvLength, table.getSourceLength());
+					return null;
+				}
+			}
+			log.info("Using snapshot {}: {}", snapshotPath, table);
+			return table;
+		}
+		catch (IOException | RuntimeException e) {
+			log.error("Error reading snapshot {}, using CSV", snapshotPath, e);
+			return null;
+		}
+	}
+
+	private static long resourceLength(URL url) throws IOException {
+		if ("file".equals(url.getProtocol())) {
+			try {
+				return Files.size(Path.of(url.toURI()));
+			}
+			catch (URISyntaxException e) {
+				throw new IOException(e);
+			}
+		}
+		URLConnection conn = url.openConnection();
+		long length = conn.getContentLengthLong();
+		// Nothing is actually read, this just makes sure the connection isn't left open
+		conn.getInputStream().close();
+		return length;
+	}
+}
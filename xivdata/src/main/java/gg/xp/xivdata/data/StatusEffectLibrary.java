@@ -8,7 +8,9 @@ import java.util.Map;
 public class StatusEffectLibrary {
 
 
-	private static final StatusEffectLibraryImpl INSTANCE = new StatusEffectLibraryImpl(() -> ReadCsv.cellsFromResource("/xiv/statuseffect/Status.csv"));
+	private static final StatusEffectLibraryImpl INSTANCE = new StatusEffectLibraryImpl(
+			() -> ReadCsv.cellsFromResource(GameDataSnapshots.STATUS_CSV),
+			GameDataSnapshots::loadStatusEffects);
 
 	public static void main(String[] args) {
 		INSTANCE.getAll().values().stream().distinct().sorted().map(s -> String.format("%06d", s.statusEffectId())).forEach(System.out::println);
@@ -22,11 +22,20 @@ public class StatusEffectLibraryImpl {
 	private final CsvMapLoader<Integer, StatusEffectInfo> loader;
 
 	public StatusEffectLibraryImpl(Supplier<List<String[]>> cellSupplier) {
+		this(cellSupplier, () -> null);
+	}
+
+	/**
+	 * @param cellSupplier     CSV contents
+	 * @param snapshotSupplier Pre-parsed values to use instead of the CSV if available, see {@link GameDataSnapshots}
+	 */
+	public StatusEffectLibraryImpl(Supplier<List<String[]>> cellSupplier, Supplier<@Nullable Map<Integer, StatusEffectInfo>> snapshotSupplier) {
 		loader = CsvMapLoader.builder(
 						cellSupplier,
 						StatusEffectLibraryImpl::parseRow,
 						(row, item) -> (int) item.statusEffectId())
 				.setMapFinisher(ArrayBackedMap::new)
+				.setSnapshot(snapshotSupplier)
 				.preFilterNullIds()
 				.build();
 	}
@@ -0,0 +1,99 @@
+package gg.xp.xivdata.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only map view of a {@link SnapshotTable}. Items are only created from the table the first time they are asked
+ * for, and then kept.
+ *
+ * @param <V> Item type
+ */
+public class SnapshotMap<V> extends AbstractMap<Integer, V> {
+
+	private final SnapshotTable table;
+	private final RowReader<V> rowReader;
+	private final AtomicReferenceArray<V> items;
+
+	@FunctionalInterface
+	public interface RowReader<V> {
+		V read(SnapshotTable table, int row);
+	}
+
+	public SnapshotMap(SnapshotTable table, RowReader<V> rowReader) {
+		this.table = table;
+		this.rowReader = rowReader;
+		this.items = new AtomicReferenceArray<>(table.size());
+	}
+
+	private V atRow(int row) {
+		V item = items.get(row);
+		if (item == null) {
+			item = rowReader.read(table, row);
+			if (!items.compareAndSet(row, null, item)) {
+				item = items.get(row);
+			}
+		}
+		return item;
+	}
+
+	@Override
+	public int size() {
+		return table.size();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Integer intKey && table.rowOf(intKey) >= 0;
+	}
+
+	@Override
+	public @Nullable V get(Object key) {
+		if (key instanceof Integer intKey) {
+			int row = table.rowOf(intKey);
+			if (row >= 0) {
+				return atRow(row);
+			}
+		}
+		return null;
+	}
+
+	@NotNull
+	@Override
+	public Set<Entry<Integer, V>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<Integer, V>> iterator() {
+				return new Iterator<>() {
+					private int row;
+
+					@Override
+					public boolean hasNext() {
+						return row < table.size();
+					}
+
+					@Override
+					public Entry<Integer, V> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						int current = row++;
+						return new SimpleImmutableEntry<>(table.idAt(current), atRow(current));
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return table.size();
+			}
+		};
+	}
+}
@@ -0,0 +1,311 @@
+package gg.xp.xivdata.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-only table of rows keyed by an int ID, stored column by column so that it can be memory-mapped and read in
+ * place, rather than parsed up front.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int magic, int version, long sourceLength, int rows, int columns, byte[columns] column types (padded to 4 bytes)
+ * int[rows] ids, ascending
+ * one array per column: long[rows], int[rows], byte[rows] (padded to 4 bytes), or int[rows] string table index
+ * int strings, int[strings + 1] offsets into the string data, byte[] UTF-8 string data
+ * </pre>
+ * 'sourceLength' is the size of whatever the snapshot was made from, so that a stale snapshot can be detected.
+ */
+public final class SnapshotTable {
+
+	private static final int MAGIC = 0x58495644; // "XIVD"
+	private static final int VERSION = 1;
+
+	public enum ColumnType {
+		LONG(8),
+		INT(4),
+		BOOL(1),
+		STRING(4);
+
+		private final int width;
+
+		ColumnType(int width) {
+			this.width = width;
+		}
+	}
+
+	private final ByteBuffer buffer;
+	private final long sourceLength;
+	private final int rows;
+	private final ColumnType[] types;
+	private final int idsOffset;
+	private final int[] columnOffsets;
+	private final int stringCount;
+	private final int stringOffsetsOffset;
+	private final int stringDataOffset;
+	private final String[] stringCache;
+
+	private SnapshotTable(ByteBuffer buffer) {
+		this.buffer = buffer;
+		if (buffer.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not a snapshot");
+		}
+		int version = buffer.getInt(4);
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported snapshot version " + version);
+		}
+		sourceLength = buffer.getLong(8);
+		rows = buffer.getInt(16);
+		int columns = buffer.getInt(20);
+		types = new ColumnType[columns];
+		for (int i = 0; i < columns; i++) {
+			types[i] = ColumnType.values()[buffer.get(24 + i)];
+		}
+		idsOffset = 24 + pad(columns);
+		columnOffsets = new int[columns];
+		int offset = idsOffset + 4 * rows;
+		for (int i = 0; i < columns; i++) {
+			columnOffsets[i] = offset;
+			offset += pad(types[i].width * rows);
+		}
+		stringCount = buffer.getInt(offset);
+		stringOffsetsOffset = offset + 4;
+		stringDataOffset = stringOffsetsOffset + 4 * (stringCount + 1);
+		stringCache = new String[stringCount];
+	}
+
+	private static int pad(int length) {
+		return (length + 3) & ~3;
+	}
+
+	/**
+	 * @param buffer Buffer containing a snapshot, starting at position 0
+	 * @return The table
+	 */
+	public static SnapshotTable of(ByteBuffer buffer) {
+		return new SnapshotTable(buffer);
+	}
+
+	/**
+	 * Open a snapshot. Snapshots which are plain files (including resources when running from a directory) are
+	 * memory-mapped. Anything else (e.g. inside a jar) has to be read into memory, but is still not parsed.
+	 *
+	 * @param url Location of the snapshot
+	 * @return The table
+	 * @throws IOException if it could not be read
+	 */
+	public static SnapshotTable open(URL url) throws IOException {
+		if ("file".equals(url.getProtocol())) {
+			Path path;
+			try {
+				path = Path.of(url.toURI());
+			}
+			catch (URISyntaxException e) {
+				throw new IOException(e);
+			}
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				// The mapping stays valid after the channel is closed
+				return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			}
+		}
+		try (InputStream stream = url.openStream()) {
+			return of(ByteBuffer.wrap(stream.readAllBytes()));
+		}
+	}
+
+	public long getSourceLength() {
+		return sourceLength;
+	}
+
+	public int size() {
+		return rows;
+	}
+
+	public int idAt(int row) {
+		return buffer.getInt(idsOffset + 4 * row);
+	}
+
+	/**
+	 * @param id The ID
+	 * @return The row number for the ID, or -1 if not present
+	 */
+	public int rowOf(int id) {
+		int low = 0;
+		int high = rows - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = idAt(mid);
+			if (midId < id) {
+				low = mid + 1;
+			}
+			else if (midId > id) {
+				high = mid - 1;
+			}
+			else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	public long getLong(int column, int row) {
+		checkType(column, ColumnType.LONG);
+		return buffer.getLong(columnOffsets[column] + 8 * row);
+	}
+
+	public int getInt(int column, int row) {
+		checkType(column, ColumnType.INT);
+		return buffer.getInt(columnOffsets[column] + 4 * row);
+	}
+
+	public boolean getBool(int column, int row) {
+		checkType(column, ColumnType.BOOL);
+		return buffer.get(columnOffsets[column] + row) != 0;
+	}
+
+	/**
+	 * Strings are decoded (and interned) the first time they are needed.
+	 */
+	public String getString(int column, int row) {
+		checkType(column, ColumnType.STRING);
+		int index = buffer.getInt(columnOffsets[column] + 4 * row);
+		String value = stringCache[index];
+		if (value == null) {
+			int start = buffer.getInt(stringOffsetsOffset + 4 * index);
+			int end = buffer.getInt(stringOffsetsOffset + 4 * (index + 1));
+			byte[] bytes = new byte[end - start];
+			buffer.get(stringDataOffset + start, bytes);
+			value = new String(bytes, StandardCharsets.UTF_8).intern();
+			// Racing here is harmless, everyone gets the same interned string
+			stringCache[index] = value;
+		}
+		return value;
+	}
+
+	private void checkType(int column, ColumnType type) {
+		if (types[column] != type) {
+			throw new IllegalArgumentException("Column " + column + " is " + types[column] + ", not " + type);
+		}
+	}
+
+	/**
+	 * How to get one column's value from an item when writing a snapshot.
+	 */
+	public static final class Column<V> {
+		private final ColumnType type;
+		private final Function<V, Object> getter;
+
+		private Column(ColumnType type, Function<V, Object> getter) {
+			this.type = type;
+			this.getter = getter;
+		}
+
+		public static <V> Column<V> ofLong(ToLongFunction<V> getter) {
+			return new Column<>(ColumnType.LONG, getter::applyAsLong);
+		}
+
+		public static <V> Column<V> ofInt(ToIntFunction<V> getter) {
+			return new Column<>(ColumnType.INT, getter::applyAsInt);
+		}
+
+		public static <V> Column<V> ofBool(Predicate<V> getter) {
+			return new Column<>(ColumnType.BOOL, getter::test);
+		}
+
+		public static <V> Column<V> ofString(Function<V, @Nullable String> getter) {
+			return new Column<>(ColumnType.STRING, item -> {
+				String value = getter.apply(item);
+				return value == null ? "" : value;
+			});
+		}
+	}
+
+	/**
+	 * Write a snapshot.
+	 *
+	 * @param values       The items to write, by ID
+	 * @param columns      The columns to write for each item
+	 * @param sourceLength Size of the data the items were read from
+	 * @param out          Where to write it
+	 * @param <V>          Item type
+	 * @throws IOException if writing fails
+	 */
+	public static <V> void write(Map<Integer, V> values, List<Column<V>> columns, long sourceLength, OutputStream out) throws IOException {
+		int[] ids = values.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+		List<V> items = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			items.add(values.get(id));
+		}
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeLong(sourceLength);
+		data.writeInt(ids.length);
+		data.writeInt(columns.size());
+		for (Column<V> column : columns) {
+			data.writeByte(column.type.ordinal());
+		}
+		writePadding(data, columns.size());
+		for (int id : ids) {
+			data.writeInt(id);
+		}
+		Map<String, Integer> stringIndices = new HashMap<>();
+		List<byte[]> strings = new ArrayList<>();
+		for (Column<V> column : columns) {
+			for (V item : items) {
+				Object value = column.getter.apply(item);
+				switch (column.type) {
+					case LONG -> data.writeLong((Long) value);
+					case INT -> data.writeInt((Integer) value);
+					case BOOL -> data.writeByte((Boolean) value ? 1 : 0);
+					case STRING -> data.writeInt(stringIndices.computeIfAbsent((String) value, str -> {
+						strings.add(str.getBytes(StandardCharsets.UTF_8));
+						return strings.size() - 1;
+					}));
+				}
+			}
+			writePadding(data, column.type.width * items.size());
+		}
+		data.writeInt(strings.size());
+		int offset = 0;
+		data.writeInt(offset);
+		for (byte[] string : strings) {
+			offset += string.length;
+			data.writeInt(offset);
+		}
+		for (byte[] string : strings) {
+			data.write(string);
+		}
+		data.flush();
+	}
+
+	private static void writePadding(DataOutputStream data, int length) throws IOException {
+		byte[] padding = new byte[pad(length) - length];
+		data.write(padding);
+	}
+
+	@Override
+	public String toString() {
+		return "SnapshotTable{rows=" + rows + ", columns=" + Arrays.toString(types) + ", strings=" + stringCount + '}';
+	}
+}
@@ -0,0 +1,57 @@
+package gg.xp.xivdata.data;
+
+import gg.xp.xivdata.util.SnapshotTable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+public class GameDataSnapshotsTest {
+
+	private static Map<Integer, StatusEffectInfo> statusEffectsFromCsv() {
+		return new StatusEffectLibraryImpl(() -> ReadCsv.cellsFromResource(GameDataSnapshots.STATUS_CSV)).getAll();
+	}
+
+	@Test
+	public void testStatusEffectRoundTrip() throws IOException {
+		Map<Integer, StatusEffectInfo> fromCsv = statusEffectsFromCsv();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GameDataSnapshots.writeStatusEffects(fromCsv, 1234, out);
+		SnapshotTable table = SnapshotTable.of(ByteBuffer.wrap(out.toByteArray()));
+		Assert.assertEquals(table.getSourceLength(), 1234);
+		Map<Integer, StatusEffectInfo> fromSnapshot = GameDataSnapshots.readStatusEffects(table);
+
+		Assert.assertEquals(new HashMap<>(fromSnapshot), new HashMap<>(fromCsv));
+		Assert.assertNull(fromSnapshot.get(-1));
+		Assert.assertNull(fromSnapshot.get(Integer.MAX_VALUE));
+		// Same instance every time
+		Integer someId = fromCsv.keySet().iterator().next();
+		Assert.assertSame(fromSnapshot.get(someId), fromSnapshot.get(someId));
+	}
+
+	@Test
+	public void testActionRoundTrip() throws IOException {
+		Map<Integer, ActionInfo> actions = Map.of(
+				7, new ActionInfo(7, "attack", 101, 25, 1, "", true, 0),
+				16553, new ActionInfo(16553, "Fancy \u2728 Thing", 3204, 1200, 2, "4", false, 15),
+				300, new ActionInfo(300, "attack", 101, 25, 1, "", false, 0));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GameDataSnapshots.writeActions(actions, 0, out);
+		Map<Integer, ActionInfo> fromSnapshot = GameDataSnapshots.readActions(SnapshotTable.of(ByteBuffer.wrap(out.toByteArray())));
+
+		Assert.assertEquals(fromSnapshot.size(), 3);
+		Assert.assertEquals(fromSnapshot, actions);
+		Assert.assertFalse(fromSnapshot.containsKey(8));
+		Assert.assertNull(fromSnapshot.get(8));
+	}
+
+	@Test
+	public void testLibraryMatchesCsv() {
+		// Whether this came from the snapshot written during the build or the CSV, it should be the same
+		Assert.assertEquals(new HashMap<>(StatusEffectLibrary.getAll()), new HashMap<>(statusEffectsFromCsv()));
+	}
+}
@@ -16,22 +16,25 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
-import java.util.regex.Pattern;
 
 public class CalloutProcessor {
 
 	private static final Logger log = LoggerFactory.getLogger(CalloutProcessor.class);
 
+	private static final Object ERROR = new Object();
 	private final Map<String, Script> scriptCache = new ConcurrentHashMap<>();
+	private final Map<String, CalloutTemplate> templateCache = new ConcurrentHashMap<>();
 	private final GroovyManager groovyMgr;
+	private final TemplateExpressionCompiler templateCompiler;
+	private volatile boolean compileTemplates = true;
 	private volatile GroovyShell interpreter;
 	// TODO: this *shouldn't* need to be static, but something is up with it
 	private static final Object interpLock = new Object();
-	private static final Pattern replacer = Pattern.compile("\\{(.+?)}");
 
 	private final GlobalCallReplacer gcr;
 	private final SingleValueReplacement svr;
@@ -41,6 +44,7 @@ public class CalloutProcessor {
 		this.groovyMgr = groovyMgr;
 		this.gcr = gcr;
 		this.svr = svr;
+		this.templateCompiler = new TemplateExpressionCompiler(groovyMgr.getWhitelist());
 	}
 
 	@HandleEvents
@@ -99,7 +103,7 @@ public class CalloutProcessor {
 //		Binding binding = new Binding(arguments);
 
 			tts = applyReplacements(raw, rawTts, binding, true);
-			text = () -> applyReplacements(raw, rawText, binding, false);
+			text = new VisualText(raw, rawText, binding);
 		}
 
 		ProcessedCalloutEvent out = new ProcessedCalloutEvent(
@@ -129,31 +133,127 @@ public class CalloutProcessor {
 		if (!input.contains("{")) {
 			return input;
 		}
-		String resolved;
-		synchronized (interpLock) {
-			resolved = replacer.matcher(input).replaceAll(m -> {
-				try {
-					Object rawEval;
-					try (SandboxScope ignored = groovyMgr.getSandbox().enter()) {
-						Script script = scriptCache.computeIfAbsent(m.group(1), this::compile);
-						script.setBinding(binding);
-						rawEval = script.run();
+		CalloutTemplate template = getTemplate(input);
+		return render(raw, template, evaluate(raw, input, template, binding), isTts);
+	}
+
+	/**
+	 * Turn compiled templates on or off, e.g. for comparing against Groovy-only evaluation.
+	 *
+	 * @param compileTemplates false to evaluate every placeholder with Groovy
+	 */
+	void setCompileTemplates(boolean compileTemplates) {
+		this.compileTemplates = compileTemplates;
+		templateCache.clear();
+	}
+
+	private CalloutTemplate getTemplate(String input) {
+		return templateCache.computeIfAbsent(input, in -> CalloutTemplate.parse(in, source -> compileTemplates ? templateCompiler.compile(source) : null));
+	}
+
+	private Object[] evaluate(RawModifiedCallout<?> raw, String input, CalloutTemplate template, Binding binding) {
+		Object[] values = new Object[template.placeholderCount()];
+		for (int i = 0; i < values.length; i++) {
+			try {
+				TemplateExpressionCompiler.Expr compiled = template.compiled(i);
+				if (compiled == null) {
+					values[i] = evalGroovy(template.source(i), binding);
+				}
+				else {
+					try {
+						values[i] = compiled.eval(binding);
 					}
-					if (rawEval == null) {
-						return "null";
-//						return m.group(0);
+					catch (TemplateExpressionCompiler.FallbackRequired e) {
+						values[i] = evalGroovy(template.source(i), binding);
 					}
-					return svr.singleReplacement(rawEval);
+				}
+			}
+			catch (Throwable e) {
+				if (raw.shouldLogError()) {
+					log.error("Eval error for input '{}'", input, e);
+				}
+				values[i] = ERROR;
+			}
+		}
+		return values;
+	}
+
+	private Object evalGroovy(String source, Binding binding) {
+		synchronized (interpLock) {
+			try (SandboxScope ignored = groovyMgr.getSandbox().enter()) {
+				Script script = scriptCache.computeIfAbsent(source, this::compile);
+				script.setBinding(binding);
+				return script.run();
+			}
+		}
+	}
+
+	private String render(RawModifiedCallout<?> raw, CalloutTemplate template, Object[] values, boolean isTts) {
+		String[] replacements = new String[values.length];
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (value == ERROR) {
+				replacements[i] = "Error";
+			}
+			else if (value == null) {
+				replacements[i] = "null";
+			}
+			else {
+				try {
+					replacements[i] = svr.singleReplacement(value);
 				}
 				catch (Throwable e) {
 					if (raw.shouldLogError()) {
-						log.error("Eval error for input '{}'", input, e);
+						log.error("Eval error for input '{}'", template.source(i), e);
 					}
-					return "Error";
+					replacements[i] = "Error";
 				}
-			});
+			}
+		}
+		return gcr.doReplacements(template.render(replacements), isTts);
+	}
+
+	/**
+	 * Visual text of a callout, which overlays will ask for on every repaint. The placeholders are evaluated every
+	 * time, but if they all produced the same simple values as last time, the previous text is reused.
+	 */
+	private final class VisualText implements Supplier<String> {
+
+		private final RawModifiedCallout<?> raw;
+		private final @Nullable String input;
+		private final Binding binding;
+		private Object[] lastValues;
+		private String lastText;
+
+		private VisualText(RawModifiedCallout<?> raw, @Nullable String input, Binding binding) {
+			this.raw = raw;
+			this.input = input;
+			this.binding = binding;
+		}
+
+		@Override
+		public synchronized String get() {
+			if (input == null || !input.contains("{")) {
+				return input;
+			}
+			CalloutTemplate template = getTemplate(input);
+			Object[] values = evaluate(raw, input, template, binding);
+			if (lastValues != null && Arrays.equals(values, lastValues) && allImmutable(values)) {
+				return lastText;
+			}
+			lastText = render(raw, template, values, false);
+			lastValues = values;
+			return lastText;
+		}
+	}
+
+	private static boolean allImmutable(Object[] values) {
+		for (Object value : values) {
+			if (!(value == null || value == ERROR || value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>)) {
+				return false;
+			}
 		}
-		return gcr.doReplacements(resolved, isTts);
+		return true;
 	}
 
 }
@@ -0,0 +1,79 @@
+package gg.xp.xivsupport.callouts;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A callout text split into literal text and {@code {...}} placeholders, with each placeholder compiled ahead of time
+ * if possible.
+ */
+final class CalloutTemplate {
+
+	private static final Pattern replacer = Pattern.compile("\\{(.+?)}");
+
+	private final String[] literals;
+	private final String[] sources;
+	private final TemplateExpressionCompiler.@Nullable Expr[] compiled;
+
+	private CalloutTemplate(String[] literals, String[] sources, TemplateExpressionCompiler.@Nullable Expr[] compiled) {
+		this.literals = literals;
+		this.sources = sources;
+		this.compiled = compiled;
+	}
+
+	/**
+	 * @param input    The raw callout text
+	 * @param compiler Compiles the contents of a placeholder, returning null if it needs to be run with Groovy
+	 * @return The parsed template
+	 */
+	static CalloutTemplate parse(String input, Function<String, TemplateExpressionCompiler.@Nullable Expr> compiler) {
+		List<String> literals = new ArrayList<>();
+		List<String> sources = new ArrayList<>();
+		Matcher matcher = replacer.matcher(input);
+		int last = 0;
+		while (matcher.find()) {
+			literals.add(input.substring(last, matcher.start()));
+			sources.add(matcher.group(1));
+			last = matcher.end();
+		}
+		literals.add(input.substring(last));
+		TemplateExpressionCompiler.Expr[] compiled = new TemplateExpressionCompiler.Expr[sources.size()];
+		for (int i = 0; i < compiled.length; i++) {
+			compiled[i] = compiler.apply(sources.get(i));
+		}
+		return new CalloutTemplate(literals.toArray(new String[0]), sources.toArray(new String[0]), compiled);
+	}
+
+	int placeholderCount() {
+		return sources.length;
+	}
+
+	String source(int index) {
+		return sources[index];
+	}
+
+	/**
+	 * @param index The placeholder index
+	 * @return The compiled expression, or null if this placeholder needs Groovy
+	 */
+	TemplateExpressionCompiler.@Nullable Expr compiled(int index) {
+		return compiled[index];
+	}
+
+	/**
+	 * @param replacements The text for each placeholder
+	 * @return The full text
+	 */
+	String render(String[] replacements) {
+		StringBuilder sb = new StringBuilder(literals[0]);
+		for (int i = 0; i < replacements.length; i++) {
+			sb.append(replacements[i]).append(literals[i + 1]);
+		}
+		return sb.toString();
+	}
+}
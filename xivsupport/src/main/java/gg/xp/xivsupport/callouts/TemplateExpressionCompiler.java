@@ -0,0 +1,628 @@
+package gg.xp.xivsupport.callouts;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyObject;
+import org.apache.commons.lang3.reflect.MethodUtils;
+import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.Whitelist;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles simple callout placeholders into plain Java evaluators, so that the common cases don't need to go through
+ * Groovy (and thus don't need the Groovy lock).
+ * <p>
+ * Supported: variables, property chains ({@code event.target.name}, {@code event?.target}), method calls with
+ * arguments ({@code event.abilityIdMatches(0x5EF8)}), list/array indexing ({@code players[0]}), literals, comparisons,
+ * {@code !}, {@code &&}, {@code ||}, ternaries, and elvis. Anything else fails to compile and should be evaluated with
+ * Groovy instead.
+ * <p>
+ * Property and method lookups follow the Groovy rules closely enough for callouts (getter, then {@code is} getter,
+ * then public field), and are checked against the same whitelist as the Groovy sandbox. If something can't be
+ * resolved at runtime (e.g. a Groovy extension method or a rejected call), evaluation throws
+ * {@link FallbackRequired} so that the caller can re-evaluate that placeholder with Groovy, which will then produce
+ * the same result or error as before.
+ */
+final class TemplateExpressionCompiler {
+
+	interface Expr {
+		@Nullable Object eval(Binding binding);
+	}
+
+	/**
+	 * Thrown when a compiled expression can't be evaluated without Groovy.
+	 */
+	static final class FallbackRequired extends RuntimeException {
+		private static final FallbackRequired INSTANCE = new FallbackRequired();
+
+		private FallbackRequired() {
+			super("Groovy fallback required", null, false, false);
+		}
+	}
+
+	private record MemberKey(Class<?> cls, String name, List<Class<?>> argTypes) {
+	}
+
+	private sealed interface Member permits Getter, PublicField, Missing {
+	}
+
+	private record Getter(Method method, Map<Class<?>, Boolean> permitted) implements Member {
+	}
+
+	private record PublicField(Field field, Map<Class<?>, Boolean> permitted) implements Member {
+	}
+
+	private record Missing() implements Member {
+	}
+
+	private static final Member MISSING = new Missing();
+	private static final Method listGet;
+	private static final Method mapGet;
+
+	static {
+		try {
+			listGet = List.class.getMethod("get", int.class);
+			mapGet = Map.class.getMethod("get", Object.class);
+		}
+		catch (NoSuchMethodException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private final @Nullable Whitelist whitelist;
+	private final boolean cachePermissions;
+	private final Map<MemberKey, Member> members = new ConcurrentHashMap<>();
+
+	/**
+	 * @param whitelist The sandbox whitelist, or null if the sandbox is disabled. Its decisions are only cached if it
+	 *                  {@link Whitelist#permitsCaching() permits caching}.
+	 */
+	TemplateExpressionCompiler(@Nullable Whitelist whitelist) {
+		this.whitelist = whitelist;
+		this.cachePermissions = whitelist != null && whitelist.permitsCaching();
+	}
+
+	/**
+	 * @param source The contents of a placeholder, without the braces
+	 * @return The compiled expression, or null if it is not supported and needs to be run as a Groovy script
+	 */
+	@Nullable Expr compile(String source) {
+		try {
+			Parser parser = new Parser(source);
+			Expr expr = parser.parseExpression();
+			if (!parser.atEnd()) {
+				return null;
+			}
+			return expr;
+		}
+		catch (UnsupportedSyntax e) {
+			return null;
+		}
+	}
+
+	private static final class UnsupportedSyntax extends Exception {
+		private static final UnsupportedSyntax INSTANCE = new UnsupportedSyntax();
+
+		private UnsupportedSyntax() {
+			super("Unsupported syntax", null, false, false);
+		}
+	}
+
+	private final class Parser {
+		private final String src;
+		private int pos;
+
+		Parser(String src) {
+			this.src = src;
+		}
+
+		boolean atEnd() {
+			skipWhitespace();
+			return pos >= src.length();
+		}
+
+		private void skipWhitespace() {
+			while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
+				pos++;
+			}
+		}
+
+		private boolean peek(String token) {
+			skipWhitespace();
+			return src.startsWith(token, pos);
+		}
+
+		private boolean accept(String token) {
+			if (peek(token)) {
+				pos += token.length();
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(String token) throws UnsupportedSyntax {
+			if (!accept(token)) {
+				throw UnsupportedSyntax.INSTANCE;
+			}
+		}
+
+		Expr parseExpression() throws UnsupportedSyntax {
+			Expr condition = parseOr();
+			if (accept("?:")) {
+				Expr otherwise = parseExpression();
+				return binding -> {
+					Object value = condition.eval(binding);
+					return DefaultTypeTransformation.castToBoolean(value) ? value : otherwise.eval(binding);
+				};
+			}
+			// Don't confuse the ternary with a safe navigation operator
+			if (!peek("?.") && accept("?")) {
+				Expr ifTrue = parseExpression();
+				expect(":");
+				Expr ifFalse = parseExpression();
+				return binding -> DefaultTypeTransformation.castToBoolean(condition.eval(binding)) ? ifTrue.eval(binding) : ifFalse.eval(binding);
+			}
+			return condition;
+		}
+
+		private Expr parseOr() throws UnsupportedSyntax {
+			Expr left = parseAnd();
+			while (accept("||")) {
+				Expr l = left;
+				Expr r = parseAnd();
+				left = binding -> DefaultTypeTransformation.castToBoolean(l.eval(binding)) || DefaultTypeTransformation.castToBoolean(r.eval(binding));
+			}
+			return left;
+		}
+
+		private Expr parseAnd() throws UnsupportedSyntax {
+			Expr left = parseComparison();
+			while (accept("&&")) {
+				Expr l = left;
+				Expr r = parseComparison();
+				left = binding -> DefaultTypeTransformation.castToBoolean(l.eval(binding)) && DefaultTypeTransformation.castToBoolean(r.eval(binding));
+			}
+			return left;
+		}
+
+		private Expr parseComparison() throws UnsupportedSyntax {
+			Expr left = parseUnary();
+			// Order matters, check the two-character operators first
+			if (accept("==")) {
+				Expr right = parseUnary();
+				return binding -> ScriptBytecodeAdapter.compareEqual(left.eval(binding), right.eval(binding));
+			}
+			if (accept("!=")) {
+				Expr right = parseUnary();
+				return binding -> ScriptBytecodeAdapter.compareNotEqual(left.eval(binding), right.eval(binding));
+			}
+			if (peek("<=>") || peek("<<") || peek(">>")) {
+				throw UnsupportedSyntax.INSTANCE;
+			}
+			if (accept("<=")) {
+				Expr right = parseUnary();
+				return binding -> ScriptBytecodeAdapter.compareLessThanEqual(left.eval(binding), right.eval(binding));
+			}
+			if (accept(">=")) {
+				Expr right = parseUnary();
+				return binding -> ScriptBytecodeAdapter.compareGreaterThanEqual(left.eval(binding), right.eval(binding));
+			}
+			if (accept("<")) {
+				Expr right = parseUnary();
+				return binding -> ScriptBytecodeAdapter.compareLessThan(left.eval(binding), right.eval(binding));
+			}
+			if (accept(">")) {
+				Expr right = parseUnary();
+				return binding -> ScriptBytecodeAdapter.compareGreaterThan(left.eval(binding), right.eval(binding));
+			}
+			return left;
+		}
+
+		private Expr parseUnary() throws UnsupportedSyntax {
+			if (!peek("!=") && accept("!")) {
+				Expr inner = parseUnary();
+				return binding -> !DefaultTypeTransformation.castToBoolean(inner.eval(binding));
+			}
+			return parsePostfix();
+		}
+
+		private Expr parsePostfix() throws UnsupportedSyntax {
+			Expr expr = parsePrimary();
+			while (true) {
+				boolean safe;
+				if (accept("?.")) {
+					safe = true;
+				}
+				else if (peek("..") || peek(".&") || peek(".@")) {
+					throw UnsupportedSyntax.INSTANCE;
+				}
+				else if (accept(".")) {
+					safe = false;
+				}
+				else if (accept("[")) {
+					Expr index = parseExpression();
+					expect("]");
+					Expr target = expr;
+					expr = binding -> getAt(target.eval(binding), index.eval(binding));
+					continue;
+				}
+				else {
+					return expr;
+				}
+				String name = parseIdentifier();
+				Expr target = expr;
+				if (accept("(")) {
+					List<Expr> args = new ArrayList<>();
+					if (!accept(")")) {
+						do {
+							args.add(parseExpression());
+						} while (accept(","));
+						expect(")");
+					}
+					Expr[] argExprs = args.toArray(new Expr[0]);
+					expr = binding -> {
+						Object receiver = target.eval(binding);
+						if (receiver == null && safe) {
+							return null;
+						}
+						Object[] argValues = new Object[argExprs.length];
+						for (int i = 0; i < argExprs.length; i++) {
+							argValues[i] = argExprs[i].eval(binding);
+						}
+						return invokeMethod(receiver, name, argValues);
+					};
+				}
+				else {
+					expr = binding -> {
+						Object receiver = target.eval(binding);
+						if (receiver == null && safe) {
+							return null;
+						}
+						return getProperty(receiver, name);
+					};
+				}
+			}
+		}
+
+		private Expr parsePrimary() throws UnsupportedSyntax {
+			skipWhitespace();
+			if (pos >= src.length()) {
+				throw UnsupportedSyntax.INSTANCE;
+			}
+			char c = src.charAt(pos);
+			if (c == '(') {
+				pos++;
+				Expr inner = parseExpression();
+				expect(")");
+				return inner;
+			}
+			if (c == '\'' || c == '"') {
+				String value = parseString(c);
+				return binding -> value;
+			}
+			if (Character.isDigit(c)) {
+				Object value = parseNumber();
+				return binding -> value;
+			}
+			if (c == '-' && pos + 1 < src.length() && Character.isDigit(src.charAt(pos + 1))) {
+				// Negative literal, e.g. list[-1]
+				pos++;
+				Object value = negate(parseNumber());
+				return binding -> value;
+			}
+			String name = parseIdentifier();
+			switch (name) {
+				case "true":
+					return binding -> Boolean.TRUE;
+				case "false":
+					return binding -> Boolean.FALSE;
+				case "null":
+					return binding -> null;
+				// Keywords which would mean something else in Groovy
+				case "new", "this", "super", "it", "in", "instanceof", "as":
+					throw UnsupportedSyntax.INSTANCE;
+			}
+			if (peek("(") || peek("{")) {
+				// A call to a method on the script itself, or a closure
+				throw UnsupportedSyntax.INSTANCE;
+			}
+			return binding -> {
+				// Anything not in the binding would be a property of the script itself
+				if (!binding.hasVariable(name)) {
+					throw FallbackRequired.INSTANCE;
+				}
+				return binding.getVariable(name);
+			};
+		}
+
+		private String parseIdentifier() throws UnsupportedSyntax {
+			skipWhitespace();
+			int start = pos;
+			if (pos < src.length() && Character.isJavaIdentifierStart(src.charAt(pos))) {
+				pos++;
+				while (pos < src.length() && Character.isJavaIdentifierPart(src.charAt(pos))) {
+					pos++;
+				}
+			}
+			if (start == pos) {
+				throw UnsupportedSyntax.INSTANCE;
+			}
+			return src.substring(start, pos);
+		}
+
+		private String parseString(char quote) throws UnsupportedSyntax {
+			pos++;
+			StringBuilder sb = new StringBuilder();
+			while (pos < src.length()) {
+				char c = src.charAt(pos++);
+				if (c == quote) {
+					return sb.toString();
+				}
+				if (c == '\\') {
+					if (pos >= src.length()) {
+						throw UnsupportedSyntax.INSTANCE;
+					}
+					char escaped = src.charAt(pos++);
+					switch (escaped) {
+						case '\\', '\'', '"' -> sb.append(escaped);
+						case 'n' -> sb.append('\n');
+						case 't' -> sb.append('\t');
+						default -> throw UnsupportedSyntax.INSTANCE;
+					}
+				}
+				else if (c == '$' && quote == '"') {
+					// GString
+					throw UnsupportedSyntax.INSTANCE;
+				}
+				else {
+					sb.append(c);
+				}
+			}
+			throw UnsupportedSyntax.INSTANCE;
+		}
+
+		private Object parseNumber() throws UnsupportedSyntax {
+			int start = pos;
+			try {
+				if (src.startsWith("0x", pos) || src.startsWith("0X", pos)) {
+					pos += 2;
+					while (pos < src.length() && Character.digit(src.charAt(pos), 16) >= 0) {
+						pos++;
+					}
+					checkNumberEnd();
+					return integerLiteral(Long.parseLong(src.substring(start + 2, pos), 16));
+				}
+				while (pos < src.length() && Character.isDigit(src.charAt(pos))) {
+					pos++;
+				}
+				// Groovy reads 010 as octal
+				if (src.charAt(start) == '0' && pos - start > 1) {
+					throw UnsupportedSyntax.INSTANCE;
+				}
+				if (pos + 1 < src.length() && src.charAt(pos) == '.' && Character.isDigit(src.charAt(pos + 1))) {
+					pos++;
+					while (pos < src.length() && Character.isDigit(src.charAt(pos))) {
+						pos++;
+					}
+					checkNumberEnd();
+					// Groovy decimal literals are BigDecimals
+					return new BigDecimal(src.substring(start, pos));
+				}
+				checkNumberEnd();
+				return integerLiteral(Long.parseLong(src.substring(start, pos)));
+			}
+			catch (NumberFormatException e) {
+				throw UnsupportedSyntax.INSTANCE;
+			}
+		}
+
+		private void checkNumberEnd() throws UnsupportedSyntax {
+			// Suffixes like 1L or 1.0f, or exponents
+			if (pos < src.length() && Character.isLetterOrDigit(src.charAt(pos))) {
+				throw UnsupportedSyntax.INSTANCE;
+			}
+		}
+
+		private Object integerLiteral(long value) {
+			if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+				return (int) value;
+			}
+			return value;
+		}
+
+		private Object negate(Object value) {
+			if (value instanceof Integer i) {
+				return -i;
+			}
+			else if (value instanceof Long l) {
+				return integerLiteral(-l);
+			}
+			else {
+				return ((BigDecimal) value).negate();
+			}
+		}
+	}
+
+	private boolean permitted(Map<Class<?>, Boolean> cache, Object receiver, CheckPermission check) {
+		if (whitelist == null) {
+			return true;
+		}
+		if (!cachePermissions) {
+			return check.test(whitelist);
+		}
+		// A cacheable whitelist only looks at classes, so the result can be cached by receiver class
+		return cache.computeIfAbsent(receiver.getClass(), cls -> check.test(whitelist));
+	}
+
+	@FunctionalInterface
+	private interface CheckPermission {
+		boolean test(Whitelist whitelist);
+	}
+
+	private @Nullable Object getProperty(@Nullable Object receiver, String name) {
+		if (receiver == null) {
+			throw new NullPointerException("Cannot get property '" + name + "' on null object");
+		}
+		if (receiver instanceof GroovyObject || receiver instanceof Class<?>) {
+			throw FallbackRequired.INSTANCE;
+		}
+		if (receiver instanceof Map<?, ?> map) {
+			if (whitelist != null && !whitelist.permitsMethod(mapGet, receiver, new Object[]{name})) {
+				throw FallbackRequired.INSTANCE;
+			}
+			return map.get(name);
+		}
+		Member member = members.computeIfAbsent(new MemberKey(receiver.getClass(), name, List.of()), TemplateExpressionCompiler::findProperty);
+		if (member instanceof Getter getter) {
+			if (!permitted(getter.permitted, receiver, wl -> wl.permitsMethod(getter.method, receiver, new Object[0]))) {
+				throw FallbackRequired.INSTANCE;
+			}
+			return invoke(getter.method, receiver, new Object[0]);
+		}
+		else if (member instanceof PublicField field) {
+			if (!permitted(field.permitted, receiver, wl -> wl.permitsFieldGet(field.field, receiver))) {
+				throw FallbackRequired.INSTANCE;
+			}
+			try {
+				return field.field.get(receiver);
+			}
+			catch (IllegalAccessException e) {
+				throw FallbackRequired.INSTANCE;
+			}
+		}
+		else {
+			throw FallbackRequired.INSTANCE;
+		}
+	}
+
+	private static Member findProperty(MemberKey key) {
+		Class<?> cls = key.cls();
+		String name = key.name();
+		if (name.isEmpty()) {
+			return MISSING;
+		}
+		String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		Method getter = MethodUtils.getAccessibleMethod(cls, "get" + capitalized);
+		if (getter != null && getter.getReturnType() != void.class && !Modifier.isStatic(getter.getModifiers())) {
+			return new Getter(getter, new ConcurrentHashMap<>());
+		}
+		Method isGetter = MethodUtils.getAccessibleMethod(cls, "is" + capitalized);
+		if (isGetter != null && isGetter.getReturnType() == boolean.class && !Modifier.isStatic(isGetter.getModifiers())) {
+			return new Getter(isGetter, new ConcurrentHashMap<>());
+		}
+		try {
+			Field field = cls.getField(name);
+			if (!Modifier.isStatic(field.getModifiers()) && Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+				return new PublicField(field, new ConcurrentHashMap<>());
+			}
+		}
+		catch (NoSuchFieldException ignored) {
+			// Fall through
+		}
+		return MISSING;
+	}
+
+	private @Nullable Object invokeMethod(@Nullable Object receiver, String name, Object[] args) {
+		if (receiver == null) {
+			throw new NullPointerException("Cannot invoke method " + name + "() on null object");
+		}
+		if (receiver instanceof GroovyObject || receiver instanceof Class<?>) {
+			throw FallbackRequired.INSTANCE;
+		}
+		Class<?>[] argTypes = new Class<?>[args.length];
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null) {
+				// Overload resolution with nulls is best left to Groovy
+				throw FallbackRequired.INSTANCE;
+			}
+			argTypes[i] = args[i].getClass();
+		}
+		Member member = members.computeIfAbsent(new MemberKey(receiver.getClass(), name, Arrays.asList(argTypes)), key -> {
+			Method method = MethodUtils.getMatchingAccessibleMethod(key.cls(), key.name(), key.argTypes().toArray(new Class<?>[0]));
+			if (method == null || Modifier.isStatic(method.getModifiers()) || method.isVarArgs()) {
+				return MISSING;
+			}
+			return new Getter(method, new ConcurrentHashMap<>());
+		});
+		if (member instanceof Getter getter) {
+			if (!permitted(getter.permitted, receiver, wl -> wl.permitsMethod(getter.method, receiver, args))) {
+				throw FallbackRequired.INSTANCE;
+			}
+			return invoke(getter.method, receiver, coerceArgs(getter.method, args));
+		}
+		throw FallbackRequired.INSTANCE;
+	}
+
+	private static Object[] coerceArgs(Method method, Object[] args) {
+		Class<?>[] paramTypes = method.getParameterTypes();
+		Object[] out = args;
+		for (int i = 0; i < args.length; i++) {
+			// Reflection won't widen boxed types, e.g. an Integer literal for a long parameter
+			if (paramTypes[i].isPrimitive() && args[i] instanceof Number number) {
+				Object coerced = DefaultTypeTransformation.castToType(number, paramTypes[i]);
+				if (coerced != args[i]) {
+					if (out == args) {
+						out = args.clone();
+					}
+					out[i] = coerced;
+				}
+			}
+		}
+		return out;
+	}
+
+	private static @Nullable Object invoke(Method method, Object receiver, Object[] args) {
+		try {
+			return method.invoke(receiver, args);
+		}
+		catch (IllegalAccessException e) {
+			throw FallbackRequired.INSTANCE;
+		}
+		catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException re) {
+				throw re;
+			}
+			if (cause instanceof Error err) {
+				throw err;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	private @Nullable Object getAt(@Nullable Object receiver, @Nullable Object index) {
+		if (receiver == null) {
+			throw new NullPointerException("Cannot invoke method getAt() on null object");
+		}
+		if (receiver instanceof List<?> list && index instanceof Integer i) {
+			if (whitelist != null && !whitelist.permitsMethod(listGet, receiver, new Object[]{i})) {
+				throw FallbackRequired.INSTANCE;
+			}
+			// Groovy semantics: negative indices count from the end, and out of range is null rather than an error
+			int size = list.size();
+			int effective = i < 0 ? size + i : i;
+			if (effective < 0 || effective >= size) {
+				return null;
+			}
+			return list.get(effective);
+		}
+		if (receiver instanceof Map<?, ?> map) {
+			if (whitelist != null && !whitelist.permitsMethod(mapGet, receiver, new Object[]{index})) {
+				throw FallbackRequired.INSTANCE;
+			}
+			return map.get(index);
+		}
+		throw FallbackRequired.INSTANCE;
+	}
+}
@@ -14,15 +14,18 @@ public class ACTLogLineEvent extends BaseEvent implements Compressible, HasPrima
 	@Serial
 	private static final long serialVersionUID = -5255204546093791693L;
 	private final String logLine;
-	private final String[] rawFields;
+	// Both of these can be recomputed from the line, so there is no need to store them
+	private transient ActLineFields fields;
+	private transient String[] rawFields;
 	private final ZonedDateTime timestamp;
 	private final int lineNumber;
 
 	public ACTLogLineEvent(String logLine) {
 		this.logLine = logLine;
-		rawFields = logLine.split("\\|");
-		this.timestamp = ZonedDateTime.parse(rawFields[1]);
-		lineNumber = Integer.parseInt(rawFields[0]);
+		ActLineFields fields = ActLineFields.of(logLine);
+		this.fields = fields;
+		this.timestamp = fields.parseTimestamp(1);
+		lineNumber = fields.parseInt(0);
 		setHappenedAt(timestamp.toInstant());
 	}
 
@@ -30,7 +33,26 @@ public class ACTLogLineEvent extends BaseEvent implements Compressible, HasPrima
 		return logLine;
 	}
 
+	/**
+	 * @return The fields of this line, as offsets into the line. Prefer this over {@link #getRawFields()}, since it
+	 * does not need to create a string for every field.
+	 */
+	public ActLineFields getFields() {
+		ActLineFields fields = this.fields;
+		if (fields == null) {
+			this.fields = fields = ActLineFields.of(logLine);
+		}
+		return fields;
+	}
+
+	/**
+	 * @return The line split on pipes. Created on first use.
+	 */
 	public String[] getRawFields() {
+		String[] rawFields = this.rawFields;
+		if (rawFields == null) {
+			this.rawFields = rawFields = getFields().toArray();
+		}
 		return rawFields;
 	}
 
@@ -40,7 +62,7 @@ public class ACTLogLineEvent extends BaseEvent implements Compressible, HasPrima
 
 	public String getEmulatedActLogLine() {
 
-		int msgNum = Integer.parseInt(rawFields[0]);
+		int msgNum = lineNumber;
 		// https://github.com/quisquous/cactbot/blob/129e5040447a14bfcdb00fd4c71dfe489fe0225e/resources/netlog_defs.ts
 		String messageName = switch (msgNum) {
 			case 0 -> "ChatLog";
@@ -85,9 +107,10 @@ public class ACTLogLineEvent extends BaseEvent implements Compressible, HasPrima
 		// Just faking the timestamp for now
 		lineBuilder.append("[12:34:56.789] ").append(typeString);
 		// ACT log lines do not have the checksum at the end
-		for (int i = 2; i < rawFields.length - 1; i++) {
-			String rawField = rawFields[i];
-			lineBuilder.append(':').append(rawField);
+		ActLineFields fields = getFields();
+		for (int i = 2; i < fields.count() - 1; i++) {
+			lineBuilder.append(':');
+			fields.appendTo(lineBuilder, i);
 		}
 		return lineBuilder.toString();
 	}
@@ -98,11 +121,9 @@ public class ACTLogLineEvent extends BaseEvent implements Compressible, HasPrima
 
 	@Override
 	public void compress() {
-		for (int i = 0; i < rawFields.length; i++) {
-			if (rawFields[i].length() <= 16) {
-				rawFields[i] = rawFields[i].intern();
-			}
-		}
+		// Everything other than the line itself is derived, so drop it rather than trying to dedupe it
+		fields = null;
+		rawFields = null;
 	}
 
 	@Override
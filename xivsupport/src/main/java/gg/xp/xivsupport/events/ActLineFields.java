@@ -0,0 +1,359 @@
+package gg.xp.xivsupport.events;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Pipe-delimited fields of an ACT log line, stored as offsets into the original line rather than as substrings.
+ * <p>
+ * Field counting matches {@code line.split("\\|")}, i.e. trailing empty fields are dropped. Numeric fields can be
+ * parsed directly from the line without allocating. Anything that does not fit the fast paths (very long numbers,
+ * exponents, odd timestamps, etc) falls back to the normal JDK parsing so that results and exceptions are identical.
+ */
+public final class ActLineFields {
+
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	// Largest mantissa that a double can hold exactly
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	private final String line;
+	// starts[i] is the offset of field i, starts[i + 1] - 1 is the end (exclusive) of field i
+	private final int[] starts;
+	private final int count;
+
+	private ActLineFields(String line, int[] starts, int count) {
+		this.line = line;
+		this.starts = starts;
+		this.count = count;
+	}
+
+	public static ActLineFields of(String line) {
+		int len = line.length();
+		// Most lines have fewer than 64 fields
+		int[] starts = new int[64];
+		int count = 0;
+		starts[0] = 0;
+		for (int i = 0; i < len; i++) {
+			if (line.charAt(i) == '|') {
+				count++;
+				if (count + 1 >= starts.length) {
+					starts = Arrays.copyOf(starts, starts.length * 2);
+				}
+				starts[count] = i + 1;
+			}
+		}
+		count++;
+		starts[count] = len + 1;
+		if (len > 0) {
+			// Same as String.split - drop trailing empty fields
+			while (count > 0 && starts[count] - starts[count - 1] == 1) {
+				count--;
+			}
+		}
+		return new ActLineFields(line, starts, count);
+	}
+
+	public String getLine() {
+		return line;
+	}
+
+	/**
+	 * @return The number of fields, which is the same as {@code line.split("\\|").length}.
+	 */
+	public int count() {
+		return count;
+	}
+
+	public int start(int index) {
+		checkIndex(index);
+		return starts[index];
+	}
+
+	public int end(int index) {
+		checkIndex(index);
+		return starts[index + 1] - 1;
+	}
+
+	public int length(int index) {
+		return end(index) - start(index);
+	}
+
+	public boolean isEmpty(int index) {
+		return length(index) == 0;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= count) {
+			throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+		}
+	}
+
+	public String get(int index) {
+		return line.substring(start(index), end(index));
+	}
+
+	/**
+	 * @param index Field index
+	 * @param value Value to compare against
+	 * @return Whether the field is exactly equal to the given value
+	 */
+	public boolean fieldEquals(int index, String value) {
+		int start = start(index);
+		int len = end(index) - start;
+		return len == value.length() && line.regionMatches(start, value, 0, len);
+	}
+
+	public void appendTo(StringBuilder sb, int index) {
+		sb.append(line, start(index), end(index));
+	}
+
+	/**
+	 * @return All fields as separate strings. Allocates a new array every time.
+	 */
+	public String[] toArray() {
+		String[] out = new String[count];
+		for (int i = 0; i < count; i++) {
+			out[i] = get(i);
+		}
+		return out;
+	}
+
+	/**
+	 * @return A read-only list view of the fields. Elements are substringed on access.
+	 */
+	public List<String> asList() {
+		return new FieldList();
+	}
+
+	private final class FieldList extends AbstractList<String> implements RandomAccess {
+		@Override
+		public String get(int index) {
+			return ActLineFields.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return count;
+		}
+	}
+
+	/**
+	 * Equivalent to {@code Integer.parseInt(get(index))}
+	 */
+	public int parseInt(int index) {
+		long value = parseLong(index);
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			// Let the JDK produce the usual exception
+			return Integer.parseInt(get(index));
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Equivalent to {@code Long.parseLong(get(index), 10)}
+	 */
+	public long parseLong(int index) {
+		int start = start(index);
+		int end = end(index);
+		int pos = start;
+		boolean negative = false;
+		if (pos < end) {
+			char first = line.charAt(pos);
+			if (first == '-' || first == '+') {
+				negative = first == '-';
+				pos++;
+			}
+		}
+		// 18 decimal digits always fit in a long, anything longer goes the slow way
+		if (pos == end || end - pos > 18) {
+			return Long.parseLong(get(index), 10);
+		}
+		long value = 0;
+		for (; pos < end; pos++) {
+			int digit = line.charAt(pos) - '0';
+			if (digit < 0 || digit > 9) {
+				return Long.parseLong(get(index), 10);
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Equivalent to {@code Long.parseLong(get(index), 16)}
+	 */
+	public long parseHex(int index) {
+		int start = start(index);
+		int end = end(index);
+		int pos = start;
+		boolean negative = false;
+		if (pos < end) {
+			char first = line.charAt(pos);
+			if (first == '-' || first == '+') {
+				negative = first == '-';
+				pos++;
+			}
+		}
+		// 15 hex digits always fit in a long, anything longer goes the slow way
+		if (pos == end || end - pos > 15) {
+			return Long.parseLong(get(index), 16);
+		}
+		long value = 0;
+		for (; pos < end; pos++) {
+			int digit = Character.digit(line.charAt(pos), 16);
+			if (digit < 0) {
+				return Long.parseLong(get(index), 16);
+			}
+			value = (value << 4) | digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Equivalent to {@code Double.parseDouble(get(index))}
+	 * <p>
+	 * Plain decimals with up to 15 significant digits (which covers positions, headings, and so on) are computed
+	 * directly. Since both the mantissa and the power of ten are exact, the single division is correctly rounded, so
+	 * this gives the same result as {@link Double#parseDouble(String)}.
+	 */
+	public double parseDouble(int index) {
+		int start = start(index);
+		int end = end(index);
+		int pos = start;
+		boolean negative = false;
+		if (pos < end) {
+			char first = line.charAt(pos);
+			if (first == '-' || first == '+') {
+				negative = first == '-';
+				pos++;
+			}
+		}
+		long mantissa = 0;
+		boolean anyDigit = false;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean seenDot = false;
+		for (; pos < end; pos++) {
+			char c = line.charAt(pos);
+			if (c >= '0' && c <= '9') {
+				anyDigit = true;
+				if (mantissa != 0 || c != '0') {
+					digits++;
+				}
+				mantissa = mantissa * 10 + (c - '0');
+				if (seenDot) {
+					fractionDigits++;
+				}
+				if (digits > 15 || fractionDigits >= POWERS_OF_TEN.length) {
+					return Double.parseDouble(get(index));
+				}
+			}
+			else if (c == '.' && !seenDot) {
+				seenDot = true;
+			}
+			else {
+				// Exponents, NaN, Infinity, hex floats, garbage - let the JDK deal with it
+				return Double.parseDouble(get(index));
+			}
+		}
+		// Things like "", "-", "." - the JDK will throw
+		if (!anyDigit || mantissa >= MAX_EXACT_MANTISSA) {
+			return Double.parseDouble(get(index));
+		}
+		double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Equivalent to {@code ZonedDateTime.parse(get(index))} for timestamps in the format that ACT uses, e.g.
+	 * {@code 2021-05-10T22:31:52.3330000-07:00}. Anything else is handed off to {@link ZonedDateTime#parse}.
+	 */
+	public ZonedDateTime parseTimestamp(int index) {
+		int s = start(index);
+		int end = end(index);
+		// yyyy-MM-ddTHH:mm:ss is 19 characters, and we need at least a 'Z' after that
+		if (end - s < 20
+				|| line.charAt(s + 4) != '-'
+				|| line.charAt(s + 7) != '-'
+				|| line.charAt(s + 10) != 'T'
+				|| line.charAt(s + 13) != ':'
+				|| line.charAt(s + 16) != ':') {
+			return ZonedDateTime.parse(get(index));
+		}
+		int year = digits(s, 4);
+		int month = digits(s + 5, 2);
+		int day = digits(s + 8, 2);
+		int hour = digits(s + 11, 2);
+		int minute = digits(s + 14, 2);
+		int second = digits(s + 17, 2);
+		if ((year | month | day | hour | minute | second) < 0) {
+			return ZonedDateTime.parse(get(index));
+		}
+		int pos = s + 19;
+		int nanos = 0;
+		if (line.charAt(pos) == '.') {
+			pos++;
+			int fracStart = pos;
+			while (pos < end && pos - fracStart < 9) {
+				int digit = line.charAt(pos) - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				nanos = nanos * 10 + digit;
+				pos++;
+			}
+			int fracLen = pos - fracStart;
+			if (fracLen == 0) {
+				return ZonedDateTime.parse(get(index));
+			}
+			for (int i = fracLen; i < 9; i++) {
+				nanos *= 10;
+			}
+		}
+		ZoneOffset offset;
+		int remaining = end - pos;
+		if (remaining == 1 && line.charAt(pos) == 'Z') {
+			offset = ZoneOffset.UTC;
+		}
+		else if (remaining == 6 && (line.charAt(pos) == '+' || line.charAt(pos) == '-') && line.charAt(pos + 3) == ':') {
+			int offHours = digits(pos + 1, 2);
+			int offMinutes = digits(pos + 4, 2);
+			if ((offHours | offMinutes) < 0) {
+				return ZonedDateTime.parse(get(index));
+			}
+			int totalSeconds = offHours * 3600 + offMinutes * 60;
+			offset = ZoneOffset.ofTotalSeconds(line.charAt(pos) == '-' ? -totalSeconds : totalSeconds);
+		}
+		else {
+			return ZonedDateTime.parse(get(index));
+		}
+		try {
+			return ZonedDateTime.of(LocalDateTime.of(year, month, day, hour, minute, second, nanos), offset);
+		}
+		catch (RuntimeException e) {
+			// Out of range values - let the real parser produce the usual exception
+			return ZonedDateTime.parse(get(index));
+		}
+	}
+
+	// Returns -1 if any character is not a digit
+	private int digits(int pos, int len) {
+		int value = 0;
+		for (int i = pos; i < pos + len; i++) {
+			int digit = line.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+}
@@ -2,7 +2,6 @@ package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
 import gg.xp.reevent.events.EventContext;
-import gg.xp.reevent.scan.HandleEvents;
 import gg.xp.xivsupport.events.ACTLogLineEvent;
 import gg.xp.xivsupport.events.state.RefreshSpecificCombatantsRequest;
 import gg.xp.xivsupport.events.state.XivState;
@@ -15,18 +14,17 @@ import java.time.ZonedDateTime;
 import java.time.temporal.ChronoField;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 public abstract class AbstractACTLineParser<F extends Enum<F>> {
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractACTLineParser.class);
 
-	private final Class<? extends Enum<F>> enumCls;
 	private final int lineNumber;
 	private final List<@Nullable F> groups;
+	// Field index within the line for each capture group, by ordinal
+	private final int[] fieldIndices;
 	private final XivState state;
 	private final @Nullable FakeTimeSource fakeTimeSource;
 
@@ -34,7 +32,7 @@ public abstract class AbstractACTLineParser<F extends Enum<F>> {
 		this(container, logLineNumber, Arrays.asList(enumCls.getEnumConstants()));
 	}
 
-	@SuppressWarnings({"ConstantConditions", "unchecked"})
+	@SuppressWarnings("ConstantConditions")
 	AbstractACTLineParser(PicoContainer container, int logLineNumber, List<@Nullable F> groups) {
 		this.state = Objects.requireNonNull(container.getComponent(XivState.class), "XivState is required");
 		this.fakeTimeSource = container.getComponent(FakeACTTimeSource.class);
@@ -43,33 +41,47 @@ public abstract class AbstractACTLineParser<F extends Enum<F>> {
 			throw new IllegalArgumentException("Capture groups cannot be empty");
 		}
 		this.groups = new ArrayList<>(groups);
-		F anyCap = groups.stream()
+		groups.stream()
 				.filter(Objects::nonNull)
 				.findFirst()
 				.orElseThrow(() -> new IllegalArgumentException("Must have a non-null capture group"));
-		enumCls = (Class<? extends Enum<F>>) anyCap.getClass();
+		int maxOrdinal = groups.stream().filter(Objects::nonNull).mapToInt(Enum::ordinal).max().orElse(0);
+		fieldIndices = new int[maxOrdinal + 1];
+		Arrays.fill(fieldIndices, -1);
+		for (int i = 0; i < groups.size(); i++) {
+			F group = groups.get(i);
+			if (group != null) {
+				// i + 2 is because the first two are the line number and timestamp.
+				fieldIndices[group.ordinal()] = i + 2;
+			}
+		}
 		lineNumber = logLineNumber;
+		ActLineParserDispatcher dispatcher = container.getComponent(ActLineParserDispatcher.class);
+		if (dispatcher == null) {
+			log.warn("No ActLineParserDispatcher, {} will not receive any lines", getClass().getSimpleName());
+		}
+		else {
+			dispatcher.register(this);
+		}
 	}
 
-	@SuppressWarnings("unchecked")
-	@HandleEvents
+	/**
+	 * Parse a line. Lines are routed here by {@link ActLineParserDispatcher} based on line number, so this is not an
+	 * event handler in its own right.
+	 *
+	 * @param context Event context
+	 * @param event   The line
+	 */
 	public void handle(EventContext context, ACTLogLineEvent event) {
 		if (event.getLineNumber() != lineNumber) {
 			return;
 		}
 		try {
 			String line = event.getLogLine();
-			String[] splits = event.getRawFields();
-			Map<F, String> out = new EnumMap<>((Class<F>) enumCls);
-			// Subtract 3 - line number, timestamp, hash
-			int fieldCount = Math.min(groups.size(), splits.length - 3);
 			// TODO: validate number of fields
-			for (int i = 0; i < fieldCount; i++) {
-				// i + 2 is because the first two are the line number and timestamp.
-				out.put(groups.get(i), splits[i + 2]);
-			}
+			// Fields past the end of the line (ignoring the hash) are treated as absent by the mapper
 			ZonedDateTime zdt = event.getTimestamp();
-			FieldMapper<F> mapper = new FieldMapper<>(out, state, entityLookupMissBehavior(), splits);
+			FieldMapper<F> mapper = new FieldMapper<>(event.getFields(), fieldIndices, state, entityLookupMissBehavior());
 			Event outgoingEvent;
 			try {
 				outgoingEvent = convert(mapper, lineNumber, zdt);
@@ -0,0 +1,106 @@
+package gg.xp.xivsupport.events.actlines.parsers;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-line-type counts and parse latency histograms for {@link ActLineParserDispatcher}.
+ * <p>
+ * Latency buckets are powers of two in microseconds: bucket 0 is under 1µs, bucket 1 is under 2µs, and so on, with
+ * the last bucket catching everything slower.
+ */
+public final class ActLineParseStats {
+
+	/**
+	 * Line numbers at or above this are all counted together as {@link #OTHER}.
+	 */
+	public static final int MAX_LINE_NUMBER = 512;
+	public static final int OTHER = MAX_LINE_NUMBER;
+	public static final int BUCKETS = 16;
+
+	private final AtomicLongArray counts = new AtomicLongArray(MAX_LINE_NUMBER + 1);
+	private final AtomicLongArray totalNanos = new AtomicLongArray(MAX_LINE_NUMBER + 1);
+	private final AtomicLongArray histogram = new AtomicLongArray((MAX_LINE_NUMBER + 1) * BUCKETS);
+
+	void record(int lineNumber, long nanos) {
+		int index = indexFor(lineNumber);
+		counts.incrementAndGet(index);
+		totalNanos.addAndGet(index, nanos);
+		histogram.incrementAndGet(index * BUCKETS + bucketFor(nanos));
+	}
+
+	private static int indexFor(int lineNumber) {
+		return lineNumber >= 0 && lineNumber < MAX_LINE_NUMBER ? lineNumber : OTHER;
+	}
+
+	private static int bucketFor(long nanos) {
+		long micros = nanos / 1000;
+		// 0 -> 0, 1 -> 1, 2-3 -> 2, 4-7 -> 3, etc
+		int bucket = 64 - Long.numberOfLeadingZeros(micros);
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	/**
+	 * @param lineNumber The line number, or {@link #OTHER}
+	 * @return How many lines of that type have been seen
+	 */
+	public long getCount(int lineNumber) {
+		return counts.get(indexFor(lineNumber));
+	}
+
+	/**
+	 * @param lineNumber The line number, or {@link #OTHER}
+	 * @return Total time spent parsing lines of this type, in nanoseconds
+	 */
+	public long getTotalNanos(int lineNumber) {
+		return totalNanos.get(indexFor(lineNumber));
+	}
+
+	/**
+	 * @param lineNumber The line number, or {@link #OTHER}
+	 * @return A copy of the latency histogram for this line type. See class docs for bucket boundaries.
+	 */
+	public long[] getHistogram(int lineNumber) {
+		int base = indexFor(lineNumber) * BUCKETS;
+		long[] out = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			out[i] = histogram.get(base + i);
+		}
+		return out;
+	}
+
+	/**
+	 * @param lineNumber The line number, or {@link #OTHER}
+	 * @param fraction   e.g. 0.99 for p99
+	 * @return The upper bound of the histogram bucket containing the requested percentile, in microseconds, or -1 if
+	 * there is no data. The last bucket is open-ended, so for that one this is a lower bound instead.
+	 */
+	public long getPercentileMicros(int lineNumber, double fraction) {
+		long[] hist = getHistogram(lineNumber);
+		long total = 0;
+		for (long l : hist) {
+			total += l;
+		}
+		if (total == 0) {
+			return -1;
+		}
+		long target = (long) Math.ceil(total * fraction);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += hist[i];
+			if (seen >= target) {
+				return 1L << i;
+			}
+		}
+		return 1L << (BUCKETS - 1);
+	}
+
+	public void clear() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.set(i, 0);
+			totalNanos.set(i, 0);
+		}
+		for (int i = 0; i < histogram.length(); i++) {
+			histogram.set(i, 0);
+		}
+	}
+}
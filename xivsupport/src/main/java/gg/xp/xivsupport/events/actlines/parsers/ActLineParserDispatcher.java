@@ -0,0 +1,132 @@
+package gg.xp.xivsupport.events.actlines.parsers;
+
+import gg.xp.reevent.events.EventContext;
+import gg.xp.reevent.scan.FilteredEventHandler;
+import gg.xp.reevent.scan.HandleEvents;
+import gg.xp.reevent.scan.ScanMe;
+import gg.xp.xivsupport.events.ACTLogLineEvent;
+import gg.xp.xivsupport.events.debug.DebugCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Routes each {@link ACTLogLineEvent} to the parser(s) for its line number, rather than having every parser look at
+ * every line.
+ * <p>
+ * Parsers register themselves when constructed (see {@link AbstractACTLineParser}). Since parsers are no longer event
+ * handlers themselves, a parser subclass is only constructed by the auto scan if it is marked {@link ScanMe}.
+ */
+public class ActLineParserDispatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(ActLineParserDispatcher.class);
+	private static final AbstractACTLineParser<?>[] noParsers = {};
+
+	private final ActLineParseStats stats = new ActLineParseStats();
+	private final List<AbstractACTLineParser<?>> parsers = new ArrayList<>();
+	// Null when it needs to be (re)built
+	private volatile AbstractACTLineParser<?>[][] parsersByLine;
+
+	@HandleEvents
+	public void handle(EventContext context, ACTLogLineEvent event) {
+		int lineNumber = event.getLineNumber();
+		AbstractACTLineParser<?>[] parsers = parsersFor(lineNumber);
+		long before = System.nanoTime();
+		try {
+			for (AbstractACTLineParser<?> parser : parsers) {
+				if (parser instanceof FilteredEventHandler feh && !feh.enabled(context)) {
+					continue;
+				}
+				parser.handle(context, event);
+			}
+		}
+		finally {
+			stats.record(lineNumber, System.nanoTime() - before);
+		}
+	}
+
+	/**
+	 * Add a parser. Can be called at any time, e.g. for parsers from an addon which is loaded later.
+	 *
+	 * @param parser The parser
+	 */
+	public synchronized void register(AbstractACTLineParser<?> parser) {
+		parsers.add(parser);
+		parsersByLine = null;
+	}
+
+	private AbstractACTLineParser<?>[] parsersFor(int lineNumber) {
+		AbstractACTLineParser<?>[][] table = parsersByLine;
+		if (table == null) {
+			table = buildTable();
+		}
+		if (lineNumber >= 0 && lineNumber < table.length) {
+			return table[lineNumber];
+		}
+		return noParsers;
+	}
+
+	private synchronized AbstractACTLineParser<?>[][] buildTable() {
+		AbstractACTLineParser<?>[][] table = parsersByLine;
+		if (table != null) {
+			return table;
+		}
+		int max = parsers.stream().mapToInt(AbstractACTLineParser::getLineNumber).max().orElse(-1);
+		List<List<AbstractACTLineParser<?>>> byLine = new ArrayList<>(max + 1);
+		for (int i = 0; i <= max; i++) {
+			byLine.add(new ArrayList<>(1));
+		}
+		for (AbstractACTLineParser<?> parser : parsers) {
+			List<AbstractACTLineParser<?>> forLine = byLine.get(parser.getLineNumber());
+			if (!forLine.isEmpty()) {
+				log.warn("Multiple parsers for line {}: {} and {}", parser.getLineNumber(), forLine, parser);
+			}
+			forLine.add(parser);
+		}
+		table = new AbstractACTLineParser<?>[max + 1][];
+		Map<Integer, String> names = new TreeMap<>();
+		for (int i = 0; i <= max; i++) {
+			table[i] = byLine.get(i).toArray(noParsers);
+			if (table[i].length > 0) {
+				names.put(i, Arrays.stream(table[i]).map(parser -> parser.getClass().getSimpleName()).collect(Collectors.joining(", ")));
+			}
+		}
+		log.info("Indexed {} ACT line parsers: {}", parsers.size(), names);
+		return parsersByLine = table;
+	}
+
+	public ActLineParseStats getStats() {
+		return stats;
+	}
+
+	@HandleEvents
+	public void statsCommand(EventContext context, DebugCommand event) {
+		if (event.getCommand().equals("stats")) {
+			if (event.getArgs().size() == 1) {
+				StringBuilder sb = new StringBuilder("ACT line stats (line: count, avg µs, p50 µs, p99 µs):");
+				for (int i = 0; i <= ActLineParseStats.OTHER; i++) {
+					long count = stats.getCount(i);
+					if (count == 0) {
+						continue;
+					}
+					sb.append("\n  ")
+							.append(i == ActLineParseStats.OTHER ? "other" : String.valueOf(i))
+							.append(": ").append(count)
+							.append(", ").append(stats.getTotalNanos(i) / count / 1000)
+							.append(", <").append(stats.getPercentileMicros(i, 0.5))
+							.append(", <").append(stats.getPercentileMicros(i, 0.99));
+				}
+				log.info(sb.toString());
+			}
+			else if ("clear".equals(event.getArgs().get(1))) {
+				stats.clear();
+			}
+		}
+	}
+}
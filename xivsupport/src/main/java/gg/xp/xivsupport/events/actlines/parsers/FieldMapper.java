@@ -1,5 +1,6 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
+import gg.xp.xivsupport.events.ActLineFields;
 import gg.xp.xivsupport.events.actlines.events.abilityeffect.AbilityEffect;
 import gg.xp.xivsupport.events.actlines.events.abilityeffect.AbilityEffects;
 import gg.xp.xivsupport.events.state.XivState;
@@ -14,81 +15,111 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 
 public class FieldMapper<K extends Enum<K>> {
 
 	private static final Logger log = LoggerFactory.getLogger(FieldMapper.class);
 
-	private final Map<K, String> raw;
+	private final ActLineFields fields;
+	private final int[] fieldIndices;
 	private final XivState state;
 	private final EntityLookupMissBehavior entityLookupMissBehavior;
-	private final String[] rawLineSplit;
 	private final List<Long> combatantsToUpdate = new ArrayList<>();
 	private boolean recalcNeeded;
 
-	public FieldMapper(Map<K, String> raw, XivState state, EntityLookupMissBehavior entityLookupMissBehavior, String[] rawLineSplit) {
-		this.raw = new EnumMap<>(raw);
+	/**
+	 * @param fields                   The tokenized line
+	 * @param fieldIndices             Field index within the line for each key, indexed by key ordinal. -1 for keys
+	 *                                 which are not present.
+	 * @param state                    State
+	 * @param entityLookupMissBehavior What to do if an entity is not known
+	 */
+	public FieldMapper(ActLineFields fields, int[] fieldIndices, XivState state, EntityLookupMissBehavior entityLookupMissBehavior) {
+		this.fields = fields;
+		this.fieldIndices = fieldIndices;
 		this.state = state;
 		this.entityLookupMissBehavior = entityLookupMissBehavior;
-		this.rawLineSplit = rawLineSplit;
+	}
+
+	/**
+	 * @return The index of the field within the line, or -1 if this key is not mapped or the line is too short to
+	 * contain it.
+	 */
+	private int indexOf(K key) {
+		int ordinal = key.ordinal();
+		if (ordinal >= fieldIndices.length) {
+			return -1;
+		}
+		int index = fieldIndices[ordinal];
+		// The last field is the hash
+		if (index >= fields.count() - 1) {
+			return -1;
+		}
+		return index;
+	}
+
+	private int requiredIndexOf(K key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			throw new NumberFormatException("Field " + key + " is not present");
+		}
+		return index;
 	}
 
 	public String getString(K key) {
-		return raw.get(key);
+		int index = indexOf(key);
+		return index < 0 ? null : fields.get(index);
 	}
 
 	public long getLong(K key) {
-		return Long.parseLong(raw.get(key), 10);
+		return fields.parseLong(requiredIndexOf(key));
 	}
 
 	public int getInt(K key) {
-		return Integer.parseInt(raw.get(key), 10);
+		return fields.parseInt(requiredIndexOf(key));
 	}
 
 
 	public @Nullable Long getOptionalHex(K key) {
-		String rawStr = raw.get(key);
-		if (rawStr.isEmpty()) {
+		int index = requiredIndexOf(key);
+		if (fields.isEmpty(index)) {
 			return null;
 		}
-		return Long.parseLong(rawStr, 16);
+		return fields.parseHex(index);
 	}
 
 	public @Nullable Long getOptionalLong(K key) {
-		String rawStr = raw.get(key);
-		if (rawStr.isEmpty()) {
+		int index = requiredIndexOf(key);
+		if (fields.isEmpty(index)) {
 			return null;
 		}
-		return Long.parseLong(rawStr, 10);
+		return fields.parseLong(index);
 	}
 
 	public @Nullable Double getOptionalDouble(K key) {
-		String rawStr = raw.get(key);
-		if (rawStr.isEmpty()) {
+		int index = requiredIndexOf(key);
+		if (fields.isEmpty(index)) {
 			return null;
 		}
-		return Double.parseDouble(rawStr);
+		return fields.parseDouble(index);
 	}
 
 	public int fieldCount() {
-		return rawLineSplit.length;
+		return fields.count();
 	}
 
 	public List<String> getRawLineSplit() {
-		return Arrays.asList(rawLineSplit);
+		return fields.asList();
 	}
 
 	public long getHex(K key) {
-		return Long.parseLong(raw.get(key), 16);
+		return fields.parseHex(requiredIndexOf(key));
 	}
 
 	public double getDouble(K key) {
-		return Double.parseDouble(raw.get(key));
+		return fields.parseDouble(requiredIndexOf(key));
 	}
 
 	public XivAbility getAbility(K idKey, K nameKey) {
@@ -120,7 +151,7 @@ public class FieldMapper<K extends Enum<K>> {
 	}
 
 	public boolean hasField(K field) {
-		return raw.containsKey(field);
+		return indexOf(field) >= 0;
 	}
 
 	public XivCombatant getEntity(K idKey, K nameKey, K currentHpKey, K maxHpKey, K currentMpKey, K maxMpKey, K posXKey, K posYKey, K posZKey, K headingKey, K shieldPctKey) {
@@ -243,16 +274,11 @@ public class FieldMapper<K extends Enum<K>> {
 		}
 	}
 
-	private String getRawField(int fieldIndex) {
-		return rawLineSplit[fieldIndex];
-	}
-
 	public long getRawHex(int fieldIndex) {
-		String rawField = getRawField(fieldIndex);
-		if (rawField.isEmpty()) {
+		if (fields.isEmpty(fieldIndex)) {
 			return -1;
 		}
-		return Long.parseLong(rawField, 16);
+		return fields.parseHex(fieldIndex);
 	}
 
 	public List<AbilityEffect> getAbilityEffects(int startIndex, int count) {
@@ -1,6 +1,7 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivsupport.events.actlines.events.RawAddCombatantEvent;
 import gg.xp.xivsupport.events.state.RawXivCombatantInfo;
 import org.picocontainer.PicoContainer;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.ZonedDateTime;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line03Parser extends AbstractACTLineParser<Line03Parser.Fields> {
 
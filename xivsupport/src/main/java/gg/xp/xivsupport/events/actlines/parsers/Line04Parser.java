@@ -1,11 +1,13 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivsupport.events.actlines.events.RawRemoveCombatantEvent;
 import org.picocontainer.PicoContainer;
 
 import java.time.ZonedDateTime;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line04Parser extends AbstractACTLineParser<Line04Parser.Fields> {
 
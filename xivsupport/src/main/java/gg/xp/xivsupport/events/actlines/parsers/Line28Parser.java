@@ -1,6 +1,7 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivsupport.events.actlines.events.MarkerPlacedEvent;
 import gg.xp.xivsupport.events.actlines.events.MarkerRemovedEvent;
 import gg.xp.xivsupport.events.state.floormarkers.FloorMarker;
@@ -10,6 +11,7 @@ import org.picocontainer.PicoContainer;
 
 import java.time.ZonedDateTime;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line28Parser extends AbstractACTLineParser<Line28Parser.Fields> {
 
@@ -1,6 +1,7 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivsupport.events.actlines.events.PlayerMarkerPlacedEvent;
 import gg.xp.xivsupport.events.actlines.events.PlayerMarkerRemovedEvent;
 import gg.xp.xivsupport.events.triggers.marks.adv.MarkerSign;
@@ -10,6 +11,7 @@ import org.picocontainer.PicoContainer;
 
 import java.time.ZonedDateTime;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line29Parser extends AbstractACTLineParser<Line29Parser.Fields> {
 
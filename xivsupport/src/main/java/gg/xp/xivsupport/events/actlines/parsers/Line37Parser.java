@@ -1,12 +1,14 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivsupport.events.actlines.events.ActionSyncEvent;
 import gg.xp.xivsupport.models.XivCombatant;
 import org.picocontainer.PicoContainer;
 
 import java.time.ZonedDateTime;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line37Parser extends AbstractACTLineParser<Line37Parser.Fields> {
 
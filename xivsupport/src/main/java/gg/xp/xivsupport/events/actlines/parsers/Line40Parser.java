@@ -1,12 +1,14 @@
 package gg.xp.xivsupport.events.actlines.parsers;
 
 import gg.xp.reevent.events.Event;
+import gg.xp.reevent.scan.ScanMe;
 import gg.xp.xivdata.data.XivMap;
 import gg.xp.xivsupport.events.actlines.events.MapChangeEvent;
 import org.picocontainer.PicoContainer;
 
 import java.time.ZonedDateTime;
 
+@ScanMe
 @SuppressWarnings("unused")
 public class Line40Parser extends AbstractACTLineParser<Line40Parser.Fields> {
 
@@ -6,6 +6,8 @@ import gg.xp.reevent.scan.HandleEvents;
 import gg.xp.reevent.scan.LiveOnly;
 import gg.xp.xivsupport.events.ACTLogLineEvent;
 import gg.xp.xivsupport.events.debug.DebugCommand;
+import gg.xp.xivsupport.eventstorage.SessionFormat;
+import gg.xp.xivsupport.eventstorage.SessionWriter;
 import gg.xp.xivsupport.persistence.Compressible;
 import gg.xp.xivsupport.persistence.PersistenceProvider;
 import gg.xp.xivsupport.persistence.Platform;
@@ -20,15 +22,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -38,13 +37,12 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
 
 public class RawEventStorage {
 
 
 	private static final Logger log = LoggerFactory.getLogger(RawEventStorage.class);
+	private static final int SEGMENT_SIZE = 4096;
 	private static final ExecutorService exs = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
 			.daemon(false)
 			.namingPattern("RawEventStorageThread-%d")
@@ -55,13 +53,14 @@ public class RawEventStorage {
 	private final IntSetting maxEventsStored;
 	private final String dirName;
 	private final String sessionName;
-	// TODO: I have confirmed that this does result in a (very slow) memory leak, because the OOS just keeps handles on
-	// everything because the output stream needs to keep track of references. But since realistically we'd just be
-	// writing websocket stuff to it, we can probably just save one big string.
-	private ObjectOutputStream eventSaveStream;
-	// TODO: cap this or otherwise manage memory
-	private final Object eventsPruneLock = new Object();
-	private List<Event> events = new ArrayList<>();
+	private volatile SessionWriter eventSaveStream;
+	// Only held by the event thread, other than when creating a new type index
+	private final Object eventsLock = new Object();
+	private final SegmentedAppendOnlyList<Event> events = new SegmentedAppendOnlyList<>(SEGMENT_SIZE, false);
+	// Events of a particular type, tagged with their position in 'events'
+	private final Map<Class<?>, SegmentedAppendOnlyList<Event>> typeIndexes = new ConcurrentHashMap<>();
+	// Which of the above indexes each concrete event class belongs in
+	private final Map<Class<?>, List<SegmentedAppendOnlyList<Event>>> indexesByClass = new ConcurrentHashMap<>();
 	private final BooleanSetting saveToDisk;
 	private final BlockingQueue<Event> eventSaveQueue = new LinkedBlockingQueue<>();
 	private boolean allowSave = true;
@@ -84,9 +83,10 @@ public class RawEventStorage {
 		dirName = ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 		sessionName = ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss"));
 		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			SessionWriter eventSaveStream = this.eventSaveStream;
 			if (eventSaveStream != null) {
 				try {
-					eventSaveStream.flush();
+					// Also writes the block index
 					eventSaveStream.close();
 				}
 				catch (IOException e) {
@@ -100,29 +100,37 @@ public class RawEventStorage {
 
 	@HandleEvents(order = Integer.MIN_VALUE)
 	public void storeEvent(EventContext context, Event event) {
-		events.add(event);
-		eventSubTypeCache.forEach((type, list) -> {
-			if (type.isInstance(event)) {
-				list.add(event);
+		synchronized (eventsLock) {
+			long position = events.add(event);
+			for (SegmentedAppendOnlyList<Event> index : indexesFor(event.getClass())) {
+				index.add(event, position);
 			}
-		});
-		// TODO: make it so this can't be zero
-		int maxEvents = maxEventsStored.get();
-		if (maxEvents == 0) {
-			maxEvents = 50_000;
-		}
-		if (events.size() > maxEvents) {
-			log.info("Pruning events");
-			synchronized (eventsPruneLock) {
-				int demarcation = events.size() / 3;
-				events = new ArrayList<>(events.subList(demarcation, events.size()));
+			// TODO: make it so this can't be zero
+			int maxEvents = maxEventsStored.get();
+			if (maxEvents == 0) {
+				maxEvents = 50_000;
+			}
+			if (events.size() > maxEvents) {
+				// Only whole segments are dropped, so this is cheap, and does not leave a big pile of garbage behind
+				while (events.size() > maxEvents) {
+					if (!events.evictOldestSegment()) {
+						break;
+					}
+				}
+				long start = events.getStartIndex();
+				typeIndexes.values().forEach(index -> index.evictBeforeTag(start));
 			}
-			eventSubTypeCache.clear();
-			// TODO: shutdown hook, or just stream events directly
-			exs.submit(System::gc);
 		}
 	}
 
+	private List<SegmentedAppendOnlyList<Event>> indexesFor(Class<?> eventClass) {
+		return indexesByClass.computeIfAbsent(eventClass, cls -> typeIndexes.entrySet()
+				.stream()
+				.filter(entry -> entry.getKey().isAssignableFrom(cls))
+				.map(Map.Entry::getValue)
+				.toList());
+	}
+
 	@HandleEvents(order = Integer.MAX_VALUE)
 	public void queueEventForProcessing(EventContext context, Event event) {
 		// This is slow. Potential fix is to save to a temp list, then dump them all once we hit a certain threshold.
@@ -147,26 +155,45 @@ public class RawEventStorage {
 	@HandleEvents
 	public void clear(EventContext context, DebugCommand event) {
 		if ("clear".equals(event.getCommand())) {
-			events = new ArrayList<>();
-			exs.submit(System::gc);
+			synchronized (eventsLock) {
+				events.clear();
+				typeIndexes.values().forEach(SegmentedAppendOnlyList::clear);
+			}
 		}
 	}
 
 	public List<Event> getEvents() {
-		// Trying new thing - this implementation is safe because we only append to the list
-		return new ProxyForAppendOnlyList<>(events);
+		return events.snapshot();
 	}
 
-	private final Map<Class<?>, List<Event>> eventSubTypeCache = new ConcurrentHashMap<>();
-
 	@SuppressWarnings("unchecked")
 	public <X> List<X> getEventsOfType(Class<X> eventClass) {
-		// TODO: concurrency issues may cause a few events to be missed when creating one of these
-		return (List<X>) new ProxyForAppendOnlyList<>(eventSubTypeCache.computeIfAbsent(eventClass,
-				(cls) -> (List<Event>) getEvents().stream().filter(eventClass::isInstance)
-				.map(eventClass::cast)
-				.collect(Collectors.toList())));
+		SegmentedAppendOnlyList<Event> index = typeIndexes.get(eventClass);
+		if (index == null) {
+			index = createIndex(eventClass);
+		}
+		// The index may still hold a few events which have already been pruned from the main list
+		return (List<X>) index.snapshotFromTag(events.getStartIndex());
+	}
 
+	private SegmentedAppendOnlyList<Event> createIndex(Class<?> eventClass) {
+		synchronized (eventsLock) {
+			SegmentedAppendOnlyList<Event> existing = typeIndexes.get(eventClass);
+			if (existing != null) {
+				return existing;
+			}
+			SegmentedAppendOnlyList<Event> index = new SegmentedAppendOnlyList<>(SEGMENT_SIZE, true);
+			SegmentedAppendOnlyList.Snapshot<Event> all = events.snapshot();
+			for (int i = 0; i < all.size(); i++) {
+				Event event = all.get(i);
+				if (eventClass.isInstance(event)) {
+					index.add(event, all.getAbsoluteIndex(i));
+				}
+			}
+			typeIndexes.put(eventClass, index);
+			indexesByClass.clear();
+			return index;
+		}
 	}
 
 	public IntSetting getMaxEventsStoredSetting() {
@@ -196,8 +223,9 @@ public class RawEventStorage {
 	}
 
 	private void processEvent(Event e) {
-		compressEvent(e);
+		// Save first - the session format stores raw messages as-is, so there is no point compressing them before then
 		saveEventToDisk(e);
+		compressEvent(e);
 	}
 
 	private static void compressEvent(Event event) {
@@ -217,12 +245,10 @@ public class RawEventStorage {
 						log.error("Error saving to disk! Could not make dirs: {}", sessionsDirFile.getAbsolutePath());
 						return;
 					}
-					File file = Paths.get(sessionsDir.toString(), sessionName + ".session.oos.gz").toFile();
-					FileOutputStream fileOutputStream = new FileOutputStream(file, true);
-					GZIPOutputStream compressedOutputStream = new GZIPOutputStream(fileOutputStream);
-					eventSaveStream = new ObjectOutputStream(compressedOutputStream);
+					File file = Paths.get(sessionsDir.toString(), sessionName + SessionFormat.EXTENSION).toFile();
+					eventSaveStream = new SessionWriter(file);
 				}
-				eventSaveStream.writeObject(event);
+				eventSaveStream.write(event);
 			}
 			catch (IOException e) {
 				log.error("Error saving to disk!", e);
@@ -231,6 +257,7 @@ public class RawEventStorage {
 	}
 
 	public void flushToDisk() {
+		SessionWriter eventSaveStream = this.eventSaveStream;
 		if (eventSaveStream != null) {
 			try {
 				eventSaveStream.flush();
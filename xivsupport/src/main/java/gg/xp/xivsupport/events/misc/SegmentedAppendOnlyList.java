@@ -0,0 +1,265 @@
+package gg.xp.xivsupport.events.misc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Append-only list made of fixed-size segments. Dropping the oldest segment is O(1), so old entries can be discarded
+ * without copying what remains.
+ * <p>
+ * Only one thread may add or evict at a time, but {@link #snapshot()} may be called from any thread. Snapshots never
+ * copy elements and never change - new elements are not visible in an existing snapshot, and evicting segments does
+ * not affect snapshots which were taken before the eviction.
+ * <p>
+ * Elements can optionally carry a {@code long} tag, which must be non-decreasing. This is used for secondary indexes,
+ * where the tag is the position of the element in the primary list, so that the index can be trimmed to match.
+ *
+ * @param <E> Element type
+ */
+public final class SegmentedAppendOnlyList<E> {
+
+	private static final Segment[] NO_SEGMENTS = {};
+
+	private final int segmentBits;
+	private final int segmentSize;
+	private final int segmentMask;
+	private final boolean tagged;
+	// Replaced rather than modified, so that snapshots can keep using an old one
+	private volatile State state;
+	// Absolute index one past the last element. Written after the element itself, so that readers see the element.
+	private volatile long end;
+
+	private record State(Segment[] segments, long base) {
+		long capacityEnd(int segmentSize) {
+			return base + (long) segments.length * segmentSize;
+		}
+	}
+
+	private static final class Segment {
+		private final Object[] items;
+		private final long @Nullable [] tags;
+
+		private Segment(int size, boolean tagged) {
+			items = new Object[size];
+			tags = tagged ? new long[size] : null;
+		}
+	}
+
+	/**
+	 * @param segmentSize Elements per segment, must be a power of two
+	 * @param tagged      Whether elements have tags
+	 */
+	public SegmentedAppendOnlyList(int segmentSize, boolean tagged) {
+		if (segmentSize <= 0 || Integer.bitCount(segmentSize) != 1) {
+			throw new IllegalArgumentException("Segment size must be a power of two, not " + segmentSize);
+		}
+		this.segmentSize = segmentSize;
+		this.segmentBits = Integer.numberOfTrailingZeros(segmentSize);
+		this.segmentMask = segmentSize - 1;
+		this.tagged = tagged;
+		this.state = new State(NO_SEGMENTS, 0);
+	}
+
+	/**
+	 * Add an element to an untagged list.
+	 *
+	 * @param item The element
+	 * @return The absolute index of the element, which does not change when older segments are evicted
+	 */
+	public long add(E item) {
+		return add(item, 0);
+	}
+
+	/**
+	 * Add an element.
+	 *
+	 * @param item The element
+	 * @param tag  The tag, ignored for untagged lists
+	 * @return The absolute index of the element, which does not change when older segments are evicted
+	 */
+	public long add(E item, long tag) {
+		long index = end;
+		State state = this.state;
+		if (index >= state.capacityEnd(segmentSize)) {
+			Segment[] newSegments = Arrays.copyOf(state.segments, state.segments.length + 1);
+			newSegments[newSegments.length - 1] = new Segment(segmentSize, tagged);
+			state = new State(newSegments, state.base);
+			this.state = state;
+		}
+		long relative = index - state.base;
+		Segment segment = state.segments[(int) (relative >>> segmentBits)];
+		int offset = (int) (relative & segmentMask);
+		segment.items[offset] = item;
+		if (segment.tags != null) {
+			segment.tags[offset] = tag;
+		}
+		end = index + 1;
+		return index;
+	}
+
+	/**
+	 * @return Absolute index of the oldest element still held
+	 */
+	public long getStartIndex() {
+		return Math.min(state.base, end);
+	}
+
+	/**
+	 * @return Absolute index one past the newest element
+	 */
+	public long getEndIndex() {
+		return end;
+	}
+
+	public int size() {
+		return (int) (end - getStartIndex());
+	}
+
+	/**
+	 * Drop the oldest segment, if it is full and is not the only segment.
+	 *
+	 * @return true if a segment was dropped
+	 */
+	public boolean evictOldestSegment() {
+		State state = this.state;
+		if (state.segments.length <= 1) {
+			return false;
+		}
+		this.state = new State(Arrays.copyOfRange(state.segments, 1, state.segments.length), state.base + segmentSize);
+		return true;
+	}
+
+	/**
+	 * For tagged lists, drop full segments in which every tag is below the given value.
+	 *
+	 * @param minTag The lowest tag to keep
+	 */
+	public void evictBeforeTag(long minTag) {
+		while (true) {
+			State state = this.state;
+			if (state.segments.length <= 1) {
+				return;
+			}
+			long[] tags = state.segments[0].tags;
+			if (tags == null || tags[segmentSize - 1] >= minTag) {
+				return;
+			}
+			evictOldestSegment();
+		}
+	}
+
+	/**
+	 * Remove everything. Absolute indices keep counting up from where they were.
+	 */
+	public void clear() {
+		state = new State(NO_SEGMENTS, end);
+	}
+
+	/**
+	 * @return An unmodifiable view of the current contents
+	 */
+	public Snapshot<E> snapshot() {
+		State state = this.state;
+		long end = Math.min(this.end, state.capacityEnd(segmentSize));
+		long start = Math.min(state.base, end);
+		return new Snapshot<>(state.segments, state.base, start, (int) (end - start), segmentBits, segmentMask);
+	}
+
+	/**
+	 * For tagged lists, take a snapshot which skips any leading elements whose tag is below the given value.
+	 *
+	 * @param minTag The lowest tag to include
+	 * @return The snapshot
+	 */
+	public Snapshot<E> snapshotFromTag(long minTag) {
+		Snapshot<E> full = snapshot();
+		if (!tagged || full.isEmpty()) {
+			return full;
+		}
+		// Tags are non-decreasing, so binary search for the first one that we want
+		int low = 0;
+		int high = full.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (full.getTag(mid) < minTag) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return full.subSnapshot(low);
+	}
+
+	/**
+	 * Unmodifiable, fixed-size view of a {@link SegmentedAppendOnlyList}.
+	 *
+	 * @param <E> Element type
+	 */
+	public static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+		private final Segment[] segments;
+		private final long base;
+		private final long start;
+		private final int size;
+		private final int segmentBits;
+		private final int segmentMask;
+
+		private Snapshot(Segment[] segments, long base, long start, int size, int segmentBits, int segmentMask) {
+			this.segments = segments;
+			this.base = base;
+			this.start = start;
+			this.size = size;
+			this.segmentBits = segmentBits;
+			this.segmentMask = segmentMask;
+		}
+
+		private Segment segmentFor(long relative) {
+			return segments[(int) (relative >>> segmentBits)];
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public E get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException(String.format("Index %s is out of bounds for list of %s items", index, size));
+			}
+			long relative = start + index - base;
+			return (E) segmentFor(relative).items[(int) (relative & segmentMask)];
+		}
+
+		long getTag(int index) {
+			long relative = start + index - base;
+			long[] tags = segmentFor(relative).tags;
+			return tags == null ? 0 : tags[(int) (relative & segmentMask)];
+		}
+
+		Snapshot<E> subSnapshot(int from) {
+			return new Snapshot<>(segments, base, start + from, size - from, segmentBits, segmentMask);
+		}
+
+		/**
+		 * @param index Index within this snapshot
+		 * @return The absolute index of that element in the underlying list
+		 */
+		public long getAbsoluteIndex(int index) {
+			return start + index;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public List<E> subList(int fromIndex, int toIndex) {
+			if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+				throw new IndexOutOfBoundsException("fromIndex %s, toIndex %s, size %s".formatted(fromIndex, toIndex, size));
+			}
+			return new Snapshot<>(segments, base, start + fromIndex, toIndex - fromIndex, segmentBits, segmentMask);
+		}
+	}
+}
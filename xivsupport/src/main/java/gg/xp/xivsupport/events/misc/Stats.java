@@ -1,5 +1,6 @@
 package gg.xp.xivsupport.events.misc;
 
+import gg.xp.reevent.events.DelayedEventStats;
 import gg.xp.reevent.events.Event;
 import gg.xp.reevent.events.EventContext;
 import gg.xp.xivsupport.events.debug.DebugCommand;
@@ -43,7 +44,12 @@ public class Stats { // :eldercat:
 				log.info("Processing for {} seconds", delta);
 				log.info("Event stats: Total: {}, Primogenitor: {}, Synthetic: {}", total, primogenitor, synthetic);
 				log.info("Event stats (per second): Total: {}, Primogenitor: {}, Synthetic: {}", total / delta, primogenitor / delta, synthetic / delta);
-				log.info("Queue depth: {}", context.getStateInfo().get(QueueState.class).getQueueDepth());
+				QueueState queueState = context.getStateInfo().get(QueueState.class);
+				log.info("Queue depth: {}", queueState.getQueueDepth());
+				DelayedEventStats delayed = queueState.getDelayedEventStats();
+				if (delayed != null) {
+					log.info("Delayed events: Pending: {}, Total: {}, Lateness (ms): {}", delayed.getPendingCount(), delayed.getTotalScheduled(), delayed.getLateness());
+				}
 				MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
 				log.info("Heap: {}", memory.getHeapMemoryUsage().toString());
 				log.info("Non-heap: {}", memory.getNonHeapMemoryUsage().toString());
@@ -35,6 +35,15 @@ public class Pull {
 		this.zone = zone;
 	}
 
+	Pull copy() {
+		Pull copy = new Pull(pullNum, start, zone);
+		copy.combatStart = combatStart;
+		copy.end = end;
+		copy.players.putAll(players);
+		copy.enemies.putAll(enemies);
+		return copy;
+	}
+
 	public int getPullNum() {
 		return pullNum;
 	}
@@ -17,6 +17,7 @@ import gg.xp.xivsupport.events.state.XivState;
 import gg.xp.xivsupport.models.CombatantType;
 import gg.xp.xivsupport.models.XivCombatant;
 import gg.xp.xivsupport.models.XivZone;
+import gg.xp.xivsupport.replay.ReplayCheckpointable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,11 +25,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
-public class PullTracker implements SubState {
+public class PullTracker implements SubState, ReplayCheckpointable<PullTracker.Checkpoint> {
 
 	private static final Logger log = LoggerFactory.getLogger(PullTracker.class);
 
-	private final List<Pull> pulls = new ArrayList<>();
+	// Replaced rather than truncated when restoring a checkpoint, since getPulls() hands out views of it
+	private volatile List<Pull> pulls = new ArrayList<>();
 	private final AtomicInteger pullCounter = new AtomicInteger(1);
 	private Pull currentPull;
 
@@ -141,6 +143,38 @@ public class PullTracker implements SubState {
 		}
 	}
 
+	/**
+	 * @param pulls       All pulls so far. The current one, if any, is last.
+	 * @param nextPullNum Number for the next pull
+	 * @param inPull      Whether the last pull is still ongoing
+	 */
+	record Checkpoint(List<Pull> pulls, int nextPullNum, boolean inPull) {
+	}
+
+	@Override
+	public Checkpoint saveCheckpoint() {
+		List<Pull> saved = new ArrayList<>(pulls);
+		// Only the current pull can still change
+		if (currentPull != null) {
+			saved.set(saved.size() - 1, currentPull.copy());
+		}
+		return new Checkpoint(List.copyOf(saved), pullCounter.get(), currentPull != null);
+	}
+
+	@Override
+	public void restoreCheckpoint(Checkpoint saved) {
+		List<Pull> restored = new ArrayList<>(saved.pulls);
+		if (saved.inPull) {
+			currentPull = restored.get(restored.size() - 1).copy();
+			restored.set(restored.size() - 1, currentPull);
+		}
+		else {
+			currentPull = null;
+		}
+		pulls = restored;
+		pullCounter.set(saved.nextPullNum);
+	}
+
 	public List<Pull> getPulls() {
 		return new ProxyForAppendOnlyList<>(pulls);
 	}
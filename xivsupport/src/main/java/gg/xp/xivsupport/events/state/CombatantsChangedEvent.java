@@ -0,0 +1,50 @@
+package gg.xp.xivsupport.events.state;
+
+import gg.xp.reevent.events.BaseEvent;
+import gg.xp.reevent.events.SystemEvent;
+import gg.xp.xivsupport.events.actlines.events.XivStateChange;
+import gg.xp.xivsupport.models.XivCombatant;
+
+import java.io.Serial;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Emitted alongside {@link gg.xp.xivsupport.events.actlines.events.XivStateRecalculatedEvent} when the set of
+ * combatants in {@link XivState#getCombatants()} has changed, with only the combatants that changed.
+ */
+@SystemEvent
+public class CombatantsChangedEvent extends BaseEvent implements XivStateChange {
+	@Serial
+	private static final long serialVersionUID = 2306180717329542417L;
+	private final List<XivCombatant> added;
+	private final List<XivCombatant> updated;
+	private final List<XivCombatant> removed;
+
+	public CombatantsChangedEvent(List<XivCombatant> added, List<XivCombatant> updated, List<XivCombatant> removed) {
+		this.added = added;
+		this.updated = updated;
+		this.removed = removed;
+	}
+
+	/**
+	 * @return Combatants which were not in the list before.
+	 */
+	public List<XivCombatant> getAdded() {
+		return Collections.unmodifiableList(added);
+	}
+
+	/**
+	 * @return New versions of combatants which were already in the list.
+	 */
+	public List<XivCombatant> getUpdated() {
+		return Collections.unmodifiableList(updated);
+	}
+
+	/**
+	 * @return The last known versions of combatants which are no longer in the list.
+	 */
+	public List<XivCombatant> getRemoved() {
+		return Collections.unmodifiableList(removed);
+	}
+}
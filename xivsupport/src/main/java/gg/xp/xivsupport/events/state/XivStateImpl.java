@@ -1,5 +1,6 @@
 package gg.xp.xivsupport.events.state;
 
+import gg.xp.reevent.events.BaseEvent;
 import gg.xp.reevent.events.CurrentTimeSource;
 import gg.xp.reevent.events.EventContext;
 import gg.xp.reevent.events.EventMaster;
@@ -23,6 +24,7 @@ import gg.xp.xivsupport.models.XivEntity;
 import gg.xp.xivsupport.models.XivPlayerCharacter;
 import gg.xp.xivsupport.models.XivWorld;
 import gg.xp.xivsupport.models.XivZone;
+import gg.xp.xivsupport.replay.ReplayCheckpointable;
 import gg.xp.xivsupport.sys.EnhancedReadWriteReentrantLock;
 import gg.xp.xivsupport.sys.LockAdapter;
 import org.jetbrains.annotations.NotNull;
@@ -42,10 +44,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class XivStateImpl implements XivState {
+public class XivStateImpl implements XivState, ReplayCheckpointable<XivStateImpl.Checkpoint> {
 
 	private static final Logger log = LoggerFactory.getLogger(XivStateImpl.class);
 	private final EventMaster master;
@@ -94,7 +97,9 @@ public class XivStateImpl implements XivState {
 	 */
 	public void setPlayer(XivEntity player) {
 		log.info("Player changed to {}", player);
+		long oldPlayerId = getPlayerId();
 		this.playerPartial = player;
+		playerIdChanged(oldPlayerId);
 		recalcState();
 	}
 
@@ -104,10 +109,25 @@ public class XivStateImpl implements XivState {
 	 * @param player The new primary player. Only the ID matters.
 	 */
 	public void setPlayerTmpOverride(XivEntity player) {
+		long oldPlayerId = getPlayerId();
 		this.playerTmpOverride = player;
+		playerIdChanged(oldPlayerId);
 		recalcState();
 	}
 
+	// Whether a PC is the primary player is baked into the computed combatant
+	private void playerIdChanged(long oldPlayerId) {
+		long newPlayerId = getPlayerId();
+		if (oldPlayerId != newPlayerId) {
+			for (long id : new long[]{oldPlayerId, newPlayerId}) {
+				CombatantData data = getData(id);
+				if (data != null) {
+					data.markDirty();
+				}
+			}
+		}
+	}
+
 	// Note: can be null until we've seen a 01-line
 
 	/**
@@ -179,88 +199,26 @@ public class XivStateImpl implements XivState {
 		}
 	}
 
-	private boolean recomputeAll() {
-		boolean changed = false;
-		try (LockAdapter ignored = lock.read()) {
-			for (CombatantData data : combatantData.values()) {
-				changed = data.recomputeIfDirty() || changed;
-			}
-		}
-		return changed;
-	}
-
-	// TODO: emit events after state is recalculated reflecting actual changes
-	// Probably requires proper equals/hashcode on everything so we can actually compare them
+	/**
+	 * Brings everything up to date with whatever changed since the last call. Only combatants that were marked dirty
+	 * (plus their pets, and other NPCs sharing a name with them for the purposes of fake detection) are recomputed.
+	 * The published combatant map is copied only if something in it changed.
+	 */
 	private void recalcState() {
-
+		CombatantsChangedEvent changes;
+		XivPlayerCharacter player;
 		try (LockAdapter ignored = lock.write()) {
-			// First, move removed stuff from the main map to the graveyard
-			Iterator<Map.Entry<Long, CombatantData>> iter = combatantData.entrySet().iterator();
-			while (iter.hasNext()) {
-				Map.Entry<Long, CombatantData> next = iter.next();
-				if (next.getValue().isRemoved()) {
-					graveyard.put(next.getKey(), new WeakReference<>(next.getValue().getComputed()));
-					iter.remove();
-				}
-			}
-			// Then, give everything an initial pass
-			recomputeAll();
-//		if (!changed) {
-//			return;
-//		}
-			Map<Long, List<CombatantData>> combatantsByNpcName = new HashMap<>();
-			combatantData.values().forEach(c -> {
-				XivCombatant computed = c.getComputed();
-				long ownerId = computed.getOwnerId();
-				if (ownerId != 0) {
-					c.setOwner(getCombatant(ownerId));
-				}
-				if (computed.getType() == CombatantType.NPC && computed.getLevel() < 70) {
-					combatantsByNpcName.computeIfAbsent(computed.getbNpcNameId(), (ignore) -> new ArrayList<>()).add(c);
-				}
-			});
-			combatantsByNpcName.forEach((name, values) -> {
-				if (values.size() <= 2) {
-					// Skip if only one, nothing to do
-					// With two, unfortunately we can't really confirm if it's a fake or not,
-					// because we don't have any other alleged fakes to compare it to.
-					return;
-				}
-				// Sort highest HP first
-				values.sort(Comparator.<CombatantData, Long>comparing(npc -> npc.getComputed().getHp() != null ? npc.getComputed().getHp().max() : 0).reversed());
-				XivCombatant primaryCombatant = values.get(0).getComputed();
-				if (primaryCombatant.getHp() == null) {
-					return;
-				}
-				List<CombatantData> potentialFakes = new ArrayList<>();
-				for (CombatantData otherCombatant : values.subList(1, values.size())) {
-					XivCombatant computed = otherCombatant.getComputed();
-					if (computed.getHp() == null) {
-						continue;
-					}
-					if (computed.getHp().max() < primaryCombatant.getHp().max()
-							&& computed.getbNpcId() != primaryCombatant.getbNpcId()) {
-						potentialFakes.add(otherCombatant);
-					}
-				}
-				if (potentialFakes.size() >= 2) {
-					XivCombatant firstPossibleFake = potentialFakes.get(0).getComputed();
-					boolean allMatch = potentialFakes.subList(1, potentialFakes.size()).stream().allMatch(p -> p.getComputed().getPos() != null && p.getComputed().getPos().equals(firstPossibleFake.getPos()));
-					if (allMatch) {
-						potentialFakes.forEach(fake -> {
-							fake.setFake(true);
-							// Also use Parent field to link to real NPC if it doesn't already have a real owner
-							if (fake.owner == null) {
-								fake.setOwner(primaryCombatant);
-							}
-						});
+			List<Long> forceOrder = partyListForceOrder;
+			if (forceOrder == null) {
+				for (RawXivPartyInfo rawPartyMember : partyListRaw) {
+					if (rawPartyMember.isInParty()) {
+						getOrCreateData(rawPartyMember.getId()).setFromPartyInfo(rawPartyMember);
 					}
 				}
-			});
-			// TODO: just doing a simple diff of this would be a great way to synthesize
-			// add/remove combatant events
+			}
+			Map<Long, CombatantData> touched = recomputeDirty();
+
 			List<XivPlayerCharacter> partyListProcessed;
-			List<Long> forceOrder = partyListForceOrder;
 			if (forceOrder == null) {
 				partyListProcessed = new ArrayList<>(partyListRaw.size());
 				partyListRaw.forEach(rawPartyMember -> {
@@ -269,10 +227,7 @@ public class XivStateImpl implements XivState {
 						// TODO: is there value in supporting alliance stuff?
 						return;
 					}
-					long id = rawPartyMember.getId();
-					CombatantData data = getOrCreateData(id);
-					data.setFromPartyInfo(rawPartyMember);
-					XivCombatant fullCombatant = data.getComputed();
+					XivCombatant fullCombatant = getOrCreateData(rawPartyMember.getId()).getComputed();
 					if (fullCombatant instanceof XivPlayerCharacter xpc) {
 						partyListProcessed.add(xpc);
 					}
@@ -299,36 +254,222 @@ public class XivStateImpl implements XivState {
 						.map(XivPlayerCharacter.class::cast)
 						.toList();
 			}
-			combatantCache = combatantData.values().stream()
-					.filter(CombatantData::includeInList)
-					.peek(CombatantData::recomputeIfDirty)
-					.collect(Collectors.toMap(CombatantData::getId, CombatantData::getComputed));
-			XivPlayerCharacter player = getPlayer();
+			changes = publishCombatants(touched);
+			player = getPlayer();
 			if (partyListProcessed.isEmpty() && player != null) {
 				this.partyListProcessed = List.of(player);
 			}
 			else {
 				this.partyListProcessed = partyListProcessed;
 			}
-			log.trace("Recalculated state, player is {}, party is {}", player, partyListProcessed);
-			// TODO: improve this
-			if (master != null) {
-				// TODO: this is kind of a workaround for tests, should improve it
-				XivStateRecalculatedEvent event = new XivStateRecalculatedEvent();
-				if (fakeTimeSource != null) {
-					event.setTimeSource(fakeTimeSource);
-					event.setHappenedAt(fakeTimeSource.now());
+		}
+		log.trace("Recalculated state, player is {}, party is {}", player, partyListProcessed);
+		// TODO: improve this
+		if (master != null) {
+			// TODO: this is kind of a workaround for tests, should improve it
+			XivStateRecalculatedEvent event = new XivStateRecalculatedEvent();
+			pushWithTime(event);
+			if (changes != null) {
+				pushWithTime(changes);
+			}
+			if (player != null) {
+				Job newJob = player.getJob();
+				if (lastPlayerJob != newJob) {
+					master.getQueue().push(new PlayerChangedJobEvent(lastPlayerJob, newJob));
+				}
+				lastPlayerJob = newJob;
+			}
+		}
+	}
+
+	private void pushWithTime(BaseEvent event) {
+		if (fakeTimeSource != null) {
+			event.setTimeSource(fakeTimeSource);
+			event.setHappenedAt(fakeTimeSource.now());
+		}
+		master.getQueue().push(event);
+	}
+
+	// Recomputing one combatant can dirty others (pets, fakes). Since ownership can in theory be circular, give up after
+	// a few rounds. Anything left over stays dirty, so it is recomputed when next read or on the next recalculation.
+	private static final int MAX_RECOMPUTE_ROUNDS = 4;
+
+	/**
+	 * Recompute dirty combatants and update the indexes. Must hold the write lock.
+	 *
+	 * @return Everything that was recomputed or removed, by ID.
+	 */
+	private Map<Long, CombatantData> recomputeDirty() {
+		Map<Long, CombatantData> touched = new HashMap<>();
+		Set<Long> touchedNameIds = new HashSet<>();
+		for (int round = 0; round < MAX_RECOMPUTE_ROUNDS && !dirtyData.isEmpty(); round++) {
+			List<CombatantData> batch = new ArrayList<>(dirtyData);
+			dirtyData.removeAll(batch);
+			for (CombatantData data : batch) {
+				long id = data.getId();
+				// Stale, e.g. already removed
+				if (combatantData.get(id) != data) {
+					continue;
+				}
+				if (data.isRemoved()) {
+					// Move removed stuff from the main map to the graveyard
+					combatantData.remove(id);
+					graveyard.put(id, new WeakReference<>(data.getComputed()));
+					unindex(data, touchedNameIds);
+					touched.put(id, data);
+					continue;
 				}
-				master.getQueue().push(event);
-				if (player != null) {
-					Job newJob = player.getJob();
-					if (lastPlayerJob != newJob) {
-						master.getQueue().push(new PlayerChangedJobEvent(lastPlayerJob, newJob));
+				data.recomputeIfDirty();
+				reindex(data, touchedNameIds);
+				touched.put(id, data);
+				// Pets need to point to the new owner object
+				Set<Long> pets = petsByOwner.get(id);
+				if (pets != null) {
+					for (Long petId : pets) {
+						CombatantData pet = combatantData.get(petId);
+						if (pet != null) {
+							pet.setOwner(data.getComputed());
+						}
 					}
-					lastPlayerJob = newJob;
 				}
 			}
+			for (Long nameId : touchedNameIds) {
+				Set<CombatantData> group = npcsByNameId.get(nameId);
+				if (group != null) {
+					detectFakes(group);
+				}
+			}
+			touchedNameIds.clear();
+		}
+		return touched;
+	}
+
+	private void reindex(CombatantData data, Set<Long> touchedNameIds) {
+		XivCombatant computed = data.getComputed();
+		long ownerId = computed.getOwnerId();
+		if (ownerId != data.indexedOwnerId) {
+			removeFromIndex(petsByOwner, data.indexedOwnerId, data.getId());
+			if (ownerId != 0) {
+				petsByOwner.computeIfAbsent(ownerId, k -> new HashSet<>()).add(data.getId());
+			}
+			data.indexedOwnerId = ownerId;
+		}
+		if (ownerId != 0) {
+			data.owner = getCombatant(ownerId);
+		}
+		long nameId = computed.getType() == CombatantType.NPC && computed.getLevel() < 70 ? computed.getbNpcNameId() : NOT_INDEXED;
+		if (nameId != data.indexedNameId) {
+			removeFromIndex(npcsByNameId, data.indexedNameId, data);
+			touchedNameIds.add(data.indexedNameId);
+			if (nameId != NOT_INDEXED) {
+				npcsByNameId.computeIfAbsent(nameId, k -> new HashSet<>()).add(data);
+			}
+			data.indexedNameId = nameId;
+		}
+		// Either way, this may change the outcome of fake detection for the group
+		touchedNameIds.add(nameId);
+	}
+
+	private void unindex(CombatantData data, Set<Long> touchedNameIds) {
+		removeFromIndex(petsByOwner, data.indexedOwnerId, data.getId());
+		data.indexedOwnerId = 0;
+		removeFromIndex(npcsByNameId, data.indexedNameId, data);
+		touchedNameIds.add(data.indexedNameId);
+		data.indexedNameId = NOT_INDEXED;
+	}
+
+	private static <X> void removeFromIndex(Map<Long, Set<X>> index, long key, X value) {
+		Set<X> values = index.get(key);
+		if (values != null) {
+			values.remove(value);
+			if (values.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Fake detection for low-level NPCs which share a name ID. Fakes are never un-marked.
+	 */
+	private static void detectFakes(Set<CombatantData> group) {
+		if (group.size() <= 2) {
+			// Skip if only one, nothing to do
+			// With two, unfortunately we can't really confirm if it's a fake or not,
+			// because we don't have any other alleged fakes to compare it to.
+			return;
+		}
+		List<CombatantData> values = new ArrayList<>(group);
+		// Sort highest HP first
+		values.sort(Comparator.<CombatantData, Long>comparing(npc -> npc.getComputed().getHp() != null ? npc.getComputed().getHp().max() : 0).reversed());
+		XivCombatant primaryCombatant = values.get(0).getComputed();
+		if (primaryCombatant.getHp() == null) {
+			return;
+		}
+		List<CombatantData> potentialFakes = new ArrayList<>();
+		for (CombatantData otherCombatant : values.subList(1, values.size())) {
+			XivCombatant computed = otherCombatant.getComputed();
+			if (computed.getHp() == null) {
+				continue;
+			}
+			if (computed.getHp().max() < primaryCombatant.getHp().max()
+					&& computed.getbNpcId() != primaryCombatant.getbNpcId()) {
+				potentialFakes.add(otherCombatant);
+			}
+		}
+		if (potentialFakes.size() >= 2) {
+			XivCombatant firstPossibleFake = potentialFakes.get(0).getComputed();
+			boolean allMatch = potentialFakes.subList(1, potentialFakes.size()).stream().allMatch(p -> p.getComputed().getPos() != null && p.getComputed().getPos().equals(firstPossibleFake.getPos()));
+			if (allMatch) {
+				potentialFakes.forEach(fake -> {
+					fake.setFake(true);
+					// Also use Parent field to link to real NPC if it doesn't already have a real owner
+					if (fake.owner == null) {
+						fake.setOwner(primaryCombatant);
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * Publish a new combatant map if anything in it changed. Must hold the write lock.
+	 *
+	 * @param touched Combatants which were recomputed or removed
+	 * @return An event describing the changes, or null if nothing visible changed.
+	 */
+	private @Nullable CombatantsChangedEvent publishCombatants(Map<Long, CombatantData> touched) {
+		if (touched.isEmpty()) {
+			return null;
+		}
+		Map<Long, XivCombatant> oldCache = combatantCache;
+		Map<Long, XivCombatant> newCache = null;
+		List<XivCombatant> added = new ArrayList<>();
+		List<XivCombatant> updated = new ArrayList<>();
+		List<XivCombatant> removed = new ArrayList<>();
+		for (CombatantData data : touched.values()) {
+			long id = data.getId();
+			XivCombatant before = oldCache.get(id);
+			XivCombatant after = data.includeInList() && combatantData.get(id) == data ? data.getComputed() : null;
+			if (before == after) {
+				continue;
+			}
+			if (newCache == null) {
+				newCache = new HashMap<>(oldCache);
+			}
+			if (after == null) {
+				newCache.remove(id);
+				removed.add(before);
+			}
+			else {
+				newCache.put(id, after);
+				(before == null ? added : updated).add(after);
+			}
+		}
+		if (newCache == null) {
+			return null;
 		}
+		combatantCache = Collections.unmodifiableMap(newCache);
+		return new CombatantsChangedEvent(added, updated, removed);
 	}
 
 	/**
@@ -582,11 +723,78 @@ public class XivStateImpl implements XivState {
 		}
 	}
 
+	/**
+	 * Everything needed to put this back the way it was at a replay checkpoint.
+	 */
+	record Checkpoint(
+			XivZone zone,
+			XivMap map,
+			XivEntity playerPartial,
+			XivEntity playerTmpOverride,
+			List<RawXivPartyInfo> partyListRaw,
+			@Nullable List<Long> partyListForceOrder,
+			List<XivPlayerCharacter> partyListProcessed,
+			Job lastPlayerJob,
+			boolean inCombat,
+			boolean dirtyOverrides,
+			List<CombatantData> combatantData,
+			Map<Long, XivCombatant> combatantCache,
+			Map<Long, WeakReference<XivCombatant>> graveyard
+	) {
+	}
+
+	@Override
+	public Checkpoint saveCheckpoint() {
+		try (LockAdapter ignored = lock.read()) {
+			return new Checkpoint(zone, map, playerPartial, playerTmpOverride, partyListRaw, partyListForceOrder, partyListProcessed, lastPlayerJob, inCombat, dirtyOverrides,
+					combatantData.values().stream().map(CombatantData::copy).toList(),
+					combatantCache,
+					new HashMap<>(graveyard));
+		}
+	}
+
+	@Override
+	public void restoreCheckpoint(Checkpoint saved) {
+		try (LockAdapter ignored = lock.write()) {
+			zone = saved.zone;
+			map = saved.map;
+			playerPartial = saved.playerPartial;
+			playerTmpOverride = saved.playerTmpOverride;
+			partyListRaw = saved.partyListRaw;
+			partyListForceOrder = saved.partyListForceOrder;
+			partyListProcessed = saved.partyListProcessed;
+			lastPlayerJob = saved.lastPlayerJob;
+			inCombat = saved.inCombat;
+			dirtyOverrides = saved.dirtyOverrides;
+			combatantData.clear();
+			dirtyData.clear();
+			petsByOwner.clear();
+			npcsByNameId.clear();
+			// Copy again, since the saved copies must not change. Everything is dirty so that the indexes get rebuilt
+			// on the next recalculation.
+			saved.combatantData.forEach(data -> {
+				CombatantData copy = data.copy();
+				combatantData.put(copy.getId(), copy);
+				copy.markDirty();
+			});
+			combatantCache = saved.combatantCache;
+			graveyard.clear();
+			graveyard.putAll(saved.graveyard);
+		}
+	}
+
 	private final Map<Long, CombatantData> combatantData = new HashMap<>();
 	// This lock is ONLY for adding/removing entries to the map. Individual values have their own locks.
 	private final EnhancedReadWriteReentrantLock lock = new EnhancedReadWriteReentrantLock();
-	private Map<Long, XivCombatant> combatantCache = Collections.emptyMap();
+	// Copy-on-write: replaced rather than modified, so readers never need the lock
+	private volatile Map<Long, XivCombatant> combatantCache = Collections.emptyMap();
 	private final Map<Long, WeakReference<XivCombatant>> graveyard = new HashMap<>();
+	// Combatants which need to be recomputed. Setters on CombatantData can be called without the lock.
+	private final Set<CombatantData> dirtyData = ConcurrentHashMap.newKeySet();
+	// Indexes, guarded by the write lock
+	private static final long NOT_INDEXED = -1;
+	private final Map<Long, Set<Long>> petsByOwner = new HashMap<>();
+	private final Map<Long, Set<CombatantData>> npcsByNameId = new HashMap<>();
 
 	private CombatantData getData(long cbtId) {
 		// TODO: make something like
@@ -597,7 +805,11 @@ public class XivStateImpl implements XivState {
 
 	private CombatantData getOrCreateData(long cbtId) {
 		try (LockAdapter ignored = lock.write()) {
-			return combatantData.computeIfAbsent(cbtId, CombatantData::new);
+			return combatantData.computeIfAbsent(cbtId, id -> {
+				CombatantData data = new CombatantData(id);
+				dirtyData.add(data);
+				return data;
+			});
 		}
 	}
 
@@ -619,26 +831,53 @@ public class XivStateImpl implements XivState {
 		private XivCombatant owner;
 		private long shieldPercent;
 		private short tfId = -1;
+		// What this is currently indexed under
+		private long indexedOwnerId;
+		private long indexedNameId = NOT_INDEXED;
 
 		private CombatantData(long id) {
 			this.id = id;
 		}
 
+		private synchronized CombatantData copy() {
+			CombatantData copy = new CombatantData(id);
+			copy.raw = raw;
+			copy.posOverride = posOverride;
+			copy.hpOverride = hpOverride;
+			copy.mpOverride = mpOverride;
+			copy.fromOtherActLine = fromOtherActLine;
+			copy.fromPartyInfo = fromPartyInfo;
+			copy.status = status;
+			copy.computed = computed;
+			copy.fake = fake;
+			copy.dirty = dirty;
+			copy.removed = removed;
+			copy.owner = owner;
+			copy.shieldPercent = shieldPercent;
+			copy.tfId = tfId;
+			return copy;
+		}
+
 		public long getId() {
 			return id;
 		}
 
+		private void markDirty() {
+			dirty = true;
+			dirtyData.add(this);
+		}
+
 		public void setFake(boolean fake) {
 			if (fake != this.fake) {
 				this.fake = fake;
-				dirty = true;
+				markDirty();
 			}
 		}
 
 		public void setStatus(OnlineStatus status) {
 			if (this.status != status) {
 				this.status = status;
-				dirty = true;
+				markDirty();
 			}
 		}
 
@@ -652,59 +891,69 @@ public class XivStateImpl implements XivState {
 			if (!Objects.equals(this.raw, raw) || posOverride != null) {
 				this.raw = raw;
 				this.posOverride = null;
-				dirty = true;
+				markDirty();
 			}
 		}
 
 		public void setFromPartyInfo(RawXivPartyInfo fromPartyInfo) {
-			this.fromPartyInfo = fromPartyInfo;
-			dirty = true;
+			if (this.fromPartyInfo != fromPartyInfo) {
+				this.fromPartyInfo = fromPartyInfo;
+				markDirty();
+			}
 		}
 
 		public void setPosOverride(@Nullable Position posOverride) {
 			if (!Objects.equals(this.posOverride, posOverride)) {
 				this.posOverride = posOverride;
-				dirty = true;
+				markDirty();
 			}
 		}
 
 		public void setHpOverride(@Nullable HitPoints hpOverride) {
 			if (!Objects.equals(this.hpOverride, hpOverride)) {
 				this.hpOverride = hpOverride;
-				dirty = true;
+				markDirty();
 			}
 		}
 
 		public void setMpOverride(@Nullable ManaPoints mpOverride) {
 			if (!Objects.equals(this.mpOverride, mpOverride)) {
 				this.mpOverride = mpOverride;
-				dirty = true;
+				markDirty();
 			}
 		}
 
 		public void setFromOtherActLine(XivCombatant fromOtherActLine) {
 			this.fromOtherActLine = fromOtherActLine;
-			dirty = true;
+			markDirty();
 		}
 
 		public void setRemoved(boolean removed) {
-			this.removed = removed;
-			dirty = true;
+			if (this.removed != removed) {
+				this.removed = removed;
+				markDirty();
+			}
 		}
 
 		public void setOwner(XivCombatant combatant) {
-			this.owner = combatant;
-			dirty = true;
+			if (this.owner != combatant) {
+				this.owner = combatant;
+				markDirty();
+			}
 		}
 
 		public void setShieldPct(long shieldPct) {
-			this.shieldPercent = shieldPct;
-			dirty = true;
+			if (this.shieldPercent != shieldPct) {
+				this.shieldPercent = shieldPct;
+				markDirty();
+			}
 		}
 
 		public void setTransformationId(short tfId) {
-			this.tfId = tfId;
-			dirty = true;
+			if (this.tfId != tfId) {
+				this.tfId = tfId;
+				markDirty();
+			}
 		}
 
 		public OnlineStatus getStatus() {
@@ -752,7 +1001,6 @@ public class XivStateImpl implements XivState {
 			long partyType = raw != null ? raw.getPartyType() : 0;
 			long level = raw != null ? raw.getLevel() : fromPartyInfo != null ? fromPartyInfo.getLevel() : 90;
 			long ownerId = raw != null ? raw.getOwnerId() : 0;
-			// TODO: changing primary player should dirty this
 			boolean isPlayer = rawType == 1;
 			long shieldAmount = hp != null ? shieldPercent * hp.max() / 100 : 0;
 			short transformationId = tfId != -1 ? tfId : (raw != null ? raw.getTransformationId() : -1);
@@ -10,6 +10,7 @@ import gg.xp.xivsupport.events.actlines.events.HasAbility;
 import gg.xp.xivsupport.events.actlines.events.HasSourceEntity;
 import gg.xp.xivsupport.events.misc.pulls.PullStartedEvent;
 import gg.xp.xivsupport.models.XivCombatant;
+import gg.xp.xivsupport.replay.ReplayCheckpointable;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -17,7 +18,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class ActiveCastRepositoryImpl implements ActiveCastRepository {
+public class ActiveCastRepositoryImpl implements ActiveCastRepository, ReplayCheckpointable<Map<XivCombatant, CastTracker>> {
 
 	private final Object lock = new Object();
 	private final Map<XivCombatant, CastTracker> cbtCasts = new HashMap<>();
@@ -65,6 +66,28 @@ public class ActiveCastRepositoryImpl implements ActiveCastRepository {
 		}
 	}
 
+	@Override
+	public Map<XivCombatant, CastTracker> saveCheckpoint() {
+		synchronized (lock) {
+			return copyOf(cbtCasts);
+		}
+	}
+
+	@Override
+	public void restoreCheckpoint(Map<XivCombatant, CastTracker> saved) {
+		synchronized (lock) {
+			cbtCasts.clear();
+			cbtCasts.putAll(copyOf(saved));
+		}
+	}
+
+	// Trackers are updated when casts end, so they need to be copied as well
+	private static Map<XivCombatant, CastTracker> copyOf(Map<XivCombatant, CastTracker> casts) {
+		Map<XivCombatant, CastTracker> copy = new HashMap<>(casts.size());
+		casts.forEach((cbt, tracker) -> copy.put(cbt, tracker.copy()));
+		return copy;
+	}
+
 	private <X extends Event & HasSourceEntity & HasAbility> void doEnd(X event) {
 		CastTracker tracker;
 		synchronized (lock) {
@@ -19,6 +19,13 @@ public class CastTracker implements HasDuration {
 		this.cast = cast;
 	}
 
+	CastTracker copy() {
+		CastTracker out = new CastTracker(cast);
+		out.end = end;
+		out.currentTimeOverride = currentTimeOverride;
+		return out;
+	}
+
 	public AbilityCastStart getCast() {
 		return cast;
 	}
@@ -22,22 +22,24 @@ import gg.xp.xivsupport.events.state.XivState;
 import gg.xp.xivsupport.models.BuffTrackingKey;
 import gg.xp.xivsupport.models.XivCombatant;
 import gg.xp.xivsupport.models.XivEntity;
+import gg.xp.xivsupport.replay.ReplayCheckpointable;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
-public class StatusEffectRepository {
+public class StatusEffectRepository implements ReplayCheckpointable<StatusEffectRepository.Checkpoint> {
 
 	private static final Logger log = LoggerFactory.getLogger(StatusEffectRepository.class);
 
@@ -49,8 +51,15 @@ public class StatusEffectRepository {
 	// For now, just use the event objects as valuessince they contain everything we need.
 	private final Map<BuffTrackingKey, BuffApplied> buffs = new LinkedHashMap<>();
 	private final Map<BuffTrackingKey, BuffApplied> preApps = new LinkedHashMap<>();
-	private final Map<XivEntity, Map<BuffTrackingKey, BuffApplied>> onTargetCache = new HashMap<>();
+	// Indexes of the above, all guarded by the lock
+	private final Map<Long, Map<BuffTrackingKey, BuffApplied>> buffsById = new HashMap<>();
+	private final Map<Long, Map<BuffTrackingKey, BuffApplied>> onTargetCache = new HashMap<>();
 	private final Object lock = new Object();
+	// Immutable views for readers, built on demand and discarded when the underlying data changes. These let the
+	// GUI and triggers query repeatedly without copying, and mostly without taking the lock.
+	private volatile @Nullable List<BuffApplied> allBuffsSnapshot;
+	private final Map<Long, List<BuffApplied>> byIdSnapshots = new ConcurrentHashMap<>();
+	private final Map<Long, TargetStatuses> onTargetSnapshots = new ConcurrentHashMap<>();
 	private final XivState state;
 	private final SequenceIdTracker sqid;
 
@@ -83,15 +92,12 @@ public class StatusEffectRepository {
 		BuffTrackingKey key = BuffTrackingKey.of(event);
 		BuffApplied previous;
 		synchronized (lock) {
-			previous = buffs.put(
-					key,
-					event
-			);
+			previous = putBuff(key, event);
 			BuffApplied preapp = preApps.remove(key);
 			if (preapp != null) {
 				event.setPreAppInfo(preapp.getPreAppAbility(), preapp.getPreAppInfo());
 			}
-			onTargetCache.computeIfAbsent(target, k -> new LinkedHashMap<>()).put(key, event);
+			putOnTarget(key, event);
 		}
 		if (previous != null) {
 			event.setIsRefresh(true);
@@ -107,8 +113,8 @@ public class StatusEffectRepository {
 		BuffApplied removed;
 		synchronized (lock) {
 			BuffTrackingKey key = BuffTrackingKey.of(event);
-			removed = buffs.remove(key);
-			onTargetCache.getOrDefault(event.getTarget(), Collections.emptyMap()).remove(key);
+			removed = removeBuff(key);
+			removeOnTarget(key);
 		}
 		if (removed != null) {
 			log.trace("Buff removed: {} removed {} from {}. Tracking {} buffs.", event.getSource().getName(), event.getBuff().getName(), event.getTarget().getName(), buffs.size());
@@ -140,7 +146,7 @@ public class StatusEffectRepository {
 				if (preapp != null) {
 					event.setPreAppInfo(preapp.getPreAppAbility(), preapp.getPreAppInfo());
 				}
-				onTargetCache.computeIfAbsent(target, k -> new LinkedHashMap<>()).put(key, event);
+				putOnTarget(key, event);
 //				if (previous != null) {
 //					event.setIsRefresh(true);
 //				}
@@ -154,8 +160,7 @@ public class StatusEffectRepository {
 	public void zoneChange(EventContext context, WipeEvent wipe) {
 		log.debug("Wipe, clearing {} buffs", buffs.size());
 		synchronized (lock) {
-			buffs.clear();
-			onTargetCache.clear();
+			clearAll();
 		}
 		context.accept(new XivBuffsUpdatedEvent());
 	}
@@ -164,8 +169,7 @@ public class StatusEffectRepository {
 	public void zoneChange(EventContext context, ZoneChangeEvent wipe) {
 		log.debug("Zone change, clearing {} buffs", buffs.size());
 		synchronized (lock) {
-			buffs.clear();
-			onTargetCache.clear();
+			clearAll();
 		}
 		context.accept(new XivBuffsUpdatedEvent());
 	}
@@ -173,18 +177,17 @@ public class StatusEffectRepository {
 	@HandleEvents(order = -500)
 	public void removeCombatant(EventContext context, RawRemoveCombatantEvent event) {
 		long idToRemove = event.getEntity().getId();
-		Iterator<Map.Entry<BuffTrackingKey, BuffApplied>> iterator = buffs.entrySet().iterator();
-		Map.Entry<BuffTrackingKey, BuffApplied> current;
 		boolean anyRemoved = false;
 		synchronized (lock) {
-			while (iterator.hasNext()) {
-				current = iterator.next();
-				BuffTrackingKey key = current.getKey();
-				if (key.getTarget().getId() == idToRemove) {
+			onTargetCache.remove(idToRemove);
+			onTargetSnapshots.remove(idToRemove);
+			List<BuffTrackingKey> toRemove = buffs.keySet().stream()
+					.filter(key -> key.getTarget().getId() == idToRemove)
+					.toList();
+			for (BuffTrackingKey key : toRemove) {
+				if (removeBuff(key) != null) {
 					log.trace("Buff removed: {} removed {} from {} due to removal of target. Tracking {} buffs.", key.getSource().getName(), key.getBuff().getName(), key.getTarget().getName(), buffs.size());
-					iterator.remove();
 					anyRemoved = true;
-					onTargetCache.remove(key.getTarget());
 				}
 			}
 		}
@@ -200,17 +203,157 @@ public class StatusEffectRepository {
 		// TODO: we track dead stuff, just do that instead?
 		if (!combatantsThatExist.isEmpty()) {
 			synchronized (lock) {
-				buffs.keySet().removeIf(key -> !combatantsThatExist.contains(key.getTarget().getId()));
+				List<BuffTrackingKey> toRemove = buffs.keySet().stream()
+						.filter(key -> !combatantsThatExist.contains(key.getTarget().getId()))
+						.toList();
+				toRemove.forEach(this::removeBuff);
 			}
 		}
 	}
 
-	public List<BuffApplied> getBuffs() {
+	private @Nullable BuffApplied putBuff(BuffTrackingKey key, BuffApplied event) {
+		BuffApplied previous = buffs.put(key, event);
+		long id = event.getBuff().getId();
+		if (previous != null && previous.getBuff().getId() != id) {
+			removeFromIdIndex(key, previous);
+		}
+		// A refresh replaces the value in place, so it keeps its original position, same as in 'buffs'
+		buffsById.computeIfAbsent(id, k -> new LinkedHashMap<>()).put(key, event);
+		byIdSnapshots.remove(id);
+		allBuffsSnapshot = null;
+		return previous;
+	}
+
+	private @Nullable BuffApplied removeBuff(BuffTrackingKey key) {
+		BuffApplied removed = buffs.remove(key);
+		if (removed != null) {
+			removeFromIdIndex(key, removed);
+			allBuffsSnapshot = null;
+		}
+		return removed;
+	}
+
+	private void removeFromIdIndex(BuffTrackingKey key, BuffApplied value) {
+		long id = value.getBuff().getId();
+		Map<BuffTrackingKey, BuffApplied> withId = buffsById.get(id);
+		if (withId != null) {
+			withId.remove(key);
+			if (withId.isEmpty()) {
+				buffsById.remove(id);
+			}
+		}
+		byIdSnapshots.remove(id);
+	}
+
+	private void putOnTarget(BuffTrackingKey key, BuffApplied event) {
+		long targetId = key.getTarget().getId();
+		onTargetCache.computeIfAbsent(targetId, k -> new LinkedHashMap<>()).put(key, event);
+		onTargetSnapshots.remove(targetId);
+	}
+
+	private void removeOnTarget(BuffTrackingKey key) {
+		long targetId = key.getTarget().getId();
+		Map<BuffTrackingKey, BuffApplied> onTarget = onTargetCache.get(targetId);
+		if (onTarget != null && onTarget.remove(key) != null) {
+			onTargetSnapshots.remove(targetId);
+		}
+	}
+
+	private void clearAll() {
+		buffs.clear();
+		buffsById.clear();
+		onTargetCache.clear();
+		allBuffsSnapshot = null;
+		byIdSnapshots.clear();
+		onTargetSnapshots.clear();
+	}
+
+	record Checkpoint(Map<BuffTrackingKey, BuffApplied> buffs, Map<BuffTrackingKey, BuffApplied> preApps) {
+	}
+
+	@Override
+	public Checkpoint saveCheckpoint() {
 		synchronized (lock) {
-			return new ArrayList<>(buffs.values());
+			return new Checkpoint(new LinkedHashMap<>(buffs), new LinkedHashMap<>(preApps));
 		}
 	}
 
+	@Override
+	public void restoreCheckpoint(Checkpoint saved) {
+		synchronized (lock) {
+			clearAll();
+			preApps.clear();
+			preApps.putAll(saved.preApps);
+			saved.buffs.forEach((key, value) -> {
+				putBuff(key, value);
+				putOnTarget(key, value);
+			});
+		}
+	}
+
+	/**
+	 * Statuses on one target, in application order, plus the first of each status ID.
+	 */
+	private record TargetStatuses(List<BuffApplied> statuses, Map<Long, BuffApplied> byStatusId) {
+		private static final TargetStatuses EMPTY = new TargetStatuses(List.of(), Map.of());
+
+		static TargetStatuses of(Collection<BuffApplied> values) {
+			if (values.isEmpty()) {
+				return EMPTY;
+			}
+			Map<Long, BuffApplied> byStatusId = new HashMap<>(values.size() * 2);
+			for (BuffApplied value : values) {
+				byStatusId.putIfAbsent(value.getBuff().getId(), value);
+			}
+			return new TargetStatuses(List.copyOf(values), byStatusId);
+		}
+	}
+
+	private List<BuffApplied> allBuffs() {
+		List<BuffApplied> snapshot = allBuffsSnapshot;
+		if (snapshot == null) {
+			synchronized (lock) {
+				snapshot = allBuffsSnapshot;
+				if (snapshot == null) {
+					snapshot = List.copyOf(buffs.values());
+					allBuffsSnapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	private List<BuffApplied> buffsWithId(long id) {
+		List<BuffApplied> snapshot = byIdSnapshots.get(id);
+		if (snapshot == null) {
+			synchronized (lock) {
+				snapshot = byIdSnapshots.computeIfAbsent(id, k -> {
+					Map<BuffTrackingKey, BuffApplied> withId = buffsById.get(k);
+					return withId == null ? List.of() : List.copyOf(withId.values());
+				});
+			}
+		}
+		return snapshot;
+	}
+
+	private TargetStatuses onTarget(XivEntity entity) {
+		long targetId = entity.getId();
+		TargetStatuses snapshot = onTargetSnapshots.get(targetId);
+		if (snapshot == null) {
+			synchronized (lock) {
+				snapshot = onTargetSnapshots.computeIfAbsent(targetId, k -> {
+					Map<BuffTrackingKey, BuffApplied> onTarget = onTargetCache.get(k);
+					return onTarget == null ? TargetStatuses.EMPTY : TargetStatuses.of(onTarget.values());
+				});
+			}
+		}
+		return snapshot;
+	}
+
+	public List<BuffApplied> getBuffs() {
+		return new ArrayList<>(allBuffs());
+	}
+
 	public List<BuffApplied> getPreApps() {
 		synchronized (lock) {
 			prunePreApps();
@@ -261,51 +404,59 @@ public class StatusEffectRepository {
 		if (entity == null) {
 			return Collections.emptyList();
 		}
-		synchronized (lock) {
-			Map<BuffTrackingKey, BuffApplied> cached = onTargetCache.get(entity);
-			if (cached == null) {
-				return Collections.emptyList();
-			}
-			return new ArrayList<>(cached.values());
-		}
+		return new ArrayList<>(onTarget(entity).statuses());
 	}
 
 	public boolean targetHasAnyStatus(XivEntity entity) {
 		if (entity == null) {
 			return false;
 		}
-		synchronized (lock) {
-			Map<BuffTrackingKey, BuffApplied> cached = onTargetCache.get(entity);
-			return cached != null && !cached.isEmpty();
-		}
+		return !onTarget(entity).statuses().isEmpty();
 	}
 
 	public @Nullable BuffApplied findStatusOnTarget(XivEntity entity, long buffId) {
-		return findStatusOnTarget(entity, ba -> ba.buffIdMatches(buffId));
+		if (entity == null) {
+			return null;
+		}
+		return onTarget(entity).byStatusId().get(buffId);
 	}
 
 	public boolean isStatusOnTarget(XivEntity entity, long buffId) {
-		return findStatusOnTarget(entity, ba -> ba.buffIdMatches(buffId)) != null;
+		return findStatusOnTarget(entity, buffId) != null;
 	}
 
 	public @Nullable BuffApplied findStatusOnTarget(XivEntity entity, Predicate<BuffApplied> filter) {
-		return statusesOnTarget(entity).stream().filter(filter).findAny().orElse(null);
+		if (entity == null) {
+			return null;
+		}
+		for (BuffApplied status : onTarget(entity).statuses()) {
+			if (filter.test(status)) {
+				return status;
+			}
+		}
+		return null;
 	}
 
 	public @Nullable BuffApplied findBuff(Predicate<BuffApplied> filter) {
-		return getBuffs().stream().filter(filter).findFirst().orElse(null);
+		for (BuffApplied buff : allBuffs()) {
+			if (filter.test(buff)) {
+				return buff;
+			}
+		}
+		return null;
 	}
 
 	public @Nullable BuffApplied findBuffById(long id) {
-		return findBuff(ba -> ba.buffIdMatches(id));
+		List<BuffApplied> withId = buffsWithId(id);
+		return withId.isEmpty() ? null : withId.get(0);
 	}
 
 	public @Nullable List<BuffApplied> findBuffsById(long id) {
-		return findBuffs(ba -> ba.buffIdMatches(id));
+		return buffsWithId(id);
 	}
 
 	public @Nullable List<BuffApplied> findBuffs(Predicate<BuffApplied> filter) {
-		return getBuffs().stream().filter(filter).toList();
+		return allBuffs().stream().filter(filter).toList();
 	}
 
 	/**
@@ -316,10 +467,8 @@ public class StatusEffectRepository {
 	 * @return The number of stacks, or 0 if it is stackless, or -1 if the buff was not present at all.
 	 */
 	public int buffStacksOnTarget(XivEntity entity, long buffId) {
-		return statusesOnTarget(entity).stream().filter(ba -> ba.buffIdMatches(buffId))
-				.findFirst()
-				.map(ba -> (int) ba.getStacks())
-				.orElse(-1);
+		BuffApplied status = findStatusOnTarget(entity, buffId);
+		return status == null ? -1 : (int) status.getStacks();
 	}
 
 	/**
@@ -335,10 +484,8 @@ public class StatusEffectRepository {
 	 * @return The number of stacks, or 0 if it is stackless, or -1 if the buff was not present at all.
 	 */
 	public int rawBuffStacksOnTarget(XivEntity entity, long buffId) {
-		return statusesOnTarget(entity).stream().filter(ba -> ba.buffIdMatches(buffId))
-				.findFirst()
-				.map(ba -> (int) ba.getRawStacks())
-				.orElse(-1);
+		BuffApplied status = findStatusOnTarget(entity, buffId);
+		return status == null ? -1 : (int) status.getRawStacks();
 	}
 
 	public List<BuffApplied> sortedStatusesOnTarget(XivEntity entity) {
@@ -356,7 +503,10 @@ public class StatusEffectRepository {
 	});
 
 	public List<BuffApplied> filteredSortedStatusesOnTarget(XivEntity entity, Predicate<BuffApplied> filter) {
-		return statusesOnTarget(entity)
+		if (entity == null) {
+			return Collections.emptyList();
+		}
+		return onTarget(entity).statuses()
 				.stream()
 				.filter(filter)
 				.sorted(standardPartyFrameSort)
@@ -0,0 +1,343 @@
+package gg.xp.xivsupport.eventstorage;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.xivsupport.events.ACTLogLineEvent;
+import gg.xp.xivsupport.events.ActLineFields;
+import gg.xp.xivsupport.replay.ReplayEventSource;
+import gg.xp.xivsupport.replay.ReplaySeekPoint;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads an ACT log file in the background, handing out events as they are parsed rather than reading the whole file
+ * up front.
+ * <p>
+ * Only a bounded number of parsed events are kept ahead of the consumer - the reader thread blocks when the buffer is
+ * full, so memory use does not depend on the size of the file. While reading, zone changes and pull starts are
+ * recorded as {@link ReplaySeekPoint}s, along with their byte offset within the file, so that reading can later be
+ * restarted from any of them with {@link #seek(int)}.
+ */
+public final class ActLogStream implements ReplayEventSource, AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(ActLogStream.class);
+	private static final int BUFFER_SIZE = 1 << 20;
+	private static final int QUEUE_CAPACITY = 16_384;
+	// Marks the end of the file in the queue
+	private static final ACTLogLineEvent EOF = new ACTLogLineEvent("0|1970-01-01T00:00:00.0000000Z|EOF");
+
+	private final File file;
+	private final List<ReplaySeekPoint> seekPoints = new CopyOnWriteArrayList<>();
+	private final List<Long> seekPointOffsets = new CopyOnWriteArrayList<>();
+	private volatile Reader reader;
+	private volatile int count;
+	private volatile long bytesRead;
+	private volatile boolean fullyLoaded;
+	private volatile boolean consumerDone;
+	private volatile boolean closed;
+
+	private ActLogStream(File file) {
+		this.file = file;
+		reader = new Reader(0, 0);
+	}
+
+	/**
+	 * Start reading a file.
+	 *
+	 * @param file The file
+	 * @return The stream. Reading happens on a background thread.
+	 */
+	public static ActLogStream open(File file) {
+		if (!file.isFile()) {
+			throw new IllegalArgumentException("Not a file: " + file);
+		}
+		ActLogStream stream = new ActLogStream(file);
+		stream.reader.thread.start();
+		return stream;
+	}
+
+	/**
+	 * Reads from one starting point until the end of the file. Seeking replaces the reader with a new one.
+	 */
+	private final class Reader {
+		private final BlockingQueue<ACTLogLineEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		private final Thread thread;
+		private final long startOffset;
+		// Index of the next event
+		private int index;
+		private volatile boolean done;
+		private volatile boolean stopped;
+		private volatile @Nullable Throwable failure;
+
+		private Reader(long startOffset, int startIndex) {
+			this.startOffset = startOffset;
+			this.index = startIndex;
+			thread = new Thread(this::readLoop, "ActLogStream-" + file.getName());
+			thread.setDaemon(true);
+		}
+
+		private boolean shouldStop() {
+			return stopped || closed;
+		}
+
+		private void readLoop() {
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				channel.position(startOffset);
+				byte[] buf = new byte[BUFFER_SIZE];
+				// File offset of buf[0]
+				long bufOffset = startOffset;
+				int filled = 0;
+				int lineStart = 0;
+				int scanPos = 0;
+				while (!shouldStop()) {
+					if (scanPos == filled) {
+						// Move the partial line to the front, and then read more
+						if (lineStart > 0) {
+							System.arraycopy(buf, lineStart, buf, 0, filled - lineStart);
+							filled -= lineStart;
+							scanPos -= lineStart;
+							bufOffset += lineStart;
+							lineStart = 0;
+						}
+						if (filled == buf.length) {
+							// Absurdly long line
+							buf = Arrays.copyOf(buf, buf.length * 2);
+						}
+						int read = channel.read(ByteBuffer.wrap(buf, filled, buf.length - filled));
+						if (read < 0) {
+							if (filled > 0) {
+								emitLine(buf, 0, filled, bufOffset);
+							}
+							fullyLoaded = true;
+							break;
+						}
+						filled += read;
+						bytesRead = Math.max(bytesRead, bufOffset + filled);
+						continue;
+					}
+					if (buf[scanPos] == '\n') {
+						emitLine(buf, lineStart, scanPos, bufOffset + lineStart);
+						lineStart = scanPos + 1;
+					}
+					scanPos++;
+				}
+			}
+			catch (InterruptedException | ClosedByInterruptException e) {
+				log.info("ACT log reader interrupted");
+			}
+			catch (Throwable t) {
+				log.error("Error reading ACT log {}", file, t);
+				failure = t;
+			}
+			finally {
+				done = true;
+				log.info("Finished reading {} lines from {}", index, file);
+				// The EOF marker is subject to backpressure like everything else. Nothing reads from a reader which
+				// was replaced by seeking, so it doesn't need one.
+				if (!stopped) {
+					try {
+						while (!queue.offer(EOF, 100, TimeUnit.MILLISECONDS)) {
+							if (shouldStop()) {
+								break;
+							}
+						}
+					}
+					catch (InterruptedException e) {
+						log.warn("Interrupted while finishing ACT log read", e);
+					}
+				}
+			}
+		}
+
+		private void emitLine(byte[] buf, int start, int end, long fileOffset) throws InterruptedException {
+			if (end > start && buf[end - 1] == '\r') {
+				end--;
+			}
+			if (end == start) {
+				return;
+			}
+			String line = new String(buf, start, end - start, StandardCharsets.UTF_8);
+			ACTLogLineEvent event;
+			try {
+				event = new ACTLogLineEvent(line);
+			}
+			catch (Throwable t) {
+				log.warn("Skipping unparseable line at offset {}: {}", fileOffset, line, t);
+				return;
+			}
+			// After seeking back, seek points up to where we had already read are already known
+			if (index >= count) {
+				ReplaySeekPoint seekPoint = seekPointFor(event, index);
+				if (seekPoint != null) {
+					seekPoints.add(seekPoint);
+					seekPointOffsets.add(fileOffset);
+				}
+			}
+			// Blocks while the consumer is too far behind
+			while (!queue.offer(event, 100, TimeUnit.MILLISECONDS)) {
+				if (shouldStop()) {
+					throw new InterruptedException();
+				}
+			}
+			index++;
+			if (index > count) {
+				count = index;
+			}
+		}
+	}
+
+	private static @Nullable ReplaySeekPoint seekPointFor(ACTLogLineEvent event, int index) {
+		ActLineFields fields = event.getFields();
+		try {
+			switch (event.getLineNumber()) {
+				case 1 -> {
+					// 01|timestamp|zoneId|zoneName|hash
+					String zoneName = fields.count() > 3 ? fields.get(3) : "";
+					return new ReplaySeekPoint(index, ReplaySeekPoint.Kind.ZONE_CHANGE, zoneName, event.getHappenedAt());
+				}
+				case 33 -> {
+					// 33|timestamp|instance|command|...
+					if (fields.count() > 3) {
+						long command = fields.parseHex(3);
+						if (command == 0x4000_0001L || command == 0x4000_0006L) {
+							return new ReplaySeekPoint(index, ReplaySeekPoint.Kind.PULL, command == 0x4000_0001L ? "Commence" : "Recommence", event.getHappenedAt());
+						}
+					}
+				}
+			}
+		}
+		catch (NumberFormatException ignored) {
+			// Not our problem - the parser will complain about it later
+		}
+		return null;
+	}
+
+	@Override
+	public @Nullable Event next() {
+		if (consumerDone) {
+			return null;
+		}
+		Reader reader = this.reader;
+		try {
+			ACTLogLineEvent event = reader.queue.take();
+			if (event == EOF) {
+				consumerDone = true;
+				Throwable failure = reader.failure;
+				if (failure != null) {
+					throw new RuntimeException("Error reading ACT log " + file, failure);
+				}
+				return null;
+			}
+			return event;
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public boolean hasMore() {
+		Reader reader = this.reader;
+		return !consumerDone && (!reader.done || reader.queue.peek() != EOF);
+	}
+
+	@Override
+	public int getCount() {
+		return count;
+	}
+
+	@Override
+	public boolean isFullyLoaded() {
+		return fullyLoaded;
+	}
+
+	@Override
+	public boolean supportsSeekPoints() {
+		return true;
+	}
+
+	@Override
+	public List<ReplaySeekPoint> getSeekPoints() {
+		return Collections.unmodifiableList(seekPoints);
+	}
+
+	/**
+	 * @param seekPoint A seek point from {@link #getSeekPoints()}
+	 * @return The byte offset within the file of the line for that seek point, or -1 if unknown.
+	 */
+	public long getFileOffset(ReplaySeekPoint seekPoint) {
+		int index = seekPoints.indexOf(seekPoint);
+		return index < 0 ? -1 : seekPointOffsets.get(index);
+	}
+
+	@Override
+	public boolean supportsSeek() {
+		return true;
+	}
+
+	/**
+	 * Restart reading from a seek point. Must not be called concurrently with {@link #next()}.
+	 *
+	 * @param index The {@link ReplaySeekPoint#index()} of a seek point from {@link #getSeekPoints()}
+	 */
+	@Override
+	public void seek(int index) {
+		int seekPointIndex = -1;
+		for (int i = 0; i < seekPoints.size(); i++) {
+			if (seekPoints.get(i).index() == index) {
+				seekPointIndex = i;
+				break;
+			}
+		}
+		if (seekPointIndex < 0) {
+			throw new IllegalArgumentException("Not a seek point: " + index);
+		}
+		Reader old = reader;
+		old.stopped = true;
+		old.thread.interrupt();
+		// Otherwise, the old reader could still record a seek point or bump the count after the new one starts. This
+		// should be quick, since the reader never blocks for long without checking whether it has been stopped.
+		try {
+			old.thread.join();
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		Reader replacement = new Reader(seekPointOffsets.get(seekPointIndex), index);
+		reader = replacement;
+		consumerDone = false;
+		replacement.thread.start();
+	}
+
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	public long getFileSize() {
+		return file.length();
+	}
+
+	/**
+	 * Stop reading. Any events that have already been parsed can still be consumed.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		reader.thread.interrupt();
+	}
+}
@@ -16,6 +16,7 @@ import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
@@ -31,7 +32,9 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 
 public final class EventReader {
@@ -41,12 +44,34 @@ public final class EventReader {
 	private EventReader() {
 	}
 
+	// TODO: security
+	static final ObjectInputFilter EVENT_FILTER = filterInfo -> {
+		if (filterInfo.serialClass() == null) {
+			return ObjectInputFilter.Status.ALLOWED;
+		}
+		if (filterInfo.depth() != 1 || Event.class.isAssignableFrom(filterInfo.serialClass())) {
+			return ObjectInputFilter.Status.ALLOWED;
+		}
+		else {
+			return ObjectInputFilter.Status.REJECTED;
+		}
+	};
+
 	public static List<Event> readEventsFromResource(String resourcePath) {
 		InputStream stream = EventReader.class.getResourceAsStream(resourcePath);
 		return readEventsFromInputStream(stream);
 	}
 
+	/**
+	 * Read a saved session. Supports both {@link SessionFormat} files and the older Java serialization format.
+	 *
+	 * @param file The file
+	 * @return The events
+	 */
 	public static List<Event> readEventsFromFile(File file) {
+		if (SessionReader.isSessionFile(file)) {
+			return SessionReader.readAll(file);
+		}
 		try (InputStream stream = new FileInputStream(file)) {
 			return readEventsFromInputStream(stream);
 		}
@@ -56,23 +81,33 @@ public final class EventReader {
 	}
 
 	public static List<Event> readEventsFromInputStream(InputStream stream) {
-		List<Event> events;
+		List<Event> events = new ArrayList<>();
+		BufferedInputStream buffered = new BufferedInputStream(stream);
+		try {
+			buffered.mark(SessionFormat.MAGIC.length);
+			byte[] header = buffered.readNBytes(SessionFormat.MAGIC.length);
+			buffered.reset();
+			if (SessionFormat.hasMagic(header)) {
+				return SessionReader.readAll(buffered);
+			}
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Error reading events", e);
+		}
+		readSerializedEvents(buffered, events::add);
+		return events;
+	}
+
+	/**
+	 * Read events from the older, Java serialization based session format, without holding them all in memory.
+	 *
+	 * @param stream   The (gzipped) input
+	 * @param consumer Called for each event
+	 */
+	public static void readSerializedEvents(InputStream stream, Consumer<Event> consumer) {
 		try (GZIPInputStream gzip = new GZIPInputStream(stream);
 		     ObjectInputStream ois = new ObjectInputStream(gzip)) {
-			// TODO: security
-			ObjectInputFilter filter = filterInfo -> {
-				if (filterInfo.serialClass() == null) {
-					return ObjectInputFilter.Status.ALLOWED;
-				}
-				if (filterInfo.depth() != 1 || Event.class.isAssignableFrom(filterInfo.serialClass())) {
-					return ObjectInputFilter.Status.ALLOWED;
-				}
-				else {
-					return ObjectInputFilter.Status.REJECTED;
-				}
-			};
-			ois.setObjectInputFilter(filter);
-			events = new ArrayList<>();
+			ois.setObjectInputFilter(EVENT_FILTER);
 			while (true) {
 				Event event;
 				try {
@@ -90,13 +125,12 @@ public final class EventReader {
 				if (event instanceof Compressible compressible) {
 					compressible.decompress();
 				}
-				events.add(event);
+				consumer.accept(event);
 			}
 		}
 		catch (Throwable e) {
 			throw new RuntimeException("Error reading events", e);
 		}
-		return events;
 	}
 
 	public static List<ACTLogLineEvent> readActLogResource(String resourcePath) {
@@ -118,17 +152,27 @@ public final class EventReader {
 	}
 
 	public static List<ACTLogLineEvent> readActLogFile(File file) {
-		List<String> lines;
-		try {
-			lines = Files.readAllLines(file.toPath());
+		// Don't hold the entire file as strings in addition to the events
+		try (Stream<String> lines = Files.lines(file.toPath())) {
+			return lines
+					.filter(s -> !s.isEmpty())
+					.map(ACTLogLineEvent::new)
+					.collect(Collectors.toList());
 		}
 		catch (Throwable t) {
 			throw new RuntimeException(t);
 		}
-		return lines.stream()
-				.filter(s -> !s.isEmpty())
-				.map(ACTLogLineEvent::new)
-				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Like {@link #readActLogFile(File)}, but reads the file in the background and hands out events as they are read,
+	 * so that replay can start immediately regardless of file size.
+	 *
+	 * @param file The file
+	 * @return The stream
+	 */
+	public static ActLogStream streamActLogFile(File file) {
+		return ActLogStream.open(file);
 	}
 
 	public static List<Event> readFflogsJson(List<JsonNode> rootNodes) {
@@ -0,0 +1,75 @@
+package gg.xp.xivsupport.eventstorage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Converts old {@code .session.oos.gz} files to {@link SessionFormat}.
+ * <p>
+ * Usage: {@code SessionConverter input.session.oos.gz [output.session.bin]}. If no output is given, the output is
+ * written next to the input.
+ */
+public final class SessionConverter {
+
+	private static final Logger log = LoggerFactory.getLogger(SessionConverter.class);
+
+	private SessionConverter() {
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: SessionConverter <input.session.oos.gz> [output" + SessionFormat.EXTENSION + "]");
+			System.exit(1);
+		}
+		File input = new File(args[0]);
+		File output = args.length == 2 ? new File(args[1]) : defaultOutputFor(input);
+		convert(input, output);
+	}
+
+	static File defaultOutputFor(File input) {
+		String name = input.getName();
+		if (name.endsWith(".oos.gz")) {
+			name = name.substring(0, name.length() - ".oos.gz".length());
+		}
+		if (name.endsWith(".session")) {
+			name = name.substring(0, name.length() - ".session".length());
+		}
+		return new File(input.getAbsoluteFile().getParentFile(), name + SessionFormat.EXTENSION);
+	}
+
+	/**
+	 * Convert a file. Events are streamed, so the whole session does not need to fit in memory.
+	 *
+	 * @param input  Old-style session file
+	 * @param output Where to write the new file
+	 * @return The number of events converted
+	 */
+	public static long convert(File input, File output) {
+		long before = System.currentTimeMillis();
+		try (InputStream in = new FileInputStream(input);
+		     SessionWriter writer = new SessionWriter(output)) {
+			EventReader.readSerializedEvents(in, event -> {
+				try {
+					writer.write(event);
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			long count = writer.getRecordCount();
+			writer.close();
+			log.info("Converted {} events from {} ({} bytes) to {} ({} bytes) in {}ms",
+					count, input, input.length(), output, output.length(), System.currentTimeMillis() - before);
+			return count;
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Error converting " + input, e);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package gg.xp.xivsupport.eventstorage;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.xivsupport.events.ACTLogLineEvent;
+import gg.xp.xivsupport.events.ws.ActWsRawMsg;
+import gg.xp.xivsupport.persistence.Compressible;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Binary session file format. Replaces one long {@link ObjectOutputStream} with independent, compressed blocks of
+ * records.
+ * <p>
+ * Layout:
+ * <pre>
+ * header:  MAGIC, int version
+ * block*:  'B', int recordCount, long firstTimestampMillis, int rawLength, int compressedLength, deflated records
+ * index:   'I', int blockCount, (long offset, int recordCount, long firstTimestampMillis) * blockCount
+ * trailer: long indexOffset, int TRAILER_MAGIC
+ * </pre>
+ * The index and trailer are written when the file is closed. If they are missing (e.g. the program crashed), the
+ * blocks can still be read sequentially, since each block says how long it is.
+ * <p>
+ * Each record is a tag, timestamps, and a length-prefixed payload. Raw websocket messages and ACT lines are stored as
+ * their original text. Anything else falls back to Java serialization, but with a fresh stream for each record, so
+ * nothing is retained between records.
+ */
+public final class SessionFormat {
+
+	public static final String EXTENSION = ".session.bin";
+
+	static final byte[] MAGIC = {'T', 'S', 'E', 'S'};
+	static final int VERSION = 1;
+	static final int TRAILER_MAGIC = 0x54534958;
+	static final int TRAILER_SIZE = 12;
+	static final byte BLOCK = 'B';
+	static final byte INDEX = 'I';
+
+	static final byte TAG_SERIALIZED = 0;
+	static final byte TAG_WS_RAW = 1;
+	static final byte TAG_ACT_LINE = 2;
+
+	private static final int HAS_HAPPENED_AT = 1;
+	private static final int HAS_PUMPED_AT = 2;
+
+	private SessionFormat() {
+	}
+
+	/**
+	 * @param offset               Offset of the block within the file
+	 * @param recordCount          Number of events in the block
+	 * @param firstTimestampMillis Pump time of the first event in the block, or -1 if unknown
+	 */
+	public record BlockInfo(long offset, int recordCount, long firstTimestampMillis) {
+	}
+
+	/**
+	 * @param header The first bytes of a file
+	 * @return Whether this looks like a file in this format
+	 */
+	public static boolean hasMagic(byte[] header) {
+		return header.length >= MAGIC.length && Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+	}
+
+	static long timestampMillis(Event event) {
+		Instant pumpedAt = event.getPumpedAt();
+		return pumpedAt == null ? -1 : pumpedAt.toEpochMilli();
+	}
+
+	static void writeRecord(DataOutput out, Event event) throws IOException {
+		byte tag;
+		byte[] payload;
+		if (event instanceof ActWsRawMsg raw) {
+			tag = TAG_WS_RAW;
+			payload = raw.getRawMsgData().getBytes(StandardCharsets.UTF_8);
+		}
+		else if (event instanceof ACTLogLineEvent line) {
+			tag = TAG_ACT_LINE;
+			payload = line.getLogLine().getBytes(StandardCharsets.UTF_8);
+		}
+		else {
+			tag = TAG_SERIALIZED;
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+				oos.writeObject(event);
+			}
+			payload = baos.toByteArray();
+		}
+		out.writeByte(tag);
+		Instant happenedAt = event.getHappenedAt();
+		Instant pumpedAt = event.getPumpedAt();
+		int flags = (happenedAt == null ? 0 : HAS_HAPPENED_AT) | (pumpedAt == null ? 0 : HAS_PUMPED_AT);
+		out.writeByte(flags);
+		if (happenedAt != null) {
+			writeInstant(out, happenedAt);
+		}
+		if (pumpedAt != null) {
+			writeInstant(out, pumpedAt);
+		}
+		out.writeInt(payload.length);
+		out.write(payload);
+	}
+
+	static Event readRecord(DataInput in) throws IOException {
+		byte tag = in.readByte();
+		int flags = in.readByte();
+		Instant happenedAt = (flags & HAS_HAPPENED_AT) != 0 ? readInstant(in) : null;
+		Instant pumpedAt = (flags & HAS_PUMPED_AT) != 0 ? readInstant(in) : null;
+		byte[] payload = new byte[in.readInt()];
+		in.readFully(payload);
+		Event event = switch (tag) {
+			case TAG_WS_RAW -> new ActWsRawMsg(new String(payload, StandardCharsets.UTF_8));
+			case TAG_ACT_LINE -> new ACTLogLineEvent(new String(payload, StandardCharsets.UTF_8));
+			case TAG_SERIALIZED -> deserialize(payload);
+			default -> throw new IOException("Unknown record type " + tag);
+		};
+		event.setImported(true);
+		if (tag == TAG_SERIALIZED) {
+			// Timestamps were serialized along with everything else
+			if (event instanceof Compressible compressible) {
+				compressible.decompress();
+			}
+		}
+		else {
+			if (happenedAt != null) {
+				event.setHappenedAt(happenedAt);
+			}
+			if (pumpedAt != null) {
+				event.setPumpedAt(pumpedAt);
+			}
+		}
+		return event;
+	}
+
+	private static Event deserialize(byte[] payload) throws IOException {
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+			ois.setObjectInputFilter(EventReader.EVENT_FILTER);
+			return (Event) ois.readObject();
+		}
+		catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static void writeInstant(DataOutput out, Instant instant) throws IOException {
+		out.writeLong(instant.getEpochSecond());
+		out.writeInt(instant.getNano());
+	}
+
+	private static Instant readInstant(DataInput in) throws IOException {
+		long seconds = in.readLong();
+		int nanos = in.readInt();
+		return Instant.ofEpochSecond(seconds, nanos);
+	}
+}
@@ -0,0 +1,280 @@
+package gg.xp.xivsupport.eventstorage;
+
+import gg.xp.reevent.events.Event;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads files written by {@link SessionWriter}.
+ * <p>
+ * Files are read using the block index if present, which allows blocks to be decompressed and decoded in parallel, and
+ * allows reading from a particular point in time without decoding everything before it. Files without an index (e.g.
+ * from a session that did not shut down cleanly) are read sequentially up to the last complete block.
+ */
+public final class SessionReader {
+
+	private static final Logger log = LoggerFactory.getLogger(SessionReader.class);
+
+	private SessionReader() {
+	}
+
+	/**
+	 * @param file The file
+	 * @return Whether the file starts with the {@link SessionFormat} magic number
+	 */
+	public static boolean isSessionFile(File file) {
+		try (InputStream in = new FileInputStream(file)) {
+			return SessionFormat.hasMagic(in.readNBytes(SessionFormat.MAGIC.length));
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Read every event in the file, decoding blocks in parallel.
+	 *
+	 * @param file The file
+	 * @return The events, in order
+	 */
+	public static List<Event> readAll(File file) {
+		return readFrom(file, null);
+	}
+
+	/**
+	 * Read events starting from the block containing the given time.
+	 *
+	 * @param file  The file
+	 * @param start The time to start from, or null to read everything. The result may include some events before this,
+	 *              since whole blocks are read.
+	 * @return The events, in order
+	 */
+	public static List<Event> readFrom(File file, @Nullable Instant start) {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			checkHeader(channel);
+			List<SessionFormat.BlockInfo> index = readIndex(channel);
+			int firstBlock = 0;
+			if (start != null) {
+				long startMillis = start.toEpochMilli();
+				for (int i = 0; i < index.size(); i++) {
+					long ts = index.get(i).firstTimestampMillis();
+					if (ts >= 0 && ts <= startMillis) {
+						firstBlock = i;
+					}
+				}
+			}
+			List<List<Event>> blocks = index.subList(firstBlock, index.size())
+					.parallelStream()
+					.map(block -> {
+						try {
+							return readBlock(channel, block);
+						}
+						catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					})
+					.toList();
+			List<Event> out = new ArrayList<>(blocks.stream().mapToInt(List::size).sum());
+			blocks.forEach(out::addAll);
+			return out;
+		}
+		catch (IOException | UncheckedIOException e) {
+			throw new RuntimeException("Error reading session " + file, e);
+		}
+	}
+
+	/**
+	 * @param file The file
+	 * @return The block index. If the file has no index, this is reconstructed by scanning block headers.
+	 */
+	public static List<SessionFormat.BlockInfo> readIndex(File file) {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			checkHeader(channel);
+			return readIndex(channel);
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Error reading session index " + file, e);
+		}
+	}
+
+	/**
+	 * Read events sequentially from a stream, e.g. a classpath resource.
+	 *
+	 * @param stream The stream, which must be positioned at the start of the file
+	 * @return The events, in order
+	 */
+	public static List<Event> readAll(InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(stream);
+		byte[] magic = in.readNBytes(SessionFormat.MAGIC.length);
+		if (!SessionFormat.hasMagic(magic)) {
+			throw new IOException("Not a session file");
+		}
+		checkVersion(in.readInt());
+		List<Event> out = new ArrayList<>();
+		Inflater inflater = new Inflater();
+		try {
+			while (true) {
+				int type = in.read();
+				if (type != SessionFormat.BLOCK) {
+					// Either the index, or the end of an unterminated file
+					break;
+				}
+				int recordCount = in.readInt();
+				in.readLong();
+				int rawLength = in.readInt();
+				int compressedLength = in.readInt();
+				byte[] compressed = new byte[compressedLength];
+				in.readFully(compressed);
+				decodeBlock(inflater, compressed, rawLength, recordCount, out);
+			}
+		}
+		catch (EOFException e) {
+			log.warn("Session file ends with a partial block");
+		}
+		finally {
+			inflater.end();
+		}
+		return out;
+	}
+
+	private static void checkHeader(FileChannel channel) throws IOException {
+		ByteBuffer header = readFully(channel, 0, SessionFormat.MAGIC.length + 4);
+		byte[] magic = new byte[SessionFormat.MAGIC.length];
+		header.get(magic);
+		if (!SessionFormat.hasMagic(magic)) {
+			throw new IOException("Not a session file");
+		}
+		checkVersion(header.getInt());
+	}
+
+	private static void checkVersion(int version) throws IOException {
+		if (version > SessionFormat.VERSION) {
+			throw new IOException("Session file version %s is newer than supported version %s".formatted(version, SessionFormat.VERSION));
+		}
+	}
+
+	private static List<SessionFormat.BlockInfo> readIndex(FileChannel channel) throws IOException {
+		long size = channel.size();
+		if (size >= SessionFormat.MAGIC.length + 4 + SessionFormat.TRAILER_SIZE) {
+			ByteBuffer trailer = readFully(channel, size - SessionFormat.TRAILER_SIZE, SessionFormat.TRAILER_SIZE);
+			long indexOffset = trailer.getLong();
+			if (trailer.getInt() == SessionFormat.TRAILER_MAGIC && indexOffset > 0 && indexOffset < size) {
+				ByteBuffer indexHeader = readFully(channel, indexOffset, 5);
+				if (indexHeader.get() == SessionFormat.INDEX) {
+					int count = indexHeader.getInt();
+					ByteBuffer entries = readFully(channel, indexOffset + 5, count * 20);
+					List<SessionFormat.BlockInfo> out = new ArrayList<>(count);
+					for (int i = 0; i < count; i++) {
+						out.add(new SessionFormat.BlockInfo(entries.getLong(), entries.getInt(), entries.getLong()));
+					}
+					return out;
+				}
+			}
+		}
+		log.info("Session file has no index, scanning blocks");
+		return scanBlocks(channel);
+	}
+
+	private static List<SessionFormat.BlockInfo> scanBlocks(FileChannel channel) throws IOException {
+		List<SessionFormat.BlockInfo> out = new ArrayList<>();
+		long size = channel.size();
+		long position = SessionFormat.MAGIC.length + 4;
+		// type, count, timestamp, raw length, compressed length
+		int headerSize = 1 + 4 + 8 + 4 + 4;
+		while (position + headerSize <= size) {
+			ByteBuffer header = readFully(channel, position, headerSize);
+			if (header.get() != SessionFormat.BLOCK) {
+				break;
+			}
+			int recordCount = header.getInt();
+			long firstTimestamp = header.getLong();
+			header.getInt();
+			int compressedLength = header.getInt();
+			if (position + headerSize + compressedLength > size) {
+				log.warn("Session file ends with a partial block");
+				break;
+			}
+			out.add(new SessionFormat.BlockInfo(position, recordCount, firstTimestamp));
+			position += headerSize + compressedLength;
+		}
+		return out;
+	}
+
+	private static List<Event> readBlock(FileChannel channel, SessionFormat.BlockInfo block) throws IOException {
+		int headerSize = 1 + 4 + 8 + 4 + 4;
+		ByteBuffer header = readFully(channel, block.offset(), headerSize);
+		if (header.get() != SessionFormat.BLOCK) {
+			throw new IOException("No block at offset " + block.offset());
+		}
+		int recordCount = header.getInt();
+		header.getLong();
+		int rawLength = header.getInt();
+		int compressedLength = header.getInt();
+		ByteBuffer compressed = readFully(channel, block.offset() + headerSize, compressedLength);
+		List<Event> out = new ArrayList<>(recordCount);
+		Inflater inflater = new Inflater();
+		try {
+			decodeBlock(inflater, compressed.array(), rawLength, recordCount, out);
+		}
+		finally {
+			inflater.end();
+		}
+		return out;
+	}
+
+	private static void decodeBlock(Inflater inflater, byte[] compressed, int rawLength, int recordCount, List<Event> out) throws IOException {
+		byte[] raw = new byte[rawLength];
+		inflater.reset();
+		inflater.setInput(compressed);
+		try {
+			int read = 0;
+			while (read < rawLength && !inflater.finished()) {
+				int n = inflater.inflate(raw, read, rawLength - read);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				read += n;
+			}
+			if (read != rawLength) {
+				throw new IOException("Block decompressed to %s bytes, expected %s".formatted(read, rawLength));
+			}
+		}
+		catch (DataFormatException e) {
+			throw new IOException(e);
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+		for (int i = 0; i < recordCount; i++) {
+			out.add(SessionFormat.readRecord(in));
+		}
+	}
+
+	private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0) {
+				throw new EOFException("Unexpected end of file at " + (position + buffer.position()));
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -0,0 +1,159 @@
+package gg.xp.xivsupport.eventstorage;
+
+import gg.xp.reevent.events.Event;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes events in {@link SessionFormat}. Records are buffered until there is a full block, then the block is
+ * compressed and written. {@link #flush()} writes out a partial block, and {@link #close()} also writes the block
+ * index.
+ */
+public final class SessionWriter implements Closeable, Flushable {
+
+	static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+	private final DataOutputStream out;
+	private final int blockSize;
+	private final BlockBuffer blockBuffer = new BlockBuffer();
+	private final DataOutputStream blockOut = new DataOutputStream(blockBuffer);
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	private final List<SessionFormat.BlockInfo> index = new ArrayList<>();
+	private byte[] compressBuffer = new byte[0];
+	private long position;
+	private int recordsInBlock;
+	private long blockFirstTimestamp = -1;
+	private long totalRecords;
+	private boolean closed;
+
+	public SessionWriter(File file) throws IOException {
+		this(new FileOutputStream(file), DEFAULT_BLOCK_SIZE);
+	}
+
+	SessionWriter(OutputStream out, int blockSize) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+		this.blockSize = blockSize;
+		this.out.write(SessionFormat.MAGIC);
+		this.out.writeInt(SessionFormat.VERSION);
+		position = SessionFormat.MAGIC.length + 4;
+	}
+
+	public synchronized void write(Event event) throws IOException {
+		if (closed) {
+			throw new IOException("Writer is closed");
+		}
+		if (recordsInBlock == 0) {
+			blockFirstTimestamp = SessionFormat.timestampMillis(event);
+		}
+		SessionFormat.writeRecord(blockOut, event);
+		recordsInBlock++;
+		totalRecords++;
+		if (blockBuffer.size() >= blockSize) {
+			writeBlock();
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		if (recordsInBlock == 0) {
+			return;
+		}
+		int rawLength = blockBuffer.size();
+		deflater.reset();
+		deflater.setInput(blockBuffer.buf(), 0, rawLength);
+		deflater.finish();
+		if (compressBuffer.length < rawLength + 64) {
+			compressBuffer = new byte[rawLength + 64];
+		}
+		int compressedLength = 0;
+		while (!deflater.finished()) {
+			if (compressedLength == compressBuffer.length) {
+				compressBuffer = Arrays.copyOf(compressBuffer, compressBuffer.length * 2);
+			}
+			compressedLength += deflater.deflate(compressBuffer, compressedLength, compressBuffer.length - compressedLength);
+		}
+		index.add(new SessionFormat.BlockInfo(position, recordsInBlock, blockFirstTimestamp));
+		out.writeByte(SessionFormat.BLOCK);
+		out.writeInt(recordsInBlock);
+		out.writeLong(blockFirstTimestamp);
+		out.writeInt(rawLength);
+		out.writeInt(compressedLength);
+		out.write(compressBuffer, 0, compressedLength);
+		position += 1 + 4 + 8 + 4 + 4 + compressedLength;
+		blockBuffer.reset();
+		recordsInBlock = 0;
+		blockFirstTimestamp = -1;
+	}
+
+	/**
+	 * Write out any buffered records as a (possibly short) block.
+	 */
+	@Override
+	public synchronized void flush() throws IOException {
+		if (closed) {
+			return;
+		}
+		writeBlock();
+		out.flush();
+	}
+
+	/**
+	 * Write out any buffered records, then the block index.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			writeBlock();
+			long indexOffset = position;
+			out.writeByte(SessionFormat.INDEX);
+			out.writeInt(index.size());
+			for (SessionFormat.BlockInfo block : index) {
+				out.writeLong(block.offset());
+				out.writeInt(block.recordCount());
+				out.writeLong(block.firstTimestampMillis());
+			}
+			out.writeLong(indexOffset);
+			out.writeInt(SessionFormat.TRAILER_MAGIC);
+			out.close();
+		}
+		finally {
+			closed = true;
+			deflater.end();
+		}
+	}
+
+	public synchronized long getRecordCount() {
+		return totalRecords;
+	}
+
+	/**
+	 * @return Bytes written to the file so far, not counting buffered records.
+	 */
+	public synchronized long getBytesWritten() {
+		return position;
+	}
+
+	private static final class BlockBuffer extends ByteArrayOutputStream {
+		BlockBuffer() {
+			super(DEFAULT_BLOCK_SIZE + 16 * 1024);
+		}
+
+		byte[] buf() {
+			return buf;
+		}
+	}
+}
@@ -58,6 +58,7 @@ public class GroovyManager {
 	private static final Logger scriptLogger = LoggerFactory.getLogger("gg.xp.xivsupport.groovy.Scripts");
 	private final PicoContainer container;
 	private final GroovySandbox sandbox;
+	private final @Nullable Whitelist whitelist;
 	private final BooleanSetting sandboxSetting;
 	private final AutoHandlerConfig ahc;
 	private final boolean useSandbox;
@@ -81,9 +82,11 @@ public class GroovyManager {
 		}
 		if (useSandbox) {
 			sandbox = new StandardGroovySandbox().withWhitelist(whitelist);
+			this.whitelist = whitelist;
 		}
 		else {
 			sandbox = new NoOpGroovySandbox();
+			this.whitelist = null;
 		}
 	}
 
@@ -317,4 +320,12 @@ public class GroovyManager {
 	public GroovySandbox getSandbox() {
 		return sandbox;
 	}
+
+	/**
+	 * @return The whitelist used by the sandbox, or null if the sandbox is disabled. For code which evaluates simple
+	 * expressions without going through Groovy, but should still respect the sandbox.
+	 */
+	public @Nullable Whitelist getWhitelist() {
+		return whitelist;
+	}
 }
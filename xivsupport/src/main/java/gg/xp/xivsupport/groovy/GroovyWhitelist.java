@@ -156,6 +156,12 @@ public class GroovyWhitelist extends Whitelist {
 		return true;
 	}
 
+	@Override
+	public boolean permitsCaching() {
+		// Everything here is based on classes, except permitsStaticFieldGet, which the sandbox does not cache.
+		return true;
+	}
+
 	@Override
 	public boolean permitsMethod(@NotNull Method method, @NotNull Object receiver, @NotNull Object[] args) {
 		log.trace("{}", method);
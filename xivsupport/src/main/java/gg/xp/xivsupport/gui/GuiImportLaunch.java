@@ -4,6 +4,7 @@ import gg.xp.reevent.events.Event;
 import gg.xp.xivsupport.events.fflogs.FflogsController;
 import gg.xp.xivsupport.events.fflogs.FflogsFight;
 import gg.xp.xivsupport.events.fflogs.FflogsReportLocator;
+import gg.xp.xivsupport.eventstorage.SessionFormat;
 import gg.xp.xivsupport.gui.components.ReadOnlyText;
 import gg.xp.xivsupport.gui.imprt.ACTLogImportSpec;
 import gg.xp.xivsupport.gui.imprt.FflogsImportSpec;
@@ -284,7 +285,8 @@ public final class GuiImportLaunch {
 						if (theFile.getName().toLowerCase(Locale.ROOT).endsWith(".log")) {
 							return new ACTLogImportSpec(theFile);
 						}
-						else if (theFile.getName().toLowerCase(Locale.ROOT).endsWith(".oos.gz")) {
+						else if (theFile.getName().toLowerCase(Locale.ROOT).endsWith(".oos.gz")
+								|| theFile.getName().toLowerCase(Locale.ROOT).endsWith(SessionFormat.EXTENSION)) {
 							return new SessionImportSpec(theFile, decompress());
 						}
 						else {
@@ -360,9 +362,7 @@ public final class GuiImportLaunch {
 		});
 		gp.setVisible(true);
 		exs.submit(() -> CatchFatalError.run(() -> {
-			List<X> events = importController.readEvents(importSpec, saveToRecents);
-			SwingUtilities.invokeLater(() -> statusLabel.setText("Read Events, Launching GUI."));
-			importSpec.launch(events);
+			importController.readAndLaunch(importSpec, saveToRecents, () -> SwingUtilities.invokeLater(() -> statusLabel.setText("Read Events, Launching GUI.")));
 			hideFrame();
 		}));
 	}
@@ -4,12 +4,14 @@ import gg.xp.reevent.events.AutoEventDistributor;
 import gg.xp.reevent.events.Event;
 import gg.xp.reevent.events.EventMaster;
 import gg.xp.reevent.events.InitEvent;
-import gg.xp.xivsupport.events.ACTLogLineEvent;
 import gg.xp.xivsupport.events.actlines.parsers.FakeACTTimeSource;
 import gg.xp.xivsupport.events.actlines.parsers.FakeTimeSource;
+import gg.xp.xivsupport.eventstorage.ActLogStream;
 import gg.xp.xivsupport.eventstorage.EventReader;
 import gg.xp.xivsupport.gui.util.CatchFatalError;
+import gg.xp.xivsupport.replay.ListReplayEventSource;
 import gg.xp.xivsupport.replay.ReplayController;
+import gg.xp.xivsupport.replay.ReplayEventSource;
 import gg.xp.xivsupport.sys.KnownLogSource;
 import gg.xp.xivsupport.sys.PrimaryLogSource;
 import gg.xp.xivsupport.sys.XivMain;
@@ -36,24 +38,36 @@ public final class LaunchImportedActLog {
 	// Does not need to be called from EDT thread, but can be
 	public static void fromFile(File file, boolean decompress, Runnable after) {
 		exs.submit(() -> {
-			List<ACTLogLineEvent> events = EventReader.readActLogFile(file);
+			ActLogStream stream = EventReader.streamActLogFile(file);
 			CatchFatalError.run(() -> {
-				fromEvents(events, decompress);
+				fromSource(stream, decompress);
 			});
 			after.run();
 		});
 	}
 
 	public static void fromEvents(List<? extends Event> events, boolean decompress) {
+		fromSource(new ListReplayEventSource(events), decompress);
+	}
+
+	/**
+	 * Launch with a source that may still be loading, e.g. {@link ActLogStream}.
+	 *
+	 * @param source     The source
+	 * @param decompress Whether events need to be decompressed
+	 */
+	public static void fromSource(ReplayEventSource source, boolean decompress) {
 		CommonGuiSetup.setup();
 		MutablePicoContainer pico = XivMain.importInit();
 		pico.addComponent(FakeACTTimeSource.class);
 		AutoEventDistributor dist = pico.getComponent(AutoEventDistributor.class);
 		EventMaster master = pico.getComponent(EventMaster.class);
-		ReplayController replayController = new ReplayController(master, events, decompress);
+		ReplayController replayController = new ReplayController(master, source, decompress);
+		replayController.setPipelined(true);
 		pico.addComponent(replayController);
 		pico.getComponent(PrimaryLogSource.class).setLogSource(KnownLogSource.ACT_LOG_FILE);
 		dist.acceptEvent(new InitEvent());
+		replayController.enableCheckpoints(pico);
 		pico.addComponent(GuiMain.class);
 		pico.getComponent(GuiMain.class);
 	}
@@ -88,7 +88,11 @@ public class AddonMgr implements PluginTab {
 										log.info("Downloading image: {}", value);
 										element.forceLoadNow();
 										log.info("Done downloading image: {}", value);
-										SwingUtilities.invokeLater(table::repaint);
+										SwingUtilities.invokeLater(() -> {
+											// The cache can drop it again later, in which case it needs another download
+											pending.remove(value);
+											table.repaint();
+										});
 									});
 								}
 								return defaultRenderer;
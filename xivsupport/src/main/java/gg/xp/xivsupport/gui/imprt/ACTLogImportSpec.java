@@ -2,6 +2,7 @@ package gg.xp.xivsupport.gui.imprt;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import gg.xp.xivsupport.events.ACTLogLineEvent;
+import gg.xp.xivsupport.eventstorage.ActLogStream;
 import gg.xp.xivsupport.eventstorage.EventReader;
 import gg.xp.xivsupport.gui.LaunchImportedActLog;
 
@@ -40,4 +41,11 @@ public class ACTLogImportSpec implements ImportSpec<ACTLogLineEvent>  {
 	public void launch(List<ACTLogLineEvent> events) {
 		LaunchImportedActLog.fromEvents(events);
 	}
+
+	@Override
+	public void readAndLaunch(Runnable onReadSuccess) {
+		ActLogStream stream = EventReader.streamActLogFile(file);
+		onReadSuccess.run();
+		LaunchImportedActLog.fromSource(stream, false);
+	}
 }
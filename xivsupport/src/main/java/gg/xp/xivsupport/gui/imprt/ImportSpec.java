@@ -15,4 +15,17 @@ public interface ImportSpec<X extends Event> {
 	List<X> readEvents();
 
 	void launch(List<X> events);
+
+	/**
+	 * Read events and launch. By default, this reads all events up front. Specs which can provide events while they
+	 * are still being read should override this.
+	 *
+	 * @param onReadSuccess To be called once reading has succeeded (or at least started successfully), but before
+	 *                      launching.
+	 */
+	default void readAndLaunch(Runnable onReadSuccess) {
+		List<X> events = readEvents();
+		onReadSuccess.run();
+		launch(events);
+	}
 }
@@ -33,14 +33,35 @@ public class MainImportController {
 		List<X> events = importSpec.readEvents();
 		if (saveToRecents) {
 			// Only add once we know we can successfully import
-			List<ImportSpec<?>> items = recents.getItems();
-			items.add(0, importSpec);
-			if (items.size() > HISTORY_SIZE) {
-				items = items.subList(0, HISTORY_SIZE);
-			}
-			recents.setItems(items);
+			addToRecents(importSpec);
 		}
 		return events;
 	}
 
+	/**
+	 * Read and launch an import. Unlike {@link #readEvents(ImportSpec, boolean)}, this allows the spec to launch before
+	 * all events have been read.
+	 *
+	 * @param importSpec    The import
+	 * @param saveToRecents Whether to add it to recent imports
+	 * @param onReadSuccess Called after the import has been read (or has started reading) successfully
+	 */
+	public <X extends Event> void readAndLaunch(ImportSpec<X> importSpec, boolean saveToRecents, Runnable onReadSuccess) {
+		importSpec.readAndLaunch(() -> {
+			if (saveToRecents) {
+				addToRecents(importSpec);
+			}
+			onReadSuccess.run();
+		});
+	}
+
+	private void addToRecents(ImportSpec<?> importSpec) {
+		List<ImportSpec<?>> items = recents.getItems();
+		items.add(0, importSpec);
+		if (items.size() > HISTORY_SIZE) {
+			items = items.subList(0, HISTORY_SIZE);
+		}
+		recents.setItems(items);
+	}
+
 }
@@ -0,0 +1,177 @@
+package gg.xp.xivsupport.gui.tables.renderers;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decoded icon images, both as loaded and scaled to each size they are drawn at, shared by everything that draws icons.
+ * The total size is limited, and the least recently used images are dropped first.
+ */
+public final class IconImageCache {
+
+	private static final Logger log = LoggerFactory.getLogger(IconImageCache.class);
+	// Use -DiconCacheMb=N to change how much memory decoded icons can use
+	private static final long maxBytes = Long.getLong("iconCacheMb", 32) * 1024 * 1024;
+	private static final Object lock = new Object();
+	private static final Map<Key, BufferedImage> images = new LinkedHashMap<>(256, 0.75f, true);
+	// How many entries in 'images' there are for each URL, at any size
+	private static final Map<String, Integer> entriesByUrl = new HashMap<>();
+	private static final Set<String> failed = ConcurrentHashMap.newKeySet();
+	private static final ExecutorService preloadExs = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "IconPreload");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+	private static long totalBytes;
+
+	// URL.equals/hashCode can do DNS lookups, so use the string form. Height 0 means the image as loaded.
+	private record Key(String url, int height) {
+	}
+
+	private IconImageCache() {
+	}
+
+	/**
+	 * @param url Image location
+	 * @return Whether the image is already loaded at any size (or has already failed to load), i.e. whether it can be
+	 * drawn without loading it first.
+	 */
+	public static boolean isLoaded(URL url) {
+		String urlString = url.toString();
+		if (failed.contains(urlString)) {
+			return true;
+		}
+		synchronized (lock) {
+			return entriesByUrl.containsKey(urlString);
+		}
+	}
+
+	/**
+	 * @param url Image location
+	 * @return The image as loaded, or null if it could not be loaded
+	 */
+	public static @Nullable BufferedImage getOriginal(URL url) {
+		String urlString = url.toString();
+		Key key = new Key(urlString, 0);
+		BufferedImage image = get(key);
+		if (image != null || failed.contains(urlString)) {
+			return image;
+		}
+		// Not under the lock - two threads might both load the same image, but that's harmless
+		try {
+			image = ImageIO.read(url);
+		}
+		catch (IOException e) {
+			log.warn("Could not load image {}: {}", url, e.toString());
+		}
+		if (image == null) {
+			failed.add(urlString);
+			return null;
+		}
+		put(key, image);
+		return image;
+	}
+
+	/**
+	 * @param url    Image location
+	 * @param height Desired height. Width is scaled to keep the same aspect ratio.
+	 * @return The scaled image, or null if it could not be loaded
+	 */
+	public static @Nullable BufferedImage getScaled(URL url, int height) {
+		if (height <= 0) {
+			return null;
+		}
+		Key key = new Key(url.toString(), height);
+		BufferedImage scaled = get(key);
+		if (scaled != null) {
+			return scaled;
+		}
+		BufferedImage original = getOriginal(url);
+		if (original == null) {
+			return null;
+		}
+		if (original.getHeight() == height) {
+			return original;
+		}
+		int width = Math.max(1, (int) Math.round(original.getWidth() * (double) height / original.getHeight()));
+		scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = scaled.createGraphics();
+		try {
+			// Area averaging looks much better than bilinear when shrinking icons
+			g.drawImage(original.getScaledInstance(width, height, Image.SCALE_SMOOTH), 0, 0, null);
+		}
+		finally {
+			g.dispose();
+		}
+		put(key, scaled);
+		return scaled;
+	}
+
+	/**
+	 * Load images in the background so that they are ready when first drawn.
+	 *
+	 * @param urls Image locations
+	 */
+	public static void preload(Collection<URL> urls) {
+		preloadExs.submit(() -> {
+			long start = System.currentTimeMillis();
+			int loaded = 0;
+			for (URL url : urls) {
+				if (!isLoaded(url)) {
+					getOriginal(url);
+					loaded++;
+				}
+			}
+			log.info("Preloaded {} of {} icons in {} ms", loaded, urls.size(), System.currentTimeMillis() - start);
+		});
+	}
+
+	private static @Nullable BufferedImage get(Key key) {
+		synchronized (lock) {
+			return images.get(key);
+		}
+	}
+
+	private static void put(Key key, BufferedImage image) {
+		synchronized (lock) {
+			BufferedImage old = images.put(key, image);
+			if (old != null) {
+				totalBytes -= sizeOf(old);
+			}
+			else {
+				entriesByUrl.merge(key.url, 1, Integer::sum);
+			}
+			totalBytes += sizeOf(image);
+			Iterator<Map.Entry<Key, BufferedImage>> iter = images.entrySet().iterator();
+			// Always keep the newest one, even if it is larger than the limit
+			while (totalBytes > maxBytes && images.size() > 1) {
+				Map.Entry<Key, BufferedImage> eldest = iter.next();
+				iter.remove();
+				totalBytes -= sizeOf(eldest.getValue());
+				entriesByUrl.computeIfPresent(eldest.getKey().url, (url, count) -> count == 1 ? null : count - 1);
+			}
+		}
+	}
+
+	private static long sizeOf(BufferedImage image) {
+		// Close enough - most are 4 bytes per pixel
+		return 4L * image.getWidth() * image.getHeight();
+	}
+}
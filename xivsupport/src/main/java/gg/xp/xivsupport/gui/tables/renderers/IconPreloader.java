@@ -0,0 +1,69 @@
+package gg.xp.xivsupport.gui.tables.renderers;
+
+import gg.xp.reevent.events.EventContext;
+import gg.xp.reevent.scan.HandleEvents;
+import gg.xp.xivdata.data.ActionIcon;
+import gg.xp.xivdata.data.ActionLibrary;
+import gg.xp.xivdata.data.Cooldown;
+import gg.xp.xivdata.data.Job;
+import gg.xp.xivsupport.events.actlines.events.XivStateRecalculatedEvent;
+import gg.xp.xivsupport.events.state.XivState;
+import gg.xp.xivsupport.models.XivPlayerCharacter;
+
+import java.awt.*;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Whenever the jobs in the party change, loads the job and cooldown icons for those jobs in the background, so that
+ * the cooldown tracker, party overlays, etc don't have to load them while drawing.
+ */
+public class IconPreloader {
+
+	private final XivState state;
+	private Set<Job> lastJobs = EnumSet.noneOf(Job.class);
+
+	public IconPreloader(XivState state) {
+		this.state = state;
+	}
+
+	@HandleEvents
+	public void stateRecalc(EventContext context, XivStateRecalculatedEvent event) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return;
+		}
+		Set<Job> jobs = EnumSet.noneOf(Job.class);
+		for (XivPlayerCharacter member : state.getPartyList()) {
+			Job job = member.getJob();
+			if (job != null) {
+				jobs.add(job);
+			}
+		}
+		// Only bother when someone joins or changes job, not on every recalc
+		if (lastJobs.containsAll(jobs)) {
+			return;
+		}
+		Set<Job> newJobs = EnumSet.copyOf(jobs);
+		newJobs.removeAll(lastJobs);
+		lastJobs = jobs;
+		List<URL> urls = new ArrayList<>();
+		for (Job job : newJobs) {
+			URL url = job.getIconUrl();
+			if (url != null) {
+				urls.add(url);
+			}
+		}
+		for (Cooldown cd : Cooldown.values()) {
+			if (newJobs.contains(cd.getJob())) {
+				ActionIcon icon = ActionLibrary.iconForId(cd.getPrimaryAbilityId());
+				if (icon != null) {
+					urls.add(icon.getIconUrl());
+				}
+			}
+		}
+		IconImageCache.preload(urls);
+	}
+}
@@ -40,7 +40,7 @@ public final class IconTextRenderer {
 			if (imageUrl == null) {
 				return null;
 			}
-			return new ScaledImageComponent(Toolkit.getDefaultToolkit().getImage(imageUrl), size);
+			return new ScaledImageComponent(imageUrl, size);
 		});
 	}
 
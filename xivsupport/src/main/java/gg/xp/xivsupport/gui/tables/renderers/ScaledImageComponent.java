@@ -1,11 +1,9 @@
 package gg.xp.xivsupport.gui.tables.renderers;
 
-import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.io.Serial;
-import java.util.HashMap;
-import java.util.Map;
+import java.net.URL;
 
 import static java.awt.RenderingHints.KEY_ANTIALIASING;
 import static java.awt.RenderingHints.KEY_INTERPOLATION;
@@ -17,18 +15,12 @@ import static java.awt.RenderingHints.VALUE_RENDER_QUALITY;
 public class ScaledImageComponent extends Component {
 	@Serial
 	private static final long serialVersionUID = -6148301310440811739L;
-	private final Image image;
+	private final URL url;
 	private final int size;
-	private final Map<Integer, ImageIcon> cache;
 
-	ScaledImageComponent(Image image, int size) {
-		this(image, size, new HashMap<>());
-	}
-
-	ScaledImageComponent(Image image, int size, Map<Integer, ImageIcon> cache) {
-		//noinspection AssignmentOrReturnOfFieldWithMutableType
-		this.cache = cache;
-		this.image = image;
+	// Images themselves are in IconImageCache, so these are cheap to make
+	ScaledImageComponent(URL url, int size) {
+		this.url = url;
 		this.size = size;
 //			int width = image.getWidth(null);
 //			int height = image.getHeight(null);
@@ -44,11 +36,11 @@ public class ScaledImageComponent extends Component {
 	}
 
 	public ScaledImageComponent cloneThis() {
-		return new ScaledImageComponent(image, size, cache);
+		return new ScaledImageComponent(url, size);
 	}
 
 	public ScaledImageComponent withNewSize(int size) {
-		return new ScaledImageComponent(image, size, cache);
+		return new ScaledImageComponent(url, size);
 	}
 
 	@Override
@@ -57,11 +49,11 @@ public class ScaledImageComponent extends Component {
 	}
 
 	public boolean isLoaded() {
-		return image.getHeight(null) >= 0;
+		return IconImageCache.isLoaded(url);
 	}
 
 	public void forceLoadNow() {
-		new ImageIcon(image.getScaledInstance(-1, size, Image.SCALE_SMOOTH));
+		IconImageCache.getOriginal(url);
 	}
 
 	public void paint(Graphics g, int size) {
@@ -74,10 +66,10 @@ public class ScaledImageComponent extends Component {
 		t.scale(1 / xScale, 1 / yScale);
 		((Graphics2D) g).setTransform(t);
 		int scaledSize = (int) (size * yScale);
-		// -1 = keep original aspect ratio
-		ImageIcon scaledImage = cache.computeIfAbsent(scaledSize, newSize -> new ImageIcon(image.getScaledInstance(-1, newSize, Image.SCALE_SMOOTH)));
-		scaledImage.paintIcon(this, g, 0, 0);
-//			(scaledInstance).paintIcon(this, g, 0, 0);
-//			g.drawImage(scaledImage, 0, 0, null);
+		// Keeps original aspect ratio
+		Image scaledImage = IconImageCache.getScaled(url, scaledSize);
+		if (scaledImage != null) {
+			g.drawImage(scaledImage, 0, 0, this);
+		}
 	}
 }
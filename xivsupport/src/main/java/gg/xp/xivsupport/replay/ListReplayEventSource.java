@@ -0,0 +1,42 @@
+package gg.xp.xivsupport.replay;
+
+import gg.xp.reevent.events.Event;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a list which has already been fully read into memory.
+ */
+public class ListReplayEventSource implements ReplayEventSource {
+
+	private final List<? extends Event> events;
+	private int index;
+
+	public ListReplayEventSource(List<? extends Event> events) {
+		this.events = events instanceof ArrayList ? events : new ArrayList<>(events);
+	}
+
+	@Override
+	public @Nullable Event next() {
+		if (index >= events.size()) {
+			return null;
+		}
+		Event event = events.get(index);
+		// Don't hold on to events that have already been replayed
+		events.set(index, null);
+		index++;
+		return event;
+	}
+
+	@Override
+	public boolean hasMore() {
+		return index < events.size();
+	}
+
+	@Override
+	public int getCount() {
+		return events.size();
+	}
+}
@@ -0,0 +1,54 @@
+package gg.xp.xivsupport.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saved state of every {@link ReplayCheckpointable} component, taken just before the event at a
+ * {@link ReplaySeekPoint} was played.
+ */
+public final class ReplayCheckpoint {
+
+	private final ReplaySeekPoint seekPoint;
+	private final List<Saved<?>> saved;
+
+	private ReplayCheckpoint(ReplaySeekPoint seekPoint, List<Saved<?>> saved) {
+		this.seekPoint = seekPoint;
+		this.saved = saved;
+	}
+
+	static ReplayCheckpoint capture(ReplaySeekPoint seekPoint, List<ReplayCheckpointable<?>> components) {
+		List<Saved<?>> saved = new ArrayList<>(components.size());
+		for (ReplayCheckpointable<?> component : components) {
+			saved.add(Saved.of(component));
+		}
+		return new ReplayCheckpoint(seekPoint, saved);
+	}
+
+	void restore() {
+		saved.forEach(Saved::restore);
+	}
+
+	public ReplaySeekPoint getSeekPoint() {
+		return seekPoint;
+	}
+
+	public int getIndex() {
+		return seekPoint.index();
+	}
+
+	@Override
+	public String toString() {
+		return "ReplayCheckpoint(%s, %s components)".formatted(seekPoint, saved.size());
+	}
+
+	private record Saved<X>(ReplayCheckpointable<X> component, X state) {
+		static <X> Saved<X> of(ReplayCheckpointable<X> component) {
+			return new Saved<>(component, component.saveCheckpoint());
+		}
+
+		void restore() {
+			component.restoreCheckpoint(state);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package gg.xp.xivsupport.replay;
+
+/**
+ * A component whose state is saved in each {@link ReplayCheckpoint}, so that a replay can seek back to that point.
+ * Components are found by type in the container given to {@link ReplayController#enableCheckpoints}.
+ * <p>
+ * Both methods are called between events, once the event queue has drained.
+ *
+ * @param <X> The saved state. Later events must not modify it, so it should be a copy or immutable.
+ */
+public interface ReplayCheckpointable<X> {
+
+	/**
+	 * @return A copy of the current state
+	 */
+	X saveCheckpoint();
+
+	/**
+	 * Replace the current state with a saved one. The saved state may be restored again later, so it must not be
+	 * modified by this, nor by anything that happens afterwards.
+	 *
+	 * @param saved State previously returned by {@link #saveCheckpoint()}
+	 */
+	void restoreCheckpoint(X saved);
+}
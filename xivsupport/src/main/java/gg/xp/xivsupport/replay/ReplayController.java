@@ -4,20 +4,26 @@ import gg.xp.reevent.events.Event;
 import gg.xp.reevent.events.EventMaster;
 import gg.xp.xivsupport.persistence.Compressible;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.jetbrains.annotations.Nullable;
+import org.picocontainer.PicoContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.Array;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 public class ReplayController {
 
 	private static final Logger log = LoggerFactory.getLogger(ReplayController.class);
+	// How many events may be read and decompressed ahead of the one being played, in pipelined mode
+	private static final int PREFETCH_WINDOW = 512;
 
 	private final ExecutorService exs = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
 			.daemon(true)
@@ -27,22 +33,88 @@ public class ReplayController {
 	);
 
 	private final EventMaster master;
-	private final List<? extends Event> events;
+	private final ReplayEventSource source;
 	private final List<Runnable> callbacks = new ArrayList<>();
 	private final boolean decompress;
-	private int currentIndex;
+	private final List<ReplayCheckpoint> checkpoints = new CopyOnWriteArrayList<>();
+	private volatile @Nullable ReplayPrefetcher prefetch;
+	private volatile @Nullable List<ReplayCheckpointable<?>> checkpointables;
+	// Position within source.getSeekPoints() of the next seek point that might need a checkpoint
+	private int seekPointCursor;
+	private volatile int currentIndex;
 	private volatile boolean stop;
 
 
 	public ReplayController(EventMaster master, List<? extends Event> events, boolean decompress) {
+		this(master, new ListReplayEventSource(events), decompress);
+	}
+
+	public ReplayController(EventMaster master, ReplayEventSource source, boolean decompress) {
 //		master.setUseLoopLock(true);
 		this.master = master;
-		this.events = events instanceof ArrayList ? events : new ArrayList<>(events);
+		this.source = source;
 		this.decompress = decompress;
 	}
 
 	public int getCount() {
-		return events.size();
+		return source.getCount();
+	}
+
+	/**
+	 * @return false if the source is still loading, in which case {@link #getCount()} is not final.
+	 */
+	public boolean isFullyLoaded() {
+		return source.isFullyLoaded();
+	}
+
+	/**
+	 * Pipelined mode reads and decompresses events ahead of time on background threads, and lets the event pump
+	 * pull the next event itself once the previous one has been fully processed, rather than handing each event over
+	 * from the replay thread. Events are still processed one at a time in the same order, so the results are the
+	 * same, just faster.
+	 * <p>
+	 * Once enabled, this cannot be turned off again, since events may already have been read ahead.
+	 *
+	 * @param pipelined Whether to enable pipelined mode
+	 */
+	public void setPipelined(boolean pipelined) {
+		if (pipelined && prefetch == null) {
+			prefetch = new ReplayPrefetcher(source, decompress, PREFETCH_WINDOW);
+		}
+	}
+
+	public boolean isPipelined() {
+		return prefetch != null;
+	}
+
+	/**
+	 * Save a {@link ReplayCheckpoint} of every {@link ReplayCheckpointable} component at each seek point, the first
+	 * time it is played, so that {@link #seekToCheckpointAsync(ReplayCheckpoint)} can jump back to it without
+	 * replaying everything before it. Does nothing if the source does not support seeking.
+	 * <p>
+	 * This should be called after the container is fully set up, and before playing any events.
+	 *
+	 * @param container Container to find checkpointable components in
+	 */
+	@SuppressWarnings("unchecked")
+	public void enableCheckpoints(PicoContainer container) {
+		if (source.supportsSeek()) {
+			List<ReplayCheckpointable<?>> found = new ArrayList<>();
+			container.getComponents(ReplayCheckpointable.class).forEach(found::add);
+			log.info("Replay checkpoints enabled for {} components", found.size());
+			checkpointables = found;
+		}
+	}
+
+	public boolean checkpointsEnabled() {
+		return checkpointables != null;
+	}
+
+	/**
+	 * @return Checkpoints saved so far, in order.
+	 */
+	public List<ReplayCheckpoint> getCheckpoints() {
+		return Collections.unmodifiableList(checkpoints);
 	}
 
 	public int getCurrentPosition() {
@@ -73,20 +145,143 @@ public class ReplayController {
 	 * events remaining in the replay.
 	 */
 	public int advanceBy(int count) {
-		int advancedBy = 0;
-		for (; count-- > 0 && hasMoreEvents(); currentIndex++) {
-			Event event = events.get(currentIndex);
-			events.set(currentIndex, null);
-			if (decompress && event instanceof Compressible compressedEvent) {
+		int advancedBy = advance(count, () -> true);
+		notifyCallbacks();
+		return advancedBy;
+	}
+
+	/**
+	 * Play every remaining event as fast as possible, and log the throughput. Intended for headless use, and best
+	 * combined with {@link #setPipelined(boolean)}.
+	 *
+	 * @return The number of events played
+	 */
+	public int playToEnd() {
+		long before = System.nanoTime();
+		int played = advanceBy(Integer.MAX_VALUE);
+		long nanos = System.nanoTime() - before;
+		log.info("Replayed {} events in {} ms ({} events/sec, pipelined: {})", played, nanos / 1_000_000, nanos == 0 ? 0 : (long) (played * 1e9 / nanos), isPipelined());
+		return played;
+	}
+
+	private int advance(int count, BooleanSupplier keepGoing) {
+		ReplayPrefetcher prefetch = this.prefetch;
+		int played = 0;
+		if (prefetch == null) {
+			while (played < count && keepGoing.getAsBoolean() && playNext()) {
+				played++;
+			}
+			return played;
+		}
+		int[] pushed = {0};
+		while (pushed[0] < count && keepGoing.getAsBoolean()) {
+			// Push everything that is already prefetched, straight from the pump thread
+			master.pushEventsAndWait(() -> {
+				if (pushed[0] >= count || !keepGoing.getAsBoolean()) {
+					return null;
+				}
+				Event event = nextEvent(false);
+				if (event != null) {
+					pushed[0]++;
+				}
+				return event;
+			});
+			if (prefetch.isExhausted()) {
+				break;
+			}
+			// Caught up with the prefetcher
+			prefetch.awaitNext();
+		}
+		return pushed[0];
+	}
+
+	private boolean playNext() {
+		Event event = nextEvent(true);
+		if (event == null) {
+			return false;
+		}
+		// TODO: this fixes a bug (see LaunchImportedSession) but may be slightly worse on performance
+		master.pushEventAndWait(event);
+		return true;
+	}
+
+	private @Nullable Event nextEvent(boolean block) {
+		ReplayPrefetcher prefetch = this.prefetch;
+		Event event;
+		if (prefetch == null) {
+			event = source.next();
+			if (event != null && decompress && event instanceof Compressible compressedEvent) {
 				compressedEvent.decompress();
 			}
+		}
+		else {
+			event = prefetch.next(block);
+		}
+		if (event != null) {
+			maybeSaveCheckpoint(currentIndex);
+			currentIndex++;
 			preProcessEvent(event);
-			// TODO: this fixes a bug (see LaunchImportedSession) but may be slightly worse on performance
-			master.pushEventAndWait(event);
-			advancedBy++;
 		}
-		notifyCallbacks();
-		return advancedBy;
+		return event;
+	}
+
+	// Called right before the event at this index is played, so everything before it has been fully processed
+	private void maybeSaveCheckpoint(int index) {
+		List<ReplayCheckpointable<?>> checkpointables = this.checkpointables;
+		if (checkpointables == null) {
+			return;
+		}
+		List<ReplaySeekPoint> seekPoints = source.getSeekPoints();
+		while (seekPointCursor < seekPoints.size()) {
+			ReplaySeekPoint seekPoint = seekPoints.get(seekPointCursor);
+			if (seekPoint.index() > index) {
+				break;
+			}
+			seekPointCursor++;
+			// Checkpoints are in order, so only the newest one can be for this index
+			if (seekPoint.index() == index && (checkpoints.isEmpty() || checkpoints.get(checkpoints.size() - 1).getIndex() < index)) {
+				checkpoints.add(ReplayCheckpoint.capture(seekPoint, checkpointables));
+				log.debug("Saved replay checkpoint at {}", seekPoint);
+			}
+		}
+	}
+
+	/**
+	 * Restore the state saved in a checkpoint, and continue replaying from there.
+	 * <p>
+	 * Delayed events which are not yet due are dropped, since they were scheduled by events after the checkpoint.
+	 * Anything that only lives outside of a {@link ReplayCheckpointable} is not rewound, e.g. RawEventStorage still
+	 * holds the events that were played after the checkpoint.
+	 *
+	 * @param checkpoint A checkpoint from {@link #getCheckpoints()}
+	 * @return A future that completes once the seek is done
+	 */
+	public Future<?> seekToCheckpointAsync(ReplayCheckpoint checkpoint) {
+		stop = true;
+		return exs.submit(() -> {
+			seekToCheckpoint(checkpoint);
+			notifyCallbacks();
+		});
+	}
+
+	private void seekToCheckpoint(ReplayCheckpoint checkpoint) {
+		// Anything still in flight would be applied on top of the restored state. Delayed events are dropped first,
+		// so that none of them become due while draining.
+		master.getQueue().clearDelayed();
+		master.getQueue().waitDrain();
+		ReplayPrefetcher oldPrefetch = prefetch;
+		if (oldPrefetch != null) {
+			oldPrefetch.close();
+		}
+		int index = checkpoint.getIndex();
+		source.seek(index);
+		checkpoint.restore();
+		currentIndex = index;
+		seekPointCursor = 0;
+		if (oldPrefetch != null) {
+			prefetch = new ReplayPrefetcher(source, decompress, PREFETCH_WINDOW);
+		}
+		log.info("Seeked to {}", checkpoint.getSeekPoint());
 	}
 
 	protected void preProcessEvent(Event event) {
@@ -104,20 +299,45 @@ public class ReplayController {
 		stop = true;
 		return exs.submit(() -> {
 			stop = false;
-			for (; !stop && advWhile.get() && hasMoreEvents(); currentIndex++) {
-				Event event = events.get(currentIndex);
-				events.set(currentIndex, null);
-				if (decompress && event instanceof Compressible compressedEvent) {
-					compressedEvent.decompress();
-				}
-				preProcessEvent(event);
-				master.pushEventAndWait(event);
-			}
+			advance(Integer.MAX_VALUE, () -> !stop && advWhile.get());
 			notifyCallbacks();
 		});
 	}
 
+	/**
+	 * Advance until the event at the given index is the next one to be played.
+	 *
+	 * @param index The index to advance to. Does nothing if we are already past it.
+	 */
+	public void advanceToAsync(int index) {
+		exs.submit(() -> {
+			advanceBy(index - currentIndex);
+		});
+	}
+
+	public boolean supportsSeekPoints() {
+		return source.supportsSeekPoints();
+	}
+
+	/**
+	 * @return The first seek point which has not been played yet, or null if there is none (or none found yet).
+	 */
+	public @Nullable ReplaySeekPoint getNextSeekPoint() {
+		int current = currentIndex;
+		for (ReplaySeekPoint point : source.getSeekPoints()) {
+			if (point.index() >= current) {
+				return point;
+			}
+		}
+		return null;
+	}
+
+	public List<ReplaySeekPoint> getSeekPoints() {
+		return source.getSeekPoints();
+	}
+
 	public boolean hasMoreEvents() {
-		return currentIndex < events.size();
+		ReplayPrefetcher prefetch = this.prefetch;
+		return prefetch == null ? source.hasMore() : prefetch.hasMore();
 	}
 }
@@ -0,0 +1,66 @@
+package gg.xp.xivsupport.replay;
+
+import gg.xp.reevent.events.Event;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Where a {@link ReplayController} gets its events from. Events are handed out once, in order.
+ */
+public interface ReplayEventSource {
+
+	/**
+	 * @return The next event, or null if there are no more. May block if the next event is not available yet.
+	 */
+	@Nullable Event next();
+
+	/**
+	 * Must not block, since this is called from the GUI.
+	 *
+	 * @return Whether there may be more events.
+	 */
+	boolean hasMore();
+
+	/**
+	 * @return The total number of events, or the number known so far if {@link #isFullyLoaded()} is false.
+	 */
+	int getCount();
+
+	/**
+	 * @return false if events are still being loaded in the background, in which case {@link #getCount()} will grow.
+	 */
+	default boolean isFullyLoaded() {
+		return true;
+	}
+
+	/**
+	 * @return Whether this source provides {@link #getSeekPoints()} at all.
+	 */
+	default boolean supportsSeekPoints() {
+		return false;
+	}
+
+	/**
+	 * @return Points of interest (zone changes, pulls) found so far, in order.
+	 */
+	default List<ReplaySeekPoint> getSeekPoints() {
+		return List.of();
+	}
+
+	/**
+	 * @return Whether {@link #seek(int)} is supported.
+	 */
+	default boolean supportsSeek() {
+		return false;
+	}
+
+	/**
+	 * Make the event at the given index the next one returned by {@link #next()}. This can go backwards.
+	 *
+	 * @param index The index of one of the {@link #getSeekPoints()}
+	 */
+	default void seek(int index) {
+		throw new UnsupportedOperationException("Seeking is not supported by " + getClass().getSimpleName());
+	}
+}
@@ -0,0 +1,194 @@
+package gg.xp.xivsupport.replay;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.xivsupport.persistence.Compressible;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Reads events from a {@link ReplayEventSource} on a background thread, and decompresses them on a worker pool, up to
+ * a fixed number of events ahead of what has been played.
+ * <p>
+ * Events come out in the same order as the source. Only one thread at a time may take events out, but it does not
+ * need to be the same thread each time, as long as there is a happens-before relationship between them.
+ */
+final class ReplayPrefetcher {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplayPrefetcher.class);
+
+	private static final ThreadFactory readerThreadFactory = new BasicThreadFactory.Builder()
+			.daemon(true)
+			.namingPattern("ReplayPrefetch-%d")
+			.build();
+	private static final ExecutorService decompressPool = Executors.newFixedThreadPool(
+			Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+			new BasicThreadFactory.Builder()
+					.daemon(true)
+					.namingPattern("ReplayDecompress-%d")
+					.priority(Thread.MIN_PRIORITY)
+					.build());
+	// Marks the end of the source
+	private static final Future<Event> END = CompletableFuture.completedFuture(null);
+
+	private final BlockingQueue<Future<Event>> window;
+	private final Thread readerThread;
+	private volatile @Nullable Future<Event> head;
+	private volatile boolean exhausted;
+	private volatile boolean closed;
+
+	ReplayPrefetcher(ReplayEventSource source, boolean decompress, int windowSize) {
+		window = new ArrayBlockingQueue<>(windowSize);
+		readerThread = readerThreadFactory.newThread(() -> read(source, decompress));
+		readerThread.start();
+	}
+
+	private void read(ReplayEventSource source, boolean decompress) {
+		try {
+			try {
+				while (!closed) {
+					Event event = source.next();
+					if (event == null) {
+						break;
+					}
+					window.put(decompress && event instanceof Compressible ? decompressPool.submit(() -> decompress(event)) : CompletableFuture.completedFuture(event));
+				}
+			}
+			catch (InterruptedException e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				if (closed) {
+					return;
+				}
+				log.error("Error reading replay events", t);
+			}
+			window.put(END);
+		}
+		catch (InterruptedException e) {
+			if (!closed) {
+				log.error("Interrupted while reading replay events", e);
+			}
+		}
+	}
+
+	/**
+	 * Stop reading, and wait for the reader thread to finish, so that something else can read from the source.
+	 * Anything already read ahead is discarded.
+	 */
+	void close() {
+		closed = true;
+		readerThread.interrupt();
+		try {
+			readerThread.join();
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		window.clear();
+		exhausted = true;
+	}
+
+	private static Event decompress(Event event) {
+		try {
+			((Compressible) event).decompress();
+		}
+		catch (Throwable t) {
+			log.error("Error decompressing event {}", event, t);
+		}
+		return event;
+	}
+
+	/**
+	 * @param block Whether to wait for the next event to be read and decompressed
+	 * @return The next event, or null if there are no more, or it is not ready yet and block is false. Use
+	 * {@link #isExhausted()} to tell the difference.
+	 */
+	@Nullable Event next(boolean block) {
+		if (exhausted) {
+			return null;
+		}
+		Future<Event> next = head;
+		if (next == null) {
+			next = block ? take() : window.poll();
+			if (next == null) {
+				return null;
+			}
+		}
+		if (!block && !next.isDone()) {
+			head = next;
+			return null;
+		}
+		head = null;
+		Event event = get(next);
+		if (event == null) {
+			exhausted = true;
+		}
+		return event;
+	}
+
+	/**
+	 * Wait until {@link #next(boolean)} would return something without blocking, or until there are no more events.
+	 */
+	void awaitNext() {
+		if (exhausted) {
+			return;
+		}
+		Future<Event> next = head;
+		if (next == null) {
+			head = next = take();
+		}
+		get(next);
+	}
+
+	/**
+	 * @return true once the end of the source has been reached by {@link #next(boolean)}.
+	 */
+	boolean isExhausted() {
+		return exhausted;
+	}
+
+	/**
+	 * Must not block, since this is called from the GUI.
+	 *
+	 * @return Whether there may be more events.
+	 */
+	boolean hasMore() {
+		if (exhausted) {
+			return false;
+		}
+		Future<Event> next = head;
+		if (next == null) {
+			next = window.peek();
+		}
+		return next != END;
+	}
+
+	private Future<Event> take() {
+		try {
+			return window.take();
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static @Nullable Event get(Future<Event> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package gg.xp.xivsupport.replay;
+
+import java.time.Instant;
+
+/**
+ * A position in a replay that is worth being able to skip to.
+ *
+ * @param index    Index of the event
+ * @param kind     What happens here
+ * @param label    Description, e.g. the zone name
+ * @param happened When the event happened
+ */
+public record ReplaySeekPoint(int index, Kind kind, String label, Instant happened) {
+	public enum Kind {
+		ZONE_CHANGE,
+		PULL
+	}
+}
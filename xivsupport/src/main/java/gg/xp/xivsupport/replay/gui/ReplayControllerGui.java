@@ -5,7 +5,10 @@ import gg.xp.xivsupport.gui.overlay.RefreshLoop;
 import gg.xp.xivsupport.gui.tables.filters.TextFieldWithValidation;
 import gg.xp.xivsupport.persistence.PropertiesFilePersistenceProvider;
 import gg.xp.xivsupport.persistence.gui.BooleanSettingGui;
+import gg.xp.xivsupport.replay.ReplayCheckpoint;
 import gg.xp.xivsupport.replay.ReplayController;
+import gg.xp.xivsupport.replay.ReplaySeekPoint;
+import org.jetbrains.annotations.Nullable;
 import org.picocontainer.MutablePicoContainer;
 
 import javax.swing.*;
@@ -18,6 +21,8 @@ public final class ReplayControllerGui {
 	private final JLabel progressLabel;
 	private final JButton advanceButton;
 	private final JButton playPauseButton;
+	private final @Nullable JButton skipButton;
+	private final @Nullable JButton jumpBackButton;
 	private volatile boolean playing;
 	private int advanceAmount = 1;
 
@@ -59,6 +64,37 @@ public final class ReplayControllerGui {
 			});
 			panel.add(playPauseButton);
 		}
+		if (controller.supportsSeekPoints()) {
+			skipButton = new JButton("Skip to Next Zone/Pull");
+			skipButton.addActionListener(e -> {
+				ReplaySeekPoint next = controller.getNextSeekPoint();
+				if (next != null) {
+					controller.advanceToAsync(next.index());
+				}
+			});
+			panel.add(skipButton);
+		}
+		else {
+			skipButton = null;
+		}
+		if (controller.checkpointsEnabled()) {
+			jumpBackButton = new JButton("Jump to Zone/Pull...");
+			jumpBackButton.setToolTipText("Restore the state from when a zone change or pull was played, and continue from there");
+			jumpBackButton.addActionListener(e -> {
+				JPopupMenu menu = new JPopupMenu();
+				for (ReplayCheckpoint checkpoint : controller.getCheckpoints()) {
+					ReplaySeekPoint point = checkpoint.getSeekPoint();
+					JMenuItem item = new JMenuItem("%s: %s (event %s)".formatted(point.kind(), point.label(), point.index()));
+					item.addActionListener(unused -> controller.seekToCheckpointAsync(checkpoint));
+					menu.add(item);
+				}
+				menu.show(jumpBackButton, 0, jumpBackButton.getHeight());
+			});
+			panel.add(jumpBackButton);
+		}
+		else {
+			jumpBackButton = null;
+		}
 		{
 			progressLabel = new JLabel();
 			panel.add(progressLabel);
@@ -75,7 +111,15 @@ public final class ReplayControllerGui {
 	}
 
 	private void updateAll() {
-		progressLabel.setText(String.format("Replay: %s / %s", controller.getCurrentPosition(), controller.getCount()));
+		progressLabel.setText(String.format("Replay: %s / %s%s", controller.getCurrentPosition(), controller.getCount(), controller.isFullyLoaded() ? "" : " (loading)"));
+		if (skipButton != null) {
+			ReplaySeekPoint next = controller.getNextSeekPoint();
+			skipButton.setEnabled(!playing && next != null);
+			skipButton.setToolTipText(next == null ? null : "%s: %s (event %s)".formatted(next.kind(), next.label(), next.index()));
+		}
+		if (jumpBackButton != null) {
+			jumpBackButton.setEnabled(!playing && !controller.getCheckpoints().isEmpty());
+		}
 		if (controller.hasMoreEvents()) {
 			if (playing) {
 				playPauseButton.setText("Pause");
@@ -0,0 +1,363 @@
+package gg.xp.xivsupport.sys;
+
+import org.jetbrains.annotations.Nullable;
+import org.picocontainer.ComponentAdapter;
+import org.picocontainer.MutablePicoContainer;
+import org.picocontainer.NameBinding;
+import org.picocontainer.PicoContainer;
+import org.picocontainer.PicoCompositionException;
+import org.picocontainer.adapters.InstanceAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Constructs a set of not-yet-registered component classes in parallel, in dependency order, and then registers the
+ * instances with the container.
+ * <p>
+ * PicoContainer itself is not safe to use from several threads at once, so constructors are called directly here, and
+ * the container is only ever touched while holding the lock. Anything else the new components depend on which is
+ * already registered with the container is fetched from it, once everything that it might depend on is done.
+ * <p>
+ * Components which take the container itself are deferred, along with everything that depends on them. Their
+ * constructors can look up anything at all from the container, not just their declared dependencies, so they are
+ * registered and then constructed by Pico one at a time once the parallel part is done and every other new component
+ * is in the container.
+ * <p>
+ * Nothing checks what a constructor does with its dependencies. Two components which share a dependency can be
+ * constructed at the same time, so if both of their constructors modify it (e.g. registering themselves with it), that
+ * dependency needs to be thread-safe. Components whose constructors do that with something that isn't should take the
+ * container instead, so that they are deferred, or parallel loading should be left off.
+ * <p>
+ * Constructors are picked the same way Pico picks them - the public constructor with the most parameters which can all
+ * be satisfied. Anything that does not fit that (ambiguous dependencies, collection injection, cycles, etc) is
+ * detected before anything is constructed, in which case {@link Unsupported} is thrown so that the caller can fall back
+ * to letting Pico construct everything.
+ */
+final class ParallelComponentLoader {
+
+	private static final Logger log = LoggerFactory.getLogger(ParallelComponentLoader.class);
+
+	private final MutablePicoContainer pico;
+	private final Object lock;
+	private final Set<Class<?>> pending;
+	private final Map<Object, Node> nodes = new LinkedHashMap<>();
+	private final Map<Class<?>, Object> instances = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Long> timings = new ConcurrentHashMap<>();
+
+	static final class Unsupported extends Exception {
+		private Unsupported(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * Something which needs to be done before the components that depend on it can be constructed: either one of the
+	 * new classes, or something which is already in the container.
+	 */
+	private static final class Node {
+		private final Object key;
+		private final Class<?> impl;
+		// Only for new classes
+		private final @Nullable Constructor<?> constructor;
+		// Same order as the constructor parameters for new classes
+		private final List<Node> deps = new ArrayList<>();
+		private boolean deferred;
+		private CompletableFuture<?> done;
+
+		private Node(Object key, Class<?> impl, @Nullable Constructor<?> constructor) {
+			this.key = key;
+			this.impl = impl;
+			this.constructor = constructor;
+		}
+	}
+
+	ParallelComponentLoader(MutablePicoContainer pico, Object lock, Collection<Class<?>> classes) {
+		this.pico = pico;
+		this.lock = lock;
+		synchronized (lock) {
+			Set<Class<?>> pending = new HashSet<>();
+			for (Class<?> clazz : classes) {
+				if (pico.getComponentAdapter(clazz) == null) {
+					pending.add(clazz);
+				}
+			}
+			this.pending = pending;
+		}
+	}
+
+	/**
+	 * Work out the dependency graph. Nothing is constructed yet.
+	 *
+	 * @throws Unsupported if these classes can't be safely constructed this way
+	 */
+	void plan(Collection<Class<?>> classes) throws Unsupported {
+		synchronized (lock) {
+			Set<Object> visiting = new HashSet<>();
+			for (Class<?> clazz : classes) {
+				if (pending.contains(clazz)) {
+					planNew(clazz, visiting);
+				}
+				else {
+					ComponentAdapter<?> adapter = pico.getComponentAdapter(clazz);
+					if (adapter != null) {
+						planExisting(adapter, visiting);
+					}
+				}
+			}
+		}
+		// Nodes were added after their dependencies, so anything depending on a deferred node is seen after it
+		for (Node node : nodes.values()) {
+			node.deferred = (node.constructor != null && takesContainer(node.constructor))
+					|| node.deps.stream().anyMatch(dep -> dep.deferred);
+		}
+	}
+
+	private static boolean takesContainer(Constructor<?> constructor) {
+		return Arrays.stream(constructor.getParameterTypes()).anyMatch(PicoContainer.class::isAssignableFrom);
+	}
+
+	private Node planNew(Class<?> clazz, Set<Object> visiting) throws Unsupported {
+		Node existing = nodes.get(clazz);
+		if (existing != null) {
+			return existing;
+		}
+		if (!visiting.add(clazz)) {
+			throw new Unsupported("Dependency cycle involving " + clazz.getName());
+		}
+		Constructor<?> constructor = pickConstructor(clazz);
+		Node node = new Node(clazz, clazz, constructor);
+		for (Class<?> paramType : constructor.getParameterTypes()) {
+			Node dep = resolve(paramType, visiting);
+			if (dep == null) {
+				throw new Unsupported("Can't resolve " + paramType.getName() + " for " + clazz.getName());
+			}
+			node.deps.add(dep);
+		}
+		visiting.remove(clazz);
+		nodes.put(clazz, node);
+		return node;
+	}
+
+	private Node planExisting(ComponentAdapter<?> adapter, Set<Object> visiting) throws Unsupported {
+		Object key = adapter.getComponentKey();
+		Node existing = nodes.get(key);
+		if (existing != null) {
+			return existing;
+		}
+		if (!visiting.add(key)) {
+			throw new Unsupported("Dependency cycle involving " + key);
+		}
+		Class<?> impl = adapter.getComponentImplementation();
+		Node node = new Node(key, impl, null);
+		// Instances obviously don't need anything else. For everything else, we don't know which constructor Pico will
+		// pick, so assume it could be any of them.
+		if (adapter.findAdapterOfType(InstanceAdapter.class) == null) {
+			Set<Node> deps = new HashSet<>();
+			for (Constructor<?> constructor : impl.getConstructors()) {
+				for (Class<?> paramType : constructor.getParameterTypes()) {
+					Node dep = resolve(paramType, visiting);
+					if (dep != null && deps.add(dep)) {
+						node.deps.add(dep);
+					}
+				}
+			}
+		}
+		visiting.remove(key);
+		nodes.put(key, node);
+		return node;
+	}
+
+	// Same rules as Pico: exactly one thing must match, whether new or existing
+	private @Nullable Node resolve(Class<?> type, Set<Object> visiting) throws Unsupported {
+		List<Class<?>> candidates = pending.stream().filter(type::isAssignableFrom).toList();
+		ComponentAdapter<?> adapter;
+		try {
+			adapter = pico.getComponentAdapter(type, (NameBinding) null);
+		}
+		catch (PicoCompositionException e) {
+			throw new Unsupported("Can't resolve " + type.getName() + ": " + e.getMessage());
+		}
+		if (candidates.size() + (adapter == null ? 0 : 1) > 1) {
+			throw new Unsupported("Ambiguous dependency " + type.getName());
+		}
+		if (!candidates.isEmpty()) {
+			return planNew(candidates.get(0), visiting);
+		}
+		if (adapter != null) {
+			return planExisting(adapter, visiting);
+		}
+		return null;
+	}
+
+	private Constructor<?> pickConstructor(Class<?> clazz) throws Unsupported {
+		List<Constructor<?>> constructors = new ArrayList<>(Arrays.asList(clazz.getConstructors()));
+		constructors.sort(Comparator.comparing(Constructor::getParameterCount, Comparator.reverseOrder()));
+		Constructor<?> found = null;
+		for (Constructor<?> constructor : constructors) {
+			if (found != null && constructor.getParameterCount() < found.getParameterCount()) {
+				break;
+			}
+			if (isSatisfiable(constructor)) {
+				if (found != null) {
+					throw new Unsupported("More than one usable constructor for " + clazz.getName());
+				}
+				found = constructor;
+			}
+		}
+		if (found == null) {
+			throw new Unsupported("No usable constructor for " + clazz.getName());
+		}
+		if (!Modifier.isPublic(clazz.getModifiers())) {
+			try {
+				found.setAccessible(true);
+			}
+			catch (RuntimeException e) {
+				throw new Unsupported("Can't access constructor for " + clazz.getName());
+			}
+		}
+		return found;
+	}
+
+	private boolean isSatisfiable(Constructor<?> constructor) {
+		for (Class<?> paramType : constructor.getParameterTypes()) {
+			boolean newMatch = pending.stream().anyMatch(paramType::isAssignableFrom);
+			boolean existingMatch;
+			try {
+				existingMatch = pico.getComponentAdapter(paramType, (NameBinding) null) != null;
+			}
+			catch (PicoCompositionException e) {
+				// Ambiguous, which makes this usable as far as Pico is concerned, it just fails later
+				existingMatch = true;
+			}
+			if (!newMatch && !existingMatch) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Construct everything, using up to 'threads' threads. Call {@link #plan(Collection)} first.
+	 *
+	 * @param threads Thread count
+	 * @return How long each component took to construct (or fetch, for components that were already registered),
+	 * not counting its dependencies.
+	 */
+	Map<Class<?>, Long> run(int threads) {
+		AtomicInteger threadNum = new AtomicInteger();
+		ExecutorService exs = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "ComponentLoader-" + threadNum.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			// Nodes were added after their dependencies, so this is already in dependency order
+			List<CompletableFuture<?>> all = new ArrayList<>();
+			for (Node node : nodes.values()) {
+				if (node.deferred) {
+					continue;
+				}
+				CompletableFuture<?>[] deps = node.deps.stream().map(dep -> dep.done).toArray(CompletableFuture[]::new);
+				node.done = CompletableFuture.allOf(deps).thenRunAsync(() -> load(node), exs);
+				all.add(node.done);
+			}
+			CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			throw e;
+		}
+		finally {
+			exs.shutdown();
+		}
+		int deferred = loadDeferred();
+		log.info("Constructed {} new components ({} afterwards, one at a time), {} existing", instances.size(), deferred, nodes.size() - instances.size());
+		return new HashMap<>(timings);
+	}
+
+	private int loadDeferred() {
+		List<Node> deferred = nodes.values().stream().filter(node -> node.deferred).toList();
+		synchronized (lock) {
+			// Register all of them first, so that whichever order they look each other up in, Pico can construct them
+			for (Node node : deferred) {
+				if (node.constructor != null) {
+					pico.addComponent(node.impl);
+				}
+			}
+			for (Node node : deferred) {
+				long start = System.nanoTime();
+				Object instance = pico.getComponent(node.key);
+				// This includes anything that Pico had to construct along the way
+				timings.put(node.impl, System.nanoTime() - start);
+				if (node.constructor != null) {
+					instances.put(node.impl, instance);
+				}
+			}
+		}
+		return (int) deferred.stream().filter(node -> node.constructor != null).count();
+	}
+
+	private void load(Node node) {
+		long start = System.nanoTime();
+		Constructor<?> constructor = node.constructor;
+		if (constructor == null) {
+			synchronized (lock) {
+				pico.getComponent(node.key);
+			}
+			timings.put(node.impl, System.nanoTime() - start);
+			return;
+		}
+		Object[] args = new Object[node.deps.size()];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = get(node.deps.get(i));
+		}
+		// Only count the constructor itself
+		start = System.nanoTime();
+		Object instance;
+		try {
+			instance = constructor.newInstance(args);
+		}
+		catch (InvocationTargetException e) {
+			throw new PicoCompositionException("Error constructing " + node.impl.getName(), e.getCause());
+		}
+		catch (ReflectiveOperationException e) {
+			throw new PicoCompositionException("Error constructing " + node.impl.getName(), e);
+		}
+		timings.put(node.impl, System.nanoTime() - start);
+		instances.put(node.impl, instance);
+		synchronized (lock) {
+			pico.addComponent(instance);
+		}
+	}
+
+	private Object get(Node dep) {
+		if (dep.constructor != null) {
+			return instances.get(dep.impl);
+		}
+		synchronized (lock) {
+			return pico.getComponent(dep.key);
+		}
+	}
+}
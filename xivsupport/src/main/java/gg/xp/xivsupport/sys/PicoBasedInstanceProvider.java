@@ -6,10 +6,19 @@ import org.picocontainer.PicoCompositionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class PicoBasedInstanceProvider implements AutoHandlerInstanceProvider {
 	private static final Logger log = LoggerFactory.getLogger(PicoBasedInstanceProvider.class);
+	// How many of the slowest components to list at info level
+	private static final int SLOWEST_TO_LOG = 15;
 	private final Object lock = new Object();
 	private final MutablePicoContainer pico;
+	// Use -DparallelStartup=true to try out parallel component construction
+	private boolean parallel = Boolean.getBoolean("parallelStartup");
 
 	public PicoBasedInstanceProvider(MutablePicoContainer pico) {
 		this.pico = pico;
@@ -42,4 +51,57 @@ public class PicoBasedInstanceProvider implements AutoHandlerInstanceProvider {
 			}
 		}
 	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * @param parallel Whether {@link #preloadAll(Collection)} should construct independent components in parallel.
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	@Override
+	public void preloadAll(Collection<Class<?>> classes) {
+		long start = System.nanoTime();
+		Map<Class<?>, Long> timings = null;
+		int threads = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+		if (parallel) {
+			ParallelComponentLoader loader = new ParallelComponentLoader(pico, lock, classes);
+			try {
+				loader.plan(classes);
+				timings = loader.run(threads);
+			}
+			catch (ParallelComponentLoader.Unsupported e) {
+				log.warn("Can't construct components in parallel, falling back to one at a time: {}", e.getMessage());
+			}
+		}
+		boolean wasParallel = timings != null;
+		if (timings == null) {
+			timings = new LinkedHashMap<>();
+			classes.forEach(this::preAdd);
+			// These include the time to construct anything not constructed yet that they depend on
+			for (Class<?> clazz : classes) {
+				long before = System.nanoTime();
+				getInstance(clazz);
+				timings.put(clazz, System.nanoTime() - before);
+			}
+		}
+		logTimings(timings, System.nanoTime() - start, wasParallel ? threads : 1);
+	}
+
+	private static void logTimings(Map<Class<?>, Long> timings, long totalNanos, int threads) {
+		log.info("Preloaded {} components in {} ms ({} thread(s)), slowest:", timings.size(), totalNanos / 1_000_000, threads);
+		timings.entrySet().stream()
+				.sorted(Map.Entry.<Class<?>, Long>comparingByValue().reversed())
+				.limit(SLOWEST_TO_LOG)
+				.forEach(e -> log.info("  {}: {} ms", e.getKey().getSimpleName(), e.getValue() / 1_000_000));
+		if (log.isDebugEnabled()) {
+			timings.entrySet().stream()
+					.sorted(Comparator.comparing(e -> e.getKey().getName()))
+					.forEach(e -> log.debug("Startup timing for {}: {} us", e.getKey().getName(), e.getValue() / 1_000));
+		}
+	}
 }
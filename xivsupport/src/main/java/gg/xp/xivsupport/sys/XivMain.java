@@ -4,7 +4,9 @@ import gg.xp.reevent.events.AutoEventDistributor;
 import gg.xp.reevent.events.BasicEventDistributor;
 import gg.xp.reevent.events.BasicEventQueue;
 import gg.xp.reevent.events.EventMaster;
+import gg.xp.reevent.events.EventQueue;
 import gg.xp.reevent.events.InitEvent;
+import gg.xp.reevent.events.LockFreeEventQueue;
 import gg.xp.reevent.scan.AutoHandlerConfig;
 import gg.xp.reevent.scan.AutoHandlerScan;
 import gg.xp.reevent.topology.TopoInfoImpl;
@@ -27,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.URL;
 import java.util.List;
+import java.util.Locale;
 
 public final class XivMain {
 
@@ -55,7 +58,7 @@ public final class XivMain {
 		pico.addComponent(AutoHandlerConfig.class);
 		pico.addComponent(AutoHandlerScan.class);
 		pico.addComponent(EventMaster.class);
-		pico.addComponent(BasicEventQueue.class);
+		pico.addComponent(eventQueueImpl());
 		pico.addComponent(PicoStateStore.class);
 		pico.addComponent(XivStateImpl.class);
 		pico.addComponent(PicoBasedInstanceProvider.class);
@@ -70,6 +73,21 @@ public final class XivMain {
 
 	}
 
+	// Use -DeventQueue=lockfree to try out the lock-free queue
+	private static Class<? extends EventQueue> eventQueueImpl() {
+		String prop = System.getProperty("eventQueue", "basic");
+		Class<? extends EventQueue> impl = switch (prop.toLowerCase(Locale.ROOT)) {
+			case "lockfree" -> LockFreeEventQueue.class;
+			case "basic" -> BasicEventQueue.class;
+			default -> {
+				log.error("Unknown event queue type '{}', using default", prop);
+				yield BasicEventQueue.class;
+			}
+		};
+		log.info("Event queue implementation: {}", impl.getSimpleName());
+		return impl;
+	}
+
 	private static List<URL> findAddonJars() {
 		return Platform.getAddonJars();
 	}
@@ -107,7 +125,7 @@ public final class XivMain {
 				.build();
 		pico.addComponent(BasicEventDistributor.class);
 		pico.addComponent(EventMaster.class);
-		pico.addComponent(BasicEventQueue.class);
+		pico.addComponent(eventQueueImpl());
 		pico.addComponent(PicoStateStore.class);
 		pico.addComponent(XivStateImpl.class);
 		pico.addComponent(PartySortOrder.class);
@@ -140,19 +158,28 @@ public final class XivMain {
 			pico.addComponent(UserDirPropsPersistenceProvider.inUserDataFolder("triggevent-testing"));
 		}
 
-		new Thread(() -> {
+		Thread startupHelper = new Thread(() -> {
 			log.info("StartupHelper begin");
 			//noinspection ResultOfObjectAllocationIgnored
 			new GroovyShell();
 			ActionLibrary.getAll();
 			StatusEffectLibrary.getAll();
 			log.info("StartupHelper end");
-		}, "StartupHelper").start();
+		}, "StartupHelper");
+		// These are only warm-ups, and are loaded on first use anyway. With parallel startup, they would just be
+		// competing with component construction, so wait until that is done.
+		boolean deferStartupHelper = pico.getComponent(PicoBasedInstanceProvider.class).isParallel();
+		if (!deferStartupHelper) {
+			startupHelper.start();
+		}
 
 		// TODO: use "Startable" interface?
 		AutoEventDistributor dist = pico.getComponent(AutoEventDistributor.class);
 		log.info("Init start");
 		dist.acceptEvent(new InitEvent());
+		if (deferStartupHelper) {
+			startupHelper.start();
+		}
 		pico.getComponent(EventMaster.class).start();
 		pico.getComponent(ActWsLogSource.class).start();
 		log.info("Everything seems to have started successfully");
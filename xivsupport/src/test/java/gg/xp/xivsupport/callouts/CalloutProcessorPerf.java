@@ -0,0 +1,63 @@
+package gg.xp.xivsupport.callouts;
+
+import gg.xp.reevent.events.EventMaster;
+import gg.xp.reevent.events.InitEvent;
+import gg.xp.xivsupport.events.actlines.events.BuffApplied;
+import gg.xp.xivsupport.models.XivCombatant;
+import gg.xp.xivsupport.models.XivStatusEffect;
+import gg.xp.xivsupport.persistence.InMemoryMapPersistenceProvider;
+import gg.xp.xivsupport.persistence.settings.BooleanSetting;
+import gg.xp.xivsupport.speech.CalloutEvent;
+import gg.xp.xivsupport.sys.XivMain;
+import org.picocontainer.MutablePicoContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+public class CalloutProcessorPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(CalloutProcessorPerf.class);
+	private static final int iterations = 50_000;
+
+	@Test
+	void compareCompiledToGroovy() {
+		MutablePicoContainer pico = XivMain.testingMasterInit();
+		pico.getComponent(EventMaster.class).pushEventAndWait(new InitEvent());
+		CalloutProcessor proc = pico.getComponent(CalloutProcessor.class);
+
+		InMemoryMapPersistenceProvider pers = new InMemoryMapPersistenceProvider();
+		BooleanSetting enableAll = new BooleanSetting(pers, "foo", true);
+		ModifiableCallout<BuffApplied> buffCall = new ModifiableCallout<>("Buff", "{event.buff.name} on {event.target}", "{event.buff} on {event.target} ({event.estimatedRemainingDuration})", ignored -> false);
+		buffCall.attachHandle(new ModifiedCalloutHandle(pers, "buffCall", buffCall, enableAll, enableAll));
+		ModifiableCallout<BuffApplied> stackCall = new ModifiableCallout<>("Stack", "Stack on {buddy}");
+		stackCall.attachHandle(new ModifiedCalloutHandle(pers, "stackCall", stackCall, enableAll, enableAll));
+
+		BuffApplied ba = new BuffApplied(new XivStatusEffect(123, "FooStatus"), 15, new XivCombatant(1, "Cbt1"), new XivCombatant(2, "Cbt2"), 5);
+		Map<String, Object> args = Map.of("buddy", "Someone Else");
+
+		for (boolean compiled : new boolean[]{false, true, false, true}) {
+			proc.setCompileTemplates(compiled);
+			// Warm up
+			run(proc, buffCall, stackCall, ba, args, iterations / 10);
+			long before = System.nanoTime();
+			run(proc, buffCall, stackCall, ba, args, iterations);
+			long delta = System.nanoTime() - before;
+			log.info("{}: {} callouts/sec", compiled ? "Compiled" : "Groovy", (long) (iterations * 1e9 / delta));
+		}
+	}
+
+	private static void run(CalloutProcessor proc, ModifiableCallout<BuffApplied> buffCall, ModifiableCallout<BuffApplied> stackCall, BuffApplied ba, Map<String, Object> args, int count) {
+		for (int i = 0; i < count; i++) {
+			CalloutEvent buff = proc.processCallout(buffCall.getModified(ba));
+			Assert.assertEquals(buff.getCallText(), "FooStatus on Cbt2");
+			// Overlays call this on every repaint
+			buff.getVisualText();
+			buff.getVisualText();
+			CalloutEvent stack = proc.processCallout(stackCall.getModified(ba, args));
+			Assert.assertEquals(stack.getVisualText(), "Stack on Someone Else");
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package gg.xp.xivsupport.callouts;
+
+import groovy.lang.Binding;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.Whitelist;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.AbstractWhitelist;
+import org.jetbrains.annotations.NotNull;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TemplateExpressionCompilerTest {
+
+	public static final class Thing {
+		public final String label = "field";
+		private final String name;
+		private final Thing child;
+
+		public Thing(String name, Thing child) {
+			this.name = name;
+			this.child = child;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Thing getChild() {
+			return child;
+		}
+
+		public boolean isLeaf() {
+			return child == null;
+		}
+
+		public boolean idMatches(long id) {
+			return id == 0x5EF8;
+		}
+
+		public String getSecret() {
+			return "secret";
+		}
+	}
+
+	private static final Thing leaf = new Thing("Leaf", null);
+	private static final Thing root = new Thing("Root", leaf);
+
+	private static Binding binding() {
+		Binding binding = new Binding();
+		binding.setVariable("event", root);
+		binding.setVariable("players", List.of("A", "B", "C"));
+		binding.setVariable("count", 2);
+		binding.setVariable("nothing", null);
+		binding.setVariable("map", Map.of("key", "value"));
+		return binding;
+	}
+
+	private static Object eval(TemplateExpressionCompiler compiler, String source) {
+		TemplateExpressionCompiler.Expr expr = compiler.compile(source);
+		Assert.assertNotNull(expr);
+		return expr.eval(binding());
+	}
+
+	@Test
+	void testSupported() {
+		TemplateExpressionCompiler compiler = new TemplateExpressionCompiler(null);
+		Assert.assertSame(eval(compiler, "event"), root);
+		Assert.assertEquals(eval(compiler, "event.name"), "Root");
+		Assert.assertEquals(eval(compiler, "event.child.name"), "Leaf");
+		Assert.assertEquals(eval(compiler, " event.child.child?.name "), null);
+		Assert.assertEquals(eval(compiler, "event.leaf"), false);
+		Assert.assertEquals(eval(compiler, "event.label"), "field");
+		Assert.assertEquals(eval(compiler, "event.idMatches(0x5EF8)"), true);
+		Assert.assertEquals(eval(compiler, "event.getName().length()"), 4);
+		Assert.assertEquals(eval(compiler, "players[1]"), "B");
+		Assert.assertEquals(eval(compiler, "players[-1]"), "C");
+		Assert.assertEquals(eval(compiler, "players[5]"), null);
+		Assert.assertEquals(eval(compiler, "players[count]"), "C");
+		Assert.assertEquals(eval(compiler, "map.key"), "value");
+		Assert.assertEquals(eval(compiler, "count > 1 ? 'Many' : \"One\""), "Many");
+		Assert.assertEquals(eval(compiler, "count == 2 && !event.leaf"), true);
+		Assert.assertEquals(eval(compiler, "nothing ?: event.child.name"), "Leaf");
+		Assert.assertEquals(eval(compiler, "(nothing == null) || false"), true);
+		Assert.assertEquals(eval(compiler, "players[0]"), "A");
+		Assert.assertEquals(eval(compiler, "0.5"), new BigDecimal("0.5"));
+	}
+
+	@Test
+	void testUnsupported() {
+		TemplateExpressionCompiler compiler = new TemplateExpressionCompiler(null);
+		Assert.assertNull(compiler.compile("['Close', 'Mid', 'Far'][count]"));
+		Assert.assertNull(compiler.compile("\"${event.name}\""));
+		Assert.assertNull(compiler.compile("players.collect { it }"));
+		Assert.assertNull(compiler.compile("new Object()"));
+		Assert.assertNull(compiler.compile("count + 1"));
+		Assert.assertNull(compiler.compile("someFunction()"));
+		Assert.assertNull(compiler.compile("event.name event"));
+		// Octal in Groovy
+		Assert.assertNull(compiler.compile("players[010]"));
+		Assert.assertNull(compiler.compile("count == -07"));
+	}
+
+	@Test
+	void testFallback() {
+		TemplateExpressionCompiler compiler = new TemplateExpressionCompiler(null);
+		// Not in the binding
+		Assert.assertThrows(TemplateExpressionCompiler.FallbackRequired.class, () -> eval(compiler, "notAVariable"));
+		// Not a real property, e.g. a Groovy extension
+		Assert.assertThrows(TemplateExpressionCompiler.FallbackRequired.class, () -> eval(compiler, "event.notAProperty"));
+		Assert.assertThrows(TemplateExpressionCompiler.FallbackRequired.class, () -> eval(compiler, "players.first()"));
+		// Same error as Groovy
+		Assert.assertThrows(NullPointerException.class, () -> eval(compiler, "event.child.child.name"));
+	}
+
+	@Test
+	void testWhitelist() {
+		Whitelist noSecrets = new AbstractWhitelist() {
+			@Override
+			public boolean permitsMethod(@NotNull Method method, @NotNull Object receiver, @NotNull Object[] args) {
+				return !method.getName().equals("getSecret");
+			}
+
+			@Override
+			public boolean permitsFieldGet(@NotNull Field field, @NotNull Object receiver) {
+				return true;
+			}
+		};
+		TemplateExpressionCompiler compiler = new TemplateExpressionCompiler(noSecrets);
+		Assert.assertEquals(eval(compiler, "event.name"), "Root");
+		Assert.assertThrows(TemplateExpressionCompiler.FallbackRequired.class, () -> eval(compiler, "event.secret"));
+	}
+
+	@Test
+	void testUncacheableWhitelist() {
+		AtomicBoolean allowed = new AtomicBoolean(true);
+		// Does not permit caching, so every call has to be checked again
+		Whitelist toggle = new AbstractWhitelist() {
+			@Override
+			public boolean permitsMethod(@NotNull Method method, @NotNull Object receiver, @NotNull Object[] args) {
+				return allowed.get();
+			}
+		};
+		TemplateExpressionCompiler compiler = new TemplateExpressionCompiler(toggle);
+		Assert.assertEquals(eval(compiler, "event.name"), "Root");
+		allowed.set(false);
+		Assert.assertThrows(TemplateExpressionCompiler.FallbackRequired.class, () -> eval(compiler, "event.name"));
+	}
+}
@@ -0,0 +1,50 @@
+package gg.xp.xivsupport.events;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.ZonedDateTime;
+
+public class ActLineFieldsTest {
+
+	private static final String line = "21|2021-09-30T19:43:43.1650000-07:00|40016AA1|Tioca|4095|Tomahawk|4000031F|Chaos|710003|A0D0000|1B|40958000|0|0|0|0|0|0|0|0|0|0|0|0|1616940|1653124|10000|10000|0|1000|-0.01531982|-15.02197|0|1.171875|53508|53508|10000|10000|0|1000|0.3051758|-15.92511|0|-2.807617|00000C2F|0|a2f8d9ac4f0b4d44||";
+
+	@Test
+	void testMatchesSplit() {
+		String[] expected = line.split("\\|");
+		ActLineFields fields = ActLineFields.of(line);
+		Assert.assertEquals(fields.count(), expected.length);
+		Assert.assertEquals(fields.toArray(), expected);
+		Assert.assertEquals(fields.asList().get(3), "Tioca");
+		Assert.assertTrue(fields.fieldEquals(5, "Tomahawk"));
+		Assert.assertFalse(fields.fieldEquals(5, "Tomahawk2"));
+	}
+
+	@Test
+	void testNumbers() {
+		ActLineFields fields = ActLineFields.of(line);
+		Assert.assertEquals(fields.parseInt(0), 21);
+		Assert.assertEquals(fields.parseHex(2), 0x40016AA1L);
+		Assert.assertEquals(fields.parseLong(24), 1616940L);
+		Assert.assertEquals(fields.parseDouble(30), -0.01531982);
+		Assert.assertEquals(fields.parseDouble(31), -15.02197);
+		Assert.assertEquals(fields.parseDouble(33), 1.171875);
+		Assert.assertTrue(ActLineFields.of("1|2||4").isEmpty(2));
+		Assert.assertThrows(NumberFormatException.class, () -> fields.parseLong(3));
+		Assert.assertThrows(NumberFormatException.class, () -> fields.parseDouble(3));
+		Assert.assertThrows(ArrayIndexOutOfBoundsException.class, () -> fields.get(fields.count()));
+	}
+
+	@Test
+	void testTimestamp() {
+		Assert.assertEquals(ActLineFields.of(line).parseTimestamp(1), ZonedDateTime.parse("2021-09-30T19:43:43.1650000-07:00"));
+		String[] others = {
+				"2021-05-10T22:31:52.0000000+08:00",
+				"2021-05-10T22:31:52Z",
+				"2021-05-10T22:31:52.123456789+05:30",
+		};
+		for (String other : others) {
+			Assert.assertEquals(ActLineFields.of(other).parseTimestamp(0), ZonedDateTime.parse(other));
+		}
+	}
+}
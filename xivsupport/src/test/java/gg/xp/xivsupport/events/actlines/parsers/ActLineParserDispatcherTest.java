@@ -0,0 +1,59 @@
+package gg.xp.xivsupport.events.actlines.parsers;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.reevent.events.EventDistributor;
+import gg.xp.reevent.events.TestEventCollector;
+import gg.xp.xivsupport.events.ACTLogLineEvent;
+import gg.xp.xivsupport.events.actlines.events.ChatLineEvent;
+import gg.xp.xivsupport.events.misc.EchoEvent;
+import gg.xp.xivsupport.sys.XivMain;
+import org.picocontainer.MutablePicoContainer;
+import org.picocontainer.PicoContainer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+public class ActLineParserDispatcherTest {
+
+	private static final class LateParser extends AbstractACTLineParser<LateParser.Fields> {
+
+		LateParser(PicoContainer container) {
+			super(container, 998, Fields.class);
+		}
+
+		enum Fields {
+			text
+		}
+
+		@Override
+		protected Event convert(FieldMapper<Fields> fields, int lineNumber, ZonedDateTime time) {
+			return new EchoEvent(fields.getString(Fields.text));
+		}
+	}
+
+	@Test
+	void testParserAddedAfterFirstLine() {
+		MutablePicoContainer container = XivMain.testingMasterInit();
+		TestEventCollector coll = new TestEventCollector();
+		EventDistributor dist = container.getComponent(EventDistributor.class);
+		dist.registerHandler(coll);
+
+		// Builds the table
+		dist.acceptEvent(new ACTLogLineEvent("00|2021-04-26T14:12:30.0000000-04:00|0839|Stuff|You change to warrior.|d8c450105ea12854e26eb687579564df"));
+		Assert.assertEquals(coll.getEventsOf(ChatLineEvent.class).size(), 1);
+		dist.acceptEvent(new ACTLogLineEvent("998|2021-04-26T14:12:31.0000000-04:00|Before|d8c450105ea12854e26eb687579564df"));
+		Assert.assertTrue(coll.getEventsOf(EchoEvent.class).isEmpty());
+
+		// A parser constructed later, e.g. from an addon, is picked up without restarting
+		new LateParser(container);
+		dist.acceptEvent(new ACTLogLineEvent("998|2021-04-26T14:12:32.0000000-04:00|After|d8c450105ea12854e26eb687579564df"));
+		List<EchoEvent> echoes = coll.getEventsOf(EchoEvent.class);
+		Assert.assertEquals(echoes.size(), 1);
+		Assert.assertEquals(echoes.get(0).getLine(), "After");
+		// Existing parsers still work
+		dist.acceptEvent(new ACTLogLineEvent("00|2021-04-26T14:12:33.0000000-04:00|0839|Stuff|You change to paladin.|d8c450105ea12854e26eb687579564df"));
+		Assert.assertEquals(coll.getEventsOf(ChatLineEvent.class).size(), 2);
+	}
+}
@@ -0,0 +1,77 @@
+package gg.xp.xivsupport.events.misc;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class SegmentedAppendOnlyListTest {
+
+	@Test
+	void testAppendAndSnapshot() {
+		SegmentedAppendOnlyList<Integer> list = new SegmentedAppendOnlyList<>(4, false);
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(list.add(i), i);
+		}
+		List<Integer> snapshot = list.snapshot();
+		Assert.assertEquals(snapshot.size(), 10);
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals((int) snapshot.get(i), i);
+		}
+		list.add(10);
+		// Existing snapshots don't change
+		Assert.assertEquals(snapshot.size(), 10);
+		Assert.assertEquals(list.snapshot().size(), 11);
+		Assert.assertEquals(snapshot.subList(3, 6), List.of(3, 4, 5));
+		Assert.assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(10));
+		Assert.assertThrows(UnsupportedOperationException.class, () -> snapshot.add(5));
+	}
+
+	@Test
+	void testEviction() {
+		SegmentedAppendOnlyList<Integer> list = new SegmentedAppendOnlyList<>(4, false);
+		for (int i = 0; i < 10; i++) {
+			list.add(i);
+		}
+		List<Integer> before = list.snapshot();
+		Assert.assertTrue(list.evictOldestSegment());
+		Assert.assertEquals(list.getStartIndex(), 4);
+		Assert.assertEquals(list.size(), 6);
+		Assert.assertEquals(list.snapshot(), List.of(4, 5, 6, 7, 8, 9));
+		Assert.assertTrue(list.evictOldestSegment());
+		// The segment being written to is never evicted
+		Assert.assertFalse(list.evictOldestSegment());
+		Assert.assertEquals(list.snapshot(), List.of(8, 9));
+		// Older snapshots are unaffected
+		Assert.assertEquals(before.size(), 10);
+		Assert.assertEquals((int) before.get(0), 0);
+
+		Assert.assertEquals(list.add(10), 10);
+		list.clear();
+		Assert.assertTrue(list.snapshot().isEmpty());
+		Assert.assertEquals(list.add(11), 11);
+		Assert.assertEquals(list.snapshot(), List.of(11));
+	}
+
+	@Test
+	void testTags() {
+		SegmentedAppendOnlyList<String> index = new SegmentedAppendOnlyList<>(4, true);
+		// Pretend every third element of the main list goes in the index
+		for (int i = 0; i < 30; i += 3) {
+			index.add("Item " + i, i);
+		}
+		Assert.assertEquals(index.size(), 10);
+		// Main list now starts at 7, so segment 0 (tags 0-9) must stay, but 0, 3, and 6 should not be visible
+		index.evictBeforeTag(7);
+		Assert.assertEquals(index.size(), 10);
+		List<String> snapshot = index.snapshotFromTag(7);
+		Assert.assertEquals(snapshot.size(), 7);
+		Assert.assertEquals(snapshot.get(0), "Item 9");
+		// Main list now starts at 13, so segment 0 can go
+		index.evictBeforeTag(13);
+		Assert.assertEquals(index.size(), 6);
+		snapshot = index.snapshotFromTag(13);
+		Assert.assertEquals(snapshot, List.of("Item 15", "Item 18", "Item 21", "Item 24", "Item 27"));
+		Assert.assertTrue(index.snapshotFromTag(100).isEmpty());
+	}
+}
@@ -140,6 +140,9 @@ public class BuffTrackingTest {
 			MatcherAssert.assertThat(buffs, Matchers.containsInAnyOrder(player1DotsEnemy1again, player1DotsEnemy2));
 			Assert.assertEquals(coll.getEventsOf(XivBuffsUpdatedEvent.class).size(), 1);
 			Assert.assertTrue(player1DotsEnemy1again.isRefresh());
+			// A refresh keeps its original position
+			Assert.assertSame(repo.findBuffById(123), player1DotsEnemy1again);
+			Assert.assertEquals(repo.findBuffsById(123), List.of(player1DotsEnemy1again, player1DotsEnemy2));
 			coll.clear();
 		}
 		// Player 2 dots first enemy
@@ -160,6 +163,14 @@ public class BuffTrackingTest {
 			MatcherAssert.assertThat(buffs, Matchers.containsInAnyOrder(player1DotsEnemy1again, player1DotsEnemy2, player2DotsEnemy1, player2DebuffsEnemy1));
 			Assert.assertEquals(coll.getEventsOf(XivBuffsUpdatedEvent.class).size(), 1);
 			Assert.assertFalse(player2DebuffsEnemy1.isRefresh());
+			MatcherAssert.assertThat(repo.findBuffsById(123), Matchers.containsInAnyOrder(player1DotsEnemy1again, player1DotsEnemy2, player2DotsEnemy1));
+			Assert.assertEquals(repo.findBuffById(456), player2DebuffsEnemy1);
+			Assert.assertNull(repo.findBuffById(789));
+			Assert.assertEquals(repo.findStatusOnTarget(enemy1, 456), player2DebuffsEnemy1);
+			Assert.assertNull(repo.findStatusOnTarget(enemy2, 456));
+			Assert.assertEquals(repo.buffStacksOnTarget(enemy1, 456), 1);
+			Assert.assertEquals(repo.buffStacksOnTarget(enemy2, 456), -1);
+			Assert.assertEquals(repo.statusesOnTarget(enemy1).size(), 3);
 			coll.clear();
 		}
 		// Player 1's dot expires on first enemy
@@ -178,6 +189,10 @@ public class BuffTrackingTest {
 			Assert.assertEquals(buffs.size(), 1);
 			MatcherAssert.assertThat(buffs, Matchers.containsInAnyOrder(player1DotsEnemy2));
 			Assert.assertEquals(coll.getEventsOf(XivBuffsUpdatedEvent.class).size(), 1);
+			Assert.assertEquals(repo.findBuffsById(123), List.of(player1DotsEnemy2));
+			Assert.assertNull(repo.findBuffById(456));
+			Assert.assertFalse(repo.isStatusOnTarget(enemy1, 456));
+			Assert.assertFalse(repo.targetHasAnyStatus(enemy1));
 			coll.clear();
 		}
 		// Player 2 removed - nothing should happen because removing a target does nothing
@@ -1,8 +1,11 @@
 package gg.xp.xivsupport.events.state;
 
 import gg.xp.reevent.events.EventDistributor;
+import gg.xp.reevent.events.EventMaster;
 import gg.xp.reevent.events.InitEvent;
+import gg.xp.reevent.events.TestEventCollector;
 import gg.xp.xivsupport.models.CombatantType;
+import gg.xp.xivsupport.models.XivCombatant;
 import gg.xp.xivsupport.models.XivEntity;
 import gg.xp.xivsupport.sys.XivMain;
 import org.picocontainer.MutablePicoContainer;
@@ -10,6 +13,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.Map;
 
 public class XivStateImplTest {
 
@@ -38,4 +42,54 @@ public class XivStateImplTest {
 
 	}
 
+
+	@Test
+	void testIncrementalUpdates() {
+		MutablePicoContainer pico = XivMain.testingMasterInit();
+		EventDistributor distributor = pico.getComponent(EventDistributor.class);
+		distributor.acceptEvent(new InitEvent());
+		TestEventCollector coll = new TestEventCollector();
+		distributor.registerHandler(coll);
+		XivStateImpl state = pico.getComponent(XivStateImpl.class);
+		state.setPlayer(new XivEntity(1, "Player"));
+		state.setCombatants(List.of(
+				new RawXivCombatantInfo(1, "Player", 10, 1, 1000, 2000, 5000, 10000, 90, 0, 0, 0, 0, 0, "FOO", 0, 0, 1, 0),
+				new RawXivCombatantInfo(0x4000_0001, "Boss", 0, 2, 1_000_000, 1_000_000, 10000, 10000, 90, 0, 0, 0, 0, 0, "", 333, 444, 0, 0),
+				new RawXivCombatantInfo(0x4000_0002, "Add", 0, 2, 20_000, 20_000, 10000, 10000, 90, 0, 0, 0, 0, 0, "", 334, 445, 0, 0)
+		));
+		Map<Long, XivCombatant> before = state.getCombatants();
+		Assert.assertEquals(before.size(), 3);
+
+		// Boss takes damage, add goes away, player is unchanged
+		coll.clear();
+		state.setCombatants(List.of(
+				new RawXivCombatantInfo(1, "Player", 10, 1, 1000, 2000, 5000, 10000, 90, 0, 0, 0, 0, 0, "FOO", 0, 0, 1, 0),
+				new RawXivCombatantInfo(0x4000_0001, "Boss", 0, 2, 900_000, 1_000_000, 10000, 10000, 90, 0, 0, 0, 0, 0, "", 333, 444, 0, 0)
+		));
+		pico.getComponent(EventMaster.class).getQueue().waitDrain();
+		Map<Long, XivCombatant> after = state.getCombatants();
+		Assert.assertEquals(after.size(), 2);
+		Assert.assertSame(after.get(1L), before.get(1L));
+		Assert.assertEquals(after.get(0x4000_0001L).getHp().current(), 900_000);
+		// The old snapshot is not modified
+		Assert.assertEquals(before.size(), 3);
+
+		List<CombatantsChangedEvent> changes = coll.getEventsOf(CombatantsChangedEvent.class);
+		Assert.assertEquals(changes.size(), 1);
+		CombatantsChangedEvent change = changes.get(0);
+		Assert.assertTrue(change.getAdded().isEmpty());
+		Assert.assertEquals(change.getUpdated().stream().map(XivCombatant::getId).toList(), List.of(0x4000_0001L));
+		Assert.assertEquals(change.getRemoved().stream().map(XivCombatant::getId).toList(), List.of(0x4000_0002L));
+
+		// Nothing changed, so no event
+		coll.clear();
+		state.setCombatants(List.of(
+				new RawXivCombatantInfo(1, "Player", 10, 1, 1000, 2000, 5000, 10000, 90, 0, 0, 0, 0, 0, "FOO", 0, 0, 1, 0),
+				new RawXivCombatantInfo(0x4000_0001, "Boss", 0, 2, 900_000, 1_000_000, 10000, 10000, 90, 0, 0, 0, 0, 0, "", 333, 444, 0, 0)
+		));
+		pico.getComponent(EventMaster.class).getQueue().waitDrain();
+		Assert.assertSame(state.getCombatants(), after);
+		Assert.assertTrue(coll.getEventsOf(CombatantsChangedEvent.class).isEmpty());
+	}
+
 }
\ No newline at end of file
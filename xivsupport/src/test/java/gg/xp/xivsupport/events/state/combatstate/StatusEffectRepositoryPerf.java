@@ -0,0 +1,76 @@
+package gg.xp.xivsupport.events.state.combatstate;
+
+import gg.xp.reevent.events.EventDistributor;
+import gg.xp.reevent.events.InitEvent;
+import gg.xp.xivdata.data.*;
+import gg.xp.xivsupport.events.actlines.events.BuffApplied;
+import gg.xp.xivsupport.models.HitPoints;
+import gg.xp.xivsupport.models.ManaPoints;
+import gg.xp.xivsupport.models.Position;
+import gg.xp.xivsupport.models.XivCombatant;
+import gg.xp.xivsupport.models.XivPlayerCharacter;
+import gg.xp.xivsupport.models.XivStatusEffect;
+import gg.xp.xivsupport.models.XivWorld;
+import gg.xp.xivsupport.sys.XivMain;
+import org.picocontainer.MutablePicoContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Party-frame style queries against {@link StatusEffectRepository}: 8 players with 30 statuses each, where each frame
+ * reads every player's statuses and a few specific stack counts, and one status is refreshed between frames.
+ */
+public class StatusEffectRepositoryPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(StatusEffectRepositoryPerf.class);
+	private static final int players = 8;
+	private static final int statusesPerPlayer = 30;
+	private static final int frames = 200_000;
+
+	@Test
+	void partyFrameQueries() {
+		MutablePicoContainer pico = XivMain.testingMasterInit();
+		EventDistributor distributor = pico.getComponent(EventDistributor.class);
+		distributor.acceptEvent(new InitEvent());
+		StatusEffectRepository repo = pico.getComponent(StatusEffectRepository.class);
+
+		List<XivCombatant> party = new ArrayList<>();
+		for (int i = 0; i < players; i++) {
+			party.add(new XivPlayerCharacter(0x10000001 + i, "Player " + i, Job.WHM, XivWorld.of(), i == 0, 1, new HitPoints(123, 456), ManaPoints.of(123, 456), new Position(0, 0, 0, 0), 0, 0, 0, 90, 0, 0));
+		}
+		List<BuffApplied> applications = new ArrayList<>();
+		for (XivCombatant player : party) {
+			for (int s = 0; s < statusesPerPlayer; s++) {
+				applications.add(new BuffApplied(new XivStatusEffect(0x100 + s), 30, party.get(s % players), player, s % 4));
+			}
+		}
+		applications.forEach(distributor::acceptEvent);
+		Assert.assertEquals(repo.getBuffs().size(), players * statusesPerPlayer);
+
+		for (int round = 1; round <= 3; round++) {
+			long sink = 0;
+			long before = System.nanoTime();
+			for (int frame = 0; frame < frames; frame++) {
+				for (XivCombatant player : party) {
+					sink += repo.filteredSortedStatusesOnTarget(player, ba -> true).size();
+					sink += repo.buffStacksOnTarget(player, 0x103);
+					sink += repo.isStatusOnTarget(player, 0x110) ? 1 : 0;
+				}
+				sink += repo.findBuffById(0x105) == null ? 0 : 1;
+				sink += repo.findBuffsById(0x107).size();
+				// Something changes between most frames
+				if (frame % 2 == 0) {
+					BuffApplied old = applications.get(frame % applications.size());
+					distributor.acceptEvent(new BuffApplied(old.getBuff(), 30, old.getSource(), old.getTarget(), old.getStacks()));
+				}
+			}
+			long elapsed = System.nanoTime() - before;
+			log.info("Round {}: {} frames in {}ms, {}ns per frame ({})", round, frames, elapsed / 1_000_000, elapsed / frames, sink);
+		}
+	}
+}
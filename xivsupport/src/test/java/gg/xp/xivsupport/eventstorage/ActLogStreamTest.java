@@ -0,0 +1,169 @@
+package gg.xp.xivsupport.eventstorage;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.xivsupport.events.ACTLogLineEvent;
+import gg.xp.xivsupport.replay.ReplaySeekPoint;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ActLogStreamTest {
+
+	private static final String zoneLine = "01|2021-09-30T19:43:00.0000000-07:00|3E1|The Aetherfont|1d8d1ba5bd4e5e3c";
+	private static final String abilityLine = "21|2021-09-30T19:43:43.1650000-07:00|40016AA1|Tioca|4095|Tomahawk|4000031F|Chaos|710003|A0D0000|0|0|0|0|0|0|0|0|0|0|0|0|0|0|1616940|1653124|10000|10000|0|1000|-0.01531982|-15.02197|0|1.171875|53508|53508|10000|10000|0|1000|0.3051758|-15.92511|0|-2.807617|00000C2F|0|a2f8d9ac4f0b4d44";
+	private static final String commenceLine = "33|2021-09-30T19:43:50.0000000-07:00|80034E6C|40000001|1194|0|0|0|e5ba6ec09a7b05a6";
+
+	@Test
+	void testStreamMatchesReadAll() throws IOException {
+		File file = File.createTempFile("ActLogStreamTest", ".log");
+		file.deleteOnExit();
+		List<String> lines = new ArrayList<>();
+		// Enough lines to cross a few buffer boundaries and to fill the queue
+		for (int i = 0; i < 30_000; i++) {
+			if (i % 10_000 == 0) {
+				lines.add(zoneLine);
+				lines.add(commenceLine);
+			}
+			lines.add(abilityLine);
+			if (i % 7_000 == 0) {
+				lines.add("");
+			}
+		}
+		// CRLF, and no trailing newline
+		Files.writeString(file.toPath(), String.join("\r\n", lines), StandardCharsets.UTF_8);
+
+		List<ACTLogLineEvent> expected = EventReader.readActLogFile(file);
+		List<Event> actual = new ArrayList<>();
+		try (ActLogStream stream = EventReader.streamActLogFile(file)) {
+			while (stream.hasMore()) {
+				Event event = stream.next();
+				if (event == null) {
+					break;
+				}
+				actual.add(event);
+			}
+			Assert.assertTrue(stream.isFullyLoaded());
+			Assert.assertFalse(stream.hasMore());
+			Assert.assertNull(stream.next());
+			Assert.assertEquals(stream.getCount(), expected.size());
+			Assert.assertEquals(stream.getBytesRead(), file.length());
+
+			List<ReplaySeekPoint> seekPoints = stream.getSeekPoints();
+			Assert.assertEquals(seekPoints.size(), 6);
+			for (int i = 0; i < seekPoints.size(); i++) {
+				ReplaySeekPoint point = seekPoints.get(i);
+				Assert.assertEquals(point.kind(), i % 2 == 0 ? ReplaySeekPoint.Kind.ZONE_CHANGE : ReplaySeekPoint.Kind.PULL);
+				String expectedLine = i % 2 == 0 ? zoneLine : commenceLine;
+				Assert.assertEquals(((ACTLogLineEvent) actual.get(point.index())).getLogLine(), expectedLine);
+				long offset = stream.getFileOffset(point);
+				byte[] bytes = Files.readAllBytes(file.toPath());
+				Assert.assertEquals(new String(bytes, (int) offset, expectedLine.length(), StandardCharsets.UTF_8), expectedLine);
+			}
+			Assert.assertEquals(seekPoints.get(0).label(), "The Aetherfont");
+		}
+		Assert.assertEquals(actual.size(), expected.size());
+		for (int i = 0; i < expected.size(); i++) {
+			ACTLogLineEvent actualEvent = (ACTLogLineEvent) actual.get(i);
+			ACTLogLineEvent expectedEvent = expected.get(i);
+			Assert.assertEquals(actualEvent.getLogLine(), expectedEvent.getLogLine());
+			// Should be indistinguishable from what readActLogFile gives, not just the same text
+			Assert.assertEquals(actualEvent.isImported(), expectedEvent.isImported());
+			Assert.assertEquals(actualEvent.getHappenedAt(), expectedEvent.getHappenedAt());
+			Assert.assertEquals(actualEvent.getEnqueuedAt(), expectedEvent.getEnqueuedAt());
+			Assert.assertEquals(actualEvent.getPumpedAt(), expectedEvent.getPumpedAt());
+			Assert.assertEquals(actualEvent.getPumpFinishedAt(), expectedEvent.getPumpFinishedAt());
+			Assert.assertNull(actualEvent.getParent());
+		}
+	}
+
+	@Test
+	void testSeek() throws IOException {
+		File file = File.createTempFile("ActLogStreamTest", ".log");
+		file.deleteOnExit();
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < 30_000; i++) {
+			if (i % 10_000 == 0) {
+				lines.add(zoneLine);
+				lines.add(commenceLine);
+			}
+			lines.add(abilityLine.replace("|1616940|", "|" + i + "|"));
+		}
+		Files.writeString(file.toPath(), String.join("\n", lines), StandardCharsets.UTF_8);
+
+		try (ActLogStream stream = EventReader.streamActLogFile(file)) {
+			Assert.assertTrue(stream.supportsSeek());
+			// Read a bit past the second pull
+			for (int i = 0; i < 15_000; i++) {
+				Assert.assertNotNull(stream.next());
+			}
+			List<ReplaySeekPoint> seekPoints = stream.getSeekPoints();
+			ReplaySeekPoint secondPull = seekPoints.get(3);
+			Assert.assertEquals(secondPull.kind(), ReplaySeekPoint.Kind.PULL);
+
+			// Back to the second pull, then read everything from there
+			stream.seek(secondPull.index());
+			List<String> actual = new ArrayList<>();
+			Event event;
+			while ((event = stream.next()) != null) {
+				actual.add(((ACTLogLineEvent) event).getLogLine());
+			}
+			Assert.assertEquals(actual, lines.subList(secondPull.index(), lines.size()));
+			Assert.assertEquals(stream.getCount(), lines.size());
+			// Seek points found the first time are not added again
+			Assert.assertEquals(stream.getSeekPoints().size(), 6);
+			Assert.assertFalse(stream.hasMore());
+
+			// Forwards works too, as long as the seek point is known
+			stream.seek(seekPoints.get(4).index());
+			Assert.assertEquals(((ACTLogLineEvent) stream.next()).getLogLine(), zoneLine);
+		}
+	}
+
+	@Test
+	void testRepeatedSeek() throws IOException {
+		File file = File.createTempFile("ActLogStreamTest", ".log");
+		file.deleteOnExit();
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < 30_000; i++) {
+			if (i % 10_000 == 0) {
+				lines.add(zoneLine);
+				lines.add(commenceLine);
+			}
+			lines.add(abilityLine.replace("|1616940|", "|" + i + "|"));
+		}
+		Files.writeString(file.toPath(), String.join("\n", lines), StandardCharsets.UTF_8);
+
+		try (ActLogStream stream = EventReader.streamActLogFile(file)) {
+			Assert.assertNotNull(stream.next());
+			Assert.assertNotNull(stream.next());
+			// Seek while the old reader is still busy, over and over
+			for (int i = 0; i < 50; i++) {
+				ReplaySeekPoint pull = stream.getSeekPoints().get(1);
+				stream.seek(pull.index());
+				Assert.assertEquals(((ACTLogLineEvent) stream.next()).getLogLine(), commenceLine);
+				for (int j = 0; j < i * 100; j++) {
+					Assert.assertEquals(((ACTLogLineEvent) stream.next()).getLogLine(), lines.get(pull.index() + 1 + j));
+				}
+			}
+			Event event;
+			int index = stream.getSeekPoints().get(1).index();
+			stream.seek(index);
+			while ((event = stream.next()) != null) {
+				Assert.assertEquals(((ACTLogLineEvent) event).getLogLine(), lines.get(index++));
+			}
+			Assert.assertEquals(index, lines.size());
+			// Every seek point exactly once, in order
+			List<ReplaySeekPoint> seekPoints = stream.getSeekPoints();
+			Assert.assertEquals(seekPoints.size(), 6);
+			for (int i = 1; i < seekPoints.size(); i++) {
+				Assert.assertTrue(seekPoints.get(i).index() > seekPoints.get(i - 1).index());
+			}
+		}
+	}
+}
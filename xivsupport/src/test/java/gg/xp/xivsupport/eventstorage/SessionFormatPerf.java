@@ -0,0 +1,89 @@
+package gg.xp.xivsupport.eventstorage;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.xivsupport.events.ws.ActWsRawMsg;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the old Java serialization session format against {@link SessionFormat}: write time, file size, and load
+ * time.
+ */
+public class SessionFormatPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(SessionFormatPerf.class);
+	private static final int eventCount = 200_000;
+
+	private static List<Event> makeEvents(boolean compress) {
+		List<Event> events = new ArrayList<>(eventCount);
+		Instant start = Instant.parse("2022-10-01T20:00:00Z");
+		for (int i = 0; i < eventCount; i++) {
+			String rawLine = "21|2022-10-01T13:%02d:%02d.%03d0000-07:00|40016AA1|Tioca|4095|Tomahawk|4000031F|Chaos|710003|%X|0|0|0|0|0|0|0|0|0|0|0|0|0|0|1616940|1653124|10000|10000|0|1000|-0.01531982|-15.02197|0|1.171875|53508|53508|10000|10000|0|1000|0.3051758|-15.92511|0|-2.807617|00000C2F|0|a2f8d9ac4f0b4d44"
+					.formatted(i / 6000 % 60, i / 100 % 60, i % 1000, i * 31);
+			ActWsRawMsg event = new ActWsRawMsg("{\"type\":\"LogLine\",\"line\":[],\"rawLine\":\"" + rawLine + "\"}");
+			event.setPumpedAt(start.plusMillis(i * 10L));
+			// The old format was written after compressing events, the new one before
+			if (compress) {
+				event.compress();
+			}
+			events.add(event);
+		}
+		return events;
+	}
+
+	@Test
+	void compareFormats() throws IOException {
+		List<Event> compressedEvents = makeEvents(true);
+		List<Event> events = makeEvents(false);
+		File oldFile = File.createTempFile("SessionFormatPerf", ".session.oos.gz");
+		File newFile = File.createTempFile("SessionFormatPerf", SessionFormat.EXTENSION);
+		oldFile.deleteOnExit();
+		newFile.deleteOnExit();
+		for (int round = 1; round <= 3; round++) {
+			long before = System.currentTimeMillis();
+			try (ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(new FileOutputStream(oldFile)))) {
+				for (Event event : compressedEvents) {
+					oos.writeObject(event);
+				}
+			}
+			long oldWrite = System.currentTimeMillis() - before;
+
+			before = System.currentTimeMillis();
+			try (SessionWriter writer = new SessionWriter(newFile)) {
+				for (Event event : events) {
+					writer.write(event);
+				}
+			}
+			long newWrite = System.currentTimeMillis() - before;
+
+			before = System.currentTimeMillis();
+			int oldCount;
+			try (InputStream in = new FileInputStream(oldFile)) {
+				oldCount = EventReader.readEventsFromInputStream(in).size();
+			}
+			long oldRead = System.currentTimeMillis() - before;
+
+			before = System.currentTimeMillis();
+			int newCount = SessionReader.readAll(newFile).size();
+			long newRead = System.currentTimeMillis() - before;
+
+			Assert.assertEquals(oldCount, eventCount);
+			Assert.assertEquals(newCount, eventCount);
+			log.info("Round {}: {} events. OOS: write {}ms, {} bytes, load {}ms. Binary: write {}ms, {} bytes, load {}ms",
+					round, eventCount, oldWrite, oldFile.length(), oldRead, newWrite, newFile.length(), newRead);
+		}
+	}
+}
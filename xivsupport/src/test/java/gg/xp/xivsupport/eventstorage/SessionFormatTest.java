@@ -0,0 +1,119 @@
+package gg.xp.xivsupport.eventstorage;
+
+import gg.xp.reevent.events.Event;
+import gg.xp.xivsupport.events.ACTLogLineEvent;
+import gg.xp.xivsupport.events.ws.ActWsConnectionStatusChangedEvent;
+import gg.xp.xivsupport.events.ws.ActWsRawMsg;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SessionFormatTest {
+
+	private static final Instant start = Instant.parse("2022-10-01T20:00:00Z");
+
+	private static List<Event> makeEvents(int count) {
+		List<Event> events = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Event event;
+			if (i == 0) {
+				event = new ActWsConnectionStatusChangedEvent();
+			}
+			else if (i % 1000 == 0) {
+				event = new ACTLogLineEvent("00|2022-10-01T13:00:00.0000000-07:00|0039||The limit break gauge has been cleared.|" + i);
+			}
+			else {
+				event = new ActWsRawMsg("{\"type\":\"LogLine\",\"line\":[\"21\",\"%s\"],\"rawLine\":\"21|2022-10-01T13:00:00.0000000-07:00|%s\"}".formatted(i, i));
+			}
+			event.setPumpedAt(start.plusMillis(i * 10L));
+			events.add(event);
+		}
+		return events;
+	}
+
+	private static File writeEvents(List<Event> events, int blockSize) throws IOException {
+		File file = File.createTempFile("SessionFormatTest", SessionFormat.EXTENSION);
+		file.deleteOnExit();
+		try (SessionWriter writer = new SessionWriter(new FileOutputStream(file), blockSize)) {
+			for (Event event : events) {
+				writer.write(event);
+			}
+		}
+		return file;
+	}
+
+	private static void assertSameEvents(List<Event> actual, List<Event> expected) {
+		Assert.assertEquals(actual.size(), expected.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Event exp = expected.get(i);
+			Event act = actual.get(i);
+			Assert.assertEquals(act.getClass(), exp.getClass());
+			Assert.assertEquals(act.getPumpedAt(), exp.getPumpedAt());
+			Assert.assertTrue(act.isImported());
+			if (exp instanceof ActWsRawMsg raw) {
+				Assert.assertEquals(((ActWsRawMsg) act).getRawMsgData(), raw.getRawMsgData());
+			}
+			else if (exp instanceof ACTLogLineEvent line) {
+				Assert.assertEquals(((ACTLogLineEvent) act).getLogLine(), line.getLogLine());
+			}
+		}
+	}
+
+	@Test
+	void testRoundTrip() throws IOException {
+		List<Event> events = makeEvents(20_000);
+		File file = writeEvents(events, 16 * 1024);
+		Assert.assertTrue(SessionReader.isSessionFile(file));
+		List<SessionFormat.BlockInfo> index = SessionReader.readIndex(file);
+		Assert.assertTrue(index.size() > 10, "Expected several blocks, got " + index.size());
+		Assert.assertEquals(index.stream().mapToInt(SessionFormat.BlockInfo::recordCount).sum(), events.size());
+
+		assertSameEvents(SessionReader.readAll(file), events);
+		// Old entry points should detect the format
+		assertSameEvents(EventReader.readEventsFromFile(file), events);
+		try (InputStream in = new FileInputStream(file)) {
+			assertSameEvents(EventReader.readEventsFromInputStream(in), events);
+		}
+	}
+
+	@Test
+	void testReadFrom() throws IOException {
+		List<Event> events = makeEvents(20_000);
+		File file = writeEvents(events, 16 * 1024);
+		Instant seekTo = start.plusMillis(15_000 * 10L);
+		List<Event> fromMiddle = SessionReader.readFrom(file, seekTo);
+		Assert.assertTrue(fromMiddle.size() < events.size());
+		Assert.assertFalse(fromMiddle.get(0).getPumpedAt().isAfter(seekTo));
+		assertSameEvents(fromMiddle, events.subList(events.size() - fromMiddle.size(), events.size()));
+	}
+
+	@Test
+	void testTruncated() throws IOException {
+		List<Event> events = makeEvents(20_000);
+		File file = writeEvents(events, 16 * 1024);
+		// Simulate a crash - no index, and a partial last block
+		List<SessionFormat.BlockInfo> index = SessionReader.readIndex(file);
+		SessionFormat.BlockInfo lastFullBlock = index.get(index.size() - 2);
+		SessionFormat.BlockInfo partialBlock = index.get(index.size() - 1);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(partialBlock.offset() + 30);
+		}
+		int expectedCount = index.stream().limit(index.size() - 1).mapToInt(SessionFormat.BlockInfo::recordCount).sum();
+		List<Event> read = SessionReader.readAll(file);
+		Assert.assertEquals(read.size(), expectedCount);
+		assertSameEvents(read, events.subList(0, expectedCount));
+		Assert.assertEquals(SessionReader.readIndex(file).get(index.size() - 2), lastFullBlock);
+		try (InputStream in = new FileInputStream(file)) {
+			Assert.assertEquals(EventReader.readEventsFromInputStream(in).size(), expectedCount);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package gg.xp.xivsupport.groovy;
+
+import gg.xp.reevent.events.EventDistributor;
+import gg.xp.reevent.events.InitEvent;
+import gg.xp.xivdata.data.*;
+import gg.xp.xivsupport.events.actlines.events.AbilityUsedEvent;
+import gg.xp.xivsupport.models.HitPoints;
+import gg.xp.xivsupport.models.ManaPoints;
+import gg.xp.xivsupport.models.Position;
+import gg.xp.xivsupport.models.XivAbility;
+import gg.xp.xivsupport.models.XivPlayerCharacter;
+import gg.xp.xivsupport.models.XivWorld;
+import gg.xp.xivsupport.sys.XivMain;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.groovy.GroovySandbox;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.groovy.SandboxScope;
+import org.picocontainer.MutablePicoContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+/**
+ * Compares a typical easy trigger filter script with and without the sandbox.
+ */
+public class GroovySandboxPerf {
+
+	private static final Logger log = LoggerFactory.getLogger(GroovySandboxPerf.class);
+	private static final int iterations = 200_000;
+	private static final String filterScript = "event.abilityIdMatches(0x5EF8) && event.source.name.startsWith('Me') && event.target.job == Job.GNB && event.damage >= 0";
+
+	@Test
+	void compareSandboxedToPlain() {
+		MutablePicoContainer pico = XivMain.testingMasterInit();
+		pico.getComponent(EventDistributor.class).acceptEvent(new InitEvent());
+		GroovyManager mgr = pico.getComponent(GroovyManager.class);
+		GroovySandbox sbx = mgr.getSandbox();
+
+		XivAbility ability = new XivAbility(0x5EF8, "Foo Ability");
+		XivPlayerCharacter player = new XivPlayerCharacter(0x10000001, "Me, The Player", Job.GNB, XivWorld.of(), true, 1, new HitPoints(123, 123), ManaPoints.of(123, 123), new Position(0, 0, 0, 0), 0, 0, 1, 80, 0, 0);
+		XivPlayerCharacter otherCharInParty = new XivPlayerCharacter(0x10000002, "Someone Else In My Party", Job.GNB, XivWorld.of(), false, 1, new HitPoints(123, 123), ManaPoints.of(123, 123), new Position(0, 0, 0, 0), 0, 0, 1, 80, 0, 0);
+		AbilityUsedEvent event = new AbilityUsedEvent(ability, player, otherCharInParty, Collections.emptyList(), 12345, 0, 1);
+
+		Script sandboxed;
+		try (SandboxScope ignored = sbx.enter()) {
+			sandboxed = mgr.makeShell().parse(filterScript);
+		}
+		sandboxed.getBinding().setVariable("event", event);
+		// Same imports, but without the sandbox transformer
+		CompilerConfiguration plainConfig = new CompilerConfiguration();
+		plainConfig.addCompilationCustomizers(GroovyManager.getImportCustomizer());
+		Script plain = new GroovyShell(plainConfig).parse(filterScript);
+		plain.getBinding().setVariable("event", event);
+
+		for (int round = 0; round < 3; round++) {
+			long sandboxedNanos = timeIt(() -> {
+				try (SandboxScope ignored = sbx.enter()) {
+					Assert.assertEquals(sandboxed.run(), true);
+				}
+			});
+			long plainNanos = timeIt(() -> Assert.assertEquals(plain.run(), true));
+			log.info("Round {}: sandboxed {} runs/sec, plain {} runs/sec ({}x)", round,
+					(long) (iterations * 1e9 / sandboxedNanos),
+					(long) (iterations * 1e9 / plainNanos),
+					String.format("%.2f", (double) sandboxedNanos / plainNanos));
+		}
+	}
+
+	private static long timeIt(Runnable run) {
+		// Warm up
+		for (int i = 0; i < iterations / 10; i++) {
+			run.run();
+		}
+		long before = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			run.run();
+		}
+		return System.nanoTime() - before;
+	}
+}
@@ -0,0 +1,220 @@
+package gg.xp.xivsupport.sys;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.picocontainer.MutablePicoContainer;
+import org.picocontainer.PicoBuilder;
+import org.picocontainer.PicoContainer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class PicoBasedInstanceProviderTest {
+
+	public static class AlreadyThere {
+	}
+
+	public static class Leaf {
+	}
+
+	public static class Middle {
+		private final Leaf leaf;
+		private final AlreadyThere alreadyThere;
+
+		public Middle(Leaf leaf) {
+			this(leaf, null);
+		}
+
+		// Pico picks this one, since it has the most parameters
+		public Middle(Leaf leaf, AlreadyThere alreadyThere) {
+			this.leaf = leaf;
+			this.alreadyThere = alreadyThere;
+		}
+	}
+
+	public static class Top {
+		private final Middle middle;
+		private final Leaf leaf;
+
+		public Top(Middle middle, Leaf leaf) {
+			this.middle = middle;
+			this.leaf = leaf;
+		}
+	}
+
+	// Registered before the preload, but depends on something which is only added by it
+	public static class Existing {
+		private final Leaf leaf;
+
+		public Existing(Leaf leaf) {
+			this.leaf = leaf;
+		}
+	}
+
+	public interface SomeInterface {
+	}
+
+	public static class ImplOne implements SomeInterface {
+	}
+
+	public static class ImplTwo implements SomeInterface {
+	}
+
+	public static class NeedsInterface {
+		public NeedsInterface(SomeInterface dep) {
+		}
+	}
+
+	// Nothing declares a dependency on this, but UsesContainer looks it up
+	public static class LookedUp {
+	}
+
+	public static class UsesContainer {
+		private final Leaf leaf;
+		private final LookedUp lookedUp;
+		private final SlowToConstruct slow;
+
+		public UsesContainer(PicoContainer container) {
+			leaf = container.getComponent(Leaf.class);
+			lookedUp = container.getComponent(LookedUp.class);
+			slow = container.getComponent(SlowToConstruct.class);
+		}
+	}
+
+	public static class DependsOnUsesContainer {
+		private final UsesContainer usesContainer;
+
+		public DependsOnUsesContainer(UsesContainer usesContainer) {
+			this.usesContainer = usesContainer;
+		}
+	}
+
+	public static class SlowToConstruct {
+		public SlowToConstruct() {
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	// Not thread-safe, like most of what components register themselves with
+	public static class Registry {
+		private final List<Object> registered = new ArrayList<>();
+		private final CyclicBarrier bothRegistering = new CyclicBarrier(2);
+		private volatile boolean overlapped;
+
+		public void register(Object component) {
+			try {
+				// Only gets through if the other registration is running at the same time
+				bothRegistering.await(5, TimeUnit.SECONDS);
+				overlapped = true;
+			}
+			catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+				// Ran one at a time
+			}
+			synchronized (this) {
+				registered.add(component);
+			}
+		}
+	}
+
+	public static class RegistersOne {
+		public RegistersOne(Registry registry) {
+			registry.register(this);
+		}
+	}
+
+	public static class RegistersTwo {
+		public RegistersTwo(Registry registry) {
+			registry.register(this);
+		}
+	}
+
+	private static MutablePicoContainer makeContainer() {
+		MutablePicoContainer pico = new PicoBuilder()
+				.withCaching()
+				.withLifecycle()
+				.withAutomatic()
+				.build();
+		pico.addComponent(pico);
+		pico.addComponent(PicoBasedInstanceProvider.class);
+		pico.addComponent(new AlreadyThere());
+		pico.addComponent(Existing.class);
+		return pico;
+	}
+
+	@Test
+	void testParallelPreload() {
+		MutablePicoContainer pico = makeContainer();
+		PicoBasedInstanceProvider provider = pico.getComponent(PicoBasedInstanceProvider.class);
+		provider.setParallel(true);
+		provider.preloadAll(List.of(Top.class, Middle.class, Leaf.class, Existing.class));
+
+		Leaf leaf = pico.getComponent(Leaf.class);
+		Middle middle = pico.getComponent(Middle.class);
+		Top top = pico.getComponent(Top.class);
+		Assert.assertNotNull(leaf);
+		Assert.assertSame(provider.getInstance(Leaf.class), leaf);
+		Assert.assertSame(middle.leaf, leaf);
+		Assert.assertSame(middle.alreadyThere, pico.getComponent(AlreadyThere.class));
+		Assert.assertSame(top.middle, middle);
+		Assert.assertSame(top.leaf, leaf);
+		Assert.assertSame(pico.getComponent(Existing.class).leaf, leaf);
+	}
+
+	@Test
+	void testParallelPreloadWithContainerLookups() {
+		MutablePicoContainer pico = makeContainer();
+		PicoBasedInstanceProvider provider = pico.getComponent(PicoBasedInstanceProvider.class);
+		provider.setParallel(true);
+		provider.preloadAll(List.of(DependsOnUsesContainer.class, UsesContainer.class, SlowToConstruct.class, Leaf.class, LookedUp.class));
+
+		UsesContainer usesContainer = pico.getComponent(UsesContainer.class);
+		// None of these are declared dependencies, so they have to already be there (or be constructable by Pico) when
+		// the constructor runs.
+		Assert.assertSame(usesContainer.leaf, pico.getComponent(Leaf.class));
+		Assert.assertNotNull(usesContainer.lookedUp);
+		Assert.assertSame(usesContainer.lookedUp, pico.getComponent(LookedUp.class));
+		Assert.assertNotNull(usesContainer.slow);
+		Assert.assertSame(usesContainer.slow, pico.getComponent(SlowToConstruct.class));
+		Assert.assertSame(pico.getComponent(DependsOnUsesContainer.class).usesContainer, usesContainer);
+	}
+
+	@Test
+	void testFallsBackWhenAmbiguous() {
+		MutablePicoContainer pico = makeContainer();
+		PicoBasedInstanceProvider provider = pico.getComponent(PicoBasedInstanceProvider.class);
+		provider.setParallel(true);
+		provider.preloadAll(List.of(Leaf.class, ImplOne.class, ImplTwo.class));
+		Assert.assertNotNull(pico.getComponent(ImplOne.class));
+		Assert.assertNotNull(pico.getComponent(ImplTwo.class));
+		Assert.assertNotNull(pico.getComponent(Leaf.class));
+		// The dependency is ambiguous, so this falls back to letting Pico do it, which fails the same way it always has
+		Assert.assertThrows(() -> provider.preloadAll(List.of(NeedsInterface.class)));
+	}
+
+	@Test
+	void testSharedDependencyIsNotGuarded() {
+		MutablePicoContainer pico = makeContainer();
+		PicoBasedInstanceProvider provider = pico.getComponent(PicoBasedInstanceProvider.class);
+		provider.setParallel(true);
+		provider.preloadAll(List.of(Registry.class, RegistersOne.class, RegistersTwo.class));
+
+		Registry registry = pico.getComponent(Registry.class);
+		RegistersOne one = pico.getComponent(RegistersOne.class);
+		RegistersTwo two = pico.getComponent(RegistersTwo.class);
+		MatcherAssert.assertThat(registry.registered, Matchers.containsInAnyOrder(one, two));
+		// Both constructors were inside Registry.register at once. This is the documented limitation, so if this
+		// starts failing, the loader has started keeping them apart and the class doc should say so.
+		Assert.assertTrue(registry.overlapped);
+	}
+}